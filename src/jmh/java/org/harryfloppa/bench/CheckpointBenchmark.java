@@ -0,0 +1,119 @@
+package org.harryfloppa.bench;
+
+import org.harryfloppa.graph.dagsp.DAGShortestPath;
+import org.harryfloppa.graph.scc.TarjanSCC;
+import org.harryfloppa.util.PipelineCheckpoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Cost of checkpointing a pipeline stage: the SCC and shortest path stages
+ * computed bare, computed and saved (mapped write plus force to disk), and
+ * restored from a saved checkpoint.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckpointBenchmark {
+
+    /**
+     * A checkpoint directory emptied before every invocation, so every stage is computed and saved.
+     */
+    @State(Scope.Benchmark)
+    public static class Fresh {
+        Path directory;
+        PipelineCheckpoint checkpoint;
+
+        @Setup(Level.Trial)
+        public void createDirectory() throws IOException {
+            directory = Files.createTempDirectory("bench-ckpt-");
+        }
+
+        @Setup(Level.Invocation)
+        public void clear(GraphState state) throws IOException {
+            checkpoint = PipelineCheckpoint.open(directory, state.jsonFile.toPath(), false);
+        }
+
+        @TearDown(Level.Trial)
+        public void deleteDirectory() throws IOException {
+            delete(directory);
+        }
+    }
+
+    /**
+     * A checkpoint holding both stages, so every stage is restored.
+     */
+    @State(Scope.Benchmark)
+    public static class Saved {
+        Path directory;
+        PipelineCheckpoint checkpoint;
+
+        @Setup(Level.Trial)
+        public void save(GraphState state) throws IOException {
+            directory = Files.createTempDirectory("bench-ckpt-");
+            PipelineCheckpoint saving = PipelineCheckpoint.open(directory, state.jsonFile.toPath(), false);
+            saving.sccs(() -> new TarjanSCC(state.graph).findSCCs());
+            saving.shortestPaths(() -> new DAGShortestPath(state.dag).computeShortestPaths(state.source));
+            checkpoint = PipelineCheckpoint.open(directory, state.jsonFile.toPath(), true);
+        }
+
+        @TearDown(Level.Trial)
+        public void deleteDirectory() throws IOException {
+            delete(directory);
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public TarjanSCC.SCCResult tarjan(GraphState state) {
+        return new TarjanSCC(state.graph).findSCCs();
+    }
+
+    @Benchmark
+    public TarjanSCC.SCCResult tarjanSaved(GraphState state, Fresh fresh) throws IOException {
+        return fresh.checkpoint.sccs(() -> new TarjanSCC(state.graph).findSCCs());
+    }
+
+    @Benchmark
+    public TarjanSCC.SCCResult tarjanRestored(Saved saved) throws IOException {
+        return saved.checkpoint.sccs(() -> {
+            throw new IllegalStateException("Stage should have been restored");
+        });
+    }
+
+    @Benchmark
+    public DAGShortestPath.ShortestPathResult shortestPaths(GraphState state) {
+        return new DAGShortestPath(state.dag).computeShortestPaths(state.source);
+    }
+
+    @Benchmark
+    public DAGShortestPath.ShortestPathResult shortestPathsSaved(GraphState state, Fresh fresh) throws IOException {
+        return fresh.checkpoint.shortestPaths(() -> new DAGShortestPath(state.dag).computeShortestPaths(state.source));
+    }
+}
@@ -0,0 +1,105 @@
+package org.harryfloppa.bench;
+
+import org.harryfloppa.graph.AdjacencyGraph;
+import org.harryfloppa.graph.CompressedGraph;
+import org.harryfloppa.graph.Graph;
+import org.harryfloppa.graph.dagsp.DAGShortestPath;
+import org.harryfloppa.graph.scc.TarjanSCC;
+import org.harryfloppa.util.GraphBuilderSink;
+import org.harryfloppa.util.GraphGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Graph} ({@code List<List<Edge>>}) against {@link CompressedGraph} on
+ * the same input: a full neighbor sweep, DAG shortest paths and Tarjan.
+ * Setup prints the retained heap of each layout.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xss512m", "-Xmx4g"})
+public class CompressedGraphBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class LayoutState {
+        @Param({"1000000"})
+        public int vertices;
+
+        @Param({"4"})
+        public int avgDegree;
+
+        @Param({"LIST", "COMPRESSED"})
+        public String layout;
+
+        AdjacencyGraph dag;
+        AdjacencyGraph cyclic;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            long before = usedHeap();
+            dag = build(false);
+            long afterDag = usedHeap();
+            cyclic = build(true);
+            System.out.printf("%n%s layout: DAG %,d bytes, cyclic graph %,d bytes (%,d DAG edges)%n",
+                    layout, afterDag - before, usedHeap() - afterDag, dag.getEdgeCount());
+        }
+
+        private AdjacencyGraph build(boolean withCycles) throws IOException {
+            GraphBuilderSink sink = new GraphBuilderSink();
+            GraphGenerator generator = new GraphGenerator(42L).weights(1, 100);
+            if (withCycles) {
+                generator.plantedSCCs(vertices, GraphGenerator.SizeDistribution.FIXED, 16, 16, 0,
+                        avgDegree, 0.2, sink);
+            } else {
+                generator.layeredDag(vertices / 1000, 1000, avgDegree, 4, sink);
+            }
+            Graph graph = sink.getGraph();
+            return "COMPRESSED".equals(layout) ? CompressedGraph.of(graph) : graph;
+        }
+
+        private static long usedHeap() {
+            for (int i = 0; i < 3; i++) {
+                System.gc();
+            }
+            Runtime runtime = Runtime.getRuntime();
+            return runtime.totalMemory() - runtime.freeMemory();
+        }
+    }
+
+    @Benchmark
+    public long sweep(LayoutState state) {
+        AdjacencyGraph graph = state.dag;
+        long sum = 0;
+        for (int u = 0; u < graph.getVertexCount(); u++) {
+            for (AdjacencyGraph.NeighborIterator it = graph.neighbors(u); it.hasNext(); ) {
+                sum += it.next() + it.weight();
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public DAGShortestPath.ShortestPathResult shortestPaths(LayoutState state) {
+        return new DAGShortestPath(state.dag).computeShortestPaths(0);
+    }
+
+    @Benchmark
+    public TarjanSCC.SCCResult tarjan(LayoutState state) {
+        return new TarjanSCC(state.cyclic).findSCCs();
+    }
+}
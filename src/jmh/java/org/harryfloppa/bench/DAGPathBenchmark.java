@@ -0,0 +1,39 @@
+package org.harryfloppa.bench;
+
+import org.harryfloppa.graph.dagsp.DAGLongestPath;
+import org.harryfloppa.graph.dagsp.DAGShortestPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for single-source shortest/longest paths and the critical path.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss64m")
+public class DAGPathBenchmark {
+
+    @Benchmark
+    public DAGShortestPath.ShortestPathResult shortestPaths(GraphState state) {
+        return new DAGShortestPath(state.dag).computeShortestPaths(state.source);
+    }
+
+    @Benchmark
+    public DAGLongestPath.LongestPathResult longestPaths(GraphState state) {
+        return new DAGLongestPath(state.dag).computeLongestPaths(state.source);
+    }
+
+    @Benchmark
+    public DAGLongestPath.CriticalPathResult criticalPath(GraphState state) {
+        return new DAGLongestPath(state.dag).computeCriticalPath();
+    }
+}
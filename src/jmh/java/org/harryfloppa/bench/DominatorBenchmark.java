@@ -0,0 +1,43 @@
+package org.harryfloppa.bench;
+
+import org.harryfloppa.graph.dom.SemiNCADominators;
+import org.harryfloppa.graph.scc.TarjanSCC;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dominator and post-dominator trees against one Tarjan SCC pass, the
+ * other linear-time DFS over the same graph.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss64m")
+@State(Scope.Benchmark)
+public class DominatorBenchmark {
+
+    @Benchmark
+    public SemiNCADominators.DominatorTree dominators(GraphState state) {
+        return new SemiNCADominators(state.graph).computeFromSources();
+    }
+
+    @Benchmark
+    public SemiNCADominators.DominatorTree postDominators(GraphState state) {
+        return SemiNCADominators.postDominatorsToSinks(state.graph);
+    }
+
+    @Benchmark
+    public TarjanSCC.SCCResult tarjan(GraphState state) {
+        return new TarjanSCC(state.graph).findSCCs();
+    }
+}
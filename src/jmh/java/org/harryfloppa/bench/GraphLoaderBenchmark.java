@@ -0,0 +1,29 @@
+package org.harryfloppa.bench;
+
+import org.harryfloppa.util.GraphLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for parsing a graph from its JSON representation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss64m")
+public class GraphLoaderBenchmark {
+
+    @Benchmark
+    public GraphLoader.GraphData loadFromJSON(GraphState state) throws IOException {
+        return GraphLoader.loadFromJSON(state.jsonFile.getPath());
+    }
+}
@@ -0,0 +1,98 @@
+package org.harryfloppa.bench;
+
+import org.harryfloppa.graph.Graph;
+import org.harryfloppa.graph.scc.CondensationGraph;
+import org.harryfloppa.graph.scc.TarjanSCC;
+import org.harryfloppa.util.GraphBuilderSink;
+import org.harryfloppa.util.GraphGenerator;
+import org.harryfloppa.util.JsonEdgeWriter;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Shared benchmark input, parameterized by vertex count, average out-degree
+ * and SCC structure. Every derived artifact (SCC result, condensation, DAG,
+ * JSON file) is prepared once per trial so that benchmarks measure a single stage.
+ */
+@State(Scope.Benchmark)
+public class GraphState {
+
+    @Param({"1000", "10000"})
+    public int vertices;
+
+    @Param({"2", "8"})
+    public int avgDegree;
+
+    /**
+     * DAG: no cycles at all.
+     * SMALL_SCC: rings of 4 vertices chained acyclically.
+     * LARGE_SCC: ~sqrt(V) rings of ~sqrt(V) vertices.
+     */
+    @Param({"DAG", "SMALL_SCC", "LARGE_SCC"})
+    public String structure;
+
+    public Graph graph;
+    public TarjanSCC.SCCResult sccResult;
+    public CondensationGraph condensation;
+    /** The graph itself when acyclic, otherwise its condensation. */
+    public Graph dag;
+    public int source;
+    public File jsonFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        graph = buildGraph(vertices, avgDegree, structure, 42L);
+        sccResult = new TarjanSCC(graph).findSCCs();
+        condensation = new CondensationGraph(graph, sccResult);
+        dag = "DAG".equals(structure) ? graph : condensation.getCondensation();
+        source = 0;
+        jsonFile = File.createTempFile("bench-graph-", ".json");
+        writeJSON(graph, source, jsonFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (jsonFile != null) {
+            jsonFile.delete();
+        }
+    }
+
+    static Graph buildGraph(int n, int avgDegree, String structure, long seed) throws IOException {
+        int clusterSize;
+        switch (structure) {
+            case "DAG":
+                clusterSize = 1;
+                break;
+            case "SMALL_SCC":
+                clusterSize = 4;
+                break;
+            case "LARGE_SCC":
+                clusterSize = Math.max(2, (int) Math.sqrt(n));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown structure: " + structure);
+        }
+        GraphBuilderSink sink = new GraphBuilderSink();
+        new GraphGenerator(seed).plantedSCCs(n, GraphGenerator.SizeDistribution.FIXED,
+                clusterSize, clusterSize, 0, avgDegree, 0.2, sink);
+        return sink.getGraph();
+    }
+
+    static void writeJSON(Graph g, int source, File file) throws IOException {
+        try (JsonEdgeWriter out = new JsonEdgeWriter(file.getPath())) {
+            out.begin(g.getVertexCount(), true, source);
+            for (int u = 0; u < g.getVertexCount(); u++) {
+                for (Graph.Edge e : g.getAdjacent(u)) {
+                    out.edge(u, e.to, e.weight);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.harryfloppa.bench;
+
+import org.harryfloppa.graph.scc.CondensationGraph;
+import org.harryfloppa.graph.scc.IncrementalSCC;
+import org.harryfloppa.graph.scc.TarjanSCC;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of reacting to one new dependency: an incremental insert against a
+ * full Tarjan plus condensation rebuild. Each invocation inserts a fixed
+ * set of edges into a fresh structure; the edges point a few positions back
+ * in the topological order, so they reorder a small region or close a short
+ * cycle.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss64m")
+public class IncrementalSCCBenchmark {
+
+    @State(Scope.Thread)
+    public static class IncrementalState {
+        IncrementalSCC scc;
+        int[] from = new int[INSERTS];
+        int[] to = new int[INSERTS];
+
+        @Setup(Level.Trial)
+        public void pickEdges(GraphState input) {
+            List<Integer> order = new IncrementalSCC(input.graph).getTopologicalOrder();
+            SplittableRandom random = new SplittableRandom(7);
+            for (int e = 0; e < INSERTS; e++) {
+                int i = random.nextInt(order.size());
+                int j = Math.min(order.size() - 1, i + 1 + random.nextInt(16));
+                from[e] = order.get(j);
+                to[e] = order.get(i);
+            }
+        }
+
+        @Setup(Level.Invocation)
+        public void setUp(GraphState input) {
+            scc = new IncrementalSCC(input.graph);
+        }
+    }
+
+    private static final int INSERTS = 64;
+
+    @Benchmark
+    @OperationsPerInvocation(INSERTS)
+    public IncrementalSCC insertLocalEdges(IncrementalState state) {
+        for (int e = 0; e < INSERTS; e++) {
+            state.scc.addEdge(state.from[e], state.to[e], 1);
+        }
+        return state.scc;
+    }
+
+    @Benchmark
+    public CondensationGraph recomputeFromScratch(GraphState input) {
+        TarjanSCC.SCCResult result = new TarjanSCC(input.graph).findSCCs();
+        return new CondensationGraph(input.graph, result);
+    }
+}
@@ -0,0 +1,47 @@
+package org.harryfloppa.bench;
+
+import org.harryfloppa.graph.dagsp.DAGShortestPath;
+import org.harryfloppa.graph.dagsp.KBestPaths;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * K shortest paths to every vertex and the K most critical chains, against
+ * one single-path DP pass over the same DAG.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss64m")
+@State(Scope.Benchmark)
+public class KBestPathsBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int k;
+
+    @Benchmark
+    public DAGShortestPath.ShortestPathResult singlePathPass(GraphState state) {
+        return new DAGShortestPath(state.dag).computeShortestPaths(state.source);
+    }
+
+    @Benchmark
+    public KBestPaths.PathsResult kShortestPaths(GraphState state) {
+        return new KBestPaths(state.dag, k).computeShortestPaths(state.source);
+    }
+
+    @Benchmark
+    public KBestPaths.CriticalChainsResult kCriticalChains(GraphState state) {
+        return new KBestPaths(state.dag, k).computeCriticalChains();
+    }
+}
@@ -0,0 +1,56 @@
+package org.harryfloppa.bench;
+
+import org.harryfloppa.graph.dagsp.DAGLongestPath;
+import org.harryfloppa.graph.sched.ListScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One what-if schedule on a given number of workers, against the
+ * critical path alone, on the same DAG with random task durations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss64m")
+@State(Scope.Benchmark)
+public class ListSchedulerBenchmark {
+    @Param({"4", "64"})
+    public int workers;
+
+    private ListScheduler scheduler;
+
+    @Setup(Level.Trial)
+    public void setUp(GraphState state) {
+        Random random = new Random(7);
+        int[] durations = new int[state.dag.getVertexCount()];
+        for (int v = 0; v < durations.length; v++) {
+            durations[v] = 1 + random.nextInt(20);
+        }
+        scheduler = new ListScheduler(state.dag, durations, ListScheduler.Priority.CRITICAL_PATH);
+    }
+
+    @Benchmark
+    public ListScheduler.ScheduleResult schedule() {
+        return scheduler.schedule(workers);
+    }
+
+    @Benchmark
+    public DAGLongestPath.CriticalPathResult criticalPath(GraphState state) {
+        return new DAGLongestPath(state.dag).computeCriticalPath();
+    }
+}
@@ -0,0 +1,50 @@
+package org.harryfloppa.bench;
+
+import org.harryfloppa.graph.dagsp.DAGLongestPath;
+import org.harryfloppa.graph.dagsp.PertSimulation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one Monte Carlo PERT scenario (a batched, parallel longest-path
+ * sweep with sampled durations) against one point-estimate critical path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss64m")
+@State(Scope.Benchmark)
+public class PertSimulationBenchmark {
+    private static final int SCENARIOS = 1024;
+
+    private PertSimulation simulation;
+
+    @Setup(Level.Trial)
+    public void setUp(GraphState state) {
+        simulation = PertSimulation.withSpread(state.dag, 0.5, 2.0);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SCENARIOS)
+    public PertSimulation.PertResult simulatedScenario() {
+        return simulation.simulate(SCENARIOS, 1);
+    }
+
+    @Benchmark
+    public DAGLongestPath.CriticalPathResult pointEstimate(GraphState state) {
+        return new DAGLongestPath(state.dag).computeCriticalPath();
+    }
+}
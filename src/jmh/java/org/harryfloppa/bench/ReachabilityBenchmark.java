@@ -0,0 +1,92 @@
+package org.harryfloppa.bench;
+
+import org.harryfloppa.graph.reach.ReachabilityIndex;
+import org.harryfloppa.graph.reach.TransitiveClosure;
+import org.harryfloppa.graph.reach.TransitiveReduction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for building the reachability index, transitive closure and
+ * transitive reduction, and for answering random reachability queries.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss64m")
+public class ReachabilityBenchmark {
+    static final int QUERIES = 1024;
+
+    @State(Scope.Benchmark)
+    public static class IndexState {
+        ReachabilityIndex index;
+        int[] from;
+        int[] to;
+
+        @Setup(Level.Trial)
+        public void setUp(GraphState graph) {
+            index = new ReachabilityIndex(graph.condensation);
+            SplittableRandom random = new SplittableRandom(7);
+            from = new int[QUERIES];
+            to = new int[QUERIES];
+            for (int i = 0; i < QUERIES; i++) {
+                from[i] = random.nextInt(graph.vertices);
+                to[i] = random.nextInt(graph.vertices);
+            }
+        }
+    }
+
+    @Benchmark
+    public ReachabilityIndex build(GraphState state) {
+        return new ReachabilityIndex(state.condensation);
+    }
+
+    @Benchmark
+    public TransitiveClosure closureDense(GraphState state) {
+        return new TransitiveClosure(state.condensation, TransitiveClosure.Representation.DENSE,
+                ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public TransitiveClosure closureCompressed(GraphState state) {
+        return new TransitiveClosure(state.condensation, TransitiveClosure.Representation.COMPRESSED,
+                ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public TransitiveReduction.ReductionResult reduce(GraphState state) {
+        return new TransitiveReduction(state.condensation).reduce();
+    }
+
+    @Benchmark
+    public TransitiveReduction.ReductionResult reduceForLongestPaths(GraphState state) {
+        return new TransitiveReduction(state.condensation).reduceForLongestPaths();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int queries(IndexState state) {
+        int hits = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            if (state.index.reaches(state.from[i], state.to[i])) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,34 @@
+package org.harryfloppa.bench;
+
+import org.harryfloppa.graph.scc.CondensationGraph;
+import org.harryfloppa.graph.scc.TarjanSCC;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for Tarjan's SCC and the condensation graph construction.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss64m")
+public class SCCBenchmark {
+
+    @Benchmark
+    public TarjanSCC.SCCResult tarjan(GraphState state) {
+        return new TarjanSCC(state.graph).findSCCs();
+    }
+
+    @Benchmark
+    public CondensationGraph condensation(GraphState state) {
+        return new CondensationGraph(state.graph, state.sccResult);
+    }
+}
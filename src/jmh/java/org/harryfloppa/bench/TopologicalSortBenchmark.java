@@ -0,0 +1,28 @@
+package org.harryfloppa.bench;
+
+import org.harryfloppa.graph.topo.KahnTopologicalSort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for Kahn's topological sort on the (condensed) DAG.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss64m")
+public class TopologicalSortBenchmark {
+
+    @Benchmark
+    public KahnTopologicalSort.TopoSortResult kahn(GraphState state) {
+        return new KahnTopologicalSort(state.dag).sort();
+    }
+}
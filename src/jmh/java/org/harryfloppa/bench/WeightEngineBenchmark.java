@@ -0,0 +1,90 @@
+package org.harryfloppa.bench;
+
+import org.harryfloppa.graph.DoubleWeightedGraph;
+import org.harryfloppa.graph.FrozenGraph;
+import org.harryfloppa.graph.LongWeightedGraph;
+import org.harryfloppa.graph.dagsp.DAGLongestPath;
+import org.harryfloppa.graph.dagsp.DAGShortestPath;
+import org.harryfloppa.graph.dagsp.DoubleDAGPaths;
+import org.harryfloppa.graph.dagsp.LongDAGPaths;
+import org.harryfloppa.graph.topo.KahnTopologicalSort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The int, long and double path engines on the same DAG. Every engine gets
+ * its topological order up front, so only the relaxation sweep is measured;
+ * the int engine runs on a {@link FrozenGraph}, its fastest layout.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WeightEngineBenchmark {
+    private DAGShortestPath intShortest;
+    private DAGLongestPath intLongest;
+    private LongDAGPaths longPaths;
+    private DoubleDAGPaths doublePaths;
+
+    @Setup(Level.Trial)
+    public void setUp(GraphState state) {
+        FrozenGraph frozen = FrozenGraph.of(state.dag);
+        List<Integer> order = new KahnTopologicalSort(frozen).sort().getOrder();
+        intShortest = new DAGShortestPath(frozen, order);
+        intLongest = new DAGLongestPath(frozen, order);
+        longPaths = new LongDAGPaths(LongWeightedGraph.of(frozen));
+
+        DoubleWeightedGraph.Builder builder = new DoubleWeightedGraph.Builder(frozen.getVertexCount(), true);
+        LongWeightedGraph widened = LongWeightedGraph.of(frozen);
+        for (int u = 0; u < widened.getVertexCount(); u++) {
+            for (int e = widened.getOffset(u); e < widened.getOffset(u + 1); e++) {
+                builder.addEdge(u, widened.getTarget(e), widened.getWeight(e) / 4.0);
+            }
+        }
+        doublePaths = new DoubleDAGPaths(builder.build());
+    }
+
+    @Benchmark
+    public DAGShortestPath.ShortestPathResult intShortest(GraphState state) {
+        return intShortest.computeShortestPaths(state.source);
+    }
+
+    @Benchmark
+    public LongDAGPaths.PathResult longShortest(GraphState state) {
+        return longPaths.computeShortestPaths(state.source);
+    }
+
+    @Benchmark
+    public DoubleDAGPaths.PathResult doubleShortest(GraphState state) {
+        return doublePaths.computeShortestPaths(state.source);
+    }
+
+    @Benchmark
+    public DAGLongestPath.LongestPathResult intLongest(GraphState state) {
+        return intLongest.computeLongestPaths(state.source);
+    }
+
+    @Benchmark
+    public LongDAGPaths.PathResult longLongest(GraphState state) {
+        return longPaths.computeLongestPaths(state.source);
+    }
+
+    @Benchmark
+    public DoubleDAGPaths.PathResult doubleLongest(GraphState state) {
+        return doublePaths.computeLongestPaths(state.source);
+    }
+}
@@ -0,0 +1,200 @@
+package org.harryfloppa;
+
+import org.harryfloppa.util.GraphLoader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrent batch mode for {@link Main}.
+ *
+ * Files are loaded on an I/O pool and processed on a compute pool capped at
+ * the number of cores. Each file's report is buffered and reports are
+ * emitted in file-name order, so the output is identical to a sequential run.
+ * A {@link MemoryBudget} blocks the dispatcher before a load that would push
+ * the estimated resident graph memory over the configured limit, and a window
+ * of {@code ioThreads + computeThreads} files bounds how far dispatch may run
+ * ahead of the report being written, so one slow file cannot make the
+ * buffered reports behind it grow without limit.
+ */
+public class BatchProcessor {
+    /**
+     * Estimated peak heap bytes per byte of JSON input while a file is loaded
+     * and processed (raw text, parsed edges and per-stage arrays).
+     */
+    static final int BYTES_PER_INPUT_BYTE = 4;
+
+    private final int ioThreads;
+    private final int computeThreads;
+    private final MemoryBudget budget;
+    private final int window;
+
+    public BatchProcessor(int ioThreads, int computeThreads, long memoryBudgetBytes) {
+        this(ioThreads, computeThreads, memoryBudgetBytes, ioThreads + computeThreads);
+    }
+
+    /**
+     * {@code window} is the most files dispatched but not yet written out.
+     */
+    BatchProcessor(int ioThreads, int computeThreads, long memoryBudgetBytes, int window) {
+        if (ioThreads < 1 || computeThreads < 1) {
+            throw new IllegalArgumentException("Thread counts must be positive");
+        }
+        if (window < 1) {
+            throw new IllegalArgumentException("Dispatch window must be positive");
+        }
+        this.ioThreads = ioThreads;
+        this.computeThreads = computeThreads;
+        this.budget = new MemoryBudget(memoryBudgetBytes);
+        this.window = window;
+    }
+
+    /**
+     * Processes all {@code files} and writes their reports to {@code out} in list order.
+     *
+     * @return number of files processed
+     * @throws java.util.concurrent.CompletionException if dispatching a file failed
+     */
+    public int process(List<File> files, PrintStream out) throws InterruptedException {
+        ExecutorService ioPool = Executors.newFixedThreadPool(ioThreads, namedDaemon("batch-io"));
+        ExecutorService computePool = Executors.newFixedThreadPool(computeThreads, namedDaemon("batch-compute"));
+        List<CompletableFuture<String>> reports = new ArrayList<>(files.size());
+        Semaphore pending = new Semaphore(window);
+        CompletableFuture<Void> dispatched = new CompletableFuture<>();
+
+        // Dispatch on a separate thread so that reports can be emitted while later files wait for budget
+        Thread dispatcher = new Thread(() -> {
+            try {
+                for (File file : files) {
+                    pending.acquire();
+                    long estimate = file.length() * BYTES_PER_INPUT_BYTE;
+                    long reserved = budget.acquire(estimate);
+                    CompletableFuture<String> report = CompletableFuture
+                            .supplyAsync(() -> load(file), ioPool)
+                            .thenApplyAsync(loaded -> render(file, loaded), computePool);
+                    report.whenComplete((r, t) -> budget.release(reserved));
+                    synchronized (reports) {
+                        reports.add(report);
+                        reports.notifyAll();
+                    }
+                }
+                dispatched.complete(null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException | Error e) {
+                synchronized (reports) {
+                    dispatched.completeExceptionally(e);
+                    reports.notifyAll();
+                }
+            }
+        }, "batch-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                CompletableFuture<String> report;
+                synchronized (reports) {
+                    while (reports.size() <= i) {
+                        if (dispatched.isCompletedExceptionally()) {
+                            dispatched.join();
+                        }
+                        reports.wait();
+                    }
+                    report = reports.get(i);
+                }
+                try {
+                    out.print(report.get());
+                } catch (ExecutionException e) {
+                    out.println("Error processing file " + files.get(i).getPath() + ": " + e.getCause());
+                    e.getCause().printStackTrace(out);
+                }
+                out.flush();
+                pending.release();
+            }
+        } finally {
+            dispatcher.interrupt();
+            ioPool.shutdownNow();
+            computePool.shutdownNow();
+        }
+        return files.size();
+    }
+
+    private static Object load(File file) {
+        try {
+            return GraphLoader.loadFromJSON(file.getPath());
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    private static String render(File file, Object loaded) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (PrintStream report = new PrintStream(buffer, false, StandardCharsets.UTF_8)) {
+            if (loaded instanceof GraphLoader.GraphData) {
+                Main.processGraph(file.getPath(), (GraphLoader.GraphData) loaded, report, report);
+            } else {
+                Exception e = (Exception) loaded;
+                Main.printHeader(file.getPath(), report);
+                report.println("Error processing file " + file.getPath() + ": " + e.getMessage());
+                e.printStackTrace(report);
+            }
+        }
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+
+    private static ThreadFactory namedDaemon(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * Counting byte budget. A single request larger than the whole budget is
+     * clamped to it, so an oversized file still runs, but alone.
+     */
+    static class MemoryBudget {
+        private final long capacity;
+        private long available;
+
+        MemoryBudget(long capacity) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("Memory budget must be positive");
+            }
+            this.capacity = capacity;
+            this.available = capacity;
+        }
+
+        synchronized long acquire(long bytes) throws InterruptedException {
+            long amount = Math.max(1, Math.min(bytes, capacity));
+            while (available < amount) {
+                wait();
+            }
+            available -= amount;
+            return amount;
+        }
+
+        synchronized void release(long amount) {
+            available += amount;
+            notifyAll();
+        }
+
+        synchronized long available() {
+            return available;
+        }
+    }
+}
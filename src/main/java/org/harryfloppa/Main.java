@@ -3,15 +3,35 @@ package org.harryfloppa;
 import org.harryfloppa.graph.Graph;
 import org.harryfloppa.graph.dagsp.DAGLongestPath;
 import org.harryfloppa.graph.dagsp.DAGShortestPath;
+import org.harryfloppa.graph.external.ExternalDAGPaths;
+import org.harryfloppa.graph.external.ExternalGraph;
+import org.harryfloppa.graph.external.ExternalTopologicalSort;
+import org.harryfloppa.graph.external.SemiExternalSCC;
 import org.harryfloppa.graph.scc.CondensationGraph;
 import org.harryfloppa.graph.scc.TarjanSCC;
+import org.harryfloppa.graph.shard.ShardedPipeline;
 import org.harryfloppa.graph.topo.KahnTopologicalSort;
+import org.harryfloppa.server.PreparedGraph;
+import org.harryfloppa.server.QueryServer;
 import org.harryfloppa.util.GraphLoader;
+import org.harryfloppa.util.PipelineCheckpoint;
+import org.harryfloppa.util.ResultWriter;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class Main {
+    /** Graphs above this size are reported as aggregates instead of per-vertex listings. */
+    static final int FULL_DETAIL_VERTEX_LIMIT = 1000;
+    private static final int SUMMARY_PREVIEW = 10;
+
     
     public static void main(String[] args) {
         System.out.println("=".repeat(80));
@@ -20,7 +40,17 @@ public class Main {
         System.out.println("=".repeat(80));
         System.out.println();
 
-        if (args.length > 0) {
+        if (args.length > 0 && args[0].equals("--batch")) {
+            runBatch(args);
+        } else if (args.length > 0 && args[0].equals("--external")) {
+            runExternal(args);
+        } else if (args.length > 0 && args[0].equals("--sharded")) {
+            runSharded(args);
+        } else if (args.length > 0 && args[0].equals("--checkpoint")) {
+            runCheckpointed(args);
+        } else if (args.length > 0 && args[0].equals("--serve")) {
+            runServer(args);
+        } else if (args.length > 0) {
             processFile(args[0]);
         } else {
             processFile("tasks.json");
@@ -32,114 +62,462 @@ public class Main {
         }
     }
 
-    private static void processFile(String filename) {
-        System.out.println("\n" + "-".repeat(80));
-        System.out.println("Processing: " + filename);
-        System.out.println("-".repeat(80));
+    public static void processFile(String filename) {
+        processFile(filename, System.out, System.err);
+    }
+
+    /**
+     * Loads and processes one file, writing the report to {@code out}.
+     */
+    public static void processFile(String filename, PrintStream out, PrintStream err) {
+        processFile(filename, out, err, PipelineCheckpoint.disabled());
+    }
+
+    /**
+     * Same, restoring completed stages from {@code checkpoint} and saving the others to it.
+     */
+    public static void processFile(String filename, PrintStream out, PrintStream err, PipelineCheckpoint checkpoint) {
+        GraphLoader.GraphData data;
+        try {
+            data = checkpoint.has(PipelineCheckpoint.GRAPH) ? checkpoint.loadGraph()
+                    : checkpoint.saveGraph(GraphLoader.loadFromJSON(filename));
+        } catch (Exception e) {
+            printHeader(filename, out);
+            err.println("Error processing file " + filename + ": " + e.getMessage());
+            e.printStackTrace(err);
+            return;
+        }
+        processGraph(filename, data, out, err, checkpoint);
+    }
+
+    /**
+     * Runs the whole pipeline on an already loaded graph, writing the report to {@code out}.
+     */
+    public static void processGraph(String filename, GraphLoader.GraphData data, PrintStream out, PrintStream err) {
+        processGraph(filename, data, out, err, PipelineCheckpoint.disabled());
+    }
+
+    private static void processGraph(String filename, GraphLoader.GraphData data, PrintStream out, PrintStream err,
+                                     PipelineCheckpoint checkpoint) {
+        printHeader(filename, out);
         
         try {
-            // Load graph from JSON
-            GraphLoader.GraphData data = GraphLoader.loadFromJSON(filename);
             Graph graph = data.getGraph();
             int source = data.getSource();
+            ResultWriter.Detail detail = graph.getVertexCount() <= FULL_DETAIL_VERTEX_LIMIT
+                    ? ResultWriter.Detail.FULL : ResultWriter.Detail.SUMMARY;
+            // Not closed: closing would close the caller's stream
+            ResultWriter results = ResultWriter.text(new OutputStreamWriter(out, StandardCharsets.UTF_8), detail);
             
-            System.out.println("Graph loaded successfully:");
-            System.out.println("  Vertices: " + graph.getVertexCount());
-            System.out.println("  Edges: " + graph.getEdgeCount());
-            System.out.println("  Source vertex: " + source);
-            System.out.println("  Weight model: " + data.getWeightModel());
-            System.out.println();
+            out.println("Graph loaded successfully:");
+            out.println("  Vertices: " + graph.getVertexCount());
+            out.println("  Edges: " + graph.getEdgeCount());
+            out.println("  Source vertex: " + source);
+            out.println("  Weight model: " + data.getWeightModel());
+            out.println();
             
             // 1. Find Strongly Connected Components
-            System.out.println("1. STRONGLY CONNECTED COMPONENTS (Tarjan's Algorithm)");
-            System.out.println("-".repeat(80));
-            TarjanSCC sccFinder = new TarjanSCC(graph);
-            TarjanSCC.SCCResult sccResult = sccFinder.findSCCs();
-            System.out.println(sccResult);
+            out.println("1. STRONGLY CONNECTED COMPONENTS (Tarjan's Algorithm)");
+            out.println("-".repeat(80));
+            TarjanSCC.SCCResult sccResult = checkpoint.sccs(() -> new TarjanSCC(graph).findSCCs());
+            results.writeSCCs(sccResult);
+            results.flush();
+            out.println();
             
             // 2. Build Condensation Graph
-            System.out.println("\n2. CONDENSATION GRAPH");
-            System.out.println("-".repeat(80));
+            out.println("\n2. CONDENSATION GRAPH");
+            out.println("-".repeat(80));
             CondensationGraph condensation = new CondensationGraph(graph, sccResult);
-            System.out.println(condensation);
+            results.writeCondensation(condensation);
+            results.flush();
+            out.println();
             
             // 3. Topological Sort on Condensation
-            System.out.println("\n3. TOPOLOGICAL SORT (Kahn's Algorithm)");
-            System.out.println("-".repeat(80));
+            out.println("\n3. TOPOLOGICAL SORT (Kahn's Algorithm)");
+            out.println("-".repeat(80));
             Graph condensationDAG = condensation.getCondensation();
-            KahnTopologicalSort topoSort = new KahnTopologicalSort(condensationDAG);
-            KahnTopologicalSort.TopoSortResult topoResult = topoSort.sort();
-            System.out.println(topoResult);
+            KahnTopologicalSort.TopoSortResult topoResult = checkpoint.topologicalOrder(
+                    () -> new KahnTopologicalSort(condensationDAG).sort());
+            results.writeTopologicalOrder(topoResult);
+            results.flush();
+            out.println();
             
             // Create task order from topo order of SCCs
-            System.out.println("Original task order (by SCC):");
+            out.println("Original task order (by SCC):");
             List<Integer> topoOrder = topoResult.getOrder();
             List<List<Integer>> sccs = sccResult.getSCCs();
-            for (int sccIndex : topoOrder) {
-                System.out.println("  SCC " + sccIndex + ": " + sccs.get(sccIndex));
+            int shown = detail == ResultWriter.Detail.SUMMARY
+                    ? Math.min(SUMMARY_PREVIEW, topoOrder.size()) : topoOrder.size();
+            for (int i = 0; i < shown; i++) {
+                int sccIndex = topoOrder.get(i);
+                out.println("  SCC " + sccIndex + ": " + sccs.get(sccIndex));
             }
-            System.out.println();
+            if (shown < topoOrder.size()) {
+                out.println("  ... (" + (topoOrder.size() - shown) + " more components)");
+            }
+            out.println();
             
             // 4. Shortest Paths on DAG (if it's a DAG)
             if (sccResult.getComponentCount() == graph.getVertexCount()) {
-                System.out.println("\n4. SHORTEST PATHS IN DAG");
-                System.out.println("-".repeat(80));
+                out.println("\n4. SHORTEST PATHS IN DAG");
+                out.println("-".repeat(80));
                 try {
-                    DAGShortestPath shortestPath = new DAGShortestPath(graph);
-                    DAGShortestPath.ShortestPathResult spResult = shortestPath.computeShortestPaths(source);
-                    System.out.println(spResult);
+                    DAGShortestPath shortestPath = new DAGShortestPath(graph, data.getNodeWeights());
+                    DAGShortestPath.ShortestPathResult spResult = checkpoint.shortestPaths(
+                            () -> shortestPath.computeShortestPaths(source));
+                    results.writeShortestPaths(spResult);
+                    results.flush();
+                    out.println();
                 } catch (IllegalArgumentException e) {
-                    System.out.println("Graph contains cycles - cannot compute DAG shortest paths on original graph.");
-                    System.out.println("Computing on condensation DAG instead...\n");
-                    computeDAGPaths(condensationDAG, 0);
+                    out.println("Graph contains cycles - cannot compute DAG shortest paths on original graph.");
+                    out.println("Computing on condensation DAG instead...\n");
+                    computeDAGPaths(condensationDAG, 0, componentCosts(condensation, data, out), results, checkpoint,
+                            out, err);
                 }
             } else {
-                System.out.println("\n4. SHORTEST PATHS (on Condensation DAG)");
-                System.out.println("-".repeat(80));
-                System.out.println("Original graph has cycles. Computing paths on condensation DAG...\n");
-                computeDAGPaths(condensationDAG, 0);
+                out.println("\n4. SHORTEST PATHS (on Condensation DAG)");
+                out.println("-".repeat(80));
+                out.println("Original graph has cycles. Computing paths on condensation DAG...\n");
+                computeDAGPaths(condensationDAG, 0, componentCosts(condensation, data, out), results, checkpoint,
+                            out, err);
             }
             
         } catch (Exception e) {
-            System.err.println("Error processing file " + filename + ": " + e.getMessage());
-            e.printStackTrace();
+            err.println("Error processing file " + filename + ": " + e.getMessage());
+            e.printStackTrace(err);
         }
     }
 
-    private static void computeDAGPaths(Graph dag, int source) {
+    static void printHeader(String filename, PrintStream out) {
+        out.println("\n" + "-".repeat(80));
+        out.println("Processing: " + filename);
+        out.println("-".repeat(80));
+    }
+
+    /**
+     * Node weights of the condensation under the node weight model (the sum
+     * over each component's members), or null for edge weights only.
+     */
+    private static int[] componentCosts(CondensationGraph condensation, GraphLoader.GraphData data, PrintStream out) {
+        if (data.getNodeWeights() == null) {
+            return null;
+        }
+        int[] costs = condensation.getComponentCosts(data.getNodeWeights(), CondensationGraph.CostAggregation.SUM);
+        out.println("Component costs (sum of node weights) are used as node weights of the condensation.\n");
+        return costs;
+    }
+
+    private static void computeDAGPaths(Graph dag, int source, int[] nodeWeights, ResultWriter results,
+                                        PipelineCheckpoint checkpoint, PrintStream out, PrintStream err) {
         try {
             // Shortest paths
-            DAGShortestPath shortestPath = new DAGShortestPath(dag);
-            DAGShortestPath.ShortestPathResult spResult = shortestPath.computeShortestPaths(source);
-            System.out.println(spResult);
+            DAGShortestPath shortestPath = new DAGShortestPath(dag, nodeWeights);
+            DAGShortestPath.ShortestPathResult spResult = checkpoint.shortestPaths(
+                    () -> shortestPath.computeShortestPaths(source));
+            results.writeShortestPaths(spResult);
+            results.flush();
+            out.println();
             
             // Longest paths
-            System.out.println("\n5. LONGEST PATHS IN DAG (Critical Path)");
-            System.out.println("-".repeat(80));
-            DAGLongestPath longestPath = new DAGLongestPath(dag);
-            DAGLongestPath.CriticalPathResult cpResult = longestPath.computeCriticalPath();
-            System.out.println(cpResult);
+            out.println("\n5. LONGEST PATHS IN DAG (Critical Path)");
+            out.println("-".repeat(80));
+            DAGLongestPath longestPath = new DAGLongestPath(dag, nodeWeights);
+            DAGLongestPath.CriticalPathResult cpResult = checkpoint.criticalPath(longestPath::computeCriticalPath);
+            results.writeCriticalPath(cpResult);
+            results.flush();
+            out.println();
             
             // Also show longest paths from source
-            DAGLongestPath.LongestPathResult lpResult = longestPath.computeLongestPaths(source);
-            System.out.println("Longest paths from source " + source + ":");
-            System.out.println(lpResult);
+            DAGLongestPath.LongestPathResult lpResult = checkpoint.longestPaths(
+                    () -> longestPath.computeLongestPaths(source));
+            out.println("Longest paths from source " + source + ":");
+            results.writeLongestPaths(lpResult);
+            results.flush();
+            out.println();
             
         } catch (Exception e) {
-            System.err.println("Error computing DAG paths: " + e.getMessage());
+            err.println("Error computing DAG paths: " + e.getMessage());
         }
     }
 
-    private static void processDataDirectory() {
-        File dataDir = new File("data");
+    /**
+     * Usage: --batch [dir] [--io-threads=N] [--threads=N] [--memory-mb=M]
+     */
+    private static void runBatch(String[] args) {
+        String dir = "data";
+        int cores = Runtime.getRuntime().availableProcessors();
+        int ioThreads = 2 * cores;
+        int computeThreads = cores;
+        long memoryBudget = Runtime.getRuntime().maxMemory() / 2;
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--io-threads=")) {
+                ioThreads = Integer.parseInt(arg.substring("--io-threads=".length()));
+            } else if (arg.startsWith("--threads=")) {
+                computeThreads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (arg.startsWith("--memory-mb=")) {
+                memoryBudget = Long.parseLong(arg.substring("--memory-mb=".length())) * 1024 * 1024;
+            } else {
+                dir = arg;
+            }
+        }
+
+        File[] files = listJSONFiles(new File(dir));
+        if (files == null) {
+            return;
+        }
+        try {
+            int processed = new BatchProcessor(ioThreads, computeThreads, memoryBudget)
+                    .process(Arrays.asList(files), System.out);
+            System.out.println("\n" + "=".repeat(80));
+            System.out.println("Batch processing complete. Processed " + processed + " datasets.");
+            System.out.println("=".repeat(80));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Batch processing interrupted");
+        }
+    }
+
+    /**
+     * Usage: --external file.bin [--memory-mb=M] [--temp-dir=D]
+     * Topological sort and DAG paths over a binary edge file, out of core.
+     */
+    private static void runExternal(String[] args) {
+        String file = null;
+        long memoryBudget = ExternalGraph.DEFAULT_MEMORY_BUDGET;
+        String tempDir = System.getProperty("java.io.tmpdir");
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--memory-mb=")) {
+                memoryBudget = Long.parseLong(arg.substring("--memory-mb=".length())) * 1024 * 1024;
+            } else if (arg.startsWith("--temp-dir=")) {
+                tempDir = arg.substring("--temp-dir=".length());
+            } else {
+                file = arg;
+            }
+        }
+        if (file == null) {
+            System.err.println("Usage: --external file.bin [--memory-mb=M] [--temp-dir=D]");
+            return;
+        }
+
+        printHeader(file, System.out);
+        try (ExternalGraph graph = new ExternalGraph(Paths.get(file), Paths.get(tempDir), memoryBudget);
+             ExternalDAGPaths paths = new ExternalDAGPaths(graph)) {
+            int source = graph.getSource();
+            System.out.println("Graph: " + graph.getVertexCount() + " vertices, " + graph.getEdgeCount()
+                    + " edges, memory budget " + (memoryBudget >> 20) + " MiB");
+            System.out.println();
+
+            System.out.println("1. TOPOLOGICAL SORT (external Kahn)");
+            System.out.println("-".repeat(80));
+            try (ExternalTopologicalSort.TopoSortResult topo = new ExternalTopologicalSort(graph).sort()) {
+                System.out.println(topo);
+                if (topo.hasCycle()) {
+                    printExternalSCCs(graph);
+                    return;
+                }
+            }
+
+            System.out.println("2. SHORTEST PATHS FROM SOURCE " + source);
+            System.out.println("-".repeat(80));
+            try (ExternalDAGPaths.PathResult shortest = paths.computeShortestPaths(source)) {
+                printReachability(graph.getVertexCount(), shortest);
+                System.out.println(shortest.getMetrics().getReport());
+            }
+
+            System.out.println("3. LONGEST PATHS FROM SOURCE " + source);
+            System.out.println("-".repeat(80));
+            try (ExternalDAGPaths.PathResult longest = paths.computeLongestPaths(source)) {
+                printReachability(graph.getVertexCount(), longest);
+                System.out.println(longest.getMetrics().getReport());
+            }
+
+            System.out.println("4. CRITICAL PATH");
+            System.out.println("-".repeat(80));
+            DAGLongestPath.CriticalPathResult critical = paths.computeCriticalPath();
+            List<Integer> path = critical.getPath();
+            System.out.println("Length: " + critical.getLength() + ", " + path.size() + " vertices");
+            System.out.println("Path: " + (path.size() <= SUMMARY_PREVIEW ? path
+                    : path.subList(0, SUMMARY_PREVIEW) + " ... (" + (path.size() - SUMMARY_PREVIEW) + " more)"));
+            System.out.println();
+            System.out.println("Edge sorts: " + graph.getMetrics().getCounters());
+            System.out.println("Path preparation (rank relabeling):");
+            System.out.println(paths.getPreparationMetrics().getReport());
+        } catch (Exception e) {
+            System.err.println("Error processing file " + file + ": " + e.getMessage());
+            e.printStackTrace(System.err);
+        }
+    }
+
+    /**
+     * Usage: --checkpoint file.json [--dir=D] [--resume]
+     * Runs the pipeline saving each completed stage to D (default file.json.ckpt);
+     * with --resume, completed stages of an earlier run on the same file are restored.
+     */
+    private static void runCheckpointed(String[] args) {
+        String file = null;
+        String dir = null;
+        boolean resume = false;
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--dir=")) {
+                dir = arg.substring("--dir=".length());
+            } else if (arg.equals("--resume")) {
+                resume = true;
+            } else {
+                file = arg;
+            }
+        }
+        if (file == null) {
+            System.err.println("Usage: --checkpoint file.json [--dir=D] [--resume]");
+            return;
+        }
+
+        PipelineCheckpoint checkpoint;
+        try {
+            checkpoint = PipelineCheckpoint.open(Paths.get(dir != null ? dir : file + ".ckpt"), Paths.get(file),
+                    resume);
+        } catch (IOException e) {
+            printHeader(file, System.out);
+            System.err.println("Error opening checkpoint for " + file + ": " + e.getMessage());
+            return;
+        }
+        processFile(file, System.out, System.err, checkpoint);
+        System.out.println("Checkpoint (" + String.format("%.3f", checkpoint.getSaveNanos() / 1e6)
+                + " ms saving): " + checkpoint.getMetrics().getCounters());
+    }
+
+    /**
+     * Usage: --sharded file.bin [--shards=N] [--threads]
+     * SCCs, condensation and DAG paths computed by N worker processes (or threads).
+     */
+    private static void runSharded(String[] args) {
+        String file = null;
+        int shards = Runtime.getRuntime().availableProcessors();
+        ShardedPipeline.Launch launch = ShardedPipeline.Launch.PROCESS;
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--shards=")) {
+                shards = Integer.parseInt(arg.substring("--shards=".length()));
+            } else if (arg.equals("--threads")) {
+                launch = ShardedPipeline.Launch.THREAD;
+            } else {
+                file = arg;
+            }
+        }
+        if (file == null) {
+            System.err.println("Usage: --sharded file.bin [--shards=N] [--threads]");
+            return;
+        }
+
+        printHeader(file, System.out);
+        try {
+            ShardedPipeline.ShardedResult result = new ShardedPipeline(shards, launch).run(Paths.get(file));
+            System.out.println(result);
+            if (result.getShortestPaths() != null) {
+                System.out.println("SHORTEST PATHS ON THE CONDENSATION");
+                System.out.println("-".repeat(80));
+                System.out.println(result.getShortestPaths().getMetrics().getReport());
+                System.out.println("LONGEST PATHS ON THE CONDENSATION");
+                System.out.println("-".repeat(80));
+                System.out.println(result.getLongestPaths().getMetrics().getReport());
+            }
+        } catch (Exception e) {
+            System.err.println("Error processing file " + file + ": " + e.getMessage());
+            e.printStackTrace(System.err);
+        }
+    }
+
+    /**
+     * Usage: --serve [--port=P] [--threads=N] [--cache-mb=M] file...
+     * Loads each file as a graph named after it and serves queries until the process is stopped.
+     */
+    private static void runServer(String[] args) {
+        int port = 8080;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long cacheBytes = PreparedGraph.DEFAULT_CACHE_BYTES;
+        List<String> files = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--port=")) {
+                port = Integer.parseInt(arg.substring("--port=".length()));
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (arg.startsWith("--cache-mb=")) {
+                cacheBytes = Long.parseLong(arg.substring("--cache-mb=".length())) * 1024 * 1024;
+            } else {
+                files.add(arg);
+            }
+        }
+        if (files.isEmpty()) {
+            System.err.println("Usage: --serve [--port=P] [--threads=N] [--cache-mb=M] file...");
+            return;
+        }
+
+        try {
+            QueryServer server = new QueryServer(port, threads);
+            for (String file : files) {
+                String name = Paths.get(file).getFileName().toString().replaceFirst("\\.[^.]*$", "");
+                PreparedGraph graph = PreparedGraph.load(name, Paths.get(file), cacheBytes);
+                server.register(graph);
+                System.out.println("Loaded " + name + ": " + graph.getGraph().getVertexCount() + " vertices, "
+                        + graph.getGraph().getEdgeCount() + " edges, " + graph.getSCCs().getComponentCount()
+                        + " components (" + String.format("%.3f", graph.getMetrics().getElapsedTimeMillis()) + " ms)");
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+            server.start();
+            System.out.println("Serving " + files.size() + " graphs on http://127.0.0.1:" + server.getPort() + "/");
+        } catch (Exception e) {
+            System.err.println("Error starting server: " + e.getMessage());
+            e.printStackTrace(System.err);
+        }
+    }
+
+    private static void printExternalSCCs(ExternalGraph graph) throws IOException {
+        System.out.println("STRONGLY CONNECTED COMPONENTS (semi-external)");
+        System.out.println("-".repeat(80));
+        TarjanSCC.SCCResult sccs = new SemiExternalSCC(graph).findSCCs();
+        int largest = 0;
+        for (List<Integer> scc : sccs.getSCCs()) {
+            largest = Math.max(largest, scc.size());
+        }
+        System.out.println("Components: " + sccs.getComponentCount() + ", largest " + largest + " vertices");
+        System.out.println(sccs.getMetrics().getReport());
+    }
+
+    private static void printReachability(int n, ExternalDAGPaths.PathResult result) {
+        long reachable = 0;
+        for (int v = 0; v < n; v++) {
+            if (result.isReachable(v)) {
+                reachable++;
+            }
+        }
+        System.out.println("Reachable vertices: " + reachable + " of " + n);
+    }
+
+    /**
+     * Lists the JSON files of a directory in name order, or returns null after
+     * printing why there is nothing to process.
+     */
+    private static File[] listJSONFiles(File dataDir) {
         if (!dataDir.exists() || !dataDir.isDirectory()) {
             System.out.println("Data directory not found. Skipping batch processing.");
-            return;
+            return null;
         }
         
         File[] files = dataDir.listFiles((dir, name) -> name.endsWith(".json"));
         if (files == null || files.length == 0) {
             System.out.println("No JSON files found in data directory.");
+            return null;
+        }
+        Arrays.sort(files);
+        return files;
+    }
+
+    private static void processDataDirectory() {
+        File[] files = listJSONFiles(new File("data"));
+        if (files == null) {
             return;
         }
         
@@ -1,12 +1,16 @@
 package org.harryfloppa.common;
 
+import java.util.Map;
+
 public interface Metrics {
     void startTiming();
     void stopTiming();
     long getElapsedTimeNanos();
     double getElapsedTimeMillis();
     void incrementCounter(String counterName);
+    void addToCounter(String counterName, long delta);
     long getCounter(String counterName);
+    Map<String, Long> getCounters();
     void reset();
     String getReport();
 }
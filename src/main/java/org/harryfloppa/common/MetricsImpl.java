@@ -2,6 +2,7 @@ package org.harryfloppa.common;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 
 
 public class MetricsImpl implements Metrics {
@@ -39,11 +40,21 @@ public class MetricsImpl implements Metrics {
         counters.put(counterName, counters.getOrDefault(counterName, 0L) + 1);
     }
     
+    @Override
+    public void addToCounter(String counterName, long delta) {
+        counters.put(counterName, counters.getOrDefault(counterName, 0L) + delta);
+    }
+    
     @Override
     public long getCounter(String counterName) {
         return counters.getOrDefault(counterName, 0L);
     }
     
+    @Override
+    public Map<String, Long> getCounters() {
+        return new TreeMap<>(counters);
+    }
+    
     @Override
     public void reset() {
         startTime = 0;
@@ -57,7 +68,7 @@ public class MetricsImpl implements Metrics {
         sb.append("Execution Time: ").append(String.format("%.3f", getElapsedTimeMillis())).append(" ms\n");
         if (!counters.isEmpty()) {
             sb.append("Operation Counters:\n");
-            counters.forEach((name, value) -> 
+            getCounters().forEach((name, value) -> 
                 sb.append("  ").append(name).append(": ").append(value).append("\n"));
         }
         return sb.toString();
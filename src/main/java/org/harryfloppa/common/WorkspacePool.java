@@ -0,0 +1,59 @@
+package org.harryfloppa.common;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free pool of per-call scratch objects, so that reentrant algorithms
+ * can reuse large arrays instead of allocating them on every call. A
+ * workspace is owned by exactly one caller between {@link #acquire()} and
+ * {@link #release(Object)}; at most {@code maxIdle} released workspaces are
+ * kept.
+ */
+public final class WorkspacePool<T> {
+    public static final int DEFAULT_MAX_IDLE = Runtime.getRuntime().availableProcessors();
+
+    private final Supplier<T> factory;
+    private final int maxIdle;
+    private final ConcurrentLinkedQueue<T> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicInteger created = new AtomicInteger();
+
+    public WorkspacePool(Supplier<T> factory) {
+        this(factory, DEFAULT_MAX_IDLE);
+    }
+
+    public WorkspacePool(Supplier<T> factory, int maxIdle) {
+        if (maxIdle < 0) {
+            throw new IllegalArgumentException("Idle limit must not be negative");
+        }
+        this.factory = factory;
+        this.maxIdle = maxIdle;
+    }
+
+    public T acquire() {
+        T workspace = idle.poll();
+        if (workspace != null) {
+            idleCount.decrementAndGet();
+            return workspace;
+        }
+        created.incrementAndGet();
+        return factory.get();
+    }
+
+    public void release(T workspace) {
+        if (idleCount.incrementAndGet() <= maxIdle) {
+            idle.offer(workspace);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Number of workspaces created so far; stays at the peak concurrency once warm.
+     */
+    public int getCreated() {
+        return created.get();
+    }
+}
@@ -0,0 +1,41 @@
+package org.harryfloppa.graph;
+
+/**
+ * Read access to a graph's out-neighbors, shared by {@link Graph} and
+ * {@link CompressedGraph} so that algorithms work on either layout.
+ */
+public interface AdjacencyGraph {
+
+    int getVertexCount();
+
+    int getEdgeCount();
+
+    boolean isDirected();
+
+    int getOutDegree(int v);
+
+    /**
+     * Iterator over the out-edges of {@code v}, in storage order.
+     */
+    NeighborIterator neighbors(int v);
+
+    /**
+     * Changes whenever an edge is added, so that derived results can tell
+     * they are stale. Immutable layouts always return 0.
+     */
+    default long getVersion() {
+        return 0;
+    }
+
+    /**
+     * Sequential cursor over one vertex's out-edges. {@link #weight()} refers
+     * to the edge whose target {@link #next()} returned last.
+     */
+    interface NeighborIterator {
+        boolean hasNext();
+
+        int next();
+
+        int weight();
+    }
+}
@@ -0,0 +1,301 @@
+package org.harryfloppa.graph;
+
+import java.util.Arrays;
+
+/**
+ * Immutable graph with delta-compressed adjacency.
+ *
+ * Each vertex's out-edges are sorted by (target, weight). Targets are stored
+ * as varints in one byte array: the first as a zigzag-encoded difference from
+ * the vertex id, the rest as gaps from the previous target. Weights live in a
+ * separate array at a fixed width of 0, 1, 2 or 4 bytes per edge, chosen from
+ * the global weight range and stored as offsets from the minimum weight.
+ *
+ * Typical sparse graphs take 2-4 bytes per edge plus 8 bytes per vertex,
+ * against roughly 30 bytes per edge for {@link Graph}. Neighbor order differs
+ * from insertion order, so algorithms may break ties differently than on the
+ * source graph.
+ */
+public final class CompressedGraph implements AdjacencyGraph {
+    private final int n;
+    private final boolean directed;
+    private final int storedEdges;
+
+    private final int[] edgeOffsets;   // first edge index of each vertex, n + 1 entries
+    private final int[] byteOffsets;   // first byte of each vertex in targets, n + 1 entries
+    private final byte[] targets;
+
+    private final int weightBase;
+    private final int weightBytes;
+    private final byte[] weights;
+
+    private CompressedGraph(int n, boolean directed, int[] edgeOffsets, int[] byteOffsets, byte[] targets,
+                            int weightBase, int weightBytes, byte[] weights) {
+        this.n = n;
+        this.directed = directed;
+        this.storedEdges = edgeOffsets[n];
+        this.edgeOffsets = edgeOffsets;
+        this.byteOffsets = byteOffsets;
+        this.targets = targets;
+        this.weightBase = weightBase;
+        this.weightBytes = weightBytes;
+        this.weights = weights;
+    }
+
+    /**
+     * Compressed copy of any graph, e.g. a {@link Graph}.
+     */
+    public static CompressedGraph of(AdjacencyGraph graph) {
+        int n = graph.getVertexCount();
+        Builder builder = new Builder(n, true);
+        for (int u = 0; u < n; u++) {
+            for (NeighborIterator it = graph.neighbors(u); it.hasNext(); ) {
+                int v = it.next();
+                builder.addEdge(u, v, it.weight());
+            }
+        }
+        // Undirected graphs already store both directions
+        return builder.build(graph.isDirected());
+    }
+
+    @Override
+    public int getVertexCount() {
+        return n;
+    }
+
+    @Override
+    public int getEdgeCount() {
+        return directed ? storedEdges : storedEdges / 2;
+    }
+
+    @Override
+    public boolean isDirected() {
+        return directed;
+    }
+
+    @Override
+    public int getOutDegree(int v) {
+        return edgeOffsets[v + 1] - edgeOffsets[v];
+    }
+
+    @Override
+    public NeighborIterator neighbors(int v) {
+        return new Cursor().moveTo(v);
+    }
+
+    /**
+     * A cursor that can be repositioned with {@link Cursor#moveTo} to avoid
+     * allocating one iterator per vertex in tight loops.
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Bytes held by the offset, target and weight arrays.
+     */
+    public long sizeInBytes() {
+        return 8L * (n + 1) + targets.length + weights.length;
+    }
+
+    public int getWeightBytes() {
+        return weightBytes;
+    }
+
+    public final class Cursor implements NeighborIterator {
+        private int pos;
+        private int start;
+        private int edge;
+        private int end;
+        private int target;
+
+        private Cursor() {
+        }
+
+        public Cursor moveTo(int v) {
+            if (v < 0 || v >= n) {
+                throw new IllegalArgumentException("Vertex out of bounds");
+            }
+            pos = byteOffsets[v];
+            start = edgeOffsets[v];
+            edge = start - 1;
+            end = edgeOffsets[v + 1] - 1;
+            target = v;
+            return this;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return edge < end;
+        }
+
+        @Override
+        public int next() {
+            int raw = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = targets[pos++];
+                raw |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            // The first target is zigzag-encoded relative to the vertex itself
+            target += ++edge == start ? (raw >>> 1) ^ -(raw & 1) : raw;
+            return target;
+        }
+
+        @Override
+        public int weight() {
+            int i = edge * weightBytes;
+            switch (weightBytes) {
+                case 0:
+                    return weightBase;
+                case 1:
+                    return weightBase + (weights[i] & 0xFF);
+                case 2:
+                    return weightBase + ((weights[i] & 0xFF) | (weights[i + 1] & 0xFF) << 8);
+                default:
+                    return weightBase + ((weights[i] & 0xFF) | (weights[i + 1] & 0xFF) << 8
+                            | (weights[i + 2] & 0xFF) << 16 | (weights[i + 3] & 0xFF) << 24);
+            }
+        }
+    }
+
+    /**
+     * Accumulates edges in flat int arrays (12 bytes per edge) and encodes
+     * them in {@link #build()}. A builder can be built only once.
+     */
+    public static class Builder {
+        private final int n;
+        private final boolean directed;
+        private int[] from = new int[16];
+        private int[] to = new int[16];
+        private int[] weight = new int[16];
+        private int size;
+
+        public Builder(int n, boolean directed) {
+            this.n = n;
+            this.directed = directed;
+        }
+
+        public void addEdge(int u, int v, int w) {
+            if (u < 0 || u >= n || v < 0 || v >= n) {
+                throw new IllegalArgumentException("Vertex out of bounds");
+            }
+            append(u, v, w);
+            if (!directed) {
+                append(v, u, w);
+            }
+        }
+
+        private void append(int u, int v, int w) {
+            if (from == null) {
+                throw new IllegalStateException("Builder already built");
+            }
+            if (size == from.length) {
+                int capacity = size + (size >> 1);
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                weight = Arrays.copyOf(weight, capacity);
+            }
+            from[size] = u;
+            to[size] = v;
+            weight[size] = w;
+            size++;
+        }
+
+        public CompressedGraph build() {
+            return build(directed);
+        }
+
+        private CompressedGraph build(boolean directedResult) {
+            if (from == null) {
+                throw new IllegalStateException("Builder already built");
+            }
+            long minWeight = 0;
+            long maxWeight = 0;
+            for (int i = 0; i < size; i++) {
+                minWeight = i == 0 ? weight[i] : Math.min(minWeight, weight[i]);
+                maxWeight = i == 0 ? weight[i] : Math.max(maxWeight, weight[i]);
+            }
+            long range = maxWeight - minWeight;
+            int weightBytes = range == 0 ? 0 : range <= 0xFF ? 1 : range <= 0xFFFF ? 2 : 4;
+            if ((long) size * weightBytes > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Compressed weights exceed 2 GiB");
+            }
+
+            // Group by source (counting sort), packing (target, weight offset) for the per-vertex sort
+            int[] edgeOffsets = new int[n + 1];
+            for (int i = 0; i < size; i++) {
+                edgeOffsets[from[i] + 1]++;
+            }
+            for (int u = 0; u < n; u++) {
+                edgeOffsets[u + 1] += edgeOffsets[u];
+            }
+            long[] packed = new long[size];
+            int[] fill = Arrays.copyOf(edgeOffsets, n);
+            for (int i = 0; i < size; i++) {
+                packed[fill[from[i]]++] = ((long) to[i] << 32) | (weight[i] - minWeight);
+            }
+            from = to = weight = null;
+
+            byte[] weightData = new byte[size * weightBytes];
+            int[] byteOffsets = new int[n + 1];
+            ByteBuffer targetData = new ByteBuffer(size + n);
+            for (int u = 0; u < n; u++) {
+                int lo = edgeOffsets[u];
+                int hi = edgeOffsets[u + 1];
+                Arrays.sort(packed, lo, hi);
+                int previous = u;
+                for (int i = lo; i < hi; i++) {
+                    int target = (int) (packed[i] >>> 32);
+                    int delta = target - previous;
+                    targetData.writeVarint(i == lo ? (delta << 1) ^ (delta >> 31) : delta);
+                    previous = target;
+                    long offset = packed[i] & 0xFFFFFFFFL;
+                    for (int b = 0; b < weightBytes; b++) {
+                        weightData[i * weightBytes + b] = (byte) (offset >>> (8 * b));
+                    }
+                }
+                byteOffsets[u + 1] = targetData.size();
+            }
+            return new CompressedGraph(n, directedResult, edgeOffsets, byteOffsets, targetData.toArray(),
+                    (int) minWeight, weightBytes, weightData);
+        }
+    }
+
+    /**
+     * Growable byte array with unsigned varint output.
+     */
+    private static class ByteBuffer {
+        private byte[] data;
+        private int size;
+
+        ByteBuffer(int capacity) {
+            data = new byte[Math.max(16, capacity)];
+        }
+
+        void writeVarint(int value) {
+            if (size + 5 > data.length) {
+                long capacity = Math.max(size + 5L, (long) data.length + (data.length >> 1));
+                if (capacity > Integer.MAX_VALUE - 8) {
+                    throw new IllegalArgumentException("Compressed adjacency exceeds 2 GiB");
+                }
+                data = Arrays.copyOf(data, (int) capacity);
+            }
+            while ((value & ~0x7F) != 0) {
+                data[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[size++] = (byte) value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        byte[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
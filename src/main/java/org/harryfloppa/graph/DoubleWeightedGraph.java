@@ -0,0 +1,138 @@
+package org.harryfloppa.graph;
+
+import java.util.Arrays;
+
+/**
+ * {@link LongWeightedGraph} with double weights, for fractional costs that
+ * {@link AdjacencyGraph}'s int weights would round. NaN weights are rejected.
+ */
+public final class DoubleWeightedGraph {
+    private final int n;
+    private final boolean directed;
+    private final int[] offsets;   // first edge of each vertex, n + 1 entries
+    private final int[] targets;
+    private final double[] weights;
+
+    private DoubleWeightedGraph(int n, boolean directed, int[] offsets, int[] targets, double[] weights) {
+        this.n = n;
+        this.directed = directed;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    public static DoubleWeightedGraph of(AdjacencyGraph graph) {
+        int n = graph.getVertexCount();
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] = offsets[u] + graph.getOutDegree(u);
+        }
+        int[] targets = new int[offsets[n]];
+        double[] weights = new double[offsets[n]];
+        for (int u = 0; u < n; u++) {
+            int i = offsets[u];
+            for (AdjacencyGraph.NeighborIterator it = graph.neighbors(u); it.hasNext(); i++) {
+                targets[i] = it.next();
+                weights[i] = it.weight();
+            }
+        }
+        return new DoubleWeightedGraph(n, graph.isDirected(), offsets, targets, weights);
+    }
+
+    public int getVertexCount() {
+        return n;
+    }
+
+    public int getEdgeCount() {
+        return directed ? targets.length : targets.length / 2;
+    }
+
+    public boolean isDirected() {
+        return directed;
+    }
+
+    public int getOutDegree(int v) {
+        return offsets[v + 1] - offsets[v];
+    }
+
+    public int getOffset(int v) {
+        return offsets[v];
+    }
+
+    public int getTarget(int edge) {
+        return targets[edge];
+    }
+
+    public double getWeight(int edge) {
+        return weights[edge];
+    }
+
+    public static class Builder {
+        private final int n;
+        private final boolean directed;
+        private int[] from = new int[16];
+        private int[] to = new int[16];
+        private double[] weight = new double[16];
+        private int size;
+
+        public Builder(int n, boolean directed) {
+            this.n = n;
+            this.directed = directed;
+        }
+
+        public void addEdge(int u, int v, double w) {
+            if (u < 0 || u >= n || v < 0 || v >= n) {
+                throw new IllegalArgumentException("Vertex out of bounds");
+            }
+            if (Double.isNaN(w)) {
+                throw new IllegalArgumentException("Edge weight must not be NaN");
+            }
+            append(u, v, w);
+            if (!directed) {
+                append(v, u, w);
+            }
+        }
+
+        private void append(int u, int v, double w) {
+            if (from == null) {
+                throw new IllegalStateException("Builder already built");
+            }
+            if (size == from.length) {
+                int capacity = size + (size >> 1);
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                weight = Arrays.copyOf(weight, capacity);
+            }
+            from[size] = u;
+            to[size] = v;
+            weight[size] = w;
+            size++;
+        }
+
+        public DoubleWeightedGraph build() {
+            if (from == null) {
+                throw new IllegalStateException("Builder already built");
+            }
+            // Counting sort by source keeps insertion order within each vertex
+            int[] offsets = new int[n + 1];
+            for (int i = 0; i < size; i++) {
+                offsets[from[i] + 1]++;
+            }
+            for (int u = 0; u < n; u++) {
+                offsets[u + 1] += offsets[u];
+            }
+            int[] fill = Arrays.copyOf(offsets, n);
+            int[] targets = new int[size];
+            double[] weights = new double[size];
+            for (int i = 0; i < size; i++) {
+                int e = fill[from[i]]++;
+                targets[e] = to[i];
+                weights[e] = weight[i];
+            }
+            from = null;
+            to = null;
+            weight = null;
+            return new DoubleWeightedGraph(n, directed, offsets, targets, weights);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.harryfloppa.graph;
+
+/**
+ * Immutable snapshot of a graph in compressed sparse row form.
+ *
+ * All state lives in final arrays that are never written after
+ * construction, so a frozen graph can be shared by any number of threads
+ * without locking. Adjacency lists keep the storage order of the source
+ * graph, so algorithms produce exactly the same results on both.
+ */
+public final class FrozenGraph implements AdjacencyGraph {
+    private final int n;
+    private final boolean directed;
+    private final int[] offsets;   // first edge of each vertex, n + 1 entries
+    private final int[] targets;
+    private final int[] weights;
+
+    private FrozenGraph(int n, boolean directed, int[] offsets, int[] targets, int[] weights) {
+        this.n = n;
+        this.directed = directed;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Copies the current adjacency of any graph; later changes to the source are not seen.
+     */
+    public static FrozenGraph of(AdjacencyGraph graph) {
+        if (graph instanceof FrozenGraph) {
+            return (FrozenGraph) graph;
+        }
+        int n = graph.getVertexCount();
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] = offsets[u] + graph.getOutDegree(u);
+        }
+        int[] targets = new int[offsets[n]];
+        int[] weights = new int[offsets[n]];
+        for (int u = 0; u < n; u++) {
+            int i = offsets[u];
+            for (NeighborIterator it = graph.neighbors(u); it.hasNext(); i++) {
+                targets[i] = it.next();
+                weights[i] = it.weight();
+            }
+        }
+        return new FrozenGraph(n, graph.isDirected(), offsets, targets, weights);
+    }
+
+    @Override
+    public int getVertexCount() {
+        return n;
+    }
+
+    @Override
+    public int getEdgeCount() {
+        return directed ? targets.length : targets.length / 2;
+    }
+
+    @Override
+    public boolean isDirected() {
+        return directed;
+    }
+
+    @Override
+    public int getOutDegree(int v) {
+        return offsets[v + 1] - offsets[v];
+    }
+
+    @Override
+    public NeighborIterator neighbors(int v) {
+        if (v < 0 || v >= n) {
+            throw new IllegalArgumentException("Vertex out of bounds");
+        }
+        return new NeighborIterator() {
+            private int edge = offsets[v] - 1;
+            private final int end = offsets[v + 1] - 1;
+
+            @Override
+            public boolean hasNext() {
+                return edge < end;
+            }
+
+            @Override
+            public int next() {
+                return targets[++edge];
+            }
+
+            @Override
+            public int weight() {
+                return weights[edge];
+            }
+        };
+    }
+}
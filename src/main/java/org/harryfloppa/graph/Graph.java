@@ -3,10 +3,11 @@ package org.harryfloppa.graph;
 import java.util.*;
 
 
-public class Graph {
+public class Graph implements AdjacencyGraph {
     private final int n; // number of vertices
     private final List<List<Edge>> adjList;
     private final boolean directed;
+    private long version;
 
     public static class Edge {
         public final int to;
@@ -40,16 +41,49 @@ public class Graph {
         if (!directed) {
             adjList.get(to).add(new Edge(from, weight));
         }
+        version++;
     }
 
     public List<Edge> getAdjacent(int v) {
         return adjList.get(v);
     }
 
+    @Override
+    public NeighborIterator neighbors(int v) {
+        List<Edge> edges = adjList.get(v);
+        return new NeighborIterator() {
+            private int i;
+            private Edge current;
+
+            @Override
+            public boolean hasNext() {
+                return i < edges.size();
+            }
+
+            @Override
+            public int next() {
+                current = edges.get(i++);
+                return current.to;
+            }
+
+            @Override
+            public int weight() {
+                return current.weight;
+            }
+        };
+    }
+
+    @Override
+    public int getOutDegree(int v) {
+        return adjList.get(v).size();
+    }
+
+    @Override
     public int getVertexCount() {
         return n;
     }
 
+    @Override
     public int getEdgeCount() {
         int count = 0;
         for (List<Edge> edges : adjList) {
@@ -58,10 +92,23 @@ public class Graph {
         return directed ? count : count / 2;
     }
 
+    @Override
     public boolean isDirected() {
         return directed;
     }
 
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Immutable snapshot that can be shared between threads.
+     */
+    public FrozenGraph freeze() {
+        return FrozenGraph.of(this);
+    }
+
     public Graph reverse() {
         if (!directed) {
             throw new UnsupportedOperationException("Cannot reverse an undirected graph");
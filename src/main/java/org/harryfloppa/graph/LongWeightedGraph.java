@@ -0,0 +1,148 @@
+package org.harryfloppa.graph;
+
+import java.util.Arrays;
+
+/**
+ * Immutable graph with long edge weights in compressed sparse row form.
+ *
+ * Out-edges of {@code v} are the edge indices in [{@link #getOffset}(v),
+ * {@link #getOffset}(v + 1)), in insertion order. It does not implement
+ * {@link AdjacencyGraph}, whose int weights would truncate.
+ */
+public final class LongWeightedGraph {
+    private final int n;
+    private final boolean directed;
+    private final int[] offsets;   // first edge of each vertex, n + 1 entries
+    private final int[] targets;
+    private final long[] weights;
+
+    private LongWeightedGraph(int n, boolean directed, int[] offsets, int[] targets, long[] weights) {
+        this.n = n;
+        this.directed = directed;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Copies an int-weighted graph, widening its weights.
+     */
+    public static LongWeightedGraph of(AdjacencyGraph graph) {
+        int n = graph.getVertexCount();
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] = offsets[u] + graph.getOutDegree(u);
+        }
+        int[] targets = new int[offsets[n]];
+        long[] weights = new long[offsets[n]];
+        for (int u = 0; u < n; u++) {
+            int i = offsets[u];
+            for (AdjacencyGraph.NeighborIterator it = graph.neighbors(u); it.hasNext(); i++) {
+                targets[i] = it.next();
+                weights[i] = it.weight();
+            }
+        }
+        return new LongWeightedGraph(n, graph.isDirected(), offsets, targets, weights);
+    }
+
+    public int getVertexCount() {
+        return n;
+    }
+
+    public int getEdgeCount() {
+        return directed ? targets.length : targets.length / 2;
+    }
+
+    public boolean isDirected() {
+        return directed;
+    }
+
+    public int getOutDegree(int v) {
+        return offsets[v + 1] - offsets[v];
+    }
+
+    /**
+     * Index of the first out-edge of {@code v}; {@code getOffset(n)} is the number of stored edges.
+     */
+    public int getOffset(int v) {
+        return offsets[v];
+    }
+
+    public int getTarget(int edge) {
+        return targets[edge];
+    }
+
+    public long getWeight(int edge) {
+        return weights[edge];
+    }
+
+    /**
+     * Accumulates edges in flat arrays and lays them out in {@link #build()}.
+     * A builder can be built only once.
+     */
+    public static class Builder {
+        private final int n;
+        private final boolean directed;
+        private int[] from = new int[16];
+        private int[] to = new int[16];
+        private long[] weight = new long[16];
+        private int size;
+
+        public Builder(int n, boolean directed) {
+            this.n = n;
+            this.directed = directed;
+        }
+
+        public void addEdge(int u, int v, long w) {
+            if (u < 0 || u >= n || v < 0 || v >= n) {
+                throw new IllegalArgumentException("Vertex out of bounds");
+            }
+            append(u, v, w);
+            if (!directed) {
+                append(v, u, w);
+            }
+        }
+
+        private void append(int u, int v, long w) {
+            if (from == null) {
+                throw new IllegalStateException("Builder already built");
+            }
+            if (size == from.length) {
+                int capacity = size + (size >> 1);
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                weight = Arrays.copyOf(weight, capacity);
+            }
+            from[size] = u;
+            to[size] = v;
+            weight[size] = w;
+            size++;
+        }
+
+        public LongWeightedGraph build() {
+            if (from == null) {
+                throw new IllegalStateException("Builder already built");
+            }
+            // Counting sort by source keeps insertion order within each vertex
+            int[] offsets = new int[n + 1];
+            for (int i = 0; i < size; i++) {
+                offsets[from[i] + 1]++;
+            }
+            for (int u = 0; u < n; u++) {
+                offsets[u + 1] += offsets[u];
+            }
+            int[] fill = Arrays.copyOf(offsets, n);
+            int[] targets = new int[size];
+            long[] weights = new long[size];
+            for (int i = 0; i < size; i++) {
+                int e = fill[from[i]]++;
+                targets[e] = to[i];
+                weights[e] = weight[i];
+            }
+            from = null;
+            to = null;
+            weight = null;
+            return new LongWeightedGraph(n, directed, offsets, targets, weights);
+        }
+    }
+}
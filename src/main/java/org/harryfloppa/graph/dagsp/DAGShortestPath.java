@@ -2,7 +2,7 @@ package org.harryfloppa.graph.dagsp;
 
 import org.harryfloppa.common.Metrics;
 import org.harryfloppa.common.MetricsImpl;
-import org.harryfloppa.graph.Graph;
+import org.harryfloppa.graph.AdjacencyGraph;
 import org.harryfloppa.graph.topo.KahnTopologicalSort;
 
 import java.util.*;
@@ -10,65 +10,141 @@ import java.util.*;
 /**
  * Single-source shortest paths in a Directed Acyclic Graph (DAG).
  * Time complexity: O(V + E)
+ *
+ * Each call has its own metrics and result arrays, so one instance may
+ * serve concurrent calls on a graph that is not modified. Path sums that
+ * overflow an int saturate instead of wrapping around; {@link LongDAGPaths}
+ * and {@link DoubleDAGPaths} take wider weights.
+ *
+ * Node weight model: with per-vertex {@code nodeWeights}, a path costs its
+ * edge weights plus the weight of every vertex on it, both endpoints
+ * included. {@link DAGLongestPath}, {@link LongDAGPaths}, {@link DoubleDAGPaths}
+ * and {@link PathResultCache} follow the same model; {@link KBestPaths},
+ * {@link PathCounter} and {@link PertSimulation} take no node weights and
+ * count edge weights only.
  */
 public class DAGShortestPath {
-    private final Graph graph;
-    private final Metrics metrics;
+    private final AdjacencyGraph graph;
+    private final KahnTopologicalSort topoSort;
+    private final List<Integer> topologicalOrder;   // precomputed, or null to sort on every call
+    private final int[] nodeWeights;                // per-vertex weights, or null for edge weights only
 
-    public DAGShortestPath(Graph graph) {
+    public DAGShortestPath(AdjacencyGraph graph) {
+        this(graph, (int[]) null);
+    }
+
+    /**
+     * Adds per-vertex weights to every path; {@code nodeWeights} may be null.
+     */
+    public DAGShortestPath(AdjacencyGraph graph, int[] nodeWeights) {
+        if (!graph.isDirected()) {
+            throw new IllegalArgumentException("DAG shortest path requires a directed graph");
+        }
+        this.graph = graph;
+        this.nodeWeights = checkNodeWeights(graph, nodeWeights);
+        this.topoSort = new KahnTopologicalSort(graph);
+        this.topologicalOrder = null;
+    }
+
+    /**
+     * Reuses {@code topologicalOrder} instead of sorting on every call.
+     */
+    public DAGShortestPath(AdjacencyGraph graph, List<Integer> topologicalOrder) {
+        this(graph, topologicalOrder, null);
+    }
+
+    /**
+     * Reused order plus per-vertex weights, which may be null.
+     */
+    public DAGShortestPath(AdjacencyGraph graph, List<Integer> topologicalOrder, int[] nodeWeights) {
         if (!graph.isDirected()) {
             throw new IllegalArgumentException("DAG shortest path requires a directed graph");
         }
         this.graph = graph;
-        this.metrics = new MetricsImpl();
+        this.nodeWeights = checkNodeWeights(graph, nodeWeights);
+        if (topologicalOrder.size() != graph.getVertexCount()) {
+            throw new IllegalArgumentException("Topological order does not cover every vertex");
+        }
+        this.topoSort = null;
+        this.topologicalOrder = List.copyOf(topologicalOrder);
     }
 
     public ShortestPathResult computeShortestPaths(int source) {
         int n = graph.getVertexCount();
         
-        metrics.reset();
+        Metrics metrics = new MetricsImpl();
         metrics.startTiming();
         
-        // Get topological order
-        KahnTopologicalSort topoSort = new KahnTopologicalSort(graph);
-        KahnTopologicalSort.TopoSortResult topoResult = topoSort.sort();
-        
-        if (topoResult.hasCycle()) {
-            metrics.stopTiming();
-            throw new IllegalArgumentException("Graph contains a cycle - not a DAG");
-        }
-        
-        List<Integer> topoOrder = topoResult.getOrder();
+        List<Integer> topoOrder = topologicalOrder();
         
         // Initialize distances
         int[] dist = new int[n];
         int[] parent = new int[n];
         Arrays.fill(dist, Integer.MAX_VALUE);
         Arrays.fill(parent, -1);
-        dist[source] = 0;
+        int[] w = nodeWeights;
+        dist[source] = w == null ? 0 : w[source];
         
         // Process vertices in topological order
+        long relaxations = 0;
+        long updates = 0;
+        long saturated = 0;
         for (int u : topoOrder) {
             if (dist[u] != Integer.MAX_VALUE) {
-                for (Graph.Edge edge : graph.getAdjacent(u)) {
-                    int v = edge.to;
-                    int newDist = dist[u] + edge.weight;
-                    metrics.incrementCounter("relaxations");
+                for (AdjacencyGraph.NeighborIterator it = graph.neighbors(u); it.hasNext(); ) {
+                    int v = it.next();
+                    long sum = (long) dist[u] + it.weight() + (w == null ? 0 : w[v]);
+                    int newDist = SaturatingMath.clamp(sum);
+                    relaxations++;
+                    if (newDist != sum) {
+                        saturated++;
+                    }
                     
                     if (newDist < dist[v]) {
                         dist[v] = newDist;
                         parent[v] = u;
-                        metrics.incrementCounter("distance_updates");
+                        updates++;
                     }
                 }
             }
         }
         
         metrics.stopTiming();
+        addCounts(metrics, relaxations, updates, saturated);
         
         return new ShortestPathResult(source, dist, parent, metrics);
     }
 
+    private List<Integer> topologicalOrder() {
+        if (topologicalOrder != null) {
+            return topologicalOrder;
+        }
+        KahnTopologicalSort.TopoSortResult topoResult = topoSort.sort();
+        if (topoResult.hasCycle()) {
+            throw new IllegalArgumentException("Graph contains a cycle - not a DAG");
+        }
+        return topoResult.getOrder();
+    }
+
+    private static int[] checkNodeWeights(AdjacencyGraph graph, int[] nodeWeights) {
+        if (nodeWeights != null && nodeWeights.length != graph.getVertexCount()) {
+            throw new IllegalArgumentException("Expected " + graph.getVertexCount() + " node weights");
+        }
+        return nodeWeights == null ? null : nodeWeights.clone();
+    }
+
+    private static void addCounts(Metrics metrics, long relaxations, long updates, long saturated) {
+        if (relaxations > 0) {
+            metrics.addToCounter("relaxations", relaxations);
+        }
+        if (updates > 0) {
+            metrics.addToCounter("distance_updates", updates);
+        }
+        if (saturated > 0) {
+            metrics.addToCounter("saturated_sums", saturated);
+        }
+    }
+
     public static class ShortestPathResult {
         private final int source;
         private final int[] distances;
@@ -102,6 +178,13 @@ public class DAGShortestPath {
             return metrics;
         }
 
+        /**
+         * Predecessor of {@code v} on its path from the source, or -1.
+         */
+        public int getParent(int v) {
+            return parent[v];
+        }
+
         public List<Integer> getPath(int dest) {
             if (!isReachable(dest)) {
                 return Collections.emptyList();
@@ -0,0 +1,494 @@
+package org.harryfloppa.graph.dagsp;
+
+import org.harryfloppa.common.Metrics;
+import org.harryfloppa.common.MetricsImpl;
+import org.harryfloppa.graph.AdjacencyGraph;
+import org.harryfloppa.graph.topo.KahnTopologicalSort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The K shortest or K longest paths to every vertex of a DAG, and the K
+ * longest source-to-sink chains.
+ *
+ * Vertices are visited in topological order. The sorted labels of a vertex
+ * are produced by a lazy merge of its predecessors' label lists: a primitive
+ * heap holds one candidate per in-edge, and popping a candidate pushes the
+ * next label of the same predecessor. A vertex costs O(in-degree + K log
+ * in-degree), so the whole run is O(V + E + V K log d) rather than O(E K).
+ *
+ * A label stores only its distance and the (predecessor, rank) it extends;
+ * paths are rebuilt on request. Parallel edges give distinct paths.
+ * Distances are longs and count edge weights only; vertex weights are not
+ * supported. Each call has its own state, so one instance may
+ * serve concurrent calls on a graph that is not modified.
+ */
+public class KBestPaths {
+    private final AdjacencyGraph graph;
+    private final int k;
+    private final KahnTopologicalSort topoSort;
+    private final List<Integer> topologicalOrder;   // precomputed, or null to sort on every call
+
+    public KBestPaths(AdjacencyGraph graph, int k) {
+        this(graph, null, k);
+    }
+
+    /**
+     * With a null {@code topologicalOrder}, each call sorts the graph.
+     */
+    public KBestPaths(AdjacencyGraph graph, List<Integer> topologicalOrder, int k) {
+        if (!graph.isDirected()) {
+            throw new IllegalArgumentException("K best paths requires a directed graph");
+        }
+        if (k < 1) {
+            throw new IllegalArgumentException("K must be positive");
+        }
+        if (topologicalOrder != null && topologicalOrder.size() != graph.getVertexCount()) {
+            throw new IllegalArgumentException("Topological order does not cover every vertex");
+        }
+        this.graph = graph;
+        this.k = k;
+        this.topoSort = topologicalOrder == null ? new KahnTopologicalSort(graph) : null;
+        this.topologicalOrder = topologicalOrder == null ? null : List.copyOf(topologicalOrder);
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Up to K shortest paths from {@code source} to every vertex, in ascending length.
+     */
+    public PathsResult computeShortestPaths(int source) {
+        checkVertex(source);
+        Metrics metrics = new MetricsImpl();
+        metrics.startTiming();
+        PathsResult result = run(new int[] {source}, false, metrics);
+        metrics.stopTiming();
+        return result;
+    }
+
+    /**
+     * Up to K longest paths from {@code source} to every vertex, in descending length.
+     */
+    public PathsResult computeLongestPaths(int source) {
+        checkVertex(source);
+        Metrics metrics = new MetricsImpl();
+        metrics.startTiming();
+        PathsResult result = run(new int[] {source}, true, metrics);
+        metrics.stopTiming();
+        return result;
+    }
+
+    /**
+     * The K longest chains that start at a vertex without predecessors and end
+     * at a vertex without successors. With non-negative weights the first is
+     * the path of {@link DAGLongestPath#computeCriticalPath()}. That method may
+     * start and end at any vertex, so with negative weights it can return a
+     * longer inner sub-chain, while every chain here runs from source to sink.
+     */
+    public CriticalChainsResult computeCriticalChains() {
+        int n = graph.getVertexCount();
+        Metrics metrics = new MetricsImpl();
+        metrics.startTiming();
+        boolean[] hasPredecessor = new boolean[n];
+        for (int u = 0; u < n; u++) {
+            for (AdjacencyGraph.NeighborIterator it = graph.neighbors(u); it.hasNext(); ) {
+                hasPredecessor[it.next()] = true;
+            }
+        }
+        int starts = 0;
+        int[] start = new int[n];
+        for (int v = 0; v < n; v++) {
+            if (!hasPredecessor[v]) {
+                start[starts++] = v;
+            }
+        }
+        PathsResult labels = run(Arrays.copyOf(start, starts), true, metrics);
+
+        // Merge the sinks' descending label lists, again one heap entry per list
+        LabelHeap heap = new LabelHeap(n);
+        for (int v = 0; v < n; v++) {
+            if (graph.getOutDegree(v) == 0 && labels.getCount(v) > 0) {
+                heap.push(-labels.getDistance(v, 0), v, 0);
+            }
+        }
+        int[] endVertex = new int[k];
+        int[] endRank = new int[k];
+        int size = 0;
+        while (size < k && !heap.isEmpty()) {
+            int v = heap.topSlot();
+            int rank = heap.topRank();
+            heap.pop();
+            endVertex[size] = v;
+            endRank[size] = rank;
+            size++;
+            if (rank + 1 < labels.getCount(v)) {
+                heap.push(-labels.getDistance(v, rank + 1), v, rank + 1);
+            }
+        }
+        metrics.stopTiming();
+        return new CriticalChainsResult(labels, Arrays.copyOf(endVertex, size), Arrays.copyOf(endRank, size));
+    }
+
+    private PathsResult run(int[] starts, boolean longest, Metrics metrics) {
+        int n = graph.getVertexCount();
+        List<Integer> order = topologicalOrder();
+
+        // Reverse adjacency in CSR form; each in-edge carries its source and weight
+        int[] inOffsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            for (AdjacencyGraph.NeighborIterator it = graph.neighbors(u); it.hasNext(); ) {
+                inOffsets[it.next() + 1]++;
+            }
+        }
+        int maxInDegree = 0;
+        for (int v = 0; v < n; v++) {
+            maxInDegree = Math.max(maxInDegree, inOffsets[v + 1]);
+            inOffsets[v + 1] += inOffsets[v];
+        }
+        int[] inSources = new int[inOffsets[n]];
+        int[] inWeights = new int[inOffsets[n]];
+        int[] fill = Arrays.copyOf(inOffsets, n);
+        for (int u = 0; u < n; u++) {
+            for (AdjacencyGraph.NeighborIterator it = graph.neighbors(u); it.hasNext(); ) {
+                int v = it.next();
+                inSources[fill[v]] = u;
+                inWeights[fill[v]++] = it.weight();
+            }
+        }
+
+        boolean[] isStart = new boolean[n];
+        for (int s : starts) {
+            isStart[s] = true;
+        }
+
+        Labels labels = new Labels(n);
+        LabelHeap heap = new LabelHeap(maxInDegree);
+        long pushes = 0;
+        // Keys are negated for longest paths, so the heap is always a min-heap
+        long sign = longest ? -1 : 1;
+        for (int v : order) {
+            labels.begin(v);
+            if (isStart[v]) {
+                // Nothing else reaches a start: the source's predecessors are
+                // unreachable from it, and chain starts have no predecessors
+                labels.add(0, -1, -1);
+                continue;
+            }
+            for (int e = inOffsets[v]; e < inOffsets[v + 1]; e++) {
+                int u = inSources[e];
+                if (labels.count(u) > 0) {
+                    heap.push(sign * (labels.distance(u, 0) + inWeights[e]), e, 0);
+                    pushes++;
+                }
+            }
+            while (labels.count(v) < k && !heap.isEmpty()) {
+                int e = heap.topSlot();
+                int rank = heap.topRank();
+                heap.pop();
+                int u = inSources[e];
+                labels.add(labels.distance(u, rank) + inWeights[e], u, rank);
+                if (rank + 1 < labels.count(u)) {
+                    heap.push(sign * (labels.distance(u, rank + 1) + inWeights[e]), e, rank + 1);
+                    pushes++;
+                }
+            }
+            heap.clear();
+        }
+
+        if (inSources.length > 0) {
+            metrics.addToCounter("edges_scanned", inSources.length);
+        }
+        if (labels.size > 0) {
+            metrics.addToCounter("labels", labels.size);
+        }
+        if (pushes > 0) {
+            metrics.addToCounter("heap_pushes", pushes);
+        }
+        return new PathsResult(k, longest, labels, metrics);
+    }
+
+    private List<Integer> topologicalOrder() {
+        if (topologicalOrder != null) {
+            return topologicalOrder;
+        }
+        KahnTopologicalSort.TopoSortResult topoResult = topoSort.sort();
+        if (topoResult.hasCycle()) {
+            throw new IllegalArgumentException("Graph contains a cycle - not a DAG");
+        }
+        return topoResult.getOrder();
+    }
+
+    private void checkVertex(int v) {
+        if (v < 0 || v >= graph.getVertexCount()) {
+            throw new IllegalArgumentException("Vertex out of bounds: " + v);
+        }
+    }
+
+    /**
+     * Labels of all vertices in flat growable arrays; each vertex's labels are
+     * contiguous because a vertex is finished before the next one starts.
+     */
+    private static final class Labels {
+        final int[] start;
+        final int[] count;
+        long[] distance = new long[16];
+        int[] predecessor = new int[16];
+        int[] predecessorRank = new int[16];
+        int size;
+        int current;
+
+        Labels(int n) {
+            start = new int[n];
+            count = new int[n];
+        }
+
+        void begin(int v) {
+            current = v;
+            start[v] = size;
+        }
+
+        void add(long d, int u, int rank) {
+            if (size == distance.length) {
+                int capacity = size + (size >> 1);
+                distance = Arrays.copyOf(distance, capacity);
+                predecessor = Arrays.copyOf(predecessor, capacity);
+                predecessorRank = Arrays.copyOf(predecessorRank, capacity);
+            }
+            distance[size] = d;
+            predecessor[size] = u;
+            predecessorRank[size] = rank;
+            size++;
+            count[current]++;
+        }
+
+        int count(int v) {
+            return count[v];
+        }
+
+        long distance(int v, int rank) {
+            return distance[start[v] + rank];
+        }
+    }
+
+    /**
+     * Binary min-heap of (key, slot, rank) triples in parallel primitive arrays.
+     */
+    private static final class LabelHeap {
+        private long[] keys;
+        private int[] slots;
+        private int[] ranks;
+        private int size;
+
+        LabelHeap(int capacity) {
+            int c = Math.max(1, capacity);
+            keys = new long[c];
+            slots = new int[c];
+            ranks = new int[c];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        int topSlot() {
+            return slots[0];
+        }
+
+        int topRank() {
+            return ranks[0];
+        }
+
+        void push(long key, int slot, int rank) {
+            if (size == keys.length) {
+                int capacity = size * 2;
+                keys = Arrays.copyOf(keys, capacity);
+                slots = Arrays.copyOf(slots, capacity);
+                ranks = Arrays.copyOf(ranks, capacity);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                move(parent, i);
+                i = parent;
+            }
+            keys[i] = key;
+            slots[i] = slot;
+            ranks[i] = rank;
+        }
+
+        void pop() {
+            size--;
+            long key = keys[size];
+            int slot = slots[size];
+            int rank = ranks[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (key <= keys[child]) {
+                    break;
+                }
+                move(child, i);
+                i = child;
+            }
+            keys[i] = key;
+            slots[i] = slot;
+            ranks[i] = rank;
+        }
+
+        private void move(int from, int to) {
+            keys[to] = keys[from];
+            slots[to] = slots[from];
+            ranks[to] = ranks[from];
+        }
+    }
+
+    /**
+     * Up to K best paths to every vertex, best first. Paths are rebuilt from
+     * predecessor links on request.
+     */
+    public static class PathsResult {
+        private final int k;
+        private final boolean longest;
+        private final Labels labels;
+        private final Metrics metrics;
+
+        PathsResult(int k, boolean longest, Labels labels, Metrics metrics) {
+            this.k = k;
+            this.longest = longest;
+            this.labels = labels;
+            this.metrics = metrics;
+        }
+
+        public int getK() {
+            return k;
+        }
+
+        /**
+         * True for longest paths (descending lengths), false for shortest.
+         */
+        public boolean isLongest() {
+            return longest;
+        }
+
+        /**
+         * Number of paths found to {@code v}, at most K; 0 if unreachable.
+         */
+        public int getCount(int v) {
+            return labels.count[v];
+        }
+
+        /**
+         * Length of the {@code rank}-th best path to {@code v}, counting from 0.
+         */
+        public long getDistance(int v, int rank) {
+            checkRank(v, rank);
+            return labels.distance(v, rank);
+        }
+
+        public List<Integer> getPath(int v, int rank) {
+            checkRank(v, rank);
+            List<Integer> path = new ArrayList<>();
+            while (v != -1) {
+                path.add(v);
+                int label = labels.start[v] + rank;
+                v = labels.predecessor[label];
+                rank = labels.predecessorRank[label];
+            }
+            Collections.reverse(path);
+            return path;
+        }
+
+        public Metrics getMetrics() {
+            return metrics;
+        }
+
+        private void checkRank(int v, int rank) {
+            if (rank < 0 || rank >= labels.count[v]) {
+                throw new IndexOutOfBoundsException("Rank " + rank + " of " + labels.count[v] + " paths to " + v);
+            }
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(k).append(longest ? " longest" : " shortest").append(" paths per vertex:\n");
+            for (int v = 0; v < labels.count.length; v++) {
+                int count = labels.count[v];
+                if (count == 0) {
+                    continue;
+                }
+                sb.append("  To ").append(v).append(":");
+                for (int rank = 0; rank < count; rank++) {
+                    sb.append(rank == 0 ? " " : ", ").append(labels.distance(v, rank));
+                }
+                sb.append("\n");
+            }
+            sb.append("\n").append(metrics.getReport());
+            return sb.toString();
+        }
+    }
+
+    /**
+     * The K longest source-to-sink chains, longest first.
+     */
+    public static class CriticalChainsResult {
+        private final PathsResult labels;
+        private final int[] endVertex;
+        private final int[] endRank;
+
+        CriticalChainsResult(PathsResult labels, int[] endVertex, int[] endRank) {
+            this.labels = labels;
+            this.endVertex = endVertex;
+            this.endRank = endRank;
+        }
+
+        /**
+         * Number of chains, at most K.
+         */
+        public int size() {
+            return endVertex.length;
+        }
+
+        public long getLength(int i) {
+            return labels.getDistance(endVertex[i], endRank[i]);
+        }
+
+        public List<Integer> getPath(int i) {
+            return labels.getPath(endVertex[i], endRank[i]);
+        }
+
+        public Metrics getMetrics() {
+            return labels.getMetrics();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(size()).append(" most critical chains:\n");
+            for (int i = 0; i < size(); i++) {
+                sb.append("  ").append(i + 1).append(". Length ").append(getLength(i))
+                        .append(": ").append(getPath(i)).append("\n");
+            }
+            sb.append("\n").append(getMetrics().getReport());
+            return sb.toString();
+        }
+    }
+}
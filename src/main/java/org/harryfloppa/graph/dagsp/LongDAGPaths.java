@@ -0,0 +1,305 @@
+package org.harryfloppa.graph.dagsp;
+
+import org.harryfloppa.common.Metrics;
+import org.harryfloppa.common.MetricsImpl;
+import org.harryfloppa.graph.LongWeightedGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Shortest, longest and critical paths in a DAG with long weights, for
+ * costs whose sums overflow {@link DAGShortestPath} and {@link DAGLongestPath}.
+ * Time complexity: O(V + E)
+ *
+ * Works on primitive arrays throughout. The topological order is computed
+ * once, on construction; sums that overflow a long saturate. Each call has
+ * its own metrics and result arrays, so one instance may serve concurrent calls.
+ */
+public class LongDAGPaths {
+    private final LongWeightedGraph graph;
+    private final long[] nodeWeights;   // per-vertex weights, or null for edge weights only
+    private final int[] order;
+
+    public LongDAGPaths(LongWeightedGraph graph) {
+        this(graph, null);
+    }
+
+    /**
+     * Node-weighted, as described on {@link DAGShortestPath}; {@code nodeWeights} may be null.
+     */
+    public LongDAGPaths(LongWeightedGraph graph, long[] nodeWeights) {
+        if (!graph.isDirected()) {
+            throw new IllegalArgumentException("DAG paths require a directed graph");
+        }
+        if (nodeWeights != null && nodeWeights.length != graph.getVertexCount()) {
+            throw new IllegalArgumentException("Expected " + graph.getVertexCount() + " node weights");
+        }
+        this.graph = graph;
+        this.nodeWeights = nodeWeights == null ? null : nodeWeights.clone();
+        this.order = topologicalOrder(graph);
+    }
+
+    private static int[] topologicalOrder(LongWeightedGraph graph) {
+        int n = graph.getVertexCount();
+        int[] inDegree = new int[n];
+        for (int e = 0; e < graph.getOffset(n); e++) {
+            inDegree[graph.getTarget(e)]++;
+        }
+        int[] queue = new int[n];
+        int tail = 0;
+        for (int v = 0; v < n; v++) {
+            if (inDegree[v] == 0) {
+                queue[tail++] = v;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int u = queue[head];
+            for (int e = graph.getOffset(u); e < graph.getOffset(u + 1); e++) {
+                if (--inDegree[graph.getTarget(e)] == 0) {
+                    queue[tail++] = graph.getTarget(e);
+                }
+            }
+        }
+        if (tail < n) {
+            throw new IllegalArgumentException("Graph contains a cycle - not a DAG");
+        }
+        return queue;
+    }
+
+    public PathResult computeShortestPaths(int source) {
+        return computePaths(source, false);
+    }
+
+    public PathResult computeLongestPaths(int source) {
+        return computePaths(source, true);
+    }
+
+    private PathResult computePaths(int source, boolean longest) {
+        int n = graph.getVertexCount();
+        if (source < 0 || source >= n) {
+            throw new IllegalArgumentException("Source vertex out of bounds");
+        }
+        Metrics metrics = new MetricsImpl();
+        metrics.startTiming();
+
+        long unreached = longest ? Long.MIN_VALUE : Long.MAX_VALUE;
+        long[] dist = new long[n];
+        int[] parent = new int[n];
+        Arrays.fill(dist, unreached);
+        Arrays.fill(parent, -1);
+        long[] w = nodeWeights;
+        dist[source] = w == null ? 0 : w[source];
+
+        long relaxations = 0;
+        long updates = 0;
+        long saturated = 0;
+        for (int u : order) {
+            long du = dist[u];
+            if (du == unreached) {
+                continue;
+            }
+            for (int e = graph.getOffset(u); e < graph.getOffset(u + 1); e++) {
+                int v = graph.getTarget(e);
+                long weight = graph.getWeight(e);
+                long newDist = SaturatingMath.add(du, weight);
+                boolean clamped = newDist != du + weight;   // the wrapped sum differs only when clamped
+                if (w != null) {
+                    long partial = newDist;
+                    newDist = SaturatingMath.add(partial, w[v]);
+                    clamped |= newDist != partial + w[v];
+                }
+                relaxations++;
+                if (clamped) {
+                    saturated++;
+                }
+                if (longest ? newDist > dist[v] : newDist < dist[v]) {
+                    dist[v] = newDist;
+                    parent[v] = u;
+                    updates++;
+                }
+            }
+        }
+
+        metrics.stopTiming();
+        addCounts(metrics, relaxations, updates, saturated);
+        return new PathResult(source, dist, parent, unreached, longest, metrics);
+    }
+
+    public CriticalPathResult computeCriticalPath() {
+        int n = graph.getVertexCount();
+        Metrics metrics = new MetricsImpl();
+        metrics.startTiming();
+
+        // Every vertex may start the path
+        long[] w = nodeWeights;
+        long[] dist = w == null ? new long[n] : w.clone();
+        int[] parent = new int[n];
+        Arrays.fill(parent, -1);
+
+        long relaxations = 0;
+        long updates = 0;
+        long saturated = 0;
+        for (int u : order) {
+            long du = dist[u];
+            for (int e = graph.getOffset(u); e < graph.getOffset(u + 1); e++) {
+                int v = graph.getTarget(e);
+                long weight = graph.getWeight(e);
+                long newDist = SaturatingMath.add(du, weight);
+                boolean clamped = newDist != du + weight;   // the wrapped sum differs only when clamped
+                if (w != null) {
+                    long partial = newDist;
+                    newDist = SaturatingMath.add(partial, w[v]);
+                    clamped |= newDist != partial + w[v];
+                }
+                relaxations++;
+                if (clamped) {
+                    saturated++;
+                }
+                if (newDist > dist[v]) {
+                    dist[v] = newDist;
+                    parent[v] = u;
+                    updates++;
+                }
+            }
+        }
+
+        long maxDist = 0;
+        int endVertex = 0;
+        for (int v = 0; v < n; v++) {
+            if (dist[v] > maxDist) {
+                maxDist = dist[v];
+                endVertex = v;
+            }
+        }
+        List<Integer> path = new ArrayList<>();
+        for (int current = n == 0 ? -1 : endVertex; current != -1; current = parent[current]) {
+            path.add(current);
+        }
+        Collections.reverse(path);
+
+        metrics.stopTiming();
+        addCounts(metrics, relaxations, updates, saturated);
+        return new CriticalPathResult(path, maxDist, metrics);
+    }
+
+    private static void addCounts(Metrics metrics, long relaxations, long updates, long saturated) {
+        if (relaxations > 0) {
+            metrics.addToCounter("relaxations", relaxations);
+        }
+        if (updates > 0) {
+            metrics.addToCounter("distance_updates", updates);
+        }
+        if (saturated > 0) {
+            metrics.addToCounter("saturated_sums", saturated);
+        }
+    }
+
+    /**
+     * Shortest or longest distances from one source.
+     */
+    public static class PathResult {
+        private final int source;
+        private final long[] distances;
+        private final int[] parent;
+        private final long unreached;
+        private final boolean longest;
+        private final Metrics metrics;
+
+        PathResult(int source, long[] distances, int[] parent, long unreached, boolean longest, Metrics metrics) {
+            this.source = source;
+            this.distances = distances;
+            this.parent = parent;
+            this.unreached = unreached;
+            this.longest = longest;
+            this.metrics = metrics;
+        }
+
+        public int getSource() {
+            return source;
+        }
+
+        public long[] getDistances() {
+            return distances;
+        }
+
+        public long getDistance(int v) {
+            return distances[v];
+        }
+
+        public boolean isReachable(int v) {
+            return distances[v] != unreached;
+        }
+
+        /**
+         * Predecessor of {@code v} on its path from the source, or -1.
+         */
+        public int getParent(int v) {
+            return parent[v];
+        }
+
+        public List<Integer> getPath(int dest) {
+            if (!isReachable(dest)) {
+                return Collections.emptyList();
+            }
+            List<Integer> path = new ArrayList<>();
+            for (int current = dest; current != -1; current = parent[current]) {
+                path.add(current);
+            }
+            Collections.reverse(path);
+            return path;
+        }
+
+        public Metrics getMetrics() {
+            return metrics;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(longest ? "Longest" : "Shortest").append(" Paths from source ").append(source).append(":\n");
+            for (int v = 0; v < distances.length; v++) {
+                sb.append("  To ").append(v).append(": ");
+                if (isReachable(v)) {
+                    sb.append("distance = ").append(distances[v]).append(", path = ").append(getPath(v));
+                } else {
+                    sb.append("unreachable");
+                }
+                sb.append("\n");
+            }
+            sb.append("\n").append(metrics.getReport());
+            return sb.toString();
+        }
+    }
+
+    public static class CriticalPathResult {
+        private final List<Integer> path;
+        private final long length;
+        private final Metrics metrics;
+
+        CriticalPathResult(List<Integer> path, long length, Metrics metrics) {
+            this.path = path;
+            this.length = length;
+            this.metrics = metrics;
+        }
+
+        public List<Integer> getPath() {
+            return path;
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        public Metrics getMetrics() {
+            return metrics;
+        }
+
+        @Override
+        public String toString() {
+            return "Critical Path:\n  Path: " + path + "\n  Length: " + length + "\n\n" + metrics.getReport();
+        }
+    }
+}
@@ -0,0 +1,450 @@
+package org.harryfloppa.graph.dagsp;
+
+import org.harryfloppa.common.Metrics;
+import org.harryfloppa.common.MetricsImpl;
+import org.harryfloppa.graph.AdjacencyGraph;
+import org.harryfloppa.graph.topo.KahnTopologicalSort;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Number of distinct paths from a source to every vertex of a DAG, and the
+ * distribution of their total weights. A path's weight is the sum of its
+ * edge weights; vertex weights are not supported.
+ *
+ * Vertices reachable from the source are grouped by depth (longest edge
+ * count from the source). A vertex depends only on its predecessors, which
+ * all lie at lower depths, so each level is split into ForkJoin tasks that
+ * pull from a reverse adjacency in CSR form.
+ *
+ * Counts are kept as longs modulo 2^64. A vertex whose count wraps is
+ * flagged, and after the DP the exact {@link BigInteger} counts of the
+ * flagged vertices alone are computed in a second, sequential pass.
+ */
+public class PathCounter {
+    private static final int SPLIT_THRESHOLD = 256;
+    /** Largest maxWeight whose maxWeight + 2 buckets still fit in an array. */
+    static final int MAX_DISTRIBUTION_WEIGHT = Integer.MAX_VALUE - 10;
+
+    private final AdjacencyGraph graph;
+    private final KahnTopologicalSort topoSort;
+    private final List<Integer> topologicalOrder;   // precomputed, or null to sort on every call
+    private final ForkJoinPool pool;
+
+    public PathCounter(AdjacencyGraph graph) {
+        this(graph, null, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * {@code topologicalOrder} may be null, in which case every count sorts first.
+     */
+    public PathCounter(AdjacencyGraph graph, List<Integer> topologicalOrder, ForkJoinPool pool) {
+        if (!graph.isDirected()) {
+            throw new IllegalArgumentException("Path counting requires a directed graph");
+        }
+        if (topologicalOrder != null && topologicalOrder.size() != graph.getVertexCount()) {
+            throw new IllegalArgumentException("Topological order does not cover every vertex");
+        }
+        this.graph = graph;
+        this.topoSort = topologicalOrder == null ? new KahnTopologicalSort(graph) : null;
+        this.topologicalOrder = topologicalOrder == null ? null : List.copyOf(topologicalOrder);
+        this.pool = pool;
+    }
+
+    public PathCountResult countPaths(int source) {
+        Metrics metrics = new MetricsImpl();
+        metrics.startTiming();
+        Levels levels = new Levels(source, metrics);
+
+        int n = graph.getVertexCount();
+        long[] counts = new long[n];
+        boolean[] overflowed = new boolean[n];
+        counts[source] = 1;
+        levels.forEachVertex(v -> {
+            long count = 0;
+            boolean overflow = false;
+            for (int e = levels.inOffsets[v]; e < levels.inOffsets[v + 1]; e++) {
+                int u = levels.inSources[e];
+                long sum = count + counts[u];
+                // Unsigned carry out of bit 63
+                overflow |= overflowed[u] || Long.compareUnsigned(sum, count) < 0;
+                count = sum;
+            }
+            counts[v] = count;
+            overflowed[v] = overflow;
+        });
+
+        // Exact counts only where the longs wrapped; levels are in topological order
+        BigInteger[] exact = null;
+        int overflowedVertices = 0;
+        for (int i = 0; i < levels.size; i++) {
+            int v = levels.byLevel[i];
+            if (!overflowed[v]) {
+                continue;
+            }
+            if (exact == null) {
+                exact = new BigInteger[n];
+            }
+            BigInteger count = BigInteger.ZERO;
+            for (int e = levels.inOffsets[v]; e < levels.inOffsets[v + 1]; e++) {
+                int u = levels.inSources[e];
+                count = count.add(overflowed[u] ? exact[u] : unsigned(counts[u]));
+            }
+            exact[v] = count;
+            overflowedVertices++;
+        }
+
+        metrics.stopTiming();
+        if (overflowedVertices > 0) {
+            metrics.addToCounter("overflowed_vertices", overflowedVertices);
+        }
+        return new PathCountResult(source, counts, overflowed, exact, levels.reachable, metrics);
+    }
+
+    /**
+     * Number of paths from {@code source} to every vertex at each total weight
+     * 0..{@code maxWeight}, plus one bucket for heavier paths. Needs
+     * non-negative edge weights. Costs O(E * maxWeight) time and
+     * O(reachable vertices * maxWeight) memory; counts are modulo 2^64.
+     */
+    public WeightDistribution computeWeightDistribution(int source, int maxWeight) {
+        if (maxWeight < 0) {
+            throw new IllegalArgumentException("Maximum weight must not be negative");
+        }
+        if (maxWeight > MAX_DISTRIBUTION_WEIGHT) {
+            throw new IllegalArgumentException("Maximum weight exceeds " + MAX_DISTRIBUTION_WEIGHT);
+        }
+        Metrics metrics = new MetricsImpl();
+        metrics.startTiming();
+        Levels levels = new Levels(source, metrics);
+        for (int w : levels.inWeights) {
+            if (w < 0) {
+                throw new IllegalArgumentException("Weight distribution requires non-negative weights");
+            }
+        }
+
+        int slots = maxWeight + 2;   // one per weight, then "above maxWeight"
+        long[][] counts = new long[graph.getVertexCount()][];
+        counts[source] = new long[slots];
+        counts[source][0] = 1;
+        levels.forEachVertex(v -> {
+            long[] mine = new long[slots];
+            for (int e = levels.inOffsets[v]; e < levels.inOffsets[v + 1]; e++) {
+                long[] theirs = counts[levels.inSources[e]];
+                int w = levels.inWeights[e];
+                // Everything shifted past maxWeight collapses into the last slot
+                int kept = Math.max(0, slots - 1 - w);
+                for (int x = 0; x < kept; x++) {
+                    mine[x + w] += theirs[x];
+                }
+                for (int x = kept; x < slots; x++) {
+                    mine[slots - 1] += theirs[x];
+                }
+            }
+            counts[v] = mine;
+        });
+
+        metrics.stopTiming();
+        return new WeightDistribution(source, maxWeight, counts, metrics);
+    }
+
+    private static BigInteger unsigned(long value) {
+        BigInteger big = BigInteger.valueOf(value & Long.MAX_VALUE);
+        return value < 0 ? big.setBit(63) : big;
+    }
+
+    private List<Integer> topologicalOrder() {
+        if (topologicalOrder != null) {
+            return topologicalOrder;
+        }
+        KahnTopologicalSort.TopoSortResult topoResult = topoSort.sort();
+        if (topoResult.hasCycle()) {
+            throw new IllegalArgumentException("Graph contains a cycle - not a DAG");
+        }
+        return topoResult.getOrder();
+    }
+
+    private interface VertexAction {
+        void apply(int v);
+    }
+
+    /**
+     * The vertices reachable from a source, bucketed by depth, and the
+     * reverse adjacency restricted to them.
+     */
+    private class Levels {
+        final boolean[] reachable;
+        final int[] inOffsets;
+        final int[] inSources;
+        final int[] inWeights;
+        final int[] byLevel;
+        final int[] levelStart;
+        final int size;
+
+        Levels(int source, Metrics metrics) {
+            int n = graph.getVertexCount();
+            if (source < 0 || source >= n) {
+                throw new IllegalArgumentException("Vertex out of bounds: " + source);
+            }
+            List<Integer> order = topologicalOrder();
+
+            // Reachability and depth in one pass over the topological order
+            reachable = new boolean[n];
+            int[] depth = new int[n];
+            reachable[source] = true;
+            inOffsets = new int[n + 1];
+            int maxDepth = 0;
+            int count = 0;
+            long scanned = 0;
+            for (int u : order) {
+                if (!reachable[u]) {
+                    continue;
+                }
+                count++;
+                maxDepth = Math.max(maxDepth, depth[u]);
+                for (AdjacencyGraph.NeighborIterator it = graph.neighbors(u); it.hasNext(); ) {
+                    int v = it.next();
+                    reachable[v] = true;
+                    depth[v] = Math.max(depth[v], depth[u] + 1);
+                    inOffsets[v + 1]++;
+                    scanned++;
+                }
+            }
+            size = count;
+
+            for (int v = 0; v < n; v++) {
+                inOffsets[v + 1] += inOffsets[v];
+            }
+            inSources = new int[inOffsets[n]];
+            inWeights = new int[inOffsets[n]];
+            int[] fill = Arrays.copyOf(inOffsets, n);
+            for (int u : order) {
+                if (reachable[u]) {
+                    for (AdjacencyGraph.NeighborIterator it = graph.neighbors(u); it.hasNext(); ) {
+                        int v = it.next();
+                        inSources[fill[v]] = u;
+                        inWeights[fill[v]++] = it.weight();
+                    }
+                }
+            }
+
+            // Bucket reachable vertices by depth (counting sort); level 0 is the source alone
+            levelStart = new int[maxDepth + 2];
+            for (int v = 0; v < n; v++) {
+                if (reachable[v]) {
+                    levelStart[depth[v] + 1]++;
+                }
+            }
+            for (int d = 0; d <= maxDepth; d++) {
+                levelStart[d + 1] += levelStart[d];
+            }
+            byLevel = new int[size];
+            int[] next = levelStart.clone();
+            for (int v = 0; v < n; v++) {
+                if (reachable[v]) {
+                    byLevel[next[depth[v]]++] = v;
+                }
+            }
+
+            metrics.addToCounter("levels", maxDepth + 1);
+            if (scanned > 0) {
+                metrics.addToCounter("edges_scanned", scanned);
+            }
+        }
+
+        /**
+         * Applies {@code action} to every reachable vertex except the source, level by level.
+         */
+        void forEachVertex(VertexAction action) {
+            for (int d = 1; d + 1 < levelStart.length; d++) {
+                int lo = levelStart[d];
+                int hi = levelStart[d + 1];
+                if (hi - lo <= SPLIT_THRESHOLD) {
+                    for (int i = lo; i < hi; i++) {
+                        action.apply(byLevel[i]);
+                    }
+                } else {
+                    pool.invoke(new LevelTask(action, lo, hi));
+                }
+            }
+        }
+
+        /**
+         * Runs the action on byLevel[lo..hi), splitting in halves above the threshold.
+         */
+        private class LevelTask extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            private final VertexAction action;
+            private final int lo;
+            private final int hi;
+
+            LevelTask(VertexAction action, int lo, int hi) {
+                this.action = action;
+                this.lo = lo;
+                this.hi = hi;
+            }
+
+            @Override
+            protected void compute() {
+                if (hi - lo <= SPLIT_THRESHOLD) {
+                    for (int i = lo; i < hi; i++) {
+                        action.apply(byLevel[i]);
+                    }
+                    return;
+                }
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new LevelTask(action, lo, mid), new LevelTask(action, mid, hi));
+            }
+        }
+    }
+
+    /**
+     * Path counts from one source. {@link #getCount(int)} is modulo 2^64;
+     * {@link #getExactCount(int)} is exact.
+     */
+    public static class PathCountResult {
+        private final int source;
+        private final long[] counts;
+        private final boolean[] overflowed;
+        private final BigInteger[] exact;
+        private final boolean[] reachable;
+        private final Metrics metrics;
+
+        PathCountResult(int source, long[] counts, boolean[] overflowed, BigInteger[] exact,
+                        boolean[] reachable, Metrics metrics) {
+            this.source = source;
+            this.counts = counts;
+            this.overflowed = overflowed;
+            this.exact = exact;
+            this.reachable = reachable;
+            this.metrics = metrics;
+        }
+
+        public int getSource() {
+            return source;
+        }
+
+        /**
+         * Number of paths to {@code v} modulo 2^64, as an unsigned long.
+         */
+        public long getCount(int v) {
+            return counts[v];
+        }
+
+        /**
+         * Whether {@link #getCount(int)} is the exact count, i.e. below 2^64.
+         */
+        public boolean isExact(int v) {
+            return !overflowed[v];
+        }
+
+        public BigInteger getExactCount(int v) {
+            return overflowed[v] ? exact[v] : unsigned(counts[v]);
+        }
+
+        public boolean isReachable(int v) {
+            return reachable[v];
+        }
+
+        public Metrics getMetrics() {
+            return metrics;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Path counts from source ").append(source).append(":\n");
+            for (int v = 0; v < counts.length; v++) {
+                if (reachable[v]) {
+                    sb.append("  To ").append(v).append(": ").append(getExactCount(v)).append("\n");
+                }
+            }
+            sb.append("\n").append(metrics.getReport());
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Path counts from one source by total weight, modulo 2^64.
+     */
+    public static class WeightDistribution {
+        private final int source;
+        private final int maxWeight;
+        private final long[][] counts;
+        private final Metrics metrics;
+
+        WeightDistribution(int source, int maxWeight, long[][] counts, Metrics metrics) {
+            this.source = source;
+            this.maxWeight = maxWeight;
+            this.counts = counts;
+            this.metrics = metrics;
+        }
+
+        public int getSource() {
+            return source;
+        }
+
+        public int getMaxWeight() {
+            return maxWeight;
+        }
+
+        /**
+         * Paths to {@code v} of total weight exactly {@code weight}.
+         */
+        public long getPathCount(int v, int weight) {
+            if (weight < 0 || weight > maxWeight) {
+                throw new IllegalArgumentException("Weight outside 0.." + maxWeight + ": " + weight);
+            }
+            return counts[v] == null ? 0 : counts[v][weight];
+        }
+
+        /**
+         * Paths to {@code v} heavier than {@link #getMaxWeight()}.
+         */
+        public long getPathCountAbove(int v) {
+            return counts[v] == null ? 0 : counts[v][maxWeight + 1];
+        }
+
+        /**
+         * Path counts to {@code v} in buckets [0, width), [width, 2 width), ...
+         * up to {@link #getMaxWeight()}, followed by one bucket for heavier paths.
+         */
+        public long[] getHistogram(int v, int bucketWidth) {
+            if (bucketWidth < 1) {
+                throw new IllegalArgumentException("Bucket width must be positive");
+            }
+            int buckets = maxWeight / bucketWidth + 1;
+            long[] histogram = new long[buckets + 1];
+            if (counts[v] != null) {
+                for (int x = 0; x <= maxWeight; x++) {
+                    histogram[x / bucketWidth] += counts[v][x];
+                }
+                histogram[buckets] = counts[v][maxWeight + 1];
+            }
+            return histogram;
+        }
+
+        public Metrics getMetrics() {
+            return metrics;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Path weight distribution from source ").append(source)
+                    .append(" (weights 0..").append(maxWeight).append(", then above):\n");
+            for (int v = 0; v < counts.length; v++) {
+                if (counts[v] != null) {
+                    sb.append("  To ").append(v).append(": ").append(Arrays.toString(counts[v])).append("\n");
+                }
+            }
+            sb.append("\n").append(metrics.getReport());
+            return sb.toString();
+        }
+    }
+}
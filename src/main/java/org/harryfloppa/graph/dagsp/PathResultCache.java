@@ -0,0 +1,234 @@
+package org.harryfloppa.graph.dagsp;
+
+import org.harryfloppa.common.Metrics;
+import org.harryfloppa.common.MetricsImpl;
+import org.harryfloppa.graph.AdjacencyGraph;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of per-source shortest and longest path results of one DAG.
+ *
+ * Entries are keyed by (graph version, source, kind) and charged at the size
+ * of their distance and parent arrays; once the byte budget is exceeded the
+ * least recently used entries are evicted. A change of
+ * {@link AdjacencyGraph#getVersion()} drops every entry. Concurrent misses on
+ * the same key compute the result once. Cached results are shared between
+ * callers, who must not modify their arrays. The graph must not be modified
+ * while a lookup is running.
+ */
+public class PathResultCache {
+    /** Bytes charged per entry on top of its two int arrays. */
+    static final long ENTRY_OVERHEAD = 96;
+
+    enum Kind {
+        SHORTEST, LONGEST
+    }
+
+    private final AdjacencyGraph graph;
+    private final DAGShortestPath shortest;
+    private final DAGLongestPath longest;
+    private final long maxBytes;
+
+    // Guarded by this
+    private final LinkedHashMap<Key, Object> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedVersion;
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+    private long coalesced;
+
+    private final ConcurrentHashMap<Key, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+
+    public PathResultCache(AdjacencyGraph graph, long maxBytes) {
+        this(graph, new DAGShortestPath(graph), new DAGLongestPath(graph), maxBytes);
+    }
+
+    /**
+     * Uses a precomputed topological order; only for graphs that are not modified.
+     */
+    public PathResultCache(AdjacencyGraph graph, List<Integer> topologicalOrder, long maxBytes) {
+        this(graph, topologicalOrder, null, maxBytes);
+    }
+
+    /**
+     * Caches node-weighted results; {@code nodeWeights} may be null.
+     */
+    public PathResultCache(AdjacencyGraph graph, List<Integer> topologicalOrder, int[] nodeWeights, long maxBytes) {
+        this(graph, new DAGShortestPath(graph, topologicalOrder, nodeWeights),
+                new DAGLongestPath(graph, topologicalOrder, nodeWeights), maxBytes);
+    }
+
+    private PathResultCache(AdjacencyGraph graph, DAGShortestPath shortest, DAGLongestPath longest, long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Cache budget must not be negative");
+        }
+        this.graph = graph;
+        this.shortest = shortest;
+        this.longest = longest;
+        this.maxBytes = maxBytes;
+        this.cachedVersion = graph.getVersion();
+    }
+
+    public DAGShortestPath.ShortestPathResult getShortestPaths(int source) {
+        return (DAGShortestPath.ShortestPathResult) get(Kind.SHORTEST, source);
+    }
+
+    public DAGLongestPath.LongestPathResult getLongestPaths(int source) {
+        return (DAGLongestPath.LongestPathResult) get(Kind.LONGEST, source);
+    }
+
+    private Object get(Kind kind, int source) {
+        if (source < 0 || source >= graph.getVertexCount()) {
+            throw new IllegalArgumentException("Vertex out of bounds: " + source);
+        }
+        Key key = new Key(graph.getVersion(), source, kind);
+        synchronized (this) {
+            if (key.version != cachedVersion) {
+                invalidate(key.version);
+            }
+            Object cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = loading.putIfAbsent(key, mine);
+        if (running != null) {
+            synchronized (this) {
+                coalesced++;
+            }
+            return await(running);
+        }
+        try {
+            Object result;
+            synchronized (this) {
+                // Another loader may have finished between the miss and putIfAbsent
+                result = entries.get(key);
+            }
+            if (result == null) {
+                result = load(kind, source);
+                store(key, result);
+            }
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, mine);
+        }
+    }
+
+    /**
+     * Computes one result on a miss.
+     */
+    Object load(Kind kind, int source) {
+        return kind == Kind.SHORTEST ? shortest.computeShortestPaths(source) : longest.computeLongestPaths(source);
+    }
+
+    private synchronized void store(Key key, Object result) {
+        long size = entryBytes();
+        if (key.version != cachedVersion || size > maxBytes) {
+            return;
+        }
+        if (entries.put(key, result) == null) {
+            bytes += size;
+        }
+        for (Iterator<Object> it = entries.values().iterator(); bytes > maxBytes && it.hasNext(); ) {
+            it.next();
+            it.remove();
+            bytes -= size;
+            evictions++;
+        }
+    }
+
+    private void invalidate(long version) {
+        if (!entries.isEmpty()) {
+            invalidations++;
+        }
+        entries.clear();
+        bytes = 0;
+        cachedVersion = version;
+    }
+
+    private long entryBytes() {
+        return 8L * graph.getVertexCount() + ENTRY_OVERHEAD;
+    }
+
+    private static Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw (Error) cause;
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Snapshot of the cache counters: hits, misses (including coalesced ones),
+     * evictions, invalidations and the current entry count and size.
+     */
+    public synchronized Metrics getMetrics() {
+        Metrics metrics = new MetricsImpl();
+        metrics.addToCounter("cache_hits", hits);
+        metrics.addToCounter("cache_misses", misses);
+        metrics.addToCounter("coalesced_loads", coalesced);
+        metrics.addToCounter("evictions", evictions);
+        metrics.addToCounter("invalidations", invalidations);
+        metrics.addToCounter("entries", entries.size());
+        metrics.addToCounter("bytes", bytes);
+        return metrics;
+    }
+
+    private static final class Key {
+        final long version;
+        final int source;
+        final Kind kind;
+
+        Key(long version, int source, Kind kind) {
+            this.version = version;
+            this.source = source;
+            this.kind = kind;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return version == other.version && source == other.source && kind == other.kind;
+        }
+
+        @Override
+        public int hashCode() {
+            return (Long.hashCode(version) * 31 + source) * 2 + kind.ordinal();
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package org.harryfloppa.graph.dagsp;
+
+import org.harryfloppa.common.Metrics;
+import org.harryfloppa.common.MetricsImpl;
+import org.harryfloppa.graph.AdjacencyGraph;
+import org.harryfloppa.graph.topo.KahnTopologicalSort;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * Monte Carlo PERT: the critical path length when edge durations are
+ * uncertain. Only edges carry durations; vertex weights are not supported.
+ *
+ * Every edge has a three-point estimate: a low and a high bound around its
+ * weight, which is the most likely value. Durations are drawn from the
+ * triangular distribution over (low, weight, high). Edges are numbered by
+ * source vertex, then in neighbor order; the graph is copied into CSR arrays
+ * in topological order once, at construction.
+ *
+ * Scenarios run in batches of up to {@value #MAX_LANES} lanes, one lane per
+ * scenario. Per-vertex finish times are stored lane-contiguous, so each edge
+ * relaxes all lanes in one loop the JIT can vectorize. Batches run in
+ * parallel on a ForkJoin pool. Each batch draws from its own generator,
+ * split in batch order from one generator seeded with the seed, so results
+ * do not depend on the number of threads.
+ */
+public class PertSimulation {
+    static final int MAX_LANES = 64;
+    /** Finish-time slots (vertices times lanes) per batch, bounding memory per thread. */
+    private static final int SLOT_BUDGET = 1 << 20;
+
+    private final int n;
+    private final int[] order;       // topological order
+    private final int[] offsets;     // first edge of each vertex, n + 1 entries
+    private final int[] targets;
+    private final double[] low;
+    private final double[] span;     // high - low
+    private final double[] modeCdf;  // (mode - low) / span
+    private final double[] lowArea;  // span * (mode - low)
+    private final double[] highArea; // span * (high - mode)
+    private final ForkJoinPool pool;
+
+    public PertSimulation(AdjacencyGraph graph, int[] low, int[] high) {
+        this(graph, null, low, high, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * {@code topologicalOrder} may be null. Requires
+     * {@code low[e] <= weight(e) <= high[e]} for every edge e.
+     */
+    public PertSimulation(AdjacencyGraph graph, List<Integer> topologicalOrder, int[] low, int[] high,
+                          ForkJoinPool pool) {
+        if (!graph.isDirected()) {
+            throw new IllegalArgumentException("PERT simulation requires a directed graph");
+        }
+        this.n = graph.getVertexCount();
+        this.pool = pool;
+        if (topologicalOrder == null) {
+            KahnTopologicalSort.TopoSortResult topo = new KahnTopologicalSort(graph).sort();
+            if (topo.hasCycle()) {
+                throw new IllegalArgumentException("Graph contains a cycle - not a DAG");
+            }
+            topologicalOrder = topo.getOrder();
+        }
+        if (topologicalOrder.size() != n) {
+            throw new IllegalArgumentException("Topological order does not cover every vertex");
+        }
+        this.order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = topologicalOrder.get(i);
+        }
+
+        this.offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] = offsets[u] + graph.getOutDegree(u);
+        }
+        int m = offsets[n];
+        if (low.length != m || high.length != m) {
+            throw new IllegalArgumentException("Expected " + m + " low and high estimates");
+        }
+        this.targets = new int[m];
+        this.low = new double[m];
+        this.span = new double[m];
+        this.modeCdf = new double[m];
+        this.lowArea = new double[m];
+        this.highArea = new double[m];
+        for (int u = 0; u < n; u++) {
+            int e = offsets[u];
+            for (AdjacencyGraph.NeighborIterator it = graph.neighbors(u); it.hasNext(); e++) {
+                targets[e] = it.next();
+                int mode = it.weight();
+                if (low[e] > mode || high[e] < mode) {
+                    throw new IllegalArgumentException("Estimate of edge " + e + " does not contain its weight "
+                            + mode + ": [" + low[e] + ", " + high[e] + "]");
+                }
+                double s = (double) high[e] - low[e];
+                this.low[e] = low[e];
+                this.span[e] = s;
+                this.modeCdf[e] = s == 0 ? 1 : (mode - low[e]) / s;
+                this.lowArea[e] = s * (mode - low[e]);
+                this.highArea[e] = s * (high[e] - mode);
+            }
+        }
+    }
+
+    /**
+     * Estimates of {@code weight * lowFactor} to {@code weight * highFactor}, rounded
+     * outwards; needs non-negative weights.
+     */
+    public static PertSimulation withSpread(AdjacencyGraph graph, double lowFactor, double highFactor) {
+        if (lowFactor < 0 || lowFactor > 1 || highFactor < 1) {
+            throw new IllegalArgumentException("Expected 0 <= lowFactor <= 1 <= highFactor");
+        }
+        int m = 0;
+        for (int u = 0; u < graph.getVertexCount(); u++) {
+            m += graph.getOutDegree(u);
+        }
+        int[] low = new int[m];
+        int[] high = new int[m];
+        int e = 0;
+        for (int u = 0; u < graph.getVertexCount(); u++) {
+            for (AdjacencyGraph.NeighborIterator it = graph.neighbors(u); it.hasNext(); e++) {
+                it.next();
+                int w = it.weight();
+                if (w < 0) {
+                    throw new IllegalArgumentException("Spread estimates require non-negative weights");
+                }
+                low[e] = (int) Math.floor(w * lowFactor);
+                high[e] = (int) Math.min(Integer.MAX_VALUE, Math.ceil(w * highFactor));
+            }
+        }
+        return new PertSimulation(graph, low, high);
+    }
+
+    /**
+     * Runs {@code scenarios} longest-path sweeps; the same seed gives the same result.
+     */
+    public PertResult simulate(int scenarios, long seed) {
+        if (scenarios < 1) {
+            throw new IllegalArgumentException("Scenario count must be positive");
+        }
+        Metrics metrics = new MetricsImpl();
+        metrics.startTiming();
+
+        int lanes = Math.max(1, Math.min(MAX_LANES, SLOT_BUDGET / Math.max(1, n)));
+        int batches = (scenarios + lanes - 1) / lanes;
+        double[] completion = new double[scenarios];
+        AtomicIntegerArray critical = new AtomicIntegerArray(n);
+        SplittableRandom[] streams = batchStreams(seed, batches);
+        pool.submit(() -> IntStream.range(0, batches).parallel().forEach(batch -> {
+            int first = batch * lanes;
+            runBatch(first, Math.min(lanes, scenarios - first), lanes, streams[batch], completion, critical);
+        })).join();
+
+        long[] criticalCounts = new long[n];
+        for (int v = 0; v < n; v++) {
+            criticalCounts[v] = critical.get(v);
+        }
+        Arrays.sort(completion);
+
+        metrics.stopTiming();
+        metrics.addToCounter("scenarios", scenarios);
+        metrics.addToCounter("batches", batches);
+        if (targets.length > 0) {
+            metrics.addToCounter("edge_samples", (long) targets.length * scenarios);
+        }
+        return new PertResult(completion, criticalCounts, metrics);
+    }
+
+    /**
+     * One independent generator per batch, split from a root generator in batch order.
+     */
+    static SplittableRandom[] batchStreams(long seed, int batches) {
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[batches];
+        for (int b = 0; b < batches; b++) {
+            streams[b] = root.split();
+        }
+        return streams;
+    }
+
+    /**
+     * One batch of {@code width} scenarios starting at scenario {@code first}.
+     */
+    private void runBatch(int first, int width, int stride, SplittableRandom random, double[] completion,
+                          AtomicIntegerArray critical) {
+        double[] finish = new double[n * stride];
+        int[] parent = new int[n * stride];
+        Arrays.fill(parent, -1);
+        double[] sample = new double[width];
+
+        for (int u : order) {
+            int ub = u * stride;
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                for (int lane = 0; lane < width; lane++) {
+                    sample[lane] = sampleTriangular(e, random.nextDouble());
+                }
+                int vb = targets[e] * stride;
+                for (int lane = 0; lane < width; lane++) {
+                    double candidate = finish[ub + lane] + sample[lane];
+                    if (candidate > finish[vb + lane]) {
+                        finish[vb + lane] = candidate;
+                        parent[vb + lane] = u;
+                    }
+                }
+            }
+        }
+
+        for (int lane = 0; lane < width; lane++) {
+            int end = 0;
+            for (int v = 1; v < n; v++) {
+                if (finish[v * stride + lane] > finish[end * stride + lane]) {
+                    end = v;
+                }
+            }
+            completion[first + lane] = n == 0 ? 0 : finish[end * stride + lane];
+            for (int v = n == 0 ? -1 : end; v != -1; v = parent[v * stride + lane]) {
+                critical.incrementAndGet(v);
+            }
+        }
+    }
+
+    /**
+     * Inverse CDF of the triangular distribution of edge {@code e} at {@code p}.
+     */
+    private double sampleTriangular(int e, double p) {
+        if (p < modeCdf[e]) {
+            return low[e] + Math.sqrt(p * lowArea[e]);
+        }
+        return low[e] + span[e] - Math.sqrt((1 - p) * highArea[e]);
+    }
+
+    /**
+     * Distribution of the critical path length over all scenarios, and how
+     * often each vertex was on the critical path.
+     */
+    public static class PertResult {
+        private final double[] completion;   // sorted
+        private final long[] criticalCounts;
+        private final Metrics metrics;
+
+        PertResult(double[] completion, long[] criticalCounts, Metrics metrics) {
+            this.completion = completion;
+            this.criticalCounts = criticalCounts;
+            this.metrics = metrics;
+        }
+
+        public int getScenarioCount() {
+            return completion.length;
+        }
+
+        /**
+         * Completion time at quantile {@code q} in [0, 1] (nearest rank), e.g. 0.9 for P90.
+         */
+        public double getQuantile(double q) {
+            if (q < 0 || q > 1) {
+                throw new IllegalArgumentException("Quantile outside [0, 1]: " + q);
+            }
+            int rank = (int) Math.ceil(q * completion.length) - 1;
+            return completion[Math.max(0, rank)];
+        }
+
+        public double getMean() {
+            double sum = 0;
+            for (double c : completion) {
+                sum += c;
+            }
+            return sum / completion.length;
+        }
+
+        public double getMin() {
+            return completion[0];
+        }
+
+        public double getMax() {
+            return completion[completion.length - 1];
+        }
+
+        /**
+         * Fraction of scenarios in which {@code v} lies on the critical path.
+         */
+        public double getCriticalityIndex(int v) {
+            return (double) criticalCounts[v] / completion.length;
+        }
+
+        public Metrics getMetrics() {
+            return metrics;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("PERT simulation of ").append(completion.length).append(" scenarios:\n");
+            sb.append(String.format("  Completion: mean %.2f, min %.2f, P50 %.2f, P90 %.2f, P99 %.2f, max %.2f%n",
+                    getMean(), getMin(), getQuantile(0.5), getQuantile(0.9), getQuantile(0.99), getMax()));
+            sb.append("  Most critical tasks:");
+            Integer[] byCriticality = new Integer[criticalCounts.length];
+            for (int v = 0; v < byCriticality.length; v++) {
+                byCriticality[v] = v;
+            }
+            Arrays.sort(byCriticality, (a, b) -> Long.compare(criticalCounts[b], criticalCounts[a]));
+            for (int i = 0; i < Math.min(10, byCriticality.length) && criticalCounts[byCriticality[i]] > 0; i++) {
+                sb.append(String.format(" %d (%.2f)", byCriticality[i], getCriticalityIndex(byCriticality[i])));
+            }
+            sb.append("\n\n").append(metrics.getReport());
+            return sb.toString();
+        }
+    }
+}
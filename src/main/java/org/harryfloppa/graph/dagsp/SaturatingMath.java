@@ -0,0 +1,29 @@
+package org.harryfloppa.graph.dagsp;
+
+/**
+ * Path sums of the int and long engines, clamped instead of wrapped on
+ * overflow. The ranges stop one short of the type's MIN_VALUE and MAX_VALUE,
+ * which mark unreachable vertices, so a saturated vertex stays reachable.
+ * The external and sharded sweeps clamp their int sums here as well.
+ */
+public final class SaturatingMath {
+    static final int MAX = Integer.MAX_VALUE - 1;
+    static final int MIN = Integer.MIN_VALUE + 1;
+    static final long LONG_MAX = Long.MAX_VALUE - 1;
+    static final long LONG_MIN = Long.MIN_VALUE + 1;
+
+    private SaturatingMath() {
+    }
+
+    public static int clamp(long sum) {
+        return sum > MAX ? MAX : sum < MIN ? MIN : (int) sum;
+    }
+
+    public static long add(long a, long b) {
+        long sum = a + b;
+        if (((a ^ sum) & (b ^ sum)) < 0) {
+            return a < 0 ? LONG_MIN : LONG_MAX;   // both operands had the sign that overflowed
+        }
+        return sum > LONG_MAX ? LONG_MAX : sum < LONG_MIN ? LONG_MIN : sum;
+    }
+}
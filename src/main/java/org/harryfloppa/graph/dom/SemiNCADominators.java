@@ -0,0 +1,372 @@
+package org.harryfloppa.graph.dom;
+
+import org.harryfloppa.common.Metrics;
+import org.harryfloppa.common.MetricsImpl;
+import org.harryfloppa.graph.AdjacencyGraph;
+import org.harryfloppa.graph.Graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Dominator trees with the semi-NCA algorithm (Georgiadis): semidominators
+ * as in Lengauer-Tarjan, then immediate dominators as nearest common
+ * ancestors in the DFS tree. Time complexity: O((V + E) log V), near linear
+ * in practice.
+ *
+ * Vertex d dominates v if every path from the root to v passes through d.
+ * The DFS and the path compression are iterative over primitive arrays, so
+ * million-vertex graphs need no deep call stack. Works on any directed
+ * graph, not only DAGs.
+ */
+public class SemiNCADominators {
+    private final AdjacencyGraph graph;
+
+    public SemiNCADominators(AdjacencyGraph graph) {
+        if (!graph.isDirected()) {
+            throw new IllegalArgumentException("Dominators require a directed graph");
+        }
+        this.graph = graph;
+    }
+
+    /**
+     * Dominators of every vertex reachable from {@code root}.
+     */
+    public DominatorTree compute(int root) {
+        checkVertex(root);
+        return compute(new int[] {root});
+    }
+
+    /**
+     * Dominators from a virtual start that precedes every vertex without
+     * incoming edges, i.e. the start of a project with several entry tasks.
+     * Vertices dominated by no real vertex have immediate dominator -1.
+     */
+    public DominatorTree computeFromSources() {
+        int n = graph.getVertexCount();
+        boolean[] hasPredecessor = new boolean[n];
+        for (int u = 0; u < n; u++) {
+            for (AdjacencyGraph.NeighborIterator it = graph.neighbors(u); it.hasNext(); ) {
+                hasPredecessor[it.next()] = true;
+            }
+        }
+        int[] roots = new int[n];
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            if (!hasPredecessor[v]) {
+                roots[count++] = v;
+            }
+        }
+        return compute(Arrays.copyOf(roots, count));
+    }
+
+    /**
+     * Post-dominators towards {@code exit}: d post-dominates v if every path
+     * from v to {@code exit} passes through d.
+     */
+    public static DominatorTree postDominators(Graph graph, int exit) {
+        return new SemiNCADominators(graph.reverse()).compute(exit);
+    }
+
+    /**
+     * Post-dominators towards a virtual end that follows every vertex without
+     * outgoing edges.
+     */
+    public static DominatorTree postDominatorsToSinks(Graph graph) {
+        return new SemiNCADominators(graph.reverse()).computeFromSources();
+    }
+
+    /**
+     * Runs from a virtual vertex n whose successors are {@code roots}.
+     */
+    private DominatorTree compute(int[] roots) {
+        int n = graph.getVertexCount();
+        Metrics metrics = new MetricsImpl();
+        metrics.startTiming();
+
+        // Successor and predecessor CSR arrays, virtual root included
+        int[] succStart = new int[n + 2];
+        int[] predStart = new int[n + 2];
+        for (int u = 0; u < n; u++) {
+            succStart[u + 1] = succStart[u] + graph.getOutDegree(u);
+        }
+        succStart[n + 1] = succStart[n] + roots.length;
+        int m = succStart[n + 1];
+        int[] succ = new int[m];
+        for (int u = 0; u < n; u++) {
+            int e = succStart[u];
+            for (AdjacencyGraph.NeighborIterator it = graph.neighbors(u); it.hasNext(); ) {
+                succ[e++] = it.next();
+            }
+        }
+        System.arraycopy(roots, 0, succ, succStart[n], roots.length);
+        for (int e = 0; e < m; e++) {
+            predStart[succ[e] + 1]++;
+        }
+        for (int v = 0; v <= n; v++) {
+            predStart[v + 1] += predStart[v];
+        }
+        int[] pred = new int[m];
+        int[] fill = Arrays.copyOf(predStart, n + 1);
+        for (int u = 0; u <= n; u++) {
+            for (int e = succStart[u]; e < succStart[u + 1]; e++) {
+                pred[fill[succ[e]]++] = u;
+            }
+        }
+
+        // Iterative DFS from the virtual root; preorder numbers index the arrays below
+        int[] pre = new int[n + 1];
+        Arrays.fill(pre, -1);
+        int[] vertex = new int[n + 1];
+        int[] parent = new int[n + 1];
+        int[] cursor = new int[n + 1];
+        int[] stack = new int[n + 1];
+        int size = 0;
+        int count = 0;
+        pre[n] = count;
+        vertex[count++] = n;
+        cursor[n] = succStart[n];
+        stack[size++] = n;
+        long edgesExplored = 0;
+        while (size > 0) {
+            int u = stack[size - 1];
+            if (cursor[u] == succStart[u + 1]) {
+                size--;
+                continue;
+            }
+            int v = succ[cursor[u]++];
+            edgesExplored++;
+            if (pre[v] < 0) {
+                pre[v] = count;
+                vertex[count] = v;
+                parent[count++] = pre[u];
+                cursor[v] = succStart[v];
+                stack[size++] = v;
+            }
+        }
+
+        // Semidominators, processing vertices in reverse preorder with a
+        // path-compressed forest; label holds the minimum semi on each path
+        int[] semi = new int[count];
+        int[] label = new int[count];
+        int[] ancestor = new int[count];
+        for (int i = 0; i < count; i++) {
+            semi[i] = i;
+            label[i] = i;
+            ancestor[i] = -1;
+        }
+        long compressions = 0;
+        for (int i = count - 1; i > 0; i--) {
+            int w = vertex[i];
+            for (int e = predStart[w]; e < predStart[w + 1]; e++) {
+                int q = pre[pred[e]];
+                if (q < 0) {
+                    continue;   // unreachable predecessor
+                }
+                if (ancestor[q] >= 0) {
+                    compressions += compress(q, ancestor, label, stack);
+                }
+                semi[i] = Math.min(semi[i], label[q]);
+            }
+            label[i] = semi[i];
+            ancestor[i] = parent[i];
+        }
+
+        // Immediate dominator: nearest ancestor of the DFS parent not below semi
+        int[] idomPre = new int[count];
+        for (int i = 1; i < count; i++) {
+            int d = parent[i];
+            while (d > semi[i]) {
+                d = idomPre[d];
+            }
+            idomPre[i] = d;
+        }
+
+        int[] idom = new int[n];
+        Arrays.fill(idom, -1);
+        boolean[] reachable = new boolean[n];
+        for (int i = 1; i < count; i++) {
+            int d = vertex[idomPre[i]];
+            idom[vertex[i]] = d == n ? -1 : d;
+            reachable[vertex[i]] = true;
+        }
+
+        metrics.stopTiming();
+        metrics.addToCounter("dfs_visits", count - 1);
+        if (edgesExplored > 0) {
+            metrics.addToCounter("edges_explored", edgesExplored);
+        }
+        if (compressions > 0) {
+            metrics.addToCounter("path_compressions", compressions);
+        }
+        return new DominatorTree(roots.length == 1 ? roots[0] : -1, idom, reachable, metrics);
+    }
+
+    /**
+     * Compresses the forest path above {@code q}, leaving in {@code label[q]}
+     * the minimum semi on it; returns the number of links shortened.
+     */
+    private static int compress(int q, int[] ancestor, int[] label, int[] stack) {
+        int size = 0;
+        int x = q;
+        while (ancestor[ancestor[x]] >= 0) {
+            stack[size++] = x;
+            x = ancestor[x];
+        }
+        int shortened = size;
+        while (size > 0) {
+            int y = stack[--size];
+            int a = ancestor[y];
+            if (label[a] < label[y]) {
+                label[y] = label[a];
+            }
+            ancestor[y] = ancestor[a];
+        }
+        return shortened;
+    }
+
+    private void checkVertex(int v) {
+        if (v < 0 || v >= graph.getVertexCount()) {
+            throw new IllegalArgumentException("Vertex " + v + " out of range [0, " + graph.getVertexCount() + ")");
+        }
+    }
+
+    /**
+     * Immediate dominators, with constant-time dominance tests from the
+     * entry and exit times of a walk over the tree.
+     */
+    public static class DominatorTree {
+        private final int root;          // -1 for the virtual start
+        private final int[] idom;
+        private final boolean[] reachable;
+        private final int[] depth;
+        private final int[] enter;
+        private final int[] exit;
+        private final Metrics metrics;
+
+        DominatorTree(int root, int[] idom, boolean[] reachable, Metrics metrics) {
+            this.root = root;
+            this.idom = idom;
+            this.reachable = reachable;
+            this.metrics = metrics;
+
+            // Children in CSR form, then an iterative walk for depths and intervals
+            int n = idom.length;
+            int[] childStart = new int[n + 2];
+            for (int v = 0; v < n; v++) {
+                if (reachable[v]) {
+                    childStart[(idom[v] < 0 ? n : idom[v]) + 1]++;
+                }
+            }
+            for (int v = 0; v <= n; v++) {
+                childStart[v + 1] += childStart[v];
+            }
+            int[] children = new int[childStart[n + 1]];
+            int[] fill = Arrays.copyOf(childStart, n + 1);
+            for (int v = 0; v < n; v++) {
+                if (reachable[v]) {
+                    children[fill[idom[v] < 0 ? n : idom[v]]++] = v;
+                }
+            }
+
+            this.depth = new int[n];
+            this.enter = new int[n];
+            this.exit = new int[n];
+            int[] stack = new int[n + 1];
+            int[] cursor = Arrays.copyOf(childStart, n + 1);
+            int size = 0;
+            int clock = 0;
+            stack[size++] = n;
+            while (size > 0) {
+                int u = stack[size - 1];
+                if (cursor[u] == childStart[u + 1]) {
+                    size--;
+                    if (u < n) {
+                        exit[u] = clock++;
+                    }
+                    continue;
+                }
+                int v = children[cursor[u]++];
+                depth[v] = u == n ? 0 : depth[u] + 1;
+                enter[v] = clock++;
+                stack[size++] = v;
+            }
+        }
+
+        /**
+         * The root, or -1 if the tree starts from a virtual start or end.
+         */
+        public int getRoot() {
+            return root;
+        }
+
+        public boolean isReachable(int v) {
+            return reachable[v];
+        }
+
+        /**
+         * Immediate dominator of {@code v}, or -1 for the root and unreachable vertices.
+         */
+        public int getImmediateDominator(int v) {
+            return idom[v];
+        }
+
+        /**
+         * Number of real vertices strictly dominating {@code v}.
+         */
+        public int getDepth(int v) {
+            return depth[v];
+        }
+
+        /**
+         * Whether {@code a} dominates {@code b}; every vertex dominates itself.
+         */
+        public boolean dominates(int a, int b) {
+            if (!reachable[a] || !reachable[b]) {
+                return false;
+            }
+            return enter[a] <= enter[b] && exit[b] <= exit[a];
+        }
+
+        /**
+         * The bottleneck set of {@code v}: the vertices other than {@code v}
+         * that every path from the root to {@code v} passes through, root first.
+         */
+        public List<Integer> getBottlenecks(int v) {
+            if (!reachable[v]) {
+                return Collections.emptyList();
+            }
+            List<Integer> bottlenecks = new ArrayList<>(depth[v]);
+            for (int d = idom[v]; d != -1; d = idom[d]) {
+                bottlenecks.add(d);
+            }
+            Collections.reverse(bottlenecks);
+            return bottlenecks;
+        }
+
+        public int[] getImmediateDominators() {
+            return idom;
+        }
+
+        public Metrics getMetrics() {
+            return metrics;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Dominator tree").append(root < 0 ? " from a virtual start" : " from " + root).append(":\n");
+            int shown = 0;
+            for (int v = 0; v < idom.length && shown < 20; v++) {
+                if (reachable[v] && idom[v] >= 0) {
+                    sb.append("  idom(").append(v).append(") = ").append(idom[v]).append("\n");
+                    shown++;
+                }
+            }
+            sb.append("\n").append(metrics.getReport());
+            return sb.toString();
+        }
+    }
+}
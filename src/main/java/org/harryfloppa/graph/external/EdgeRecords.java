@@ -0,0 +1,124 @@
+package org.harryfloppa.graph.external;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Headerless files of (int, int, int) records, read and written strictly
+ * sequentially through 64 KiB buffers. The columns are usually (from, to,
+ * weight) but may hold ranks or distances.
+ */
+final class EdgeRecords {
+    static final int RECORD_BYTES = 12;
+    static final int BUFFER_BYTES = 1 << 16;
+
+    private EdgeRecords() {
+    }
+
+    static long count(Path file) throws IOException {
+        return Files.size(file) / RECORD_BYTES;
+    }
+
+    static class Writer implements Closeable {
+        private final OutputStream out;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+        private long written;
+
+        Writer(Path file) throws IOException {
+            out = Files.newOutputStream(file);
+        }
+
+        void write(int a, int b, int c) throws IOException {
+            if (buffer.remaining() < RECORD_BYTES) {
+                flush();
+            }
+            buffer.putInt(a).putInt(b).putInt(c);
+            written++;
+        }
+
+        private void flush() throws IOException {
+            out.write(buffer.array(), 0, buffer.position());
+            buffer.clear();
+        }
+
+        long getWritten() {
+            return written;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                out.close();
+            }
+        }
+    }
+
+    /**
+     * Cursor over {@code count} records starting {@code offset} bytes into a file.
+     * After a successful {@link #next()} the record is in {@code a}, {@code b}, {@code c}.
+     */
+    static class Reader implements Closeable {
+        private final FileChannel channel;
+        // Whole records only, so a record never straddles two reads
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES / RECORD_BYTES * RECORD_BYTES);
+        private long remaining;
+        int a;
+        int b;
+        int c;
+
+        Reader(Path file) throws IOException {
+            this(file, 0, count(file));
+        }
+
+        Reader(Path file, long offset, long count) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            channel.position(offset);
+            remaining = count;
+            buffer.limit(0);
+        }
+
+        boolean next() throws IOException {
+            if (remaining == 0) {
+                return false;
+            }
+            if (!buffer.hasRemaining()) {
+                fill();
+            }
+            a = buffer.getInt();
+            b = buffer.getInt();
+            c = buffer.getInt();
+            remaining--;
+            return true;
+        }
+
+        private void fill() throws IOException {
+            buffer.clear();
+            long bytes = Math.min(buffer.capacity(), remaining * RECORD_BYTES);
+            buffer.limit((int) bytes);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException("Unexpected end of record file");
+                }
+            }
+            buffer.flip();
+        }
+
+        int key(int column) {
+            return column == 0 ? a : column == 1 ? b : c;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,468 @@
+package org.harryfloppa.graph.external;
+
+import org.harryfloppa.common.Metrics;
+import org.harryfloppa.common.MetricsImpl;
+import org.harryfloppa.graph.dagsp.DAGLongestPath;
+import org.harryfloppa.graph.dagsp.SaturatingMath;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Shortest, longest and critical paths over an {@link ExternalGraph}.
+ *
+ * Vertices are renumbered by topological rank and the edges are rewritten
+ * as (rank of source, rank of target, weight) sorted by source rank. The
+ * relabeling uses two sequential scans joined through external sorts. The
+ * DP then walks the ranks in blocks that fit in a quarter of the budget.
+ * Relaxations inside the current block are applied directly. Those aimed
+ * at later blocks go into a bounded in-memory priority queue keyed by target,
+ * which spills sorted runs to disk when full (time-forward processing).
+ * Finished blocks are written to memory-mapped distance and parent pages.
+ *
+ * Distances match {@link org.harryfloppa.graph.dagsp.DAGShortestPath} and
+ * {@link DAGLongestPath}. Ties go to the parent earliest in topological
+ * order, as in the in-memory sweep.
+ */
+public class ExternalDAGPaths implements Closeable {
+    private static final int MIN_BLOCK = 1024;
+
+    private final ExternalGraph graph;
+    private final int n;
+    private final int blockSize;
+    private final int queueCapacity;
+
+    private ExternalTopologicalSort.TopoSortResult topo;
+    private MappedArray rank;
+    private Path rankEdges;
+    private Metrics prepareMetrics;
+
+    private enum Objective { SHORTEST, LONGEST, CRITICAL }
+
+    public ExternalDAGPaths(ExternalGraph graph) {
+        this.graph = graph;
+        this.n = graph.getVertexCount();
+        long quarter = graph.getMemoryBudget() / 4;
+        this.blockSize = (int) Math.max(MIN_BLOCK, Math.min(Math.max(n, 1), quarter / 8));
+        this.queueCapacity = (int) Math.max(MIN_BLOCK, Math.min(Integer.MAX_VALUE - 8, quarter / 12));
+    }
+
+    /**
+     * Topological sort, rank array and rank-space edge file; done once per instance.
+     */
+    private synchronized void prepare() throws IOException {
+        if (rankEdges != null) {
+            return;
+        }
+        prepareMetrics = new MetricsImpl();
+        prepareMetrics.startTiming();
+        topo = new ExternalTopologicalSort(graph).sort();
+        if (topo.hasCycle()) {
+            prepareMetrics.stopTiming();
+            throw new IllegalArgumentException("Graph contains a cycle - not a DAG");
+        }
+        MappedArray order = topo.getOrderArray();
+        rank = MappedArray.ofInts(graph.getTempDir(), "rank-", n);
+        for (int i = 0; i < n; i++) {
+            rank.setInt(order.getInt(i), i);
+        }
+
+        // (u, v, w) sorted by u -> (rank u, v, w) -> sort by v -> (rank u, rank v, w) -> sort by rank u
+        ExternalSorter sorter = graph.sorter(prepareMetrics);
+        Path halfRanked = Files.createTempFile(graph.getTempDir(), "ranked-src-", ".rec");
+        try (EdgeRecords.Reader in = new EdgeRecords.Reader(graph.edgesBySource());
+             EdgeRecords.Writer out = new EdgeRecords.Writer(halfRanked)) {
+            while (in.next()) {
+                out.write(rank.getInt(in.a), in.b, in.c);
+            }
+        }
+        Path byTarget = sorter.sort(halfRanked, 1);
+        Files.delete(halfRanked);
+        Path ranked = Files.createTempFile(graph.getTempDir(), "ranked-", ".rec");
+        try (EdgeRecords.Reader in = new EdgeRecords.Reader(byTarget);
+             EdgeRecords.Writer out = new EdgeRecords.Writer(ranked)) {
+            while (in.next()) {
+                out.write(in.a, rank.getInt(in.b), in.c);
+            }
+        }
+        Files.delete(byTarget);
+        rankEdges = sorter.sort(ranked, 0);
+        Files.delete(ranked);
+        prepareMetrics.stopTiming();
+    }
+
+    /**
+     * Metrics of the one-time preparation (topological sort and relabeling sorts),
+     * or null before the first computation.
+     */
+    public Metrics getPreparationMetrics() {
+        return prepareMetrics;
+    }
+
+    public PathResult computeShortestPaths(int source) throws IOException {
+        graph.checkVertex(source);
+        prepare();
+        return run(Objective.SHORTEST, source);
+    }
+
+    public PathResult computeLongestPaths(int source) throws IOException {
+        graph.checkVertex(source);
+        prepare();
+        return run(Objective.LONGEST, source);
+    }
+
+    public DAGLongestPath.CriticalPathResult computeCriticalPath() throws IOException {
+        prepare();
+        try (PathResult result = run(Objective.CRITICAL, -1)) {
+            // End at the first vertex id with the largest positive distance, as in memory
+            int maxDist = 0;
+            int endVertex = 0;
+            for (int r = 0; r < n; r++) {
+                int d = result.dist.getInt(r);
+                int v = topo.getOrderArray().getInt(r);
+                if (d > maxDist || (d == maxDist && d > 0 && v < endVertex)) {
+                    maxDist = d;
+                    endVertex = v;
+                }
+            }
+            List<Integer> path = new ArrayList<>();
+            for (int current = n == 0 ? -1 : endVertex; current != -1; current = result.getParent(current)) {
+                path.add(current);
+            }
+            Collections.reverse(path);
+            return new DAGLongestPath.CriticalPathResult(path, maxDist, result.getMetrics());
+        }
+    }
+
+    private PathResult run(Objective objective, int source) throws IOException {
+        Metrics metrics = new MetricsImpl();
+        metrics.startTiming();
+        int unreached = objective == Objective.SHORTEST ? Integer.MAX_VALUE
+                : objective == Objective.LONGEST ? Integer.MIN_VALUE : 0;
+        int sourceRank = source < 0 ? -1 : rank.getInt(source);
+
+        MappedArray dist = MappedArray.ofInts(graph.getTempDir(), "dist-", n);
+        MappedArray parent = MappedArray.ofInts(graph.getTempDir(), "parent-", n);
+        int[] blockDist = new int[Math.min(blockSize, Math.max(n, 1))];
+        int[] blockParent = new int[blockDist.length];
+        long relaxations = 0;
+        long updates = 0;
+        long saturated = 0;
+
+        try (UpdateQueue pending = new UpdateQueue(objective, metrics);
+             EdgeRecords.Reader edges = new EdgeRecords.Reader(rankEdges)) {
+            boolean hasEdge = edges.next();
+            for (int lo = 0; lo < n; lo += blockDist.length) {
+                int hi = (int) Math.min(n, (long) lo + blockDist.length);
+                Arrays.fill(blockDist, unreached);
+                Arrays.fill(blockParent, -1);
+                if (sourceRank >= lo && sourceRank < hi) {
+                    blockDist[sourceRank - lo] = 0;
+                }
+                updates += pending.applyBelow(hi, lo, blockDist, blockParent);
+
+                for (int r = lo; r < hi; r++) {
+                    int d = blockDist[r - lo];
+                    boolean reached = objective == Objective.CRITICAL || d != unreached;
+                    while (hasEdge && edges.a == r) {
+                        if (reached) {
+                            int t = edges.b;
+                            long sum = (long) d + edges.c;
+                            int candidate = SaturatingMath.clamp(sum);
+                            relaxations++;
+                            if (candidate != sum) {
+                                saturated++;
+                            }
+                            if (t < hi) {
+                                int i = t - lo;
+                                if (objective == Objective.SHORTEST ? candidate < blockDist[i] : candidate > blockDist[i]) {
+                                    blockDist[i] = candidate;
+                                    blockParent[i] = r;
+                                    updates++;
+                                }
+                            } else {
+                                pending.add(t, candidate, r);
+                            }
+                        }
+                        hasEdge = edges.next();
+                    }
+                }
+
+                for (int r = lo; r < hi; r++) {
+                    dist.setInt(r, blockDist[r - lo]);
+                    parent.setInt(r, blockParent[r - lo]);
+                }
+                metrics.incrementCounter("blocks");
+            }
+        }
+
+        metrics.addToCounter("relaxations", relaxations);
+        metrics.addToCounter("distance_updates", updates);
+        if (saturated > 0) {
+            metrics.addToCounter("saturated_sums", saturated);
+        }
+        metrics.stopTiming();
+        return new PathResult(source, unreached, dist, parent, metrics);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (topo != null) {
+            topo.close();
+        }
+        if (rank != null) {
+            rank.close();
+        }
+        if (rankEdges != null) {
+            Files.deleteIfExists(rankEdges);
+        }
+    }
+
+    /**
+     * Pending relaxations for later blocks: an in-memory binary heap on
+     * target rank that spills sorted runs of up to {@code queueCapacity}
+     * records, merged down whenever more than {@link ExternalSorter#MAX_FAN_IN} are open.
+     */
+    private class UpdateQueue implements Closeable {
+        private final Objective objective;
+        private final Metrics metrics;
+        private final int[] target = new int[queueCapacity];
+        private final int[] value = new int[queueCapacity];
+        private final int[] from = new int[queueCapacity];
+        private int size;
+        private final List<EdgeRecords.Reader> runs = new ArrayList<>();
+        private final List<Path> runFiles = new ArrayList<>();
+
+        UpdateQueue(Objective objective, Metrics metrics) {
+            this.objective = objective;
+            this.metrics = metrics;
+        }
+
+        void add(int t, int v, int r) throws IOException {
+            if (size == queueCapacity) {
+                spill();
+            }
+            int i = size++;
+            while (i > 0) {
+                int p = (i - 1) >>> 1;
+                if (target[p] <= t) {
+                    break;
+                }
+                move(p, i);
+                i = p;
+            }
+            target[i] = t;
+            value[i] = v;
+            from[i] = r;
+        }
+
+        /**
+         * Applies every pending update with target below {@code hi} to the block starting at {@code lo}.
+         */
+        int applyBelow(int hi, int lo, int[] blockDist, int[] blockParent) throws IOException {
+            int applied = 0;
+            while (size > 0 && target[0] < hi) {
+                applied += apply(target[0] - lo, value[0], from[0], blockDist, blockParent);
+                removeTop();
+            }
+            for (EdgeRecords.Reader run : runs) {
+                // Readers are parked on their next unapplied record (or exhausted, with a = MAX)
+                while (run.a < hi) {
+                    applied += apply(run.a - lo, run.b, run.c, blockDist, blockParent);
+                    advance(run);
+                }
+            }
+            return applied;
+        }
+
+        private int apply(int i, int v, int r, int[] blockDist, int[] blockParent) {
+            int current = blockDist[i];
+            boolean better = objective == Objective.SHORTEST ? v < current : v > current;
+            // Same value: keep the parent with the smaller rank, as the in-memory sweep would
+            if (better || (v == current && blockParent[i] >= 0 && r < blockParent[i])) {
+                blockDist[i] = v;
+                blockParent[i] = r;
+                return better ? 1 : 0;
+            }
+            return 0;
+        }
+
+        private void spill() throws IOException {
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = ((long) target[i] << 32) | i;
+            }
+            Arrays.sort(keys);
+            Path file = Files.createTempFile(graph.getTempDir(), "updates-", ".rec");
+            try (EdgeRecords.Writer out = new EdgeRecords.Writer(file)) {
+                for (long key : keys) {
+                    int i = (int) key;
+                    out.write(target[i], value[i], from[i]);
+                }
+            }
+            size = 0;
+            openRun(file);
+            metrics.incrementCounter("spilled_runs");
+            if (runs.size() > ExternalSorter.MAX_FAN_IN) {
+                mergeRuns();
+            }
+        }
+
+        private void openRun(Path file) throws IOException {
+            EdgeRecords.Reader reader = new EdgeRecords.Reader(file);
+            advance(reader);
+            runs.add(reader);
+            runFiles.add(file);
+        }
+
+        private void advance(EdgeRecords.Reader reader) throws IOException {
+            if (!reader.next()) {
+                reader.a = Integer.MAX_VALUE;
+            }
+        }
+
+        /**
+         * Merges the unread remainders of all runs into one.
+         */
+        private void mergeRuns() throws IOException {
+            Path file = Files.createTempFile(graph.getTempDir(), "updates-", ".rec");
+            PriorityQueue<EdgeRecords.Reader> heap = new PriorityQueue<>((x, y) -> Integer.compare(x.a, y.a));
+            for (EdgeRecords.Reader run : runs) {
+                if (run.a != Integer.MAX_VALUE) {
+                    heap.add(run);
+                }
+            }
+            try (EdgeRecords.Writer out = new EdgeRecords.Writer(file)) {
+                while (!heap.isEmpty()) {
+                    EdgeRecords.Reader run = heap.poll();
+                    out.write(run.a, run.b, run.c);
+                    advance(run);
+                    if (run.a != Integer.MAX_VALUE) {
+                        heap.add(run);
+                    }
+                }
+            }
+            closeRuns();
+            openRun(file);
+        }
+
+        private void removeTop() {
+            size--;
+            if (size == 0) {
+                return;
+            }
+            int t = target[size];
+            int v = value[size];
+            int r = from[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && target[child + 1] < target[child]) {
+                    child++;
+                }
+                if (target[child] >= t) {
+                    break;
+                }
+                move(child, i);
+                i = child;
+            }
+            target[i] = t;
+            value[i] = v;
+            from[i] = r;
+        }
+
+        private void move(int src, int dst) {
+            target[dst] = target[src];
+            value[dst] = value[src];
+            from[dst] = from[src];
+        }
+
+        private void closeRuns() throws IOException {
+            for (EdgeRecords.Reader run : runs) {
+                run.close();
+            }
+            for (Path file : runFiles) {
+                Files.deleteIfExists(file);
+            }
+            runs.clear();
+            runFiles.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            closeRuns();
+        }
+    }
+
+    /**
+     * Distances and parents in memory-mapped pages indexed by topological
+     * rank; lookups take original vertex ids. {@link #close()} deletes the pages.
+     */
+    public class PathResult implements Closeable {
+        private final int source;
+        private final int unreached;
+        private final MappedArray dist;
+        private final MappedArray parent;
+        private final Metrics metrics;
+
+        PathResult(int source, int unreached, MappedArray dist, MappedArray parent, Metrics metrics) {
+            this.source = source;
+            this.unreached = unreached;
+            this.dist = dist;
+            this.parent = parent;
+            this.metrics = metrics;
+        }
+
+        public int getSource() {
+            return source;
+        }
+
+        public int getDistance(int v) {
+            return dist.getInt(rank.getInt(v));
+        }
+
+        public boolean isReachable(int v) {
+            return getDistance(v) != unreached;
+        }
+
+        /**
+         * Predecessor of {@code v} on its path, or -1.
+         */
+        public int getParent(int v) {
+            int p = parent.getInt(rank.getInt(v));
+            return p < 0 ? -1 : topo.getOrderArray().getInt(p);
+        }
+
+        public List<Integer> getPath(int dest) {
+            if (!isReachable(dest)) {
+                return Collections.emptyList();
+            }
+            List<Integer> path = new ArrayList<>();
+            for (int current = dest; current != -1; current = getParent(current)) {
+                path.add(current);
+            }
+            Collections.reverse(path);
+            return path;
+        }
+
+        public Metrics getMetrics() {
+            return metrics;
+        }
+
+        @Override
+        public void close() throws IOException {
+            dist.close();
+            parent.close();
+        }
+    }
+}
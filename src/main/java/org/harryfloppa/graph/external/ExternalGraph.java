@@ -0,0 +1,181 @@
+package org.harryfloppa.graph.external;
+
+import org.harryfloppa.common.Metrics;
+import org.harryfloppa.common.MetricsImpl;
+import org.harryfloppa.util.BinaryEdgeWriter;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A directed graph in a binary edge file (see {@link BinaryEdgeWriter}) that
+ * is processed out of core.
+ *
+ * Derived files, such as the edges sorted by source or by target, are
+ * produced on first use with {@link ExternalSorter}. They live in a private
+ * temporary directory that is removed by {@link #close()}. Heap use stays
+ * within the configured memory budget plus a few 64 KiB I/O buffers.
+ * Per-vertex arrays are memory-mapped.
+ */
+public class ExternalGraph implements Closeable {
+    public static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+
+    private final Path edgeFile;
+    private final Path tempDir;
+    private final long memoryBudget;
+    private final int n;
+    private final int source;
+    private final long edgeCount;
+    private final Metrics metrics;
+    private final List<Closeable> resources = new ArrayList<>();
+
+    private Path bySource;
+    private Path byTarget;
+    private MappedArray sourceOffsets;
+
+    public ExternalGraph(Path edgeFile, Path tempParent, long memoryBudgetBytes) throws IOException {
+        if (memoryBudgetBytes <= 0) {
+            throw new IllegalArgumentException("Memory budget must be positive");
+        }
+        this.edgeFile = edgeFile;
+        this.memoryBudget = memoryBudgetBytes;
+        this.metrics = new MetricsImpl();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(edgeFile)))) {
+            if (in.readInt() != BinaryEdgeWriter.MAGIC) {
+                throw new IOException("Not a binary graph file: " + edgeFile);
+            }
+            int version = in.readInt();
+            if (version != BinaryEdgeWriter.VERSION) {
+                throw new IOException("Unsupported binary graph version " + version + " in " + edgeFile);
+            }
+            if (in.readByte() == 0) {
+                throw new IllegalArgumentException("External processing requires a directed graph");
+            }
+            this.n = in.readInt();
+            this.source = in.readInt();
+            this.edgeCount = in.readLong();
+        }
+        long expected = BinaryEdgeWriter.HEADER_BYTES + edgeCount * BinaryEdgeWriter.EDGE_BYTES;
+        if (Files.size(edgeFile) < expected) {
+            throw new IOException("Truncated binary graph file: " + edgeFile);
+        }
+        this.tempDir = Files.createTempDirectory(tempParent, "external-graph-");
+    }
+
+    public int getVertexCount() {
+        return n;
+    }
+
+    public long getEdgeCount() {
+        return edgeCount;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Counters of the sorts that produced the derived edge files.
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    Path getTempDir() {
+        return tempDir;
+    }
+
+    ExternalSorter sorter(Metrics target) {
+        return new ExternalSorter(tempDir, memoryBudget, target);
+    }
+
+    /**
+     * Sequential cursor over the edges of the input file, in file order.
+     */
+    EdgeRecords.Reader openEdges() throws IOException {
+        return new EdgeRecords.Reader(edgeFile, BinaryEdgeWriter.HEADER_BYTES, edgeCount);
+    }
+
+    /**
+     * Edges sorted by source, each adjacency list in file order.
+     */
+    synchronized Path edgesBySource() throws IOException {
+        if (bySource == null) {
+            bySource = sortEdges(0);
+        }
+        return bySource;
+    }
+
+    synchronized Path edgesByTarget() throws IOException {
+        if (byTarget == null) {
+            byTarget = sortEdges(1);
+        }
+        return byTarget;
+    }
+
+    private Path sortEdges(int column) throws IOException {
+        return sorter(metrics).sort(edgeFile, BinaryEdgeWriter.HEADER_BYTES, edgeCount, column);
+    }
+
+    /**
+     * Record index of each vertex's first edge in {@link #edgesBySource()}, n + 1 longs.
+     * Also validates every vertex id.
+     */
+    synchronized MappedArray sourceOffsets() throws IOException {
+        if (sourceOffsets == null) {
+            MappedArray offsets = track(MappedArray.ofLongs(tempDir, "offsets-", (long) n + 1));
+            long index = 0;
+            int next = 0;
+            try (EdgeRecords.Reader in = new EdgeRecords.Reader(edgesBySource())) {
+                while (in.next()) {
+                    checkVertex(in.a);
+                    checkVertex(in.b);
+                    while (next <= in.a) {
+                        offsets.setLong(next++, index);
+                    }
+                    index++;
+                }
+            }
+            while (next <= n) {
+                offsets.setLong(next++, index);
+            }
+            sourceOffsets = offsets;
+        }
+        return sourceOffsets;
+    }
+
+    void checkVertex(int v) {
+        if (v < 0 || v >= n) {
+            throw new IllegalArgumentException("Vertex out of bounds: " + v);
+        }
+    }
+
+    synchronized <T extends Closeable> T track(T resource) {
+        resources.add(resource);
+        return resource;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (Closeable resource : resources) {
+            resource.close();
+        }
+        resources.clear();
+        try (var files = Files.list(tempDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(tempDir);
+    }
+}
@@ -0,0 +1,135 @@
+package org.harryfloppa.graph.external;
+
+import org.harryfloppa.common.Metrics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Stable external merge sort of {@link EdgeRecords} files by one column.
+ *
+ * Runs of up to budget / 20 records (12 bytes of record plus an 8-byte sort
+ * key each) are sorted in memory and written out, then merged at most
+ * {@value #MAX_FAN_IN} at a time. Equal keys keep their input order, so
+ * sorting edges by source preserves each adjacency list's order.
+ */
+final class ExternalSorter {
+    static final int MAX_FAN_IN = 64;
+    private static final int MIN_RUN = 1024;
+    private static final int MAX_RUN = Integer.MAX_VALUE - 8;
+
+    private final Path tempDir;
+    private final int runCapacity;
+    private final Metrics metrics;
+
+    ExternalSorter(Path tempDir, long memoryBudgetBytes, Metrics metrics) {
+        this.tempDir = tempDir;
+        this.runCapacity = (int) Math.max(MIN_RUN, Math.min(MAX_RUN, memoryBudgetBytes / 20));
+        this.metrics = metrics;
+    }
+
+    Path sort(Path input, int keyColumn) throws IOException {
+        return sort(input, 0, EdgeRecords.count(input), keyColumn);
+    }
+
+    /**
+     * Sorts {@code count} records starting {@code offset} bytes into {@code input}
+     * into a new temporary file; the input is left untouched.
+     */
+    Path sort(Path input, long offset, long count, int keyColumn) throws IOException {
+        List<Path> runs = writeRuns(input, offset, count, keyColumn);
+        metrics.addToCounter("sort_records", count);
+        while (runs.size() > 1) {
+            List<Path> merged = new ArrayList<>();
+            for (int i = 0; i < runs.size(); i += MAX_FAN_IN) {
+                merged.add(merge(runs.subList(i, Math.min(runs.size(), i + MAX_FAN_IN)), keyColumn));
+            }
+            runs = merged;
+            metrics.incrementCounter("merge_passes");
+        }
+        return runs.get(0);
+    }
+
+    private List<Path> writeRuns(Path input, long offset, long count, int keyColumn) throws IOException {
+        List<Path> runs = new ArrayList<>();
+        int capacity = (int) Math.min(runCapacity, Math.max(1, count));
+        int[] a = new int[capacity];
+        int[] b = new int[capacity];
+        int[] c = new int[capacity];
+        long[] keys = new long[capacity];
+        try (EdgeRecords.Reader in = new EdgeRecords.Reader(input, offset, count)) {
+            while (true) {
+                int size = 0;
+                while (size < capacity && in.next()) {
+                    a[size] = in.a;
+                    b[size] = in.b;
+                    c[size] = in.c;
+                    // Key in the high half, position in the low half: a stable order
+                    keys[size] = ((long) in.key(keyColumn) << 32) | size;
+                    size++;
+                }
+                if (size == 0 && !runs.isEmpty()) {
+                    break;
+                }
+                Arrays.sort(keys, 0, size);
+                Path run = Files.createTempFile(tempDir, "run-", ".rec");
+                try (EdgeRecords.Writer out = new EdgeRecords.Writer(run)) {
+                    for (int i = 0; i < size; i++) {
+                        int k = (int) keys[i];
+                        out.write(a[k], b[k], c[k]);
+                    }
+                }
+                runs.add(run);
+                metrics.incrementCounter("sort_runs");
+                if (size < capacity) {
+                    break;
+                }
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * K-way merge; ties go to the earlier run, which keeps the sort stable.
+     */
+    private Path merge(List<Path> runs, int keyColumn) throws IOException {
+        if (runs.size() == 1) {
+            return runs.get(0);
+        }
+        Path output = Files.createTempFile(tempDir, "merge-", ".rec");
+        EdgeRecords.Reader[] readers = new EdgeRecords.Reader[runs.size()];
+        try (EdgeRecords.Writer out = new EdgeRecords.Writer(output)) {
+            PriorityQueue<Integer> heap = new PriorityQueue<>((x, y) -> {
+                int cmp = Integer.compare(readers[x].key(keyColumn), readers[y].key(keyColumn));
+                return cmp != 0 ? cmp : Integer.compare(x, y);
+            });
+            for (int i = 0; i < readers.length; i++) {
+                readers[i] = new EdgeRecords.Reader(runs.get(i));
+                if (readers[i].next()) {
+                    heap.add(i);
+                }
+            }
+            while (!heap.isEmpty()) {
+                int i = heap.poll();
+                EdgeRecords.Reader reader = readers[i];
+                out.write(reader.a, reader.b, reader.c);
+                if (reader.next()) {
+                    heap.add(i);
+                }
+            }
+        } finally {
+            for (int i = 0; i < readers.length; i++) {
+                if (readers[i] != null) {
+                    readers[i].close();
+                }
+                Files.deleteIfExists(runs.get(i));
+            }
+        }
+        return output;
+    }
+}
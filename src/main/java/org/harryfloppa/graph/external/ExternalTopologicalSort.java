@@ -0,0 +1,154 @@
+package org.harryfloppa.graph.external;
+
+import org.harryfloppa.common.Metrics;
+import org.harryfloppa.common.MetricsImpl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Kahn's algorithm over an {@link ExternalGraph}.
+ *
+ * In-degrees come from one sequential scan of the edges sorted by target.
+ * The queue is the memory-mapped output array itself: vertices are appended
+ * when their in-degree drops to zero and read back in order. Adjacency is
+ * read from the memory-mapped source-sorted edge file. The order is
+ * identical to {@link org.harryfloppa.graph.topo.KahnTopologicalSort} on
+ * the same file loaded into memory.
+ */
+public class ExternalTopologicalSort {
+    private final ExternalGraph graph;
+
+    public ExternalTopologicalSort(ExternalGraph graph) {
+        this.graph = graph;
+    }
+
+    public TopoSortResult sort() throws IOException {
+        int n = graph.getVertexCount();
+        Metrics metrics = new MetricsImpl();
+        metrics.startTiming();
+
+        MappedArray offsets = graph.sourceOffsets();
+        MappedArray order = MappedArray.ofInts(graph.getTempDir(), "order-", n);
+        int tail = 0;
+        long edgesScanned = 0;
+        long pushes = 0;
+        long updates = 0;
+        try (MappedArray inDegree = MappedArray.ofInts(graph.getTempDir(), "indegree-", n);
+             MappedArray edges = MappedArray.readOnly(graph.edgesBySource())) {
+            // Sorted by target, so in-degrees are written sequentially
+            try (EdgeRecords.Reader in = new EdgeRecords.Reader(graph.edgesByTarget())) {
+                while (in.next()) {
+                    inDegree.setInt(in.b, inDegree.getInt(in.b) + 1);
+                    edgesScanned++;
+                }
+            }
+
+            for (int v = 0; v < n; v++) {
+                if (inDegree.getInt(v) == 0) {
+                    order.setInt(tail++, v);
+                    pushes++;
+                }
+            }
+
+            for (int head = 0; head < tail; head++) {
+                int u = order.getInt(head);
+                long end = offsets.getLong(u + 1);
+                for (long e = offsets.getLong(u); e < end; e++) {
+                    int v = edges.getInt(3 * e + 1);
+                    int degree = inDegree.getInt(v) - 1;
+                    inDegree.setInt(v, degree);
+                    updates++;
+                    if (degree == 0) {
+                        order.setInt(tail++, v);
+                        pushes++;
+                    }
+                }
+            }
+        }
+
+        metrics.addToCounter("edges_scanned", edgesScanned);
+        metrics.addToCounter("queue_pushes", pushes);
+        metrics.addToCounter("queue_pops", tail);
+        metrics.addToCounter("in_degree_updates", updates);
+        metrics.stopTiming();
+        return new TopoSortResult(order, tail, tail != n, metrics);
+    }
+
+    /**
+     * Topological order held in a memory-mapped file; {@link #close()} deletes it.
+     */
+    public static class TopoSortResult implements Closeable {
+        private final MappedArray order;
+        private final int size;
+        private final boolean hasCycle;
+        private final Metrics metrics;
+
+        TopoSortResult(MappedArray order, int size, boolean hasCycle, Metrics metrics) {
+            this.order = order;
+            this.size = size;
+            this.hasCycle = hasCycle;
+            this.metrics = metrics;
+        }
+
+        /**
+         * Number of ordered vertices; less than the vertex count when there is a cycle.
+         */
+        public int size() {
+            return size;
+        }
+
+        public int getVertex(int position) {
+            if (position < 0 || position >= size) {
+                throw new IndexOutOfBoundsException("Position " + position + " of " + size);
+            }
+            return order.getInt(position);
+        }
+
+        /**
+         * The order as an in-memory list; only sensible for graphs that fit in memory.
+         */
+        public List<Integer> getOrder() {
+            List<Integer> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(order.getInt(i));
+            }
+            return list;
+        }
+
+        MappedArray getOrderArray() {
+            return order;
+        }
+
+        public boolean hasCycle() {
+            return hasCycle;
+        }
+
+        public boolean isValid() {
+            return !hasCycle;
+        }
+
+        public Metrics getMetrics() {
+            return metrics;
+        }
+
+        @Override
+        public void close() throws IOException {
+            order.close();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            if (hasCycle) {
+                sb.append("Graph contains a cycle - ").append(size).append(" vertices ordered before it\n");
+            } else {
+                sb.append("Topological order of ").append(size).append(" vertices\n");
+            }
+            sb.append("\n").append(metrics.getReport());
+            return sb.toString();
+        }
+    }
+}
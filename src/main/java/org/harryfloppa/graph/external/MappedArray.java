@@ -0,0 +1,94 @@
+package org.harryfloppa.graph.external;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Fixed-size array of ints or longs in a memory-mapped temporary file, so
+ * per-vertex state larger than the heap budget lives in the page cache.
+ * The file is mapped in 1 GiB segments and, unless it was opened with
+ * {@link #readOnly}, deleted on {@link #close()}.
+ */
+class MappedArray implements Closeable {
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    private final Path file;
+    private final boolean owned;
+    private final MappedByteBuffer[] segments;
+    private final long bytes;
+
+    MappedArray(Path directory, String prefix, long bytes) throws IOException {
+        this(Files.createTempFile(directory, prefix, ".bin"), true, bytes, FileChannel.MapMode.READ_WRITE);
+    }
+
+    private MappedArray(Path file, boolean owned, long bytes, FileChannel.MapMode mode) throws IOException {
+        this.file = file;
+        this.owned = owned;
+        this.bytes = bytes;
+        int count = (int) ((bytes + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+        this.segments = new MappedByteBuffer[count];
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[]{StandardOpenOption.READ}
+                : new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE};
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            for (int s = 0; s < count; s++) {
+                long start = (long) s << SEGMENT_SHIFT;
+                segments[s] = channel.map(mode, start, Math.min(1L << SEGMENT_SHIFT, bytes - start));
+            }
+        }
+    }
+
+    /**
+     * Read-only view of an existing file; {@link #close()} leaves the file in place.
+     */
+    static MappedArray readOnly(Path file) throws IOException {
+        return new MappedArray(file, false, Files.size(file), FileChannel.MapMode.READ_ONLY);
+    }
+
+    static MappedArray ofInts(Path directory, String prefix, long length) throws IOException {
+        return new MappedArray(directory, prefix, length * 4);
+    }
+
+    static MappedArray ofLongs(Path directory, String prefix, long length) throws IOException {
+        return new MappedArray(directory, prefix, length * 8);
+    }
+
+    // Elements never straddle segments: segment size is a multiple of 8
+
+    int getInt(long index) {
+        long offset = index << 2;
+        return segments[(int) (offset >>> SEGMENT_SHIFT)].getInt((int) (offset & SEGMENT_MASK));
+    }
+
+    void setInt(long index, int value) {
+        long offset = index << 2;
+        segments[(int) (offset >>> SEGMENT_SHIFT)].putInt((int) (offset & SEGMENT_MASK), value);
+    }
+
+    long getLong(long index) {
+        long offset = index << 3;
+        return segments[(int) (offset >>> SEGMENT_SHIFT)].getLong((int) (offset & SEGMENT_MASK));
+    }
+
+    void setLong(long index, long value) {
+        long offset = index << 3;
+        segments[(int) (offset >>> SEGMENT_SHIFT)].putLong((int) (offset & SEGMENT_MASK), value);
+    }
+
+    long sizeInBytes() {
+        return bytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (owned) {
+            Files.deleteIfExists(file);
+        }
+    }
+}
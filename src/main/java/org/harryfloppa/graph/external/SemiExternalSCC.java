@@ -0,0 +1,291 @@
+package org.harryfloppa.graph.external;
+
+import org.harryfloppa.common.Metrics;
+import org.harryfloppa.common.MetricsImpl;
+import org.harryfloppa.graph.scc.TarjanSCC;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Semi-external SCC detection: per-vertex arrays (about 50 bytes per vertex)
+ * and one batch of edges are held in memory, and the edge file is streamed
+ * in repeated sequential passes.
+ *
+ * The algorithm refines a spanning forest of the contracted graph until it
+ * is a depth-first forest. For each batch, Tarjan's algorithm runs on the
+ * forest edges plus the batch, visiting old roots in old preorder and forest
+ * children before batch edges. Its DFS forest replaces the old one and its
+ * components, which are subsets of true SCCs, are contracted. A pass that
+ * changes neither forest nor contraction proves the forest is a DFS forest
+ * of the whole contracted graph without back edges, so every contracted
+ * vertex is exactly one SCC. When a single batch holds all edges one pass
+ * suffices; otherwise most graphs need only a handful of passes.
+ */
+public class SemiExternalSCC {
+    private static final int MIN_BATCH = 1024;
+    // from, to and CSR target per batch edge
+    private static final int BATCH_EDGE_BYTES = 12;
+
+    private final ExternalGraph graph;
+    private final int batchSize;
+
+    private int n;
+    private int[] rep;          // contracted vertex (DFS root of its group) of each vertex
+    private int[] parent;       // forest parent of each contracted vertex, -1 for roots
+    private int[] order;        // contracted vertices in forest preorder
+    private int count;          // number of contracted vertices
+
+    // Per-batch graph in CSR form: forest children first, then batch edges
+    private int[] batchFrom;
+    private int[] batchTo;
+    private int[] offsets;
+    private int[] targets;
+
+    // Tarjan state
+    private int[] index;
+    private int[] low;
+    private int[] stack;
+    private int[] callStack;
+    private int[] cursor;
+    private boolean[] onStack;
+    private int[] newParent;
+    private int[] newOrder;
+    private int[] finished;     // component roots in completion order
+
+    public SemiExternalSCC(ExternalGraph graph) {
+        this(graph, (int) Math.max(MIN_BATCH, Math.min(Integer.MAX_VALUE - 8 - graph.getVertexCount(),
+                graph.getMemoryBudget() / BATCH_EDGE_BYTES)));
+    }
+
+    SemiExternalSCC(ExternalGraph graph, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.graph = graph;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Components in reverse topological order of the condensation, as with
+     * {@link TarjanSCC}; the vertices of each component are ascending.
+     */
+    public TarjanSCC.SCCResult findSCCs() throws IOException {
+        Metrics metrics = new MetricsImpl();
+        metrics.startTiming();
+        allocate();
+
+        long passes = 0;
+        long batches = 0;
+        boolean changed = true;
+        while (changed) {
+            passes++;
+            changed = false;
+            long remaining = graph.getEdgeCount();
+            try (EdgeRecords.Reader in = graph.openEdges()) {
+                do {
+                    int size = (int) Math.min(batchSize, remaining);
+                    for (int e = 0; e < size; e++) {
+                        in.next();
+                        if (passes == 1) {
+                            graph.checkVertex(in.a);
+                            graph.checkVertex(in.b);
+                        }
+                        batchFrom[e] = in.a;
+                        batchTo[e] = in.b;
+                    }
+                    remaining -= size;
+                    batches++;
+                    changed |= refine(size, metrics);
+                } while (remaining > 0);
+            }
+            // Tarjan saw every edge at once, so its components are exact
+            if (graph.getEdgeCount() <= batchSize) {
+                break;
+            }
+        }
+
+        // Completion order of a DFS over a DAG is a reverse topological order
+        int[] component = index;
+        for (int i = 0; i < count; i++) {
+            component[finished[i]] = i;
+        }
+        List<List<Integer>> sccs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            sccs.add(new ArrayList<>());
+        }
+        for (int v = 0; v < n; v++) {
+            sccs.get(component[rep[v]]).add(v);
+        }
+
+        metrics.addToCounter("passes", passes);
+        metrics.addToCounter("batches", batches);
+        metrics.addToCounter("edges_streamed", passes * graph.getEdgeCount());
+        metrics.stopTiming();
+        release();
+        return new TarjanSCC.SCCResult(sccs, metrics);
+    }
+
+    private void allocate() {
+        n = graph.getVertexCount();
+        int batchCapacity = (int) Math.min(batchSize, graph.getEdgeCount());
+        rep = new int[n];
+        parent = new int[n];
+        order = new int[n];
+        for (int v = 0; v < n; v++) {
+            rep[v] = v;
+            order[v] = v;
+        }
+        Arrays.fill(parent, -1);
+        count = n;
+
+        batchFrom = new int[batchCapacity];
+        batchTo = new int[batchCapacity];
+        offsets = new int[n + 1];
+        targets = new int[batchCapacity + n];
+        index = new int[n];
+        low = new int[n];
+        stack = new int[n];
+        callStack = new int[n];
+        cursor = new int[n];
+        onStack = new boolean[n];
+        newParent = new int[n];
+        newOrder = new int[n];
+        finished = new int[n];
+    }
+
+    private void release() {
+        rep = parent = order = null;
+        batchFrom = batchTo = offsets = targets = null;
+        index = low = stack = callStack = cursor = newParent = newOrder = finished = null;
+        onStack = null;
+    }
+
+    /**
+     * Runs Tarjan's algorithm on the forest plus one batch, contracts its
+     * components and adopts its DFS forest.
+     *
+     * @return whether the forest or the contraction changed
+     */
+    private boolean refine(int size, Metrics metrics) {
+        buildBatchGraph(size);
+
+        for (int i = 0; i < count; i++) {
+            index[order[i]] = -1;
+        }
+        int counter = 0;
+        int completed = 0;
+        long contracted = 0;
+        for (int i = 0; i < count; i++) {
+            int root = order[i];
+            if (index[root] >= 0) {
+                continue;
+            }
+            newParent[root] = -1;
+            int sp = 0;
+            int cp = 0;
+            index[root] = low[root] = counter;
+            newOrder[counter++] = root;
+            stack[sp++] = root;
+            onStack[root] = true;
+            cursor[root] = offsets[root];
+            callStack[cp++] = root;
+            while (cp > 0) {
+                int v = callStack[cp - 1];
+                if (cursor[v] < offsets[v + 1]) {
+                    int w = targets[cursor[v]++];
+                    if (index[w] < 0) {
+                        newParent[w] = v;
+                        index[w] = low[w] = counter;
+                        newOrder[counter++] = w;
+                        stack[sp++] = w;
+                        onStack[w] = true;
+                        cursor[w] = offsets[w];
+                        callStack[cp++] = w;
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+                cp--;
+                if (cp > 0) {
+                    int u = callStack[cp - 1];
+                    low[u] = Math.min(low[u], low[v]);
+                }
+                if (low[v] == index[v]) {
+                    int w;
+                    do {
+                        w = stack[--sp];
+                        onStack[w] = false;
+                        rep[w] = v;
+                        if (w != v) {
+                            contracted++;
+                        }
+                    } while (w != v);
+                    finished[completed++] = v;
+                }
+            }
+        }
+
+        boolean changed = contracted > 0;
+        int kept = 0;
+        for (int i = 0; i < counter; i++) {
+            int x = newOrder[i];
+            if (rep[x] != x) {
+                continue;
+            }
+            changed |= kept >= count || order[kept] != x || parent[x] != newParent[x];
+            order[kept++] = x;
+            parent[x] = newParent[x];
+        }
+        count = kept;
+        if (contracted > 0) {
+            for (int v = 0; v < n; v++) {
+                rep[v] = rep[rep[v]];
+            }
+        }
+        metrics.addToCounter("contracted_vertices", contracted);
+        return changed;
+    }
+
+    /**
+     * CSR over contracted vertices: forest edges in preorder, then the batch
+     * in file order. Self-loops of contracted vertices are dropped.
+     */
+    private void buildBatchGraph(int size) {
+        Arrays.fill(offsets, 0);
+        for (int i = 0; i < count; i++) {
+            int x = order[i];
+            parent[x] = parent[x] < 0 ? -1 : rep[parent[x]];
+            if (parent[x] >= 0) {
+                offsets[parent[x] + 1]++;
+            }
+        }
+        for (int e = 0; e < size; e++) {
+            int u = rep[batchFrom[e]];
+            int v = rep[batchTo[e]];
+            if (u != v) {
+                offsets[u + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        System.arraycopy(offsets, 0, cursor, 0, n);
+        for (int i = 0; i < count; i++) {
+            int x = order[i];
+            if (parent[x] >= 0) {
+                targets[cursor[parent[x]]++] = x;
+            }
+        }
+        for (int e = 0; e < size; e++) {
+            int u = rep[batchFrom[e]];
+            int v = rep[batchTo[e]];
+            if (u != v) {
+                targets[cursor[u]++] = v;
+            }
+        }
+    }
+}
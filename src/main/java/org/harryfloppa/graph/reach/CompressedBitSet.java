@@ -0,0 +1,260 @@
+package org.harryfloppa.graph.reach;
+
+import java.util.Arrays;
+
+/**
+ * Roaring-style compressed set of non-negative ints.
+ *
+ * Values are split by their high 16 bits into chunks. A chunk with at most
+ * {@value #ARRAY_LIMIT} values is stored as a sorted {@code char[]}, a denser
+ * chunk as a 1024-word bitmap, so sparse sets cost about 2 bytes per element
+ * and dense sets at most 1 bit per possible element.
+ *
+ * Not thread-safe for writes; concurrent reads of an unchanging set are safe.
+ */
+public class CompressedBitSet {
+    static final int ARRAY_LIMIT = 4096;
+    private static final int BITMAP_WORDS = 1 << 10;
+
+    private char[] keys = new char[0];
+    // Each entry is either a char[] (array container) or a long[] (bitmap container)
+    private Object[] containers = new Object[0];
+    private int[] cardinalities = new int[0];
+    private int size;
+
+    public void add(int value) {
+        char high = (char) (value >>> 16);
+        char low = (char) value;
+        int i = findKey(high);
+        if (i < 0) {
+            i = -i - 1;
+            insertChunk(i, high, new char[4], 0);
+        }
+        Object container = containers[i];
+        if (container instanceof long[]) {
+            long[] bitmap = (long[]) container;
+            long bit = 1L << low;
+            if ((bitmap[low >>> 6] & bit) == 0) {
+                bitmap[low >>> 6] |= bit;
+                cardinalities[i]++;
+            }
+            return;
+        }
+        char[] array = (char[]) container;
+        int card = cardinalities[i];
+        int pos = Arrays.binarySearch(array, 0, card, low);
+        if (pos >= 0) {
+            return;
+        }
+        pos = -pos - 1;
+        if (card == ARRAY_LIMIT) {
+            long[] bitmap = toBitmap(array, card);
+            bitmap[low >>> 6] |= 1L << low;
+            containers[i] = bitmap;
+            cardinalities[i] = card + 1;
+            return;
+        }
+        if (card == array.length) {
+            array = Arrays.copyOf(array, Math.min(ARRAY_LIMIT, card * 2));
+            containers[i] = array;
+        }
+        System.arraycopy(array, pos, array, pos + 1, card - pos);
+        array[pos] = low;
+        cardinalities[i] = card + 1;
+    }
+
+    public boolean contains(int value) {
+        int i = findKey((char) (value >>> 16));
+        if (i < 0) {
+            return false;
+        }
+        char low = (char) value;
+        Object container = containers[i];
+        if (container instanceof long[]) {
+            return (((long[]) container)[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch((char[]) container, 0, cardinalities[i], low) >= 0;
+    }
+
+    /**
+     * this |= other, chunk by chunk.
+     */
+    public void or(CompressedBitSet other) {
+        for (int j = 0; j < other.size; j++) {
+            char high = other.keys[j];
+            int i = findKey(high);
+            if (i < 0) {
+                i = -i - 1;
+                insertChunk(i, high, copyContainer(other.containers[j]), other.cardinalities[j]);
+                continue;
+            }
+            orChunk(i, other.containers[j], other.cardinalities[j]);
+        }
+    }
+
+    private void orChunk(int i, Object source, int sourceCard) {
+        Object target = containers[i];
+        if (target instanceof long[]) {
+            long[] bitmap = (long[]) target;
+            if (source instanceof long[]) {
+                long[] src = (long[]) source;
+                int card = 0;
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    bitmap[w] |= src[w];
+                    card += Long.bitCount(bitmap[w]);
+                }
+                cardinalities[i] = card;
+            } else {
+                char[] src = (char[]) source;
+                int card = cardinalities[i];
+                for (int k = 0; k < sourceCard; k++) {
+                    char low = src[k];
+                    long bit = 1L << low;
+                    if ((bitmap[low >>> 6] & bit) == 0) {
+                        bitmap[low >>> 6] |= bit;
+                        card++;
+                    }
+                }
+                cardinalities[i] = card;
+            }
+            return;
+        }
+        char[] array = (char[]) target;
+        int card = cardinalities[i];
+        if (source instanceof long[]) {
+            long[] bitmap = ((long[]) source).clone();
+            int total = sourceCard;
+            for (int k = 0; k < card; k++) {
+                char low = array[k];
+                long bit = 1L << low;
+                if ((bitmap[low >>> 6] & bit) == 0) {
+                    bitmap[low >>> 6] |= bit;
+                    total++;
+                }
+            }
+            containers[i] = bitmap;
+            cardinalities[i] = total;
+            return;
+        }
+        mergeArrays(i, array, card, (char[]) source, sourceCard);
+    }
+
+    /**
+     * Replaces chunk {@code i} with the sorted union of two array containers,
+     * switching to a bitmap when the union outgrows {@value #ARRAY_LIMIT}.
+     */
+    private void mergeArrays(int i, char[] a, int na, char[] b, int nb) {
+        char[] out = new char[na + nb];
+        int x = 0;
+        int y = 0;
+        int k = 0;
+        while (x < na && y < nb) {
+            char va = a[x];
+            char vb = b[y];
+            if (va < vb) {
+                out[k++] = va;
+                x++;
+            } else if (vb < va) {
+                out[k++] = vb;
+                y++;
+            } else {
+                out[k++] = va;
+                x++;
+                y++;
+            }
+        }
+        while (x < na) {
+            out[k++] = a[x++];
+        }
+        while (y < nb) {
+            out[k++] = b[y++];
+        }
+        containers[i] = k > ARRAY_LIMIT ? toBitmap(out, k) : out;
+        cardinalities[i] = k;
+    }
+
+    public int cardinality() {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            total += cardinalities[i];
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * All values in ascending order.
+     */
+    public int[] toArray() {
+        int[] result = new int[cardinality()];
+        int k = 0;
+        for (int i = 0; i < size; i++) {
+            int base = keys[i] << 16;
+            Object container = containers[i];
+            if (container instanceof long[]) {
+                long[] bitmap = (long[]) container;
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    long word = bitmap[w];
+                    while (word != 0) {
+                        result[k++] = base | (w << 6) | Long.numberOfTrailingZeros(word);
+                        word &= word - 1;
+                    }
+                }
+            } else {
+                char[] array = (char[]) container;
+                for (int j = 0; j < cardinalities[i]; j++) {
+                    result[k++] = base | array[j];
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Approximate heap footprint of the containers in bytes.
+     */
+    public long sizeInBytes() {
+        long bytes = size * (2L + 4 + 8);
+        for (int i = 0; i < size; i++) {
+            Object container = containers[i];
+            bytes += container instanceof long[] ? BITMAP_WORDS * 8L : ((char[]) container).length * 2L;
+        }
+        return bytes;
+    }
+
+    private int findKey(char high) {
+        return Arrays.binarySearch(keys, 0, size, high);
+    }
+
+    private void insertChunk(int i, char high, Object container, int card) {
+        if (size == keys.length) {
+            int capacity = Math.max(4, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+            cardinalities = Arrays.copyOf(cardinalities, capacity);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(containers, i, containers, i + 1, size - i);
+        System.arraycopy(cardinalities, i, cardinalities, i + 1, size - i);
+        keys[i] = high;
+        containers[i] = container;
+        cardinalities[i] = card;
+        size++;
+    }
+
+    private static Object copyContainer(Object container) {
+        return container instanceof long[] ? ((long[]) container).clone() : ((char[]) container).clone();
+    }
+
+    private static long[] toBitmap(char[] array, int card) {
+        long[] bitmap = new long[BITMAP_WORDS];
+        for (int k = 0; k < card; k++) {
+            char low = array[k];
+            bitmap[low >>> 6] |= 1L << low;
+        }
+        return bitmap;
+    }
+}
@@ -0,0 +1,322 @@
+package org.harryfloppa.graph.reach;
+
+import org.harryfloppa.common.Metrics;
+import org.harryfloppa.common.MetricsImpl;
+import org.harryfloppa.graph.AdjacencyGraph;
+import org.harryfloppa.graph.Graph;
+import org.harryfloppa.graph.scc.CondensationGraph;
+import org.harryfloppa.graph.topo.KahnTopologicalSort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Materialized transitive closure of the condensation DAG.
+ *
+ * Components are grouped by height (longest distance to a sink) and processed
+ * from the sinks upwards; a component's descendant set is the OR of each
+ * successor's set plus the successor itself. All components of one height
+ * depend only on lower heights, so each level is split into ForkJoin tasks.
+ *
+ * Sets are either dense {@code long[]} bitsets (ORed a word at a time) or
+ * {@link CompressedBitSet}s when the condensation is sparse, which makes a
+ * sparse closure likely, or too large for n^2 bits. Intended for
+ * condensations up to about 100k components.
+ */
+public class TransitiveClosure {
+
+    /**
+     * Storage for the per-component descendant sets.
+     */
+    public enum Representation {
+        /**
+         * Dense bitsets when the condensation has at least {@link #DENSE_MIN_DEGREE}
+         * edges per component and at most {@link #DENSE_LIMIT} components, compressed otherwise.
+         */
+        AUTO,
+        DENSE,
+        COMPRESSED
+    }
+
+    /** Smallest average out-degree for which AUTO picks dense bitsets. */
+    public static final double DENSE_MIN_DEGREE = 2.0;
+    /** Largest component count for which AUTO may pick dense bitsets (n^2 / 8 = 32 MiB). */
+    public static final int DENSE_LIMIT = 16_384;
+    private static final int SPLIT_THRESHOLD = 64;
+
+    private final AdjacencyGraph dag;
+    private final int[] vertexToSCC;
+    private final List<List<Integer>> sccs;
+    private final int n;
+    private final Representation representation;
+    private final ForkJoinPool pool;
+    private final Metrics metrics;
+
+    private final long[][] dense;
+    private final CompressedBitSet[] compressed;
+    private volatile TransitiveClosure ancestors;
+
+    public TransitiveClosure(CondensationGraph condensation) {
+        this(condensation, Representation.AUTO, ForkJoinPool.commonPool());
+    }
+
+    public TransitiveClosure(CondensationGraph condensation, Representation representation, ForkJoinPool pool) {
+        this(condensation.getCondensation(), condensation.getVertexToSCCMap(), condensation.getSCCs(),
+                representation, pool);
+    }
+
+    /**
+     * Closure of a plain DAG; vertices are their own components.
+     */
+    public TransitiveClosure(AdjacencyGraph dag, Representation representation, ForkJoinPool pool) {
+        this(dag, identity(dag.getVertexCount()), singletons(dag.getVertexCount()), representation, pool);
+    }
+
+    private TransitiveClosure(AdjacencyGraph dag, int[] vertexToSCC, List<List<Integer>> sccs,
+                              Representation representation, ForkJoinPool pool) {
+        this.dag = dag;
+        this.vertexToSCC = vertexToSCC;
+        this.sccs = sccs;
+        this.n = dag.getVertexCount();
+        this.pool = pool;
+        if (representation == Representation.AUTO) {
+            boolean denseEnough = dag.getEdgeCount() >= DENSE_MIN_DEGREE * n;
+            representation = denseEnough && n <= DENSE_LIMIT ? Representation.DENSE : Representation.COMPRESSED;
+        }
+        this.representation = representation;
+        this.metrics = new MetricsImpl();
+
+        metrics.startTiming();
+        if (representation == Representation.DENSE) {
+            dense = new long[n][];
+            compressed = null;
+        } else {
+            dense = null;
+            compressed = new CompressedBitSet[n];
+        }
+        build();
+        metrics.stopTiming();
+    }
+
+    private static int[] identity(int n) {
+        int[] map = new int[n];
+        for (int v = 0; v < n; v++) {
+            map[v] = v;
+        }
+        return map;
+    }
+
+    private static Graph reverse(AdjacencyGraph graph) {
+        Graph reversed = new Graph(graph.getVertexCount(), true);
+        for (int u = 0; u < graph.getVertexCount(); u++) {
+            for (AdjacencyGraph.NeighborIterator it = graph.neighbors(u); it.hasNext(); ) {
+                reversed.addEdge(it.next(), u, it.weight());
+            }
+        }
+        return reversed;
+    }
+
+    private static List<List<Integer>> singletons(int n) {
+        List<List<Integer>> components = new ArrayList<>(n);
+        for (int v = 0; v < n; v++) {
+            components.add(List.of(v));
+        }
+        return components;
+    }
+
+    private void build() {
+        List<Integer> order = new KahnTopologicalSort(dag).sort().getOrder();
+        if (order.size() != n) {
+            throw new IllegalArgumentException("Condensation is not acyclic");
+        }
+
+        // Height of every component, computed in reverse topological order
+        int[] height = new int[n];
+        int maxHeight = 0;
+        for (int i = n - 1; i >= 0; i--) {
+            int u = order.get(i);
+            int h = 0;
+            for (AdjacencyGraph.NeighborIterator it = dag.neighbors(u); it.hasNext(); ) {
+                h = Math.max(h, height[it.next()] + 1);
+            }
+            height[u] = h;
+            maxHeight = Math.max(maxHeight, h);
+        }
+
+        // Bucket components by height (counting sort)
+        int[] levelStart = new int[maxHeight + 2];
+        for (int u = 0; u < n; u++) {
+            levelStart[height[u] + 1]++;
+        }
+        for (int h = 0; h <= maxHeight; h++) {
+            levelStart[h + 1] += levelStart[h];
+        }
+        int[] byLevel = new int[n];
+        int[] fill = levelStart.clone();
+        for (int u = 0; u < n; u++) {
+            byLevel[fill[height[u]]++] = u;
+        }
+
+        for (int h = 0; h <= maxHeight && n > 0; h++) {
+            pool.invoke(new LevelTask(byLevel, levelStart[h], levelStart[h + 1]));
+            metrics.incrementCounter("levels");
+        }
+    }
+
+    /**
+     * Computes the descendant sets of byLevel[lo..hi), splitting in halves above the threshold.
+     */
+    private class LevelTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] byLevel;
+        private final int lo;
+        private final int hi;
+
+        LevelTask(int[] byLevel, int lo, int hi) {
+            this.byLevel = byLevel;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= SPLIT_THRESHOLD) {
+                for (int i = lo; i < hi; i++) {
+                    computeSet(byLevel[i]);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new LevelTask(byLevel, lo, mid), new LevelTask(byLevel, mid, hi));
+        }
+    }
+
+    private void computeSet(int u) {
+        if (representation == Representation.DENSE) {
+            long[] words = new long[(n + 63) >>> 6];
+            for (AdjacencyGraph.NeighborIterator it = dag.neighbors(u); it.hasNext(); ) {
+                int v = it.next();
+                long[] child = dense[v];
+                for (int w = 0; w < words.length; w++) {
+                    words[w] |= child[w];
+                }
+                words[v >>> 6] |= 1L << v;
+            }
+            dense[u] = words;
+        } else {
+            CompressedBitSet set = new CompressedBitSet();
+            for (AdjacencyGraph.NeighborIterator it = dag.neighbors(u); it.hasNext(); ) {
+                int v = it.next();
+                set.or(compressed[v]);
+                set.add(v);
+            }
+            compressed[u] = set;
+        }
+    }
+
+    /**
+     * Whether vertex {@code from} reaches vertex {@code to} in the original graph.
+     */
+    public boolean reaches(int from, int to) {
+        return componentReaches(vertexToSCC[from], vertexToSCC[to]);
+    }
+
+    public boolean componentReaches(int cu, int cv) {
+        if (cu == cv) {
+            return true;
+        }
+        if (representation == Representation.DENSE) {
+            return (dense[cu][cv >>> 6] & (1L << cv)) != 0;
+        }
+        return compressed[cu].contains(cv);
+    }
+
+    /**
+     * Components reachable from {@code c}, excluding {@code c}, in ascending order.
+     */
+    public int[] descendantComponents(int c) {
+        if (representation == Representation.COMPRESSED) {
+            return compressed[c].toArray();
+        }
+        long[] words = dense[c];
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        int[] result = new int[count];
+        int k = 0;
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                result[k++] = (w << 6) | Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Components that reach {@code c}, excluding {@code c}. The ancestor closure
+     * is built on the reversed condensation on first use, in the common pool
+     * if the constructor's pool has been shut down since.
+     */
+    public int[] ancestorComponents(int c) {
+        TransitiveClosure reverse = ancestors;
+        if (reverse == null) {
+            synchronized (this) {
+                reverse = ancestors;
+                if (reverse == null) {
+                    ForkJoinPool buildPool = pool.isShutdown() ? ForkJoinPool.commonPool() : pool;
+                    reverse = new TransitiveClosure(reverse(dag), vertexToSCC, sccs, representation, buildPool);
+                    ancestors = reverse;
+                }
+            }
+        }
+        return reverse.descendantComponents(c);
+    }
+
+    /**
+     * Original vertices reachable from {@code v}, excluding the vertices of v's own component.
+     */
+    public List<Integer> descendantVertices(int v) {
+        return expand(descendantComponents(vertexToSCC[v]));
+    }
+
+    /**
+     * Original vertices that reach {@code v}, excluding the vertices of v's own component.
+     */
+    public List<Integer> ancestorVertices(int v) {
+        return expand(ancestorComponents(vertexToSCC[v]));
+    }
+
+    private List<Integer> expand(int[] components) {
+        List<Integer> vertices = new ArrayList<>();
+        for (int c : components) {
+            vertices.addAll(sccs.get(c));
+        }
+        return vertices;
+    }
+
+    public Representation getRepresentation() {
+        return representation;
+    }
+
+    /**
+     * Approximate heap footprint of the descendant sets in bytes.
+     */
+    public long sizeInBytes() {
+        long bytes = 0;
+        for (int c = 0; c < n; c++) {
+            bytes += representation == Representation.DENSE
+                    ? dense[c].length * 8L : compressed[c].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,248 @@
+package org.harryfloppa.graph.reach;
+
+import org.harryfloppa.common.Metrics;
+import org.harryfloppa.common.MetricsImpl;
+import org.harryfloppa.graph.AdjacencyGraph;
+import org.harryfloppa.graph.Graph;
+import org.harryfloppa.graph.scc.CondensationGraph;
+import org.harryfloppa.graph.topo.KahnTopologicalSort;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Transitive reduction of a DAG, typically the condensation DAG.
+ *
+ * {@link #reduce()} removes every edge (u, v) for which v is also reachable
+ * through another successor of u. The result has the same reachability and
+ * therefore the same topological orders, with the fewest edges.
+ *
+ * {@link #reduceForLongestPaths()} only removes (u, v, w) when some other
+ * path from u to v weighs at least w, so longest-path and critical-path
+ * results are unchanged. Shortest paths are not preserved by either variant.
+ *
+ * Components are processed in parallel on the given ForkJoin pool.
+ */
+public class TransitiveReduction {
+    private final AdjacencyGraph dag;
+    private final ForkJoinPool pool;
+    private final int n;
+    private final int[] order;
+    private final int[] rank;
+    private final int[] offsets;   // out-edges of u are [offsets[u], offsets[u + 1])
+    private final int[] targets;
+    private final int[] weights;
+
+    public TransitiveReduction(CondensationGraph condensation) {
+        this(condensation.getCondensation(), ForkJoinPool.commonPool());
+    }
+
+    public TransitiveReduction(AdjacencyGraph dag, ForkJoinPool pool) {
+        if (!dag.isDirected()) {
+            throw new IllegalArgumentException("Transitive reduction requires a directed graph");
+        }
+        this.dag = dag;
+        this.pool = pool;
+        this.n = dag.getVertexCount();
+
+        List<Integer> topo = new KahnTopologicalSort(dag).sort().getOrder();
+        if (topo.size() != n) {
+            throw new IllegalArgumentException("Graph contains a cycle - not a DAG");
+        }
+        this.order = new int[n];
+        this.rank = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = topo.get(i);
+            rank[order[i]] = i;
+        }
+
+        // Snapshot of the adjacency, so workers index edges instead of iterating
+        this.offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] = offsets[u] + dag.getOutDegree(u);
+        }
+        this.targets = new int[offsets[n]];
+        this.weights = new int[offsets[n]];
+        for (int u = 0; u < n; u++) {
+            int e = offsets[u];
+            for (AdjacencyGraph.NeighborIterator it = dag.neighbors(u); it.hasNext(); e++) {
+                targets[e] = it.next();
+                weights[e] = it.weight();
+            }
+        }
+    }
+
+    /**
+     * Reachability-preserving reduction, using the transitive closure of the DAG.
+     */
+    public ReductionResult reduce() {
+        Metrics metrics = new MetricsImpl();
+        metrics.startTiming();
+
+        TransitiveClosure closure = new TransitiveClosure(dag, TransitiveClosure.Representation.AUTO, pool);
+        int[][] kept = new int[n][];
+        pool.submit(() -> IntStream.range(0, n).parallel().forEach(u -> {
+            int[] successors = sortedByRank(u);
+            int[] keep = new int[successors.length];
+            int count = 0;
+            for (int e : successors) {
+                // Any successor that reaches targets[e] has a smaller rank and is either
+                // kept or itself reachable from a kept successor
+                boolean redundant = false;
+                for (int i = 0; i < count && !redundant; i++) {
+                    int w = targets[keep[i]];
+                    redundant = w == targets[e] || closure.componentReaches(w, targets[e]);
+                }
+                if (!redundant) {
+                    keep[count++] = e;
+                }
+            }
+            kept[u] = Arrays.copyOf(keep, count);
+        })).join();
+
+        return buildResult(kept, metrics);
+    }
+
+    /**
+     * Removes (u, v, w) only when another u-to-v path has total weight >= w,
+     * so longest distances between all pairs are preserved.
+     */
+    public ReductionResult reduceForLongestPaths() {
+        Metrics metrics = new MetricsImpl();
+        metrics.startTiming();
+
+        int[][] kept = new int[n][];
+        ThreadLocal<long[]> workspaces = ThreadLocal.withInitial(() -> {
+            long[] alt = new long[n];
+            Arrays.fill(alt, Long.MIN_VALUE);
+            return alt;
+        });
+        pool.submit(() -> IntStream.range(0, n).parallel().forEach(u -> {
+            kept[u] = keepHeavyEdges(u, workspaces.get());
+        })).join();
+
+        return buildResult(kept, metrics);
+    }
+
+    /**
+     * Longest-path DP from u over the topological window that ends at u's last
+     * successor. alt[x] is the longest u-to-x path with at least two edges;
+     * the direct edge (u, v) is redundant when alt[v] >= its weight.
+     * {@code alt} is all Long.MIN_VALUE on entry and restored on exit.
+     *
+     * @return indices of the kept out-edges of u
+     */
+    private int[] keepHeavyEdges(int u, long[] alt) {
+        int first = offsets[u];
+        int last = offsets[u + 1];
+        if (last - first < 2) {
+            return IntStream.range(first, last).toArray();
+        }
+        int lastRank = rank[u];
+        for (int e = first; e < last; e++) {
+            lastRank = Math.max(lastRank, rank[targets[e]]);
+        }
+
+        // Direct edge weights by target; the condensation holds one edge per pair
+        long[] direct = new long[lastRank - rank[u] + 1];
+        Arrays.fill(direct, Long.MIN_VALUE);
+        for (int e = first; e < last; e++) {
+            int slot = rank[targets[e]] - rank[u];
+            direct[slot] = Math.max(direct[slot], weights[e]);
+        }
+
+        for (int r = rank[u] + 1; r <= lastRank; r++) {
+            int x = order[r];
+            long best = Math.max(direct[r - rank[u]], alt[x]);
+            if (best == Long.MIN_VALUE) {
+                continue;
+            }
+            for (int e = offsets[x]; e < offsets[x + 1]; e++) {
+                int v = targets[e];
+                if (rank[v] <= lastRank) {
+                    alt[v] = Math.max(alt[v], best + weights[e]);
+                }
+            }
+        }
+
+        int[] keep = new int[last - first];
+        int count = 0;
+        for (int e = first; e < last; e++) {
+            if (alt[targets[e]] < weights[e]) {
+                keep[count++] = e;
+            }
+        }
+        for (int r = rank[u] + 1; r <= lastRank; r++) {
+            alt[order[r]] = Long.MIN_VALUE;
+        }
+        return Arrays.copyOf(keep, count);
+    }
+
+    /**
+     * Out-edge indices of u by ascending target rank, ties in storage order.
+     */
+    private int[] sortedByRank(int u) {
+        int first = offsets[u];
+        long[] packed = new long[offsets[u + 1] - first];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = ((long) rank[targets[first + i]] << 32) | i;
+        }
+        Arrays.sort(packed);
+        int[] sorted = new int[packed.length];
+        for (int i = 0; i < packed.length; i++) {
+            sorted[i] = first + (int) packed[i];
+        }
+        return sorted;
+    }
+
+    private ReductionResult buildResult(int[][] kept, Metrics metrics) {
+        Graph reduced = new Graph(n, true);
+        int keptCount = 0;
+        for (int u = 0; u < n; u++) {
+            for (int e : kept[u]) {
+                reduced.addEdge(u, targets[e], weights[e]);
+                keptCount++;
+            }
+        }
+        int removed = dag.getEdgeCount() - keptCount;
+        metrics.addToCounter("edges_removed", removed);
+        metrics.stopTiming();
+        return new ReductionResult(reduced, removed, metrics);
+    }
+
+    public static class ReductionResult {
+        private final Graph graph;
+        private final int removedEdges;
+        private final Metrics metrics;
+
+        public ReductionResult(Graph graph, int removedEdges, Metrics metrics) {
+            this.graph = graph;
+            this.removedEdges = removedEdges;
+            this.metrics = metrics;
+        }
+
+        public Graph getGraph() {
+            return graph;
+        }
+
+        public int getRemovedEdgeCount() {
+            return removedEdges;
+        }
+
+        public Metrics getMetrics() {
+            return metrics;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Transitive Reduction:\n");
+            sb.append("  Edges kept: ").append(graph.getEdgeCount()).append("\n");
+            sb.append("  Edges removed: ").append(removedEdges).append("\n");
+            sb.append("\n").append(metrics.getReport());
+            return sb.toString();
+        }
+    }
+}
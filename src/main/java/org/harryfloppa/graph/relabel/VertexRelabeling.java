@@ -0,0 +1,355 @@
+package org.harryfloppa.graph.relabel;
+
+import org.harryfloppa.common.Metrics;
+import org.harryfloppa.common.MetricsImpl;
+import org.harryfloppa.graph.AdjacencyGraph;
+import org.harryfloppa.graph.Graph;
+import org.harryfloppa.graph.dagsp.DAGLongestPath;
+import org.harryfloppa.graph.dagsp.DAGShortestPath;
+import org.harryfloppa.graph.scc.TarjanSCC;
+import org.harryfloppa.graph.topo.KahnTopologicalSort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Permutes a graph's vertex ids into a cache-friendly order and translates
+ * results back to the original ids.
+ *
+ * Input ids are usually arbitrary, so per-vertex arrays ({@code dist},
+ * {@code disc}, ...) are touched in random order. After relabeling, the
+ * chosen order puts vertices that are visited together next to each other,
+ * and every adjacency list is sorted by target id.
+ *
+ * The {@code findSCCs}, {@code sort}, {@code computeShortestPaths},
+ * {@code computeLongestPaths} and {@code computeCriticalPath} methods run
+ * the usual algorithms on the relabeled graph and return results in
+ * original ids, so callers never see the new ids.
+ */
+public class VertexRelabeling {
+
+    public enum Order {
+        /** Keep the input ids; only adjacency lists are sorted. */
+        IDENTITY,
+        /** Kahn order; DP sweeps over DAGs become sequential scans. Requires a DAG. */
+        TOPOLOGICAL,
+        /** Breadth-first order over the graph with edge directions ignored. */
+        BFS,
+        /** Reverse Cuthill-McKee: BFS from a low-degree vertex, neighbors by ascending degree, reversed. */
+        RCM,
+        /** Descending total degree, so hub data shares cache lines. */
+        DEGREE
+    }
+
+    private final AdjacencyGraph original;
+    private final Graph relabeled;
+    private final Order order;
+    private final int[] newToOld;
+    private final int[] oldToNew;
+    private final Metrics metrics;
+
+    public VertexRelabeling(AdjacencyGraph graph, Order order) {
+        if (!graph.isDirected()) {
+            throw new IllegalArgumentException("Relabeling requires a directed graph");
+        }
+        this.original = graph;
+        this.order = order;
+        this.metrics = new MetricsImpl();
+
+        metrics.startTiming();
+        int n = graph.getVertexCount();
+        switch (order) {
+            case IDENTITY:
+                newToOld = identity(n);
+                break;
+            case TOPOLOGICAL:
+                newToOld = topologicalOrder(graph);
+                break;
+            case BFS:
+                newToOld = bfsOrder(graph, false);
+                break;
+            case RCM:
+                newToOld = bfsOrder(graph, true);
+                break;
+            case DEGREE:
+                newToOld = degreeOrder(graph);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown order: " + order);
+        }
+        oldToNew = new int[n];
+        for (int v = 0; v < n; v++) {
+            oldToNew[newToOld[v]] = v;
+        }
+        relabeled = permute(graph);
+        metrics.stopTiming();
+    }
+
+    private static int[] identity(int n) {
+        int[] ids = new int[n];
+        for (int v = 0; v < n; v++) {
+            ids[v] = v;
+        }
+        return ids;
+    }
+
+    private static int[] topologicalOrder(AdjacencyGraph graph) {
+        KahnTopologicalSort.TopoSortResult result = new KahnTopologicalSort(graph).sort();
+        if (result.hasCycle()) {
+            throw new IllegalArgumentException("Topological relabeling requires a DAG");
+        }
+        return result.getOrder().stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Undirected neighborhoods in CSR form: out-edges followed by in-edges.
+     */
+    private static int[][] symmetricCSR(AdjacencyGraph graph) {
+        int n = graph.getVertexCount();
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            for (AdjacencyGraph.NeighborIterator it = graph.neighbors(u); it.hasNext(); ) {
+                offsets[u + 1]++;
+                offsets[it.next() + 1]++;
+            }
+        }
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+        int[] neighbors = new int[offsets[n]];
+        int[] fill = Arrays.copyOf(offsets, n);
+        for (int u = 0; u < n; u++) {
+            for (AdjacencyGraph.NeighborIterator it = graph.neighbors(u); it.hasNext(); ) {
+                int v = it.next();
+                neighbors[fill[u]++] = v;
+                neighbors[fill[v]++] = u;
+            }
+        }
+        return new int[][]{offsets, neighbors};
+    }
+
+    /**
+     * BFS over undirected neighborhoods, one tree per weak component. With
+     * {@code cuthillMcKee}, each tree starts at the lowest-degree unvisited
+     * vertex, neighbors are enqueued by ascending degree and the final order
+     * is reversed.
+     */
+    private static int[] bfsOrder(AdjacencyGraph graph, boolean cuthillMcKee) {
+        int n = graph.getVertexCount();
+        int[][] csr = symmetricCSR(graph);
+        int[] offsets = csr[0];
+        int[] neighbors = csr[1];
+
+        int[] roots = identity(n);
+        if (cuthillMcKee) {
+            roots = sortByKey(roots, v -> offsets[v + 1] - offsets[v]);
+        }
+
+        boolean[] visited = new boolean[n];
+        int[] queue = new int[n];
+        int tail = 0;
+        for (int root : roots) {
+            if (visited[root]) {
+                continue;
+            }
+            int head = tail;
+            queue[tail++] = root;
+            visited[root] = true;
+            while (head < tail) {
+                int u = queue[head++];
+                int start = tail;
+                for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                    int v = neighbors[i];
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        queue[tail++] = v;
+                    }
+                }
+                if (cuthillMcKee && tail - start > 1) {
+                    int[] level = sortByKey(Arrays.copyOfRange(queue, start, tail),
+                            v -> offsets[v + 1] - offsets[v]);
+                    System.arraycopy(level, 0, queue, start, level.length);
+                }
+            }
+        }
+        if (cuthillMcKee) {
+            for (int i = 0, j = n - 1; i < j; i++, j--) {
+                int t = queue[i];
+                queue[i] = queue[j];
+                queue[j] = t;
+            }
+        }
+        return queue;
+    }
+
+    private static int[] degreeOrder(AdjacencyGraph graph) {
+        int n = graph.getVertexCount();
+        int[] degree = new int[n];
+        for (int u = 0; u < n; u++) {
+            for (AdjacencyGraph.NeighborIterator it = graph.neighbors(u); it.hasNext(); ) {
+                degree[u]++;
+                degree[it.next()]++;
+            }
+        }
+        return sortByKey(identity(n), v -> -degree[v]);
+    }
+
+    /**
+     * Stable sort of vertex ids by an int key, ties kept in input order.
+     */
+    private static int[] sortByKey(int[] vertices, IntUnaryOperator key) {
+        long[] packed = new long[vertices.length];
+        for (int i = 0; i < vertices.length; i++) {
+            packed[i] = ((long) key.applyAsInt(vertices[i]) << 32) | i;
+        }
+        Arrays.sort(packed);
+        int[] sorted = new int[vertices.length];
+        for (int i = 0; i < packed.length; i++) {
+            sorted[i] = vertices[(int) packed[i]];
+        }
+        return sorted;
+    }
+
+    private Graph permute(AdjacencyGraph graph) {
+        int n = graph.getVertexCount();
+        Graph result = new Graph(n, true);
+        int[] targets = new int[0];
+        int[] weights = new int[0];
+        for (int u = 0; u < n; u++) {
+            int degree = graph.getOutDegree(newToOld[u]);
+            if (degree > targets.length) {
+                targets = new int[degree];
+                weights = new int[degree];
+            }
+            int count = 0;
+            for (AdjacencyGraph.NeighborIterator it = graph.neighbors(newToOld[u]); it.hasNext(); count++) {
+                targets[count] = oldToNew[it.next()];
+                weights[count] = it.weight();
+            }
+            // Sort by new target id, ties in storage order
+            long[] packed = new long[count];
+            for (int i = 0; i < count; i++) {
+                packed[i] = ((long) targets[i] << 32) | i;
+            }
+            Arrays.sort(packed);
+            for (long key : packed) {
+                int i = (int) key;
+                result.addEdge(u, targets[i], weights[i]);
+            }
+        }
+        metrics.addToCounter("edges_relabeled", graph.getEdgeCount());
+        return result;
+    }
+
+    public AdjacencyGraph getOriginalGraph() {
+        return original;
+    }
+
+    /**
+     * The graph with vertex {@code toNew(v)} in place of every original vertex {@code v}.
+     */
+    public Graph getRelabeledGraph() {
+        return relabeled;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public int toNew(int originalVertex) {
+        return oldToNew[originalVertex];
+    }
+
+    public int toOriginal(int newVertex) {
+        return newToOld[newVertex];
+    }
+
+    /**
+     * Relabeling time and edges copied.
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    // Algorithms on the relabeled graph, results in original ids
+
+    public TarjanSCC.SCCResult findSCCs() {
+        return translate(new TarjanSCC(relabeled).findSCCs());
+    }
+
+    public KahnTopologicalSort.TopoSortResult sort() {
+        return translate(new KahnTopologicalSort(relabeled).sort());
+    }
+
+    public DAGShortestPath.ShortestPathResult computeShortestPaths(int source) {
+        return translate(new DAGShortestPath(relabeled).computeShortestPaths(toNew(source)));
+    }
+
+    public DAGLongestPath.LongestPathResult computeLongestPaths(int source) {
+        return translate(new DAGLongestPath(relabeled).computeLongestPaths(toNew(source)));
+    }
+
+    public DAGLongestPath.CriticalPathResult computeCriticalPath() {
+        return translate(new DAGLongestPath(relabeled).computeCriticalPath());
+    }
+
+    // Translation of results computed on the relabeled graph
+
+    public TarjanSCC.SCCResult translate(TarjanSCC.SCCResult result) {
+        List<List<Integer>> sccs = new ArrayList<>(result.getComponentCount());
+        for (List<Integer> scc : result.getSCCs()) {
+            sccs.add(toOriginal(scc));
+        }
+        return new TarjanSCC.SCCResult(sccs, result.getMetrics());
+    }
+
+    public KahnTopologicalSort.TopoSortResult translate(KahnTopologicalSort.TopoSortResult result) {
+        return new KahnTopologicalSort.TopoSortResult(toOriginal(result.getOrder()), result.hasCycle(),
+                result.getMetrics());
+    }
+
+    public DAGShortestPath.ShortestPathResult translate(DAGShortestPath.ShortestPathResult result) {
+        int n = oldToNew.length;
+        int[] distances = new int[n];
+        int[] parent = new int[n];
+        for (int v = 0; v < n; v++) {
+            int nv = oldToNew[v];
+            distances[v] = result.getDistance(nv);
+            parent[v] = toOriginalOrNone(result.getParent(nv));
+        }
+        return new DAGShortestPath.ShortestPathResult(toOriginal(result.getSource()), distances, parent,
+                result.getMetrics());
+    }
+
+    public DAGLongestPath.LongestPathResult translate(DAGLongestPath.LongestPathResult result) {
+        int n = oldToNew.length;
+        int[] distances = new int[n];
+        int[] parent = new int[n];
+        for (int v = 0; v < n; v++) {
+            int nv = oldToNew[v];
+            distances[v] = result.getDistance(nv);
+            parent[v] = toOriginalOrNone(result.getParent(nv));
+        }
+        return new DAGLongestPath.LongestPathResult(toOriginal(result.getSource()), distances, parent,
+                result.getMetrics());
+    }
+
+    public DAGLongestPath.CriticalPathResult translate(DAGLongestPath.CriticalPathResult result) {
+        return new DAGLongestPath.CriticalPathResult(toOriginal(result.getPath()), result.getLength(),
+                result.getMetrics());
+    }
+
+    private int toOriginalOrNone(int newVertex) {
+        return newVertex < 0 ? newVertex : newToOld[newVertex];
+    }
+
+    private List<Integer> toOriginal(List<Integer> vertices) {
+        List<Integer> mapped = new ArrayList<>(vertices.size());
+        for (int v : vertices) {
+            mapped.add(newToOld[v]);
+        }
+        return mapped;
+    }
+}
@@ -1,19 +1,29 @@
 package org.harryfloppa.graph.scc;
 
+import org.harryfloppa.graph.AdjacencyGraph;
 import org.harryfloppa.graph.Graph;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Builds the condensation graph (DAG of SCCs) from the original graph and its SCCs.
  */
 public class CondensationGraph {
-    private final Graph originalGraph;
+    /** How the costs inside one component combine into the component's cost. */
+    public enum CostAggregation {
+        /** Members run one after another. */
+        SUM,
+        /** Members run in parallel; the slowest one counts. */
+        MAX
+    }
+
+    private final AdjacencyGraph originalGraph;
     private final List<List<Integer>> sccs;
     private final int[] vertexToSCC;
     private Graph condensation;
 
-    public CondensationGraph(Graph originalGraph, TarjanSCC.SCCResult sccResult) {
+    public CondensationGraph(AdjacencyGraph originalGraph, TarjanSCC.SCCResult sccResult) {
         this.originalGraph = originalGraph;
         this.sccs = sccResult.getSCCs();
         this.vertexToSCC = sccResult.getVertexToSCCMap();
@@ -21,25 +31,97 @@ public class CondensationGraph {
     }
 
     private void buildCondensation() {
+        int n = originalGraph.getVertexCount();
         int numSCCs = sccs.size();
         condensation = new Graph(numSCCs, true);
-        
-        // Add edges between different SCCs
-        boolean[][] hasEdge = new boolean[numSCCs][numSCCs];
-        
+
+        // Members of each SCC in ascending vertex order, so every component's
+        // edges are added in the same order as a plain scan over all vertices
+        int[] memberStart = new int[numSCCs + 1];
+        for (int u = 0; u < n; u++) {
+            memberStart[vertexToSCC[u] + 1]++;
+        }
+        for (int c = 0; c < numSCCs; c++) {
+            memberStart[c + 1] += memberStart[c];
+        }
+        int[] members = new int[n];
+        int[] fill = Arrays.copyOf(memberStart, numSCCs);
+        for (int u = 0; u < n; u++) {
+            members[fill[vertexToSCC[u]]++] = u;
+        }
+
+        // lastSource[c] == sccU marks an edge sccU -> c as already added
+        int[] lastSource = new int[numSCCs];
+        Arrays.fill(lastSource, -1);
+        for (int sccU = 0; sccU < numSCCs; sccU++) {
+            for (int i = memberStart[sccU]; i < memberStart[sccU + 1]; i++) {
+                for (AdjacencyGraph.NeighborIterator it = originalGraph.neighbors(members[i]); it.hasNext(); ) {
+                    int sccV = vertexToSCC[it.next()];
+
+                    // Add edge only if it connects different SCCs and not already added
+                    if (sccU != sccV && lastSource[sccV] != sccU) {
+                        condensation.addEdge(sccU, sccV, it.weight());
+                        lastSource[sccV] = sccU;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Per-component costs from per-vertex weights of the original graph, to
+     * use as node weights of the condensation.
+     */
+    public int[] getComponentCosts(int[] nodeWeights, CostAggregation aggregation) {
+        if (nodeWeights.length != originalGraph.getVertexCount()) {
+            throw new IllegalArgumentException("Expected " + originalGraph.getVertexCount() + " node weights");
+        }
+        long[] costs = new long[sccs.size()];
+        boolean[] seen = new boolean[sccs.size()];
+        for (int u = 0; u < nodeWeights.length; u++) {
+            int c = vertexToSCC[u];
+            costs[c] = combine(costs[c], nodeWeights[u], seen[c], aggregation);
+            seen[c] = true;
+        }
+        return toIntCosts(costs);
+    }
+
+    /**
+     * Per-component costs from the weights of edges inside each component,
+     * so that cyclic parts of an edge-weighted graph keep their cost; 0 for
+     * components without internal edges.
+     */
+    public int[] getInternalEdgeCosts(CostAggregation aggregation) {
+        long[] costs = new long[sccs.size()];
+        boolean[] seen = new boolean[sccs.size()];
         for (int u = 0; u < originalGraph.getVertexCount(); u++) {
-            int sccU = vertexToSCC[u];
-            for (Graph.Edge edge : originalGraph.getAdjacent(u)) {
-                int v = edge.to;
-                int sccV = vertexToSCC[v];
-                
-                // Add edge only if it connects different SCCs and not already added
-                if (sccU != sccV && !hasEdge[sccU][sccV]) {
-                    condensation.addEdge(sccU, sccV, edge.weight);
-                    hasEdge[sccU][sccV] = true;
+            int c = vertexToSCC[u];
+            for (AdjacencyGraph.NeighborIterator it = originalGraph.neighbors(u); it.hasNext(); ) {
+                if (vertexToSCC[it.next()] == c) {
+                    costs[c] = combine(costs[c], it.weight(), seen[c], aggregation);
+                    seen[c] = true;
                 }
             }
         }
+        return toIntCosts(costs);
+    }
+
+    private static long combine(long cost, int weight, boolean seen, CostAggregation aggregation) {
+        if (!seen) {
+            return weight;
+        }
+        return aggregation == CostAggregation.SUM ? cost + weight : Math.max(cost, weight);
+    }
+
+    private static int[] toIntCosts(long[] costs) {
+        int[] result = new int[costs.length];
+        for (int c = 0; c < costs.length; c++) {
+            if (costs[c] > Integer.MAX_VALUE || costs[c] < Integer.MIN_VALUE) {
+                throw new IllegalArgumentException("Cost of component " + c + " overflows an int: " + costs[c]);
+            }
+            result[c] = (int) costs[c];
+        }
+        return result;
     }
 
     public Graph getCondensation() {
@@ -0,0 +1,548 @@
+package org.harryfloppa.graph.scc;
+
+import org.harryfloppa.common.Metrics;
+import org.harryfloppa.common.MetricsImpl;
+import org.harryfloppa.graph.AdjacencyGraph;
+import org.harryfloppa.graph.Graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * SCCs, condensation DAG and a topological order of the condensation,
+ * maintained under edge insertions.
+ *
+ * Each component is a node named by one of its vertices. An edge that
+ * agrees with the current order only adds a condensation edge. An edge
+ * u -> v against the order triggers the Pearce-Kelly search: forward from
+ * v and backward from u, both limited to the nodes between them in the
+ * order. If u is reachable from v, exactly the nodes on both searches lie
+ * on the new cycle and are merged; either way only the searched nodes are
+ * reordered, so insert cost depends on the affected region, not on the
+ * graph size.
+ *
+ * {@link #addEdges} estimates the total region of a batch and falls back
+ * to one Tarjan pass over the condensation when that is cheaper.
+ *
+ * A condensation edge keeps the weight of the first inserted edge between
+ * its two components.
+ */
+public class IncrementalSCC {
+    private final int n;
+    private final int[] parent;        // union-find over vertices, roots are the component nodes
+    private final int[] nextMember;    // circular list of each component's vertices
+    private final int[] size;
+    private final int[] ord;           // position of each component node in the order
+    private final int[] nodeAt;        // node at each position, -1 for positions freed by merges
+    private final List<Map<Integer, Integer>> out;
+    private final List<Set<Integer>> in;
+    private final Metrics metrics;
+
+    private int slots;
+    private int componentCount;
+    private long condensationEdges;
+
+    // Search marks, valid when equal to the current epoch
+    private final int[] forwardMark;
+    private final int[] backwardMark;
+    private int epoch;
+
+    public IncrementalSCC(int n) {
+        this.n = n;
+        this.parent = new int[n];
+        this.nextMember = new int[n];
+        this.size = new int[n];
+        this.ord = new int[n];
+        this.nodeAt = new int[n];
+        this.out = new ArrayList<>(n);
+        this.in = new ArrayList<>(n);
+        this.forwardMark = new int[n];
+        this.backwardMark = new int[n];
+        this.metrics = new MetricsImpl();
+        for (int v = 0; v < n; v++) {
+            parent[v] = v;
+            nextMember[v] = v;
+            size[v] = 1;
+            ord[v] = v;
+            nodeAt[v] = v;
+            out.add(new LinkedHashMap<>());
+            in.add(new HashSet<>());
+        }
+        this.slots = n;
+        this.componentCount = n;
+    }
+
+    /**
+     * Starts from the SCCs of an existing graph, computed with one Tarjan pass.
+     */
+    public IncrementalSCC(AdjacencyGraph graph) {
+        this(graph.getVertexCount());
+        if (!graph.isDirected()) {
+            throw new IllegalArgumentException("SCC algorithm requires a directed graph");
+        }
+        for (int u = 0; u < n; u++) {
+            for (AdjacencyGraph.NeighborIterator it = graph.neighbors(u); it.hasNext(); ) {
+                int v = it.next();
+                link(u, v, it.weight());
+            }
+        }
+        rebuild();
+    }
+
+    /**
+     * Inserts one edge.
+     *
+     * @return whether the edge closed a cycle and merged components
+     */
+    public boolean addEdge(int u, int v, int weight) {
+        checkVertex(u);
+        checkVertex(v);
+        metrics.incrementCounter("edges_inserted");
+        int cu = find(u);
+        int cv = find(v);
+        if (cu == cv) {
+            return false;
+        }
+        if (ord[cu] < ord[cv]) {
+            metrics.incrementCounter("ordered_inserts");
+            addCondensationEdge(cu, cv, weight);
+            return false;
+        }
+        return reorder(cu, cv, weight);
+    }
+
+    /**
+     * Inserts a batch of edges. Edges that agree with the current order are
+     * added directly; the rest are inserted one by one unless the sum of
+     * their order gaps exceeds the size of the condensation, in which case
+     * all of them are added first and the components are recomputed once.
+     * The whole batch is validated first, so a bad edge leaves the state unchanged.
+     *
+     * @return number of components merged away by the batch
+     */
+    public int addEdges(int[] from, int[] to, int[] weight) {
+        if (from.length != to.length || from.length != weight.length) {
+            throw new IllegalArgumentException("Edge arrays differ in length");
+        }
+        for (int i = 0; i < from.length; i++) {
+            checkVertex(from[i]);
+            checkVertex(to[i]);
+        }
+        int before = componentCount;
+        List<Integer> backward = new ArrayList<>();
+        long region = 0;
+        for (int i = 0; i < from.length; i++) {
+            int cu = find(from[i]);
+            int cv = find(to[i]);
+            if (cu != cv && ord[cu] > ord[cv]) {
+                backward.add(i);
+                region += ord[cu] - ord[cv] + 1;
+            } else {
+                addEdge(from[i], to[i], weight[i]);
+            }
+        }
+        if (region > componentCount + condensationEdges) {
+            metrics.addToCounter("edges_inserted", backward.size());
+            for (int i : backward) {
+                link(from[i], to[i], weight[i]);
+            }
+            rebuild();
+        } else {
+            for (int i : backward) {
+                addEdge(from[i], to[i], weight[i]);
+            }
+        }
+        return before - componentCount;
+    }
+
+    private void checkVertex(int v) {
+        if (v < 0 || v >= n) {
+            throw new IllegalArgumentException("Vertex out of bounds: " + v);
+        }
+    }
+
+    private int find(int v) {
+        int root = v;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        while (parent[v] != root) {
+            int next = parent[v];
+            parent[v] = root;
+            v = next;
+        }
+        return root;
+    }
+
+    private void addCondensationEdge(int cu, int cv, int weight) {
+        if (out.get(cu).putIfAbsent(cv, weight) == null) {
+            in.get(cv).add(cu);
+            condensationEdges++;
+        }
+    }
+
+    /**
+     * Adds a condensation edge without maintaining the order; only for
+     * edges followed by {@link #rebuild()}.
+     */
+    private void link(int u, int v, int weight) {
+        int cu = find(u);
+        int cv = find(v);
+        if (cu != cv) {
+            addCondensationEdge(cu, cv, weight);
+        }
+    }
+
+    /**
+     * Pearce-Kelly reordering for an edge cu -> cv with ord[cv] < ord[cu].
+     */
+    private boolean reorder(int cu, int cv, int weight) {
+        metrics.incrementCounter("reorders");
+        epoch++;
+        int lower = ord[cv];
+        int upper = ord[cu];
+        List<Integer> forward = search(cv, upper, true);
+        List<Integer> backward = search(cu, lower, false);
+        boolean cycle = forwardMark[cu] == epoch;
+
+        addCondensationEdge(cu, cv, weight);
+        List<Integer> cycleNodes = new ArrayList<>();
+        if (cycle) {
+            for (int x : forward) {
+                if (backwardMark[x] == epoch) {
+                    cycleNodes.add(x);
+                }
+            }
+        }
+
+        // Freed positions: every searched node's old slot, ascending
+        int[] pool = new int[forward.size() + backward.size() - cycleNodes.size()];
+        int p = 0;
+        for (int x : forward) {
+            pool[p++] = ord[x];
+        }
+        for (int x : backward) {
+            if (forwardMark[x] != epoch) {
+                pool[p++] = ord[x];
+            }
+        }
+        Arrays.sort(pool);
+        for (int slot : pool) {
+            nodeAt[slot] = -1;
+        }
+
+        // Nodes that reach cu first, then the merged cycle, then nodes reached from cv
+        List<Integer> before = offCycleByOrder(backward);
+        List<Integer> after = offCycleByOrder(forward);
+        p = 0;
+        for (int x : before) {
+            place(x, pool[p++]);
+        }
+        if (cycle) {
+            int merged = merge(cycleNodes);
+            place(merged, pool[p]);
+        }
+        int first = pool.length - after.size();
+        for (int x : after) {
+            place(x, pool[first++]);
+        }
+        return cycle;
+    }
+
+    /**
+     * Nodes reachable from (or reaching) {@code start} within the order bound,
+     * marked with the current epoch.
+     */
+    private List<Integer> search(int start, int bound, boolean forward) {
+        int[] mark = forward ? forwardMark : backwardMark;
+        List<Integer> visited = new ArrayList<>();
+        List<Integer> stack = new ArrayList<>();
+        mark[start] = epoch;
+        stack.add(start);
+        while (!stack.isEmpty()) {
+            int x = stack.remove(stack.size() - 1);
+            visited.add(x);
+            Iterable<Integer> next = forward ? out.get(x).keySet() : in.get(x);
+            for (int y : next) {
+                boolean inRegion = forward ? ord[y] <= bound : ord[y] >= bound;
+                if (mark[y] != epoch && inRegion) {
+                    mark[y] = epoch;
+                    stack.add(y);
+                }
+            }
+        }
+        metrics.addToCounter("nodes_searched", visited.size());
+        return visited;
+    }
+
+    /**
+     * Nodes of the list that are not on the new cycle, in their old order.
+     */
+    private List<Integer> offCycleByOrder(List<Integer> nodes) {
+        List<Integer> result = new ArrayList<>(nodes.size());
+        for (int x : nodes) {
+            if (forwardMark[x] != epoch || backwardMark[x] != epoch) {
+                result.add(x);
+            }
+        }
+        result.sort((a, b) -> Integer.compare(ord[a], ord[b]));
+        return result;
+    }
+
+    private void place(int node, int slot) {
+        ord[node] = slot;
+        nodeAt[slot] = node;
+    }
+
+    /**
+     * Merges the given nodes into the one with the most condensation edges;
+     * edges among them disappear and the others are redirected.
+     *
+     * @return the surviving node
+     */
+    private int merge(List<Integer> nodes) {
+        int target = nodes.get(0);
+        for (int x : nodes) {
+            if (out.get(x).size() + in.get(x).size() > out.get(target).size() + in.get(target).size()) {
+                target = x;
+            }
+        }
+        Set<Integer> cycle = new HashSet<>(nodes);
+        Map<Integer, Integer> targetOut = out.get(target);
+        Set<Integer> targetIn = in.get(target);
+        condensationEdges -= removeAll(targetOut, targetIn, cycle, target);
+        for (int x : nodes) {
+            if (x == target) {
+                continue;
+            }
+            for (Map.Entry<Integer, Integer> edge : out.get(x).entrySet()) {
+                int y = edge.getKey();
+                condensationEdges--;
+                if (cycle.contains(y)) {
+                    continue;
+                }
+                in.get(y).remove(x);
+                if (targetOut.putIfAbsent(y, edge.getValue()) == null) {
+                    in.get(y).add(target);
+                    condensationEdges++;
+                }
+            }
+            for (int y : in.get(x)) {
+                if (cycle.contains(y)) {
+                    continue;
+                }
+                Map<Integer, Integer> sourceOut = out.get(y);
+                int w = sourceOut.remove(x);
+                condensationEdges--;
+                if (sourceOut.putIfAbsent(target, w) == null) {
+                    targetIn.add(y);
+                    condensationEdges++;
+                }
+            }
+            out.set(x, null);
+            in.set(x, null);
+
+            parent[x] = target;
+            size[target] += size[x];
+            int t = nextMember[target];
+            nextMember[target] = nextMember[x];
+            nextMember[x] = t;
+            componentCount--;
+        }
+        metrics.addToCounter("components_merged", nodes.size() - 1);
+        return target;
+    }
+
+    /**
+     * Drops the target's edges to and from other cycle nodes.
+     *
+     * @return number of condensation edges removed
+     */
+    private static long removeAll(Map<Integer, Integer> targetOut, Set<Integer> targetIn,
+                                  Set<Integer> cycle, int target) {
+        long removed = 0;
+        for (Iterator<Integer> it = targetOut.keySet().iterator(); it.hasNext(); ) {
+            if (cycle.contains(it.next())) {
+                it.remove();
+                removed++;
+            }
+        }
+        targetIn.removeIf(cycle::contains);
+        return removed;
+    }
+
+    /**
+     * Recomputes components and order with an iterative Tarjan pass over
+     * the condensation, merging every cycle it finds.
+     */
+    private void rebuild() {
+        metrics.incrementCounter("rebuilds");
+        int[] index = new int[n];
+        int[] low = new int[n];
+        boolean[] onStack = new boolean[n];
+        Arrays.fill(index, -1);
+        int[] stack = new int[componentCount];
+        int[] callStack = new int[componentCount];
+        List<Iterator<Integer>> edges = new ArrayList<>(n);
+        for (int v = 0; v < n; v++) {
+            edges.add(null);
+        }
+        List<List<Integer>> components = new ArrayList<>();
+
+        int counter = 0;
+        int sp = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            int root = nodeAt[slot];
+            if (root < 0 || index[root] >= 0) {
+                continue;
+            }
+            int cp = 0;
+            index[root] = low[root] = counter++;
+            stack[sp++] = root;
+            onStack[root] = true;
+            edges.set(root, out.get(root).keySet().iterator());
+            callStack[cp++] = root;
+            while (cp > 0) {
+                int x = callStack[cp - 1];
+                Iterator<Integer> it = edges.get(x);
+                if (it.hasNext()) {
+                    int y = it.next();
+                    if (index[y] < 0) {
+                        index[y] = low[y] = counter++;
+                        stack[sp++] = y;
+                        onStack[y] = true;
+                        edges.set(y, out.get(y).keySet().iterator());
+                        callStack[cp++] = y;
+                    } else if (onStack[y]) {
+                        low[x] = Math.min(low[x], index[y]);
+                    }
+                    continue;
+                }
+                edges.set(x, null);
+                cp--;
+                if (cp > 0) {
+                    int caller = callStack[cp - 1];
+                    low[caller] = Math.min(low[caller], low[x]);
+                }
+                if (low[x] == index[x]) {
+                    List<Integer> component = new ArrayList<>();
+                    int y;
+                    do {
+                        y = stack[--sp];
+                        onStack[y] = false;
+                        component.add(y);
+                    } while (y != x);
+                    components.add(component);
+                }
+            }
+        }
+
+        // Tarjan emits components in reverse topological order
+        Arrays.fill(nodeAt, 0, slots, -1);
+        slots = components.size();
+        for (int i = 0; i < slots; i++) {
+            List<Integer> component = components.get(slots - 1 - i);
+            int node = component.size() > 1 ? merge(component) : component.get(0);
+            place(node, i);
+        }
+    }
+
+    public int getVertexCount() {
+        return n;
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    public long getCondensationEdgeCount() {
+        return condensationEdges;
+    }
+
+    public boolean sameComponent(int u, int v) {
+        checkVertex(u);
+        checkVertex(v);
+        return find(u) == find(v);
+    }
+
+    /**
+     * Vertices of the component containing {@code v}, ascending.
+     */
+    public List<Integer> getComponent(int v) {
+        checkVertex(v);
+        int node = find(v);
+        List<Integer> members = new ArrayList<>(size[node]);
+        int x = node;
+        do {
+            members.add(x);
+            x = nextMember[x];
+        } while (x != node);
+        members.sort(null);
+        return members;
+    }
+
+    /**
+     * Components in reverse topological order of the condensation, the
+     * order {@link TarjanSCC} produces; vertices of each component ascending.
+     */
+    public TarjanSCC.SCCResult getSCCResult() {
+        List<List<Integer>> sccs = new ArrayList<>(componentCount);
+        for (int slot = slots - 1; slot >= 0; slot--) {
+            if (nodeAt[slot] >= 0) {
+                sccs.add(getComponent(nodeAt[slot]));
+            }
+        }
+        return new TarjanSCC.SCCResult(sccs, metrics);
+    }
+
+    /**
+     * The condensation DAG, components numbered as in {@link #getSCCResult()}.
+     */
+    public Graph getCondensation() {
+        int[] number = new int[n];
+        int next = 0;
+        for (int slot = slots - 1; slot >= 0; slot--) {
+            if (nodeAt[slot] >= 0) {
+                number[nodeAt[slot]] = next++;
+            }
+        }
+        Graph dag = new Graph(componentCount, true);
+        for (int slot = slots - 1; slot >= 0; slot--) {
+            int node = nodeAt[slot];
+            if (node < 0) {
+                continue;
+            }
+            for (Map.Entry<Integer, Integer> edge : out.get(node).entrySet()) {
+                dag.addEdge(number[node], number[edge.getKey()], edge.getValue());
+            }
+        }
+        return dag;
+    }
+
+    /**
+     * One vertex of each component, in topological order of the condensation.
+     */
+    public List<Integer> getTopologicalOrder() {
+        List<Integer> order = new ArrayList<>(componentCount);
+        for (int slot = 0; slot < slots; slot++) {
+            if (nodeAt[slot] >= 0) {
+                order.add(nodeAt[slot]);
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Cumulative counters: edges_inserted, ordered_inserts, reorders,
+     * nodes_searched, components_merged and rebuilds.
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
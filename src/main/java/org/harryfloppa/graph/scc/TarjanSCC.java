@@ -2,95 +2,148 @@ package org.harryfloppa.graph.scc;
 
 import org.harryfloppa.common.Metrics;
 import org.harryfloppa.common.MetricsImpl;
-import org.harryfloppa.graph.Graph;
+import org.harryfloppa.common.WorkspacePool;
+import org.harryfloppa.graph.AdjacencyGraph;
 
 import java.util.*;
 
 /**
  * Implementation of Tarjan's algorithm for finding Strongly Connected Components.
  * Time complexity: O(V + E)
+ *
+ * The DFS is iterative and all per-run state lives in a workspace taken
+ * from a pool, so one instance may serve concurrent calls on a graph that
+ * is not modified, such as a {@link org.harryfloppa.graph.FrozenGraph}.
  */
 public class TarjanSCC {
-    private final Graph graph;
-    private final Metrics metrics;
-    
-    private int time;
-    private int[] disc;      // discovery time
-    private int[] low;       // lowest reachable vertex
-    private boolean[] onStack;
-    private Stack<Integer> stack;
-    private List<List<Integer>> sccs;
-
-    public TarjanSCC(Graph graph) {
+    private final AdjacencyGraph graph;
+    private final WorkspacePool<Workspace> workspaces;
+
+    public TarjanSCC(AdjacencyGraph graph) {
         if (!graph.isDirected()) {
             throw new IllegalArgumentException("SCC algorithm requires a directed graph");
         }
         this.graph = graph;
-        this.metrics = new MetricsImpl();
+        int n = graph.getVertexCount();
+        this.workspaces = new WorkspacePool<>(() -> new Workspace(n));
+    }
+
+    /**
+     * Per-run arrays, reused across calls.
+     */
+    private static class Workspace {
+        final int[] disc;        // discovery time
+        final int[] low;         // lowest reachable vertex
+        final boolean[] onStack;
+        final int[] stack;
+        final int[] callStack;
+        final AdjacencyGraph.NeighborIterator[] iterators;
+
+        Workspace(int n) {
+            disc = new int[n];
+            low = new int[n];
+            onStack = new boolean[n];
+            stack = new int[n];
+            callStack = new int[n];
+            iterators = new AdjacencyGraph.NeighborIterator[n];
+        }
     }
 
     public SCCResult findSCCs() {
         int n = graph.getVertexCount();
-        time = 0;
-        disc = new int[n];
-        low = new int[n];
-        onStack = new boolean[n];
-        stack = new Stack<>();
-        sccs = new ArrayList<>();
-        
-        Arrays.fill(disc, -1);
-        Arrays.fill(low, -1);
-        
-        metrics.reset();
+        Metrics metrics = new MetricsImpl();
         metrics.startTiming();
-        
-        // Run DFS from all unvisited vertices
-        for (int v = 0; v < n; v++) {
-            if (disc[v] == -1) {
-                dfs(v);
+
+        Workspace ws = workspaces.acquire();
+        try {
+            Arrays.fill(ws.disc, -1);
+            Arrays.fill(ws.low, -1);
+            List<List<Integer>> sccs = new ArrayList<>();
+            long[] counts = new long[3];
+
+            // Run DFS from all unvisited vertices
+            int time = 0;
+            for (int v = 0; v < n; v++) {
+                if (ws.disc[v] == -1) {
+                    time = dfs(v, time, ws, sccs, counts);
+                }
             }
+
+            metrics.stopTiming();
+            addCount(metrics, "dfs_visits", counts[0]);
+            addCount(metrics, "edges_explored", counts[1]);
+            addCount(metrics, "stack_pops", counts[2]);
+            return new SCCResult(sccs, metrics);
+        } finally {
+            workspaces.release(ws);
         }
-        
-        metrics.stopTiming();
-        
-        return new SCCResult(sccs, metrics);
     }
 
-    private void dfs(int u) {
-        disc[u] = low[u] = time++;
-        stack.push(u);
-        onStack[u] = true;
-        
-        metrics.incrementCounter("dfs_visits");
-        
-        // Visit all adjacent vertices
-        for (Graph.Edge edge : graph.getAdjacent(u)) {
-            int v = edge.to;
-            metrics.incrementCounter("edges_explored");
-            
-            if (disc[v] == -1) {
-                // Tree edge
-                dfs(v);
-                low[u] = Math.min(low[u], low[v]);
-            } else if (onStack[v]) {
-                // Back edge to a vertex in current SCC
-                low[u] = Math.min(low[u], disc[v]);
-            }
+    private static void addCount(Metrics metrics, String name, long count) {
+        if (count > 0) {
+            metrics.addToCounter(name, count);
         }
-        
-        // If u is a root node, pop the stack to get the SCC
-        if (low[u] == disc[u]) {
-            List<Integer> scc = new ArrayList<>();
-            int v;
-            do {
-                v = stack.pop();
-                onStack[v] = false;
-                scc.add(v);
-                metrics.incrementCounter("stack_pops");
-            } while (v != u);
-            
-            sccs.add(scc);
+    }
+
+    /**
+     * Iterative DFS from {@code root}; components are emitted in the same
+     * order as the recursive formulation.
+     *
+     * @return the next discovery time
+     */
+    private int dfs(int root, int time, Workspace ws, List<List<Integer>> sccs, long[] counts) {
+        int[] disc = ws.disc;
+        int[] low = ws.low;
+        int sp = 0;
+        int cp = 0;
+
+        disc[root] = low[root] = time++;
+        ws.stack[sp++] = root;
+        ws.onStack[root] = true;
+        counts[0]++;
+        ws.callStack[cp] = root;
+        ws.iterators[cp++] = graph.neighbors(root);
+
+        while (cp > 0) {
+            int u = ws.callStack[cp - 1];
+            AdjacencyGraph.NeighborIterator it = ws.iterators[cp - 1];
+            if (it.hasNext()) {
+                int v = it.next();
+                counts[1]++;
+                if (disc[v] == -1) {
+                    // Tree edge
+                    disc[v] = low[v] = time++;
+                    ws.stack[sp++] = v;
+                    ws.onStack[v] = true;
+                    counts[0]++;
+                    ws.callStack[cp] = v;
+                    ws.iterators[cp++] = graph.neighbors(v);
+                } else if (ws.onStack[v]) {
+                    // Back edge to a vertex in current SCC
+                    low[u] = Math.min(low[u], disc[v]);
+                }
+                continue;
+            }
+            ws.iterators[--cp] = null;
+
+            // If u is a root node, pop the stack to get the SCC
+            if (low[u] == disc[u]) {
+                List<Integer> scc = new ArrayList<>();
+                int v;
+                do {
+                    v = ws.stack[--sp];
+                    ws.onStack[v] = false;
+                    scc.add(v);
+                    counts[2]++;
+                } while (v != u);
+                sccs.add(scc);
+            }
+            if (cp > 0) {
+                int parent = ws.callStack[cp - 1];
+                low[parent] = Math.min(low[parent], low[u]);
+            }
         }
+        return time;
     }
 
     public static class SCCResult {
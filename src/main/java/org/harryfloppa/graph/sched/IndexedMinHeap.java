@@ -0,0 +1,99 @@
+package org.harryfloppa.graph.sched;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of vertex ids 0..n-1 keyed by a long per vertex, in
+ * primitive arrays. Equal keys pop in vertex order, so schedules are
+ * deterministic. Each vertex is in the heap at most once.
+ */
+final class IndexedMinHeap {
+    private final int[] heap;
+    private final int[] position;   // slot of each vertex, or -1 if absent
+    private final long[] keys;
+    private int size;
+
+    IndexedMinHeap(int n) {
+        heap = new int[n];
+        position = new int[n];
+        keys = new long[n];
+        Arrays.fill(position, -1);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(int v) {
+        return position[v] >= 0;
+    }
+
+    int peek() {
+        return heap[0];
+    }
+
+    long peekKey() {
+        return keys[heap[0]];
+    }
+
+    void push(int v, long key) {
+        if (position[v] >= 0) {
+            throw new IllegalArgumentException("Vertex " + v + " is already in the heap");
+        }
+        keys[v] = key;
+        siftUp(v, size++);
+    }
+
+    int pop() {
+        int top = heap[0];
+        position[top] = -1;
+        size--;
+        if (size > 0) {
+            siftDown(heap[size], 0);
+        }
+        return top;
+    }
+
+    private boolean less(int a, int b) {
+        return keys[a] < keys[b] || (keys[a] == keys[b] && a < b);
+    }
+
+    private void siftUp(int v, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(v, heap[parent])) {
+                break;
+            }
+            place(heap[parent], i);
+            i = parent;
+        }
+        place(v, i);
+    }
+
+    private void siftDown(int v, int i) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && less(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!less(heap[child], v)) {
+                break;
+            }
+            place(heap[child], i);
+            i = child;
+        }
+        place(v, i);
+    }
+
+    private void place(int v, int i) {
+        heap[i] = v;
+        position[v] = i;
+    }
+}
@@ -0,0 +1,295 @@
+package org.harryfloppa.graph.sched;
+
+import org.harryfloppa.common.Metrics;
+import org.harryfloppa.common.MetricsImpl;
+import org.harryfloppa.graph.AdjacencyGraph;
+import org.harryfloppa.graph.topo.KahnTopologicalSort;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Resource-constrained list scheduling of a task DAG on P identical workers.
+ *
+ * Vertices are tasks with a duration each; an edge u -> v with weight w means
+ * v may start no earlier than w after u finishes. Whenever a worker is free,
+ * the released task with the best priority starts on it: the longest remaining
+ * path (critical-path priority) or the least slack. Time complexity:
+ * O((V + E) log V) per schedule.
+ *
+ * Priorities, in-degrees and a CSR copy of the graph are computed once at
+ * construction, so what-if runs over worker counts only repeat the simulation.
+ */
+public class ListScheduler {
+    /** Which released task a free worker takes first. */
+    public enum Priority {
+        /** Longest path from the task's start to the end of the plan (HLFET). */
+        CRITICAL_PATH,
+        /** Latest start minus earliest start with unlimited workers. */
+        SLACK
+    }
+
+    private final int n;
+    private final int[] offsets;     // first edge of each vertex, n + 1 entries
+    private final int[] targets;
+    private final int[] lags;
+    private final int[] durations;
+    private final int[] inDegree;
+    private final long[] priorityKey; // smaller starts first
+    private final Priority priority;
+    private final long criticalPathLength;
+    private final long totalWork;
+
+    public ListScheduler(AdjacencyGraph graph, int[] durations, Priority priority) {
+        this(graph, null, durations, priority);
+    }
+
+    /**
+     * Sorts {@code graph} itself when {@code topologicalOrder} is null.
+     */
+    public ListScheduler(AdjacencyGraph graph, List<Integer> topologicalOrder, int[] durations,
+                         Priority priority) {
+        if (!graph.isDirected()) {
+            throw new IllegalArgumentException("List scheduling requires a directed graph");
+        }
+        this.n = graph.getVertexCount();
+        if (durations.length != n) {
+            throw new IllegalArgumentException("Expected " + n + " task durations");
+        }
+        if (topologicalOrder == null) {
+            KahnTopologicalSort.TopoSortResult topo = new KahnTopologicalSort(graph).sort();
+            if (topo.hasCycle()) {
+                throw new IllegalArgumentException("Graph contains a cycle - not a DAG");
+            }
+            topologicalOrder = topo.getOrder();
+        }
+        if (topologicalOrder.size() != n) {
+            throw new IllegalArgumentException("Topological order does not cover every vertex");
+        }
+        this.priority = priority;
+        this.durations = durations.clone();
+        long work = 0;
+        for (int v = 0; v < n; v++) {
+            if (durations[v] < 0) {
+                throw new IllegalArgumentException("Negative duration for task " + v);
+            }
+            work += durations[v];
+        }
+        this.totalWork = work;
+
+        this.offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] = offsets[u] + graph.getOutDegree(u);
+        }
+        this.targets = new int[offsets[n]];
+        this.lags = new int[offsets[n]];
+        this.inDegree = new int[n];
+        for (int u = 0; u < n; u++) {
+            int e = offsets[u];
+            for (AdjacencyGraph.NeighborIterator it = graph.neighbors(u); it.hasNext(); e++) {
+                int v = it.next();
+                if (it.weight() < 0) {
+                    throw new IllegalArgumentException("Negative lag on edge " + u + " -> " + v);
+                }
+                targets[e] = v;
+                lags[e] = it.weight();
+                inDegree[v]++;
+            }
+        }
+
+        // Earliest starts forwards, remaining path lengths backwards
+        long[] earliest = new long[n];
+        long[] remaining = new long[n];
+        long length = 0;
+        for (int u : topologicalOrder) {
+            long finish = earliest[u] + this.durations[u];
+            length = Math.max(length, finish);
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                earliest[targets[e]] = Math.max(earliest[targets[e]], finish + lags[e]);
+            }
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            int u = topologicalOrder.get(i);
+            long tail = 0;
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                tail = Math.max(tail, lags[e] + remaining[targets[e]]);
+            }
+            remaining[u] = this.durations[u] + tail;
+        }
+        this.criticalPathLength = length;
+
+        this.priorityKey = new long[n];
+        for (int v = 0; v < n; v++) {
+            priorityKey[v] = priority == Priority.CRITICAL_PATH
+                    ? -remaining[v]
+                    : (length - remaining[v]) - earliest[v];
+        }
+    }
+
+    /**
+     * Schedules every task on {@code workers} workers.
+     */
+    public ScheduleResult schedule(int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Worker count must be positive");
+        }
+        Metrics metrics = new MetricsImpl();
+        metrics.startTiming();
+
+        long[] start = new long[n];
+        int[] worker = new int[n];
+        long[] release = new long[n];
+        int[] waiting = inDegree.clone();
+        IndexedMinHeap pending = new IndexedMinHeap(n);   // predecessors done, keyed by release time
+        IndexedMinHeap ready = new IndexedMinHeap(n);     // released, keyed by priority
+        IndexedMinHeap running = new IndexedMinHeap(n);   // keyed by finish time
+
+        // Free workers as a stack, worker 0 on top
+        int freeCount = Math.min(workers, n);
+        int[] free = new int[freeCount];
+        for (int i = 0; i < freeCount; i++) {
+            free[i] = freeCount - 1 - i;
+        }
+
+        for (int v = 0; v < n; v++) {
+            if (waiting[v] == 0) {
+                pending.push(v, 0);
+            }
+        }
+
+        long time = 0;
+        long makespan = 0;
+        long events = 0;
+        long relaxations = 0;
+        int finished = 0;
+        while (finished < n) {
+            while (!pending.isEmpty() && pending.peekKey() <= time) {
+                int v = pending.pop();
+                ready.push(v, priorityKey[v]);
+            }
+            while (freeCount > 0 && !ready.isEmpty()) {
+                int v = ready.pop();
+                start[v] = time;
+                worker[v] = free[--freeCount];
+                running.push(v, time + durations[v]);
+            }
+
+            long next = running.isEmpty() ? Long.MAX_VALUE : running.peekKey();
+            if (freeCount > 0 && !pending.isEmpty()) {
+                next = Math.min(next, pending.peekKey());
+            }
+            time = next;
+            events++;
+
+            while (!running.isEmpty() && running.peekKey() <= time) {
+                int u = running.pop();
+                free[freeCount++] = worker[u];
+                finished++;
+                makespan = time;
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int v = targets[e];
+                    release[v] = Math.max(release[v], time + lags[e]);
+                    relaxations++;
+                    if (--waiting[v] == 0) {
+                        pending.push(v, release[v]);
+                    }
+                }
+            }
+        }
+
+        metrics.stopTiming();
+        metrics.addToCounter("tasks", n);
+        metrics.addToCounter("events", events);
+        if (relaxations > 0) {
+            metrics.addToCounter("relaxations", relaxations);
+        }
+
+        long lowerBound = Math.max(criticalPathLength, (totalWork + workers - 1) / workers);
+        return new ScheduleResult(start, worker, durations, workers, priority, makespan, lowerBound,
+                totalWork, metrics);
+    }
+
+    /**
+     * Length of the longest path with unlimited workers, a lower bound on every makespan.
+     */
+    public long getCriticalPathLength() {
+        return criticalPathLength;
+    }
+
+    /**
+     * Start time and worker of every task.
+     */
+    public static class ScheduleResult {
+        private final long[] start;
+        private final int[] worker;
+        private final int[] durations;
+        private final int workers;
+        private final Priority priority;
+        private final long makespan;
+        private final long lowerBound;
+        private final long totalWork;
+        private final Metrics metrics;
+
+        ScheduleResult(long[] start, int[] worker, int[] durations, int workers, Priority priority,
+                       long makespan, long lowerBound, long totalWork, Metrics metrics) {
+            this.start = start;
+            this.worker = worker;
+            this.durations = durations;
+            this.workers = workers;
+            this.priority = priority;
+            this.makespan = makespan;
+            this.lowerBound = lowerBound;
+            this.totalWork = totalWork;
+            this.metrics = metrics;
+        }
+
+        public long getStart(int v) {
+            return start[v];
+        }
+
+        public long getFinish(int v) {
+            return start[v] + durations[v];
+        }
+
+        public int getWorker(int v) {
+            return worker[v];
+        }
+
+        public int getWorkerCount() {
+            return workers;
+        }
+
+        public long getMakespan() {
+            return makespan;
+        }
+
+        /**
+         * max(critical path length, total work / workers); no schedule finishes earlier.
+         */
+        public long getLowerBound() {
+            return lowerBound;
+        }
+
+        /**
+         * Fraction of worker time spent on tasks, in [0, 1].
+         */
+        public double getUtilization() {
+            return makespan == 0 ? 1.0 : (double) totalWork / ((double) workers * makespan);
+        }
+
+        public Metrics getMetrics() {
+            return metrics;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Schedule of ").append(start.length).append(" tasks on ").append(workers)
+                    .append(" workers (").append(priority).append(" priority):\n");
+            sb.append("  Makespan: ").append(makespan).append(" (lower bound ").append(lowerBound).append(")\n");
+            sb.append(String.format("  Utilization: %.1f%%%n", 100 * getUtilization()));
+            sb.append("\n").append(metrics.getReport());
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.harryfloppa.graph.shard;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Messages between {@link ShardedPipeline} and its {@link ShardWorker}s.
+ *
+ * Every command is one byte followed by its arguments; every reply starts
+ * with a status byte, followed by the results or an error message. All
+ * arrays are an int length followed by the elements, big-endian.
+ * <pre>
+ *   LOAD     utf path, int lo, int hi        -> int k, int[] localComp,
+ *                                               int[] internal (a, b pairs),
+ *                                               int[] targets, int[] cut (a, target index pairs)
+ *   CONDENSE int[] rangeComp, int[] targetComp -> int[] candidates (C, D, w triples)
+ *   EDGES    int[] winners (index, rank pairs) -> (nothing)
+ *   RELAX    byte longest, byte reset, int[] updates (comp, dist pairs)
+ *                                             -> int[] updates (comp, dist, parent triples)
+ *   SHUTDOWN                                 -> (nothing)
+ * </pre>
+ */
+final class ShardProtocol {
+    static final byte LOAD = 1;
+    static final byte CONDENSE = 2;
+    static final byte EDGES = 3;
+    static final byte RELAX = 4;
+    static final byte SHUTDOWN = 5;
+
+    static final byte OK = 0;
+    static final byte ERROR = 1;
+
+    // Arrays go through the streams in chunks rather than one int at a time
+    private static final int CHUNK_INTS = 1 << 14;
+
+    private ShardProtocol() {
+    }
+
+    static void writeInts(DataOutputStream out, int[] values, int length) throws IOException {
+        out.writeInt(length);
+        ByteBuffer chunk = ByteBuffer.allocate(4 * Math.min(length, CHUNK_INTS));
+        for (int i = 0; i < length; i += CHUNK_INTS) {
+            int count = Math.min(CHUNK_INTS, length - i);
+            chunk.clear();
+            chunk.asIntBuffer().put(values, i, count);
+            out.write(chunk.array(), 0, 4 * count);
+        }
+    }
+
+    static int[] readInts(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Negative array length " + length);
+        }
+        int[] values = new int[length];
+        ByteBuffer chunk = ByteBuffer.allocate(4 * Math.min(length, CHUNK_INTS));
+        for (int i = 0; i < length; i += CHUNK_INTS) {
+            int count = Math.min(CHUNK_INTS, length - i);
+            in.readFully(chunk.array(), 0, 4 * count);
+            chunk.clear();
+            chunk.asIntBuffer().get(values, i, count);
+        }
+        return values;
+    }
+
+    /**
+     * Reads a reply's status byte, turning a worker error into an exception.
+     */
+    static void readStatus(DataInputStream in, int shard) throws IOException {
+        if (in.readByte() == ERROR) {
+            throw new IOException("Shard " + shard + " failed: " + in.readUTF());
+        }
+    }
+}
@@ -0,0 +1,443 @@
+package org.harryfloppa.graph.shard;
+
+import org.harryfloppa.graph.AdjacencyGraph;
+import org.harryfloppa.graph.dagsp.SaturatingMath;
+import org.harryfloppa.graph.scc.TarjanSCC;
+import org.harryfloppa.util.BinaryEdgeWriter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * One shard of a {@link ShardedPipeline}: owns the vertices in [lo, hi) and
+ * their outgoing edges, read from the shared binary edge file.
+ *
+ * It contracts the SCCs of the subgraph induced by its range and reports
+ * the contracted edges and its cut edges as a boundary summary. Once the
+ * coordinator knows the global components it proposes condensation edges,
+ * and finally relaxes the condensation edges it holds whenever the
+ * coordinator sends a frontier of improved distances.
+ *
+ * Runs as its own process ({@link #main}) or on a thread of the coordinator.
+ */
+public final class ShardWorker {
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final int port;
+
+    // Edges leaving [lo, hi) in file order per vertex, CSR by u - lo
+    private int lo;
+    private int hi;
+    private int[] start;
+    private int[] target;
+    private int[] weight;
+    private int[] localComp;
+    private int[] externalTargets;   // sorted distinct targets outside [lo, hi)
+    private int[] targetIndex;       // per edge: index into externalTargets, or -1 inside the range
+
+    // Proposed condensation edges, then the ones that won
+    private int[] candidates;        // (C, D, w) triples
+    private int[] comps;             // sorted distinct components of the winning edges
+    private int[] edgeSrc;           // slots into comps, in topological order of the source
+    private int[] edgeDst;
+    private int[] edgeWeight;
+    private int[] dist;
+    private int[] parent;
+
+    ShardWorker(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Usage: ShardWorker port; connects to a coordinator on the loopback address.
+     */
+    public static void main(String[] args) throws IOException {
+        new ShardWorker(Integer.parseInt(args[0])).serve();
+    }
+
+    void serve() throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16));
+             DataOutputStream out = new DataOutputStream(
+                     new BufferedOutputStream(socket.getOutputStream(), 1 << 16))) {
+            while (true) {
+                byte command = in.readByte();
+                if (command == ShardProtocol.SHUTDOWN) {
+                    return;
+                }
+                try {
+                    switch (command) {
+                        case ShardProtocol.LOAD:
+                            load(in.readUTF(), in.readInt(), in.readInt(), out);
+                            break;
+                        case ShardProtocol.CONDENSE:
+                            condense(ShardProtocol.readInts(in), ShardProtocol.readInts(in), out);
+                            break;
+                        case ShardProtocol.EDGES:
+                            edges(ShardProtocol.readInts(in));
+                            out.writeByte(ShardProtocol.OK);
+                            break;
+                        case ShardProtocol.RELAX:
+                            relax(in.readByte() != 0, in.readByte() != 0, ShardProtocol.readInts(in), out);
+                            break;
+                        default:
+                            throw new IOException("Unknown command " + command);
+                    }
+                } catch (RuntimeException | IOException e) {
+                    out.writeByte(ShardProtocol.ERROR);
+                    out.writeUTF(String.valueOf(e.getMessage()));
+                    out.flush();
+                    return;
+                }
+                out.flush();
+            }
+        }
+    }
+
+    /**
+     * Reads the shard's edges, contracts its local SCCs and writes the boundary summary.
+     */
+    private void load(String file, int lo, int hi, DataOutputStream out) throws IOException {
+        this.lo = lo;
+        this.hi = hi;
+        int size = hi - lo;
+        int[] us = new int[1024];
+        int[] vs = new int[1024];
+        int[] ws = new int[1024];
+        int m = 0;
+        try (FileChannel channel = FileChannel.open(Paths.get(file), StandardOpenOption.READ)) {
+            // Whole records only, so a record never straddles two reads
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES / BinaryEdgeWriter.EDGE_BYTES
+                    * BinaryEdgeWriter.EDGE_BYTES);
+            buffer.limit(BinaryEdgeWriter.HEADER_BYTES);
+            fill(channel, buffer);
+            if (buffer.getInt() != BinaryEdgeWriter.MAGIC || buffer.getInt() != BinaryEdgeWriter.VERSION) {
+                throw new IOException("Not a binary graph file: " + file);
+            }
+            buffer.get();
+            int n = buffer.getInt();
+            buffer.getInt();
+            long remaining = buffer.getLong();
+            while (remaining > 0) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), remaining * BinaryEdgeWriter.EDGE_BYTES));
+                fill(channel, buffer);
+                while (buffer.hasRemaining()) {
+                    int u = buffer.getInt();
+                    int v = buffer.getInt();
+                    int w = buffer.getInt();
+                    remaining--;
+                    if (u < 0 || u >= n || v < 0 || v >= n) {
+                        throw new IllegalArgumentException("Edge " + u + " -> " + v + " out of range");
+                    }
+                    if (u >= lo && u < hi) {
+                        if (m == us.length) {
+                            us = Arrays.copyOf(us, m * 2);
+                            vs = Arrays.copyOf(vs, m * 2);
+                            ws = Arrays.copyOf(ws, m * 2);
+                        }
+                        us[m] = u - lo;
+                        vs[m] = v;
+                        ws[m++] = w;
+                    }
+                }
+            }
+        }
+
+        // Counting sort by source keeps file order per vertex, as Graph's adjacency lists do
+        start = new int[size + 1];
+        for (int i = 0; i < m; i++) {
+            start[us[i] + 1]++;
+        }
+        for (int u = 0; u < size; u++) {
+            start[u + 1] += start[u];
+        }
+        target = new int[m];
+        weight = new int[m];
+        int[] fill = Arrays.copyOf(start, size);
+        for (int i = 0; i < m; i++) {
+            int e = fill[us[i]]++;
+            target[e] = vs[i];
+            weight[e] = ws[i];
+        }
+
+        TarjanSCC.SCCResult local = new TarjanSCC(new InducedGraph()).findSCCs();
+        int k = local.getComponentCount();
+        localComp = new int[size];
+        for (int c = 0; c < k; c++) {
+            for (int u : local.getSCCs().get(c)) {
+                localComp[u] = c;
+            }
+        }
+
+        int[] external = new int[m];
+        int externalCount = 0;
+        for (int e = 0; e < m; e++) {
+            if (!inRange(target[e])) {
+                external[externalCount++] = target[e];
+            }
+        }
+        Arrays.sort(external, 0, externalCount);
+        int distinct = 0;
+        for (int i = 0; i < externalCount; i++) {
+            if (distinct == 0 || external[distinct - 1] != external[i]) {
+                external[distinct++] = external[i];
+            }
+        }
+        externalTargets = Arrays.copyOf(external, distinct);
+        targetIndex = new int[m];
+        for (int e = 0; e < m; e++) {
+            targetIndex[e] = inRange(target[e]) ? -1 : Arrays.binarySearch(externalTargets, target[e]);
+        }
+
+        int[] internal = new int[16];
+        int internalCount = 0;
+        int[] cut = new int[16];
+        int cutCount = 0;
+        LongHashSet seenInternal = new LongHashSet(16);
+        LongHashSet seenCut = new LongHashSet(16);
+        for (int u = 0; u < size; u++) {
+            int a = localComp[u];
+            for (int e = start[u]; e < start[u + 1]; e++) {
+                int v = target[e];
+                if (inRange(v)) {
+                    int b = localComp[v - lo];
+                    if (a != b && seenInternal.add(LongHashSet.pair(a, b))) {
+                        internal = append(internal, internalCount, a, b);
+                        internalCount += 2;
+                    }
+                } else {
+                    int t = targetIndex[e];
+                    if (seenCut.add(LongHashSet.pair(a, t))) {
+                        cut = append(cut, cutCount, a, t);
+                        cutCount += 2;
+                    }
+                }
+            }
+        }
+
+        out.writeByte(ShardProtocol.OK);
+        out.writeInt(k);
+        ShardProtocol.writeInts(out, localComp, size);
+        ShardProtocol.writeInts(out, internal, internalCount);
+        ShardProtocol.writeInts(out, externalTargets, externalTargets.length);
+        ShardProtocol.writeInts(out, cut, cutCount);
+    }
+
+    /**
+     * Proposes, for every pair of global components (C, D) joined by an edge
+     * of this shard, the first such edge in (source vertex, adjacency) order.
+     */
+    private void condense(int[] rangeComp, int[] targetComp, DataOutputStream out) throws IOException {
+        int[] triples = new int[48];
+        int count = 0;
+        LongHashSet seen = new LongHashSet(16);
+        for (int u = 0; u < hi - lo; u++) {
+            int c = rangeComp[u];
+            for (int e = start[u]; e < start[u + 1]; e++) {
+                int v = target[e];
+                int d = inRange(v) ? rangeComp[v - lo] : targetComp[targetIndex[e]];
+                if (c != d && seen.add(LongHashSet.pair(c, d))) {
+                    if (count + 3 > triples.length) {
+                        triples = Arrays.copyOf(triples, triples.length * 2);
+                    }
+                    triples[count++] = c;
+                    triples[count++] = d;
+                    triples[count++] = weight[e];
+                }
+            }
+        }
+        candidates = Arrays.copyOf(triples, count);
+        out.writeByte(ShardProtocol.OK);
+        ShardProtocol.writeInts(out, candidates, count);
+    }
+
+    /**
+     * Keeps the winning candidates, ordered by the topological rank of their source.
+     */
+    private void edges(int[] winners) {
+        int count = winners.length / 2;
+        long[] order = new long[count];
+        int[] all = new int[2 * count];
+        for (int i = 0; i < count; i++) {
+            order[i] = ((long) winners[2 * i + 1] << 32) | winners[2 * i];
+            int candidate = winners[2 * i];
+            all[2 * i] = candidates[3 * candidate];
+            all[2 * i + 1] = candidates[3 * candidate + 1];
+        }
+        Arrays.sort(order);
+        Arrays.sort(all);
+        int distinct = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (distinct == 0 || all[distinct - 1] != all[i]) {
+                all[distinct++] = all[i];
+            }
+        }
+        comps = Arrays.copyOf(all, distinct);
+        edgeSrc = new int[count];
+        edgeDst = new int[count];
+        edgeWeight = new int[count];
+        for (int i = 0; i < count; i++) {
+            int candidate = (int) order[i];
+            edgeSrc[i] = Arrays.binarySearch(comps, candidates[3 * candidate]);
+            edgeDst[i] = Arrays.binarySearch(comps, candidates[3 * candidate + 1]);
+            edgeWeight[i] = candidates[3 * candidate + 2];
+        }
+        dist = new int[distinct];
+        parent = new int[distinct];
+        candidates = null;
+    }
+
+    /**
+     * Applies improved distances, sweeps the held edges once in topological
+     * order and reports every component whose distance improved.
+     */
+    private void relax(boolean longest, boolean reset, int[] updates, DataOutputStream out) throws IOException {
+        int unreached = longest ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        if (reset) {
+            Arrays.fill(dist, unreached);
+        }
+        for (int i = 0; i < updates.length; i += 2) {
+            int slot = Arrays.binarySearch(comps, updates[i]);
+            if (slot >= 0 && better(updates[i + 1], dist[slot], longest)) {
+                dist[slot] = updates[i + 1];
+            }
+        }
+
+        boolean[] changed = new boolean[comps.length];
+        int changedCount = 0;
+        for (int e = 0; e < edgeSrc.length; e++) {
+            int d = dist[edgeSrc[e]];
+            if (d != unreached) {
+                int candidate = SaturatingMath.clamp((long) d + edgeWeight[e]);
+                int v = edgeDst[e];
+                if (better(candidate, dist[v], longest)) {
+                    dist[v] = candidate;
+                    parent[v] = comps[edgeSrc[e]];
+                    if (!changed[v]) {
+                        changed[v] = true;
+                        changedCount++;
+                    }
+                }
+            }
+        }
+
+        int[] triples = new int[3 * changedCount];
+        int count = 0;
+        for (int slot = 0; slot < comps.length; slot++) {
+            if (changed[slot]) {
+                triples[count++] = comps[slot];
+                triples[count++] = dist[slot];
+                triples[count++] = parent[slot];
+            }
+        }
+        out.writeByte(ShardProtocol.OK);
+        ShardProtocol.writeInts(out, triples, count);
+    }
+
+    private static void fill(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Unexpected end of edge file");
+            }
+        }
+        buffer.flip();
+    }
+
+    static boolean better(int candidate, int current, boolean longest) {
+        return longest ? candidate > current : candidate < current;
+    }
+
+    private boolean inRange(int v) {
+        return v >= lo && v < hi;
+    }
+
+    private static int[] append(int[] pairs, int count, int a, int b) {
+        if (count + 2 > pairs.length) {
+            pairs = Arrays.copyOf(pairs, pairs.length * 2);
+        }
+        pairs[count] = a;
+        pairs[count + 1] = b;
+        return pairs;
+    }
+
+    /**
+     * The subgraph induced by [lo, hi), renumbered from 0.
+     */
+    private final class InducedGraph implements AdjacencyGraph {
+        @Override
+        public int getVertexCount() {
+            return hi - lo;
+        }
+
+        @Override
+        public int getEdgeCount() {
+            int count = 0;
+            for (int e = 0; e < target.length; e++) {
+                if (inRange(target[e])) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public boolean isDirected() {
+            return true;
+        }
+
+        @Override
+        public int getOutDegree(int v) {
+            int degree = 0;
+            for (int e = start[v]; e < start[v + 1]; e++) {
+                if (inRange(target[e])) {
+                    degree++;
+                }
+            }
+            return degree;
+        }
+
+        @Override
+        public NeighborIterator neighbors(int v) {
+            return new NeighborIterator() {
+                private int e = skip(start[v]);
+                private int current = -1;
+
+                private int skip(int from) {
+                    while (from < start[v + 1] && !inRange(target[from])) {
+                        from++;
+                    }
+                    return from;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return e < start[v + 1];
+                }
+
+                @Override
+                public int next() {
+                    current = e;
+                    e = skip(e + 1);
+                    return target[current] - lo;
+                }
+
+                @Override
+                public int weight() {
+                    return weight[current];
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,500 @@
+package org.harryfloppa.graph.shard;
+
+import org.harryfloppa.common.Metrics;
+import org.harryfloppa.common.MetricsImpl;
+import org.harryfloppa.graph.AdjacencyGraph;
+import org.harryfloppa.graph.Graph;
+import org.harryfloppa.graph.dagsp.DAGLongestPath;
+import org.harryfloppa.graph.dagsp.DAGShortestPath;
+import org.harryfloppa.graph.scc.TarjanSCC;
+import org.harryfloppa.graph.topo.KahnTopologicalSort;
+import org.harryfloppa.util.BinaryEdgeWriter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * SCCs, condensation and DAG distances of a binary edge file, computed by
+ * worker processes that each own a contiguous vertex range (a shard).
+ *
+ * <ol>
+ *   <li>Each {@link ShardWorker} reads the edges leaving its range, contracts
+ *       the SCCs of its induced subgraph and sends a boundary summary: the
+ *       contracted edges and its cut edges. The coordinator runs Tarjan on
+ *       the union of the summaries, which is the graph of local components,
+ *       and numbers global components by their smallest vertex.</li>
+ *   <li>Workers propose condensation edges; per component pair the first
+ *       edge in (source vertex, adjacency) order wins, the same rule as
+ *       {@link org.harryfloppa.graph.scc.CondensationGraph}.</li>
+ *   <li>Shortest and longest distances on the condensation from the source's
+ *       component: each round the coordinator sends the frontier of improved
+ *       distances to all workers, which sweep their winning edges in
+ *       topological order and reply with their own improvements, until a
+ *       round improves nothing.</li>
+ * </ol>
+ *
+ * Workers talk to the coordinator over loopback sockets. The coordinator
+ * never reads the edge file, but it is not independent of the edges: the
+ * summary graph holds every contracted and every cut edge, and each worker's
+ * cut targets are kept until the condensation edges are proposed. Memory is
+ * therefore O(V + cut edges) plus the condensation, so a vertex order that
+ * keeps edges inside their shard also keeps the coordinator small.
+ */
+public class ShardedPipeline {
+    /** How workers are started. */
+    public enum Launch {
+        /** One JVM per shard, started with the coordinator's class path. */
+        PROCESS,
+        /** One thread per shard in this JVM; same protocol, for debugging and tests. */
+        THREAD
+    }
+
+    private static final int ACCEPT_TIMEOUT_MS = 60_000;
+
+    private final int shards;
+    private final Launch launch;
+
+    public ShardedPipeline(int shards, Launch launch) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        this.shards = shards;
+        this.launch = launch;
+    }
+
+    /**
+     * Runs the pipeline on a file written by {@link BinaryEdgeWriter}, with the source stored in it.
+     */
+    public ShardedResult run(Path edgeFile) throws IOException {
+        int n;
+        int source;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(edgeFile.toFile())))) {
+            if (in.readInt() != BinaryEdgeWriter.MAGIC || in.readInt() != BinaryEdgeWriter.VERSION) {
+                throw new IOException("Not a binary graph file: " + edgeFile);
+            }
+            if (in.readByte() == 0) {
+                throw new IllegalArgumentException("Sharded SCC requires a directed graph");
+            }
+            n = in.readInt();
+            source = in.readInt();
+        }
+        int count = Math.max(1, Math.min(shards, n));
+
+        Metrics metrics = new MetricsImpl();
+        metrics.startTiming();
+        List<Process> processes = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        Connection[] workers = new Connection[count];
+        try (ServerSocket server = new ServerSocket(0, count, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout(ACCEPT_TIMEOUT_MS);
+            for (int s = 0; s < count; s++) {
+                start(server.getLocalPort(), processes, threads);
+            }
+            for (int s = 0; s < count; s++) {
+                workers[s] = new Connection(server.accept(), s, (int) ((long) s * n / count),
+                        (int) ((long) (s + 1) * n / count));
+            }
+            ShardedResult result = run(edgeFile, n, source, workers, metrics);
+            for (Connection worker : workers) {
+                worker.out.writeByte(ShardProtocol.SHUTDOWN);
+                worker.out.flush();
+            }
+            return result;
+        } finally {
+            for (Connection worker : workers) {
+                if (worker != null) {
+                    worker.close();
+                }
+            }
+            for (Process process : processes) {
+                try {
+                    if (!process.waitFor(5, java.util.concurrent.TimeUnit.SECONDS)) {
+                        process.destroyForcibly();
+                    }
+                } catch (InterruptedException e) {
+                    process.destroyForcibly();
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private void start(int port, List<Process> processes, List<Thread> threads) throws IOException {
+        if (launch == Launch.PROCESS) {
+            String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+            processes.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    ShardWorker.class.getName(), String.valueOf(port))
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start());
+        } else {
+            Thread thread = new Thread(() -> {
+                try {
+                    new ShardWorker(port).serve();
+                } catch (IOException e) {
+                    // The coordinator sees the closed connection
+                }
+            }, "shard-worker-" + threads.size());
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+    }
+
+    private ShardedResult run(Path edgeFile, int n, int source, Connection[] workers, Metrics metrics)
+            throws IOException {
+        // 1. Boundary summaries; summary node of a local component = offset of its shard + local id
+        for (Connection worker : workers) {
+            worker.out.writeByte(ShardProtocol.LOAD);
+            worker.out.writeUTF(edgeFile.toAbsolutePath().toString());
+            worker.out.writeInt(worker.lo);
+            worker.out.writeInt(worker.hi);
+            worker.out.flush();
+        }
+        int[] summaryNode = new int[n];
+        int[] offset = new int[workers.length + 1];
+        int[][] internal = new int[workers.length][];
+        int[][] cut = new int[workers.length][];
+        for (Connection worker : workers) {
+            ShardProtocol.readStatus(worker.in, worker.shard);
+            int k = worker.in.readInt();
+            offset[worker.shard + 1] = offset[worker.shard] + k;
+            int[] localComp = ShardProtocol.readInts(worker.in);
+            for (int i = 0; i < localComp.length; i++) {
+                summaryNode[worker.lo + i] = offset[worker.shard] + localComp[i];
+            }
+            internal[worker.shard] = ShardProtocol.readInts(worker.in);
+            worker.targets = ShardProtocol.readInts(worker.in);
+            cut[worker.shard] = ShardProtocol.readInts(worker.in);
+        }
+
+        Graph summary = new Graph(offset[workers.length], true);
+        for (Connection worker : workers) {
+            int base = offset[worker.shard];
+            int[] pairs = internal[worker.shard];
+            for (int i = 0; i < pairs.length; i += 2) {
+                summary.addEdge(base + pairs[i], base + pairs[i + 1], 0);
+            }
+            pairs = cut[worker.shard];
+            for (int i = 0; i < pairs.length; i += 2) {
+                summary.addEdge(base + pairs[i], summaryNode[worker.targets[pairs[i + 1]]], 0);
+            }
+        }
+        int[] summaryComp = new TarjanSCC(summary).findSCCs().getVertexToSCCMap();
+
+        // Global components numbered by their smallest vertex
+        int[] renumber = new int[summary.getVertexCount()];
+        Arrays.fill(renumber, -1);
+        int[] component = new int[n];
+        int components = 0;
+        for (int v = 0; v < n; v++) {
+            int c = summaryComp[summaryNode[v]];
+            if (renumber[c] < 0) {
+                renumber[c] = components++;
+            }
+            component[v] = renumber[c];
+        }
+
+        // 2. Condensation edges
+        for (Connection worker : workers) {
+            worker.out.writeByte(ShardProtocol.CONDENSE);
+            ShardProtocol.writeInts(worker.out, Arrays.copyOfRange(component, worker.lo, worker.hi),
+                    worker.hi - worker.lo);
+            int[] targetComp = new int[worker.targets.length];
+            for (int i = 0; i < targetComp.length; i++) {
+                targetComp[i] = component[worker.targets[i]];
+            }
+            ShardProtocol.writeInts(worker.out, targetComp, targetComp.length);
+            worker.out.flush();
+            worker.targets = null;
+        }
+        LongHashSet seen = new LongHashSet(components);
+        int[] winners = new int[48];          // (C, D, w) in (source vertex, adjacency) order
+        int winnerCount = 0;
+        int[][] candidates = new int[workers.length][];
+        int[][] won = new int[workers.length][];
+        int[] wonCount = new int[workers.length];
+        for (Connection worker : workers) {
+            ShardProtocol.readStatus(worker.in, worker.shard);
+            int[] triples = ShardProtocol.readInts(worker.in);
+            candidates[worker.shard] = triples;
+            won[worker.shard] = new int[triples.length / 3];
+            for (int i = 0; i < triples.length; i += 3) {
+                if (seen.add(LongHashSet.pair(triples[i], triples[i + 1]))) {
+                    if (winnerCount + 3 > winners.length) {
+                        winners = Arrays.copyOf(winners, winners.length * 2);
+                    }
+                    System.arraycopy(triples, i, winners, winnerCount, 3);
+                    winnerCount += 3;
+                    won[worker.shard][wonCount[worker.shard]++] = i / 3;
+                }
+            }
+        }
+
+        // Stable counting sort by source component gives CondensationGraph's insertion order
+        int[] bucket = new int[components + 1];
+        for (int i = 0; i < winnerCount; i += 3) {
+            bucket[winners[i] + 1]++;
+        }
+        for (int c = 0; c < components; c++) {
+            bucket[c + 1] += bucket[c];
+        }
+        int[] sorted = new int[winnerCount / 3];
+        for (int i = 0; i < winnerCount; i += 3) {
+            sorted[bucket[winners[i]]++] = i;
+        }
+        Graph condensation = new Graph(components, true);
+        for (int i : sorted) {
+            condensation.addEdge(winners[i], winners[i + 1], winners[i + 2]);
+        }
+
+        // 3. Distances by frontier exchange; workers hold their winning edges
+        List<Integer> order = new KahnTopologicalSort(condensation).sort().getOrder();
+        int[] rank = new int[components];
+        for (int i = 0; i < order.size(); i++) {
+            rank[order.get(i)] = i;
+        }
+        for (Connection worker : workers) {
+            int[] pairs = new int[2 * wonCount[worker.shard]];
+            for (int j = 0; j < wonCount[worker.shard]; j++) {
+                int candidate = won[worker.shard][j];
+                pairs[2 * j] = candidate;
+                pairs[2 * j + 1] = rank[candidates[worker.shard][3 * candidate]];
+            }
+            worker.out.writeByte(ShardProtocol.EDGES);
+            ShardProtocol.writeInts(worker.out, pairs, pairs.length);
+            worker.out.flush();
+        }
+        for (Connection worker : workers) {
+            ShardProtocol.readStatus(worker.in, worker.shard);
+        }
+
+        int sourceComp = n == 0 ? 0 : component[source];
+        long[] exchange = new long[2];
+        DAGShortestPath.ShortestPathResult shortest = null;
+        DAGLongestPath.LongestPathResult longest = null;
+        if (components > 0) {
+            Metrics shortestMetrics = new MetricsImpl();
+            int[][] sp = distances(workers, components, sourceComp, false, shortestMetrics, exchange);
+            shortest = new DAGShortestPath.ShortestPathResult(sourceComp, sp[0], sp[1], shortestMetrics);
+            Metrics longestMetrics = new MetricsImpl();
+            int[][] lp = distances(workers, components, sourceComp, true, longestMetrics, exchange);
+            longest = new DAGLongestPath.LongestPathResult(sourceComp, lp[0], lp[1], longestMetrics);
+        }
+
+        metrics.stopTiming();
+        metrics.addToCounter("shards", workers.length);
+        metrics.addToCounter("summary_nodes", summary.getVertexCount());
+        if (summary.getEdgeCount() > 0) {
+            metrics.addToCounter("summary_edges", summary.getEdgeCount());
+        }
+        metrics.addToCounter("components", components);
+        if (condensation.getEdgeCount() > 0) {
+            metrics.addToCounter("condensation_edges", condensation.getEdgeCount());
+        }
+        metrics.addToCounter("frontier_rounds", exchange[0]);
+        if (exchange[1] > 0) {
+            metrics.addToCounter("frontier_updates", exchange[1]);
+        }
+        return new ShardedResult(component, components, condensation, shortest, longest, metrics);
+    }
+
+    /**
+     * Rounds of frontier exchange until no worker improves a distance.
+     *
+     * @return distances and parents, indexed by component
+     */
+    private static int[][] distances(Connection[] workers, int components, int sourceComp, boolean longest,
+                                     Metrics metrics, long[] exchange) throws IOException {
+        metrics.startTiming();
+        int unreached = longest ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        int[] dist = new int[components];
+        int[] parent = new int[components];
+        Arrays.fill(dist, unreached);
+        Arrays.fill(parent, -1);
+        dist[sourceComp] = 0;
+
+        int[] frontier = {sourceComp, 0};
+        int frontierLength = 2;
+        int[] inFrontier = new int[components];   // round stamp
+        boolean reset = true;
+        long rounds = 0;
+        long updates = 0;
+        while (frontierLength > 0) {
+            rounds++;
+            for (Connection worker : workers) {
+                worker.out.writeByte(ShardProtocol.RELAX);
+                worker.out.writeByte(longest ? 1 : 0);
+                worker.out.writeByte(reset ? 1 : 0);
+                ShardProtocol.writeInts(worker.out, frontier, frontierLength);
+                worker.out.flush();
+            }
+            reset = false;
+            int[] next = new int[16];
+            int nextLength = 0;
+            for (Connection worker : workers) {
+                ShardProtocol.readStatus(worker.in, worker.shard);
+                int[] triples = ShardProtocol.readInts(worker.in);
+                updates += triples.length / 3;
+                for (int i = 0; i < triples.length; i += 3) {
+                    int c = triples[i];
+                    if (ShardWorker.better(triples[i + 1], dist[c], longest)) {
+                        dist[c] = triples[i + 1];
+                        parent[c] = triples[i + 2];
+                        if (inFrontier[c] != rounds) {
+                            inFrontier[c] = (int) rounds;
+                            if (nextLength + 2 > next.length) {
+                                next = Arrays.copyOf(next, next.length * 2);
+                            }
+                            next[nextLength] = c;
+                            nextLength += 2;
+                        }
+                    }
+                }
+            }
+            for (int i = 0; i < nextLength; i += 2) {
+                next[i + 1] = dist[next[i]];
+            }
+            frontier = next;
+            frontierLength = nextLength;
+        }
+
+        metrics.stopTiming();
+        metrics.addToCounter("frontier_rounds", rounds);
+        if (updates > 0) {
+            metrics.addToCounter("frontier_updates", updates);
+        }
+        exchange[0] += rounds;
+        exchange[1] += updates;
+        return new int[][] {dist, parent};
+    }
+
+    /**
+     * Socket streams of one worker and the range it owns.
+     */
+    private static final class Connection {
+        final Socket socket;
+        final DataInputStream in;
+        final DataOutputStream out;
+        final int shard;
+        final int lo;
+        final int hi;
+        int[] targets;
+
+        Connection(Socket socket, int shard, int lo, int hi) throws IOException {
+            this.socket = socket;
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+            this.shard = shard;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Already gone
+            }
+        }
+    }
+
+    /**
+     * Global components (numbered by smallest vertex), the condensation and
+     * distances on it from the source's component.
+     */
+    public static class ShardedResult {
+        private final int[] component;
+        private final int componentCount;
+        private final Graph condensation;
+        private final DAGShortestPath.ShortestPathResult shortest;
+        private final DAGLongestPath.LongestPathResult longest;
+        private final Metrics metrics;
+
+        ShardedResult(int[] component, int componentCount, Graph condensation,
+                      DAGShortestPath.ShortestPathResult shortest, DAGLongestPath.LongestPathResult longest,
+                      Metrics metrics) {
+            this.component = component;
+            this.componentCount = componentCount;
+            this.condensation = condensation;
+            this.shortest = shortest;
+            this.longest = longest;
+            this.metrics = metrics;
+        }
+
+        public int getComponentCount() {
+            return componentCount;
+        }
+
+        public int[] getVertexToComponentMap() {
+            return component;
+        }
+
+        /**
+         * The components as a {@link TarjanSCC.SCCResult}, members in ascending order.
+         */
+        public TarjanSCC.SCCResult getSCCResult() {
+            List<List<Integer>> sccs = new ArrayList<>(componentCount);
+            for (int c = 0; c < componentCount; c++) {
+                sccs.add(new ArrayList<>());
+            }
+            for (int v = 0; v < component.length; v++) {
+                sccs.get(component[v]).add(v);
+            }
+            return new TarjanSCC.SCCResult(sccs, metrics);
+        }
+
+        public AdjacencyGraph getCondensation() {
+            return condensation;
+        }
+
+        /**
+         * Shortest distances on the condensation from the source's component, or null for an empty graph.
+         */
+        public DAGShortestPath.ShortestPathResult getShortestPaths() {
+            return shortest;
+        }
+
+        /**
+         * Longest distances on the condensation from the source's component, or null for an empty graph.
+         */
+        public DAGLongestPath.LongestPathResult getLongestPaths() {
+            return longest;
+        }
+
+        public Metrics getMetrics() {
+            return metrics;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Sharded pipeline: ").append(componentCount).append(" components, ")
+                    .append(condensation.getEdgeCount()).append(" condensation edges\n");
+            if (shortest != null) {
+                int reachable = 0;
+                for (int c = 0; c < componentCount; c++) {
+                    if (shortest.isReachable(c)) {
+                        reachable++;
+                    }
+                }
+                sb.append("  Components reachable from component ").append(shortest.getSource()).append(": ")
+                        .append(reachable).append("\n");
+            }
+            sb.append("\n").append(metrics.getReport());
+            return sb.toString();
+        }
+    }
+}
@@ -2,77 +2,110 @@ package org.harryfloppa.graph.topo;
 
 import org.harryfloppa.common.Metrics;
 import org.harryfloppa.common.MetricsImpl;
-import org.harryfloppa.graph.Graph;
+import org.harryfloppa.common.WorkspacePool;
+import org.harryfloppa.graph.AdjacencyGraph;
 
 import java.util.*;
 
 /**
  * Implementation of Kahn's algorithm for topological sorting.
  * Time complexity: O(V + E)
+ *
+ * In-degrees and the queue live in a pooled per-call workspace, so one
+ * instance may serve concurrent calls on a graph that is not modified.
  */
 public class KahnTopologicalSort {
-    private final Graph graph;
-    private final Metrics metrics;
+    private final AdjacencyGraph graph;
+    private final WorkspacePool<Workspace> workspaces;
 
-    public KahnTopologicalSort(Graph graph) {
+    public KahnTopologicalSort(AdjacencyGraph graph) {
         if (!graph.isDirected()) {
             throw new IllegalArgumentException("Topological sort requires a directed graph");
         }
         this.graph = graph;
-        this.metrics = new MetricsImpl();
+        int n = graph.getVertexCount();
+        this.workspaces = new WorkspacePool<>(() -> new Workspace(n));
+    }
+
+    private static class Workspace {
+        final int[] inDegree;
+        final int[] queue;
+
+        Workspace(int n) {
+            inDegree = new int[n];
+            queue = new int[n];
+        }
     }
 
     public TopoSortResult sort() {
         int n = graph.getVertexCount();
-        int[] inDegree = new int[n];
-        
-        metrics.reset();
+        Metrics metrics = new MetricsImpl();
         metrics.startTiming();
-        
-        // Calculate in-degrees
-        for (int u = 0; u < n; u++) {
-            for (Graph.Edge edge : graph.getAdjacent(u)) {
-                inDegree[edge.to]++;
-                metrics.incrementCounter("edges_scanned");
-            }
-        }
-        
-        // Add all vertices with in-degree 0 to queue
-        Queue<Integer> queue = new LinkedList<>();
-        for (int v = 0; v < n; v++) {
-            if (inDegree[v] == 0) {
-                queue.offer(v);
-                metrics.incrementCounter("queue_pushes");
+
+        Workspace ws = workspaces.acquire();
+        try {
+            int[] inDegree = ws.inDegree;
+            int[] queue = ws.queue;
+            Arrays.fill(inDegree, 0);
+            long edgesScanned = 0;
+            long updates = 0;
+
+            // Calculate in-degrees
+            for (int u = 0; u < n; u++) {
+                for (AdjacencyGraph.NeighborIterator it = graph.neighbors(u); it.hasNext(); ) {
+                    inDegree[it.next()]++;
+                    edgesScanned++;
+                }
             }
-        }
-        
-        List<Integer> topoOrder = new ArrayList<>();
-        
-        // Process vertices in topological order
-        while (!queue.isEmpty()) {
-            int u = queue.poll();
-            metrics.incrementCounter("queue_pops");
-            topoOrder.add(u);
-            
-            // Reduce in-degree of adjacent vertices
-            for (Graph.Edge edge : graph.getAdjacent(u)) {
-                int v = edge.to;
-                inDegree[v]--;
-                metrics.incrementCounter("in_degree_updates");
-                
+
+            // Add all vertices with in-degree 0 to queue
+            int tail = 0;
+            for (int v = 0; v < n; v++) {
                 if (inDegree[v] == 0) {
-                    queue.offer(v);
-                    metrics.incrementCounter("queue_pushes");
+                    queue[tail++] = v;
                 }
             }
+
+            // Process vertices in topological order; the queue itself becomes the order
+            for (int head = 0; head < tail; head++) {
+                int u = queue[head];
+
+                // Reduce in-degree of adjacent vertices
+                for (AdjacencyGraph.NeighborIterator it = graph.neighbors(u); it.hasNext(); ) {
+                    int v = it.next();
+                    inDegree[v]--;
+                    updates++;
+
+                    if (inDegree[v] == 0) {
+                        queue[tail++] = v;
+                    }
+                }
+            }
+
+            List<Integer> topoOrder = new ArrayList<>(tail);
+            for (int i = 0; i < tail; i++) {
+                topoOrder.add(queue[i]);
+            }
+
+            metrics.stopTiming();
+            addCount(metrics, "edges_scanned", edgesScanned);
+            addCount(metrics, "queue_pushes", tail);
+            addCount(metrics, "queue_pops", tail);
+            addCount(metrics, "in_degree_updates", updates);
+
+            // Check if the graph has a cycle
+            boolean hasCycle = topoOrder.size() != n;
+
+            return new TopoSortResult(topoOrder, hasCycle, metrics);
+        } finally {
+            workspaces.release(ws);
+        }
+    }
+
+    private static void addCount(Metrics metrics, String name, long count) {
+        if (count > 0) {
+            metrics.addToCounter(name, count);
         }
-        
-        metrics.stopTiming();
-        
-        // Check if the graph has a cycle
-        boolean hasCycle = topoOrder.size() != n;
-        
-        return new TopoSortResult(topoOrder, hasCycle, metrics);
     }
 
     public static class TopoSortResult {
@@ -0,0 +1,125 @@
+package org.harryfloppa.perf;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Versioned set of performance measurements, stored as a sorted
+ * {@code key=value} text file. Keys have the form
+ * {@code <corpus>.<stage>.time_ms}, {@code <corpus>.<stage>.alloc_bytes}
+ * or {@code <corpus>.<stage>.counter.<name>}.
+ */
+public class Baseline {
+    /** Bump whenever the corpus or the measured stages change meaning. */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final String VERSION_KEY = "baseline.version";
+
+    private final int version;
+    private final Map<String, Double> values;
+
+    public Baseline() {
+        this(FORMAT_VERSION, new TreeMap<>());
+    }
+
+    private Baseline(int version, Map<String, Double> values) {
+        this.version = version;
+        this.values = values;
+    }
+
+    public void put(String key, double value) {
+        values.put(key, value);
+    }
+
+    public Map<String, Double> getValues() {
+        return values;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public static Baseline load(String filename) throws IOException {
+        Map<String, Double> values = new TreeMap<>();
+        int version = -1;
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(filename), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int eq = line.indexOf('=');
+                if (eq < 0) {
+                    throw new IOException("Malformed baseline line: " + line);
+                }
+                String key = line.substring(0, eq).trim();
+                String value = line.substring(eq + 1).trim();
+                if (VERSION_KEY.equals(key)) {
+                    version = Integer.parseInt(value);
+                } else {
+                    values.put(key, Double.parseDouble(value));
+                }
+            }
+        }
+        if (version < 0) {
+            throw new IOException("Baseline file has no " + VERSION_KEY + ": " + filename);
+        }
+        return new Baseline(version, values);
+    }
+
+    public void store(String filename, String comment) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(Paths.get(filename), StandardCharsets.UTF_8)) {
+            out.write("# " + comment + "\n");
+            out.write(VERSION_KEY + "=" + version + "\n");
+            for (Map.Entry<String, Double> entry : values.entrySet()) {
+                out.write(entry.getKey() + "=" + format(entry.getValue()) + "\n");
+            }
+        }
+    }
+
+    /**
+     * Compares {@code current} against this baseline.
+     *
+     * @param threshold   allowed relative growth, e.g. 0.20 for +20%
+     * @param minDeltaMs  time differences below this are treated as noise
+     * @return one line per regressed or missing measurement, empty when all pass
+     */
+    public List<String> findRegressions(Baseline current, double threshold, double minDeltaMs) {
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Double> entry : values.entrySet()) {
+            String key = entry.getKey();
+            double before = entry.getValue();
+            Double after = current.values.get(key);
+            if (after == null) {
+                regressions.add(String.format("%-48s missing from current run", key));
+                continue;
+            }
+            if (key.endsWith(".time_ms") && after - before < minDeltaMs) {
+                continue;
+            }
+            if (after > before * (1.0 + threshold) && after > before) {
+                double change = before == 0 ? Double.POSITIVE_INFINITY : (after - before) / before * 100.0;
+                regressions.add(String.format(Locale.ROOT, "%-48s %14s -> %14s  (%+.1f%%)",
+                        key, format(before), format(after), change));
+            }
+        }
+        return regressions;
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
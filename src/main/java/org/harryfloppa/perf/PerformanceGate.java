@@ -0,0 +1,221 @@
+package org.harryfloppa.perf;
+
+import org.harryfloppa.Main;
+import org.harryfloppa.common.Metrics;
+import org.harryfloppa.graph.Graph;
+import org.harryfloppa.graph.dagsp.DAGLongestPath;
+import org.harryfloppa.graph.dagsp.DAGShortestPath;
+import org.harryfloppa.graph.scc.CondensationGraph;
+import org.harryfloppa.graph.scc.TarjanSCC;
+import org.harryfloppa.graph.topo.KahnTopologicalSort;
+import org.harryfloppa.util.GraphGenerator;
+import org.harryfloppa.util.GraphLoader;
+import org.harryfloppa.util.JsonEdgeWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Performance regression gate.
+ *
+ * Runs the full {@link Main#processFile} pipeline and every individual stage
+ * over a fixed corpus of generated graphs and records, per stage, the best
+ * wall time, the allocated bytes and all {@link Metrics} counters.
+ *
+ * <pre>
+ *   PerformanceGate record [--baseline=perf-baseline.properties] [--runs=5]
+ *   PerformanceGate check  [--baseline=...] [--threshold=0.20] [--min-delta-ms=1.0]
+ * </pre>
+ * {@code check} exits with status 1 and prints a per-stage diff when any
+ * measurement grew by more than the threshold.
+ */
+public class PerformanceGate {
+
+    private interface Stage {
+        /** Runs the stage once; returns its metrics or null if it has none. */
+        Metrics run() throws Exception;
+    }
+
+    private final int runs;
+    private final int warmups;
+
+    public PerformanceGate(int runs, int warmups) {
+        this.runs = runs;
+        this.warmups = warmups;
+    }
+
+    /**
+     * Generates the corpus into {@code workDir} and measures every stage.
+     */
+    public Baseline measure(File workDir) throws Exception {
+        Baseline result = new Baseline();
+        measureCorpus(result, "dag5k", workDir, sink -> new GraphGenerator(1).layeredDag(50, 100, 4, 2, sink));
+        measureCorpus(result, "scc20k", workDir, sink -> new GraphGenerator(2).plantedSCCs(
+                20_000, GraphGenerator.SizeDistribution.FIXED, 8, 8, 0, 4, 0.2, sink));
+        measureCorpus(result, "powerlaw4k", workDir, sink -> new GraphGenerator(3).rmat(
+                12, 4, 0.57, 0.19, 0.19, true, sink));
+        measureCorpus(result, "chain5k", workDir, sink -> new GraphGenerator(4).chain(5_000, 1, sink));
+        return result;
+    }
+
+    private interface CorpusWriter {
+        void write(JsonEdgeWriter sink) throws IOException;
+    }
+
+    private void measureCorpus(Baseline result, String name, File workDir, CorpusWriter writer) throws Exception {
+        File file = new File(workDir, name + ".json");
+        writer.write(new JsonEdgeWriter(file.getPath()));
+
+        GraphLoader.GraphData data = GraphLoader.loadFromJSON(file.getPath());
+        Graph graph = data.getGraph();
+        int source = data.getSource();
+        TarjanSCC.SCCResult sccResult = new TarjanSCC(graph).findSCCs();
+        CondensationGraph condensation = new CondensationGraph(graph, sccResult);
+        Graph dag = sccResult.getComponentCount() == graph.getVertexCount() ? graph : condensation.getCondensation();
+        int dagSource = dag == graph ? source : sccResult.getVertexToSCCMap()[source];
+
+        measureStage(result, name, "load", () -> {
+            GraphLoader.loadFromJSON(file.getPath());
+            return null;
+        });
+        measureStage(result, name, "scc", () -> new TarjanSCC(graph).findSCCs().getMetrics());
+        measureStage(result, name, "condensation", () -> {
+            new CondensationGraph(graph, sccResult);
+            return null;
+        });
+        measureStage(result, name, "topo", () -> new KahnTopologicalSort(dag).sort().getMetrics());
+        measureStage(result, name, "shortest", () ->
+                new DAGShortestPath(dag).computeShortestPaths(dagSource).getMetrics());
+        measureStage(result, name, "longest", () ->
+                new DAGLongestPath(dag).computeLongestPaths(dagSource).getMetrics());
+        measureStage(result, name, "critical", () -> new DAGLongestPath(dag).computeCriticalPath().getMetrics());
+        measureStage(result, name, "pipeline", () -> {
+            PrintStream stdout = System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            try {
+                Main.processFile(file.getPath());
+            } finally {
+                System.setOut(stdout);
+            }
+            return null;
+        });
+    }
+
+    private void measureStage(Baseline result, String corpus, String stage, Stage body) throws Exception {
+        for (int i = 0; i < warmups; i++) {
+            body.run();
+        }
+        long bestNanos = Long.MAX_VALUE;
+        long bestAlloc = Long.MAX_VALUE;
+        Metrics metrics = null;
+        for (int i = 0; i < runs; i++) {
+            long allocBefore = allocatedBytes();
+            long start = System.nanoTime();
+            metrics = body.run();
+            long elapsed = System.nanoTime() - start;
+            long allocated = allocatedBytes() - allocBefore;
+            bestNanos = Math.min(bestNanos, elapsed);
+            bestAlloc = Math.min(bestAlloc, allocated);
+        }
+
+        String prefix = corpus + "." + stage + ".";
+        result.put(prefix + "time_ms", bestNanos / 1_000_000.0);
+        if (bestAlloc >= 0) {
+            result.put(prefix + "alloc_bytes", bestAlloc);
+        }
+        if (metrics != null) {
+            for (Map.Entry<String, Long> counter : metrics.getCounters().entrySet()) {
+                result.put(prefix + "counter." + counter.getKey(), counter.getValue());
+            }
+        }
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1 || !(args[0].equals("record") || args[0].equals("check"))) {
+            System.err.println("Usage: PerformanceGate <record|check> [--baseline=file] [--threshold=0.20]"
+                    + " [--min-delta-ms=1.0] [--runs=5] [--warmups=3]");
+            System.exit(2);
+        }
+        String baselineFile = "perf-baseline.properties";
+        double threshold = 0.20;
+        double minDeltaMs = 1.0;
+        int runs = 5;
+        int warmups = 3;
+        for (int i = 1; i < args.length; i++) {
+            String[] kv = args[i].split("=", 2);
+            switch (kv[0]) {
+                case "--baseline":
+                    baselineFile = kv[1];
+                    break;
+                case "--threshold":
+                    threshold = Double.parseDouble(kv[1]);
+                    break;
+                case "--min-delta-ms":
+                    minDeltaMs = Double.parseDouble(kv[1]);
+                    break;
+                case "--runs":
+                    runs = Integer.parseInt(kv[1]);
+                    break;
+                case "--warmups":
+                    warmups = Integer.parseInt(kv[1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        File workDir = Files.createTempDirectory("perf-corpus").toFile();
+        Baseline current;
+        try {
+            current = new PerformanceGate(runs, warmups).measure(workDir);
+        } finally {
+            File[] files = workDir.listFiles();
+            if (files != null) {
+                for (File f : files) {
+                    f.delete();
+                }
+            }
+            workDir.delete();
+        }
+
+        if (args[0].equals("record")) {
+            current.store(baselineFile, "Recorded on Java " + System.getProperty("java.version")
+                    + " / " + System.getProperty("os.arch"));
+            System.out.println("Baseline written to " + baselineFile + " (" + current.getValues().size() + " entries)");
+            return;
+        }
+
+        Baseline baseline = Baseline.load(baselineFile);
+        if (baseline.getVersion() != Baseline.FORMAT_VERSION) {
+            System.err.println("Baseline version " + baseline.getVersion() + " does not match current version "
+                    + Baseline.FORMAT_VERSION + " - re-record it with 'record'.");
+            System.exit(1);
+        }
+        List<String> regressions = baseline.findRegressions(current, threshold, minDeltaMs);
+        if (regressions.isEmpty()) {
+            System.out.printf("Performance gate passed (%d measurements, threshold +%.0f%%)%n",
+                    baseline.getValues().size(), threshold * 100);
+            return;
+        }
+        System.err.printf("Performance gate FAILED: %d regression(s) beyond +%.0f%%%n",
+                regressions.size(), threshold * 100);
+        for (String line : regressions) {
+            System.err.println("  " + line);
+        }
+        System.exit(1);
+    }
+}
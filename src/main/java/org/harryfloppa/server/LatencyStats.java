@@ -0,0 +1,52 @@
+package org.harryfloppa.server;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Request latencies of one endpoint. Count, mean and maximum cover every
+ * request; percentiles are taken over the most recent {@value #WINDOW}.
+ */
+class LatencyStats {
+    static final int WINDOW = 1024;
+
+    private final long[] recent = new long[WINDOW];
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+
+    synchronized void record(long nanos) {
+        recent[(int) (count % WINDOW)] = nanos;
+        count++;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * {@code {"count": ..., "mean_ms": ..., "p50_ms": ..., "p99_ms": ..., "max_ms": ...}}
+     */
+    synchronized String toJson() {
+        int size = (int) Math.min(count, WINDOW);
+        long[] sorted = Arrays.copyOf(recent, size);
+        Arrays.sort(sorted);
+        return String.format(Locale.ROOT, "{\"count\": %d, \"mean_ms\": %.3f, \"p50_ms\": %.3f, \"p99_ms\": %.3f, \"max_ms\": %.3f}",
+                count, count == 0 ? 0.0 : millis(totalNanos) / count,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), millis(maxNanos));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return millis(sorted[Math.max(0, index)]);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
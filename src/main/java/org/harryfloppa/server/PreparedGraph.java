@@ -0,0 +1,177 @@
+package org.harryfloppa.server;
+
+import org.harryfloppa.common.Metrics;
+import org.harryfloppa.common.MetricsImpl;
+import org.harryfloppa.graph.FrozenGraph;
+import org.harryfloppa.graph.dagsp.DAGLongestPath;
+import org.harryfloppa.graph.dagsp.DAGShortestPath;
+import org.harryfloppa.graph.dagsp.PathResultCache;
+import org.harryfloppa.graph.scc.CondensationGraph;
+import org.harryfloppa.graph.scc.TarjanSCC;
+import org.harryfloppa.graph.topo.KahnTopologicalSort;
+import org.harryfloppa.util.GraphLoader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * A loaded graph with everything that does not depend on the query computed
+ * once: its SCCs, the DAG that path queries run on, that DAG's topological
+ * order and its critical path.
+ *
+ * For an acyclic graph the DAG is the graph itself. Otherwise it is the
+ * condensation, and path queries map vertices to their components and
+ * answer in component ids. Under the node weight model a component weighs
+ * the sum of its members' weights. Per-source path results are kept in a
+ * {@link PathResultCache}. Everything else is immutable, so one instance
+ * serves any number of concurrent queries.
+ */
+public final class PreparedGraph {
+    public static final long DEFAULT_CACHE_BYTES = 64L << 20;
+
+    private final String name;
+    private final FrozenGraph graph;
+    private final int source;
+    private final TarjanSCC.SCCResult sccs;
+    private final int[] vertexToSCC;
+    private final boolean acyclic;
+    private final FrozenGraph dag;
+    private final List<Integer> topologicalOrder;
+    private final PathResultCache cache;
+    private final DAGLongestPath.CriticalPathResult criticalPath;
+    private final Metrics metrics;
+
+    private PreparedGraph(String name, GraphLoader.GraphData data, long cacheBytes) {
+        if (!data.getGraph().isDirected()) {
+            throw new IllegalArgumentException("Graph " + name + " is undirected; path queries need a directed graph");
+        }
+        this.name = name;
+        this.metrics = new MetricsImpl();
+        metrics.startTiming();
+
+        this.graph = FrozenGraph.of(data.getGraph());
+        this.source = data.getSource();
+        this.sccs = new TarjanSCC(graph).findSCCs();
+        this.vertexToSCC = sccs.getVertexToSCCMap();
+        this.acyclic = sccs.getComponentCount() == graph.getVertexCount();
+        CondensationGraph condensation = acyclic ? null : new CondensationGraph(graph, sccs);
+        this.dag = acyclic ? graph : FrozenGraph.of(condensation.getCondensation());
+        int[] nodeWeights = data.getNodeWeights();
+        if (nodeWeights != null && !acyclic) {
+            nodeWeights = condensation.getComponentCosts(nodeWeights, CondensationGraph.CostAggregation.SUM);
+        }
+        this.topologicalOrder = new KahnTopologicalSort(dag).sort().getOrder();
+        this.cache = new PathResultCache(dag, topologicalOrder, nodeWeights, cacheBytes);
+        this.criticalPath = new DAGLongestPath(dag, topologicalOrder, nodeWeights).computeCriticalPath();
+
+        metrics.stopTiming();
+        metrics.addToCounter("components", sccs.getComponentCount());
+        if (dag.getEdgeCount() > 0) {
+            metrics.addToCounter("dag_edges", dag.getEdgeCount());
+        }
+    }
+
+    public static PreparedGraph of(String name, GraphLoader.GraphData data) {
+        return new PreparedGraph(name, data, DEFAULT_CACHE_BYTES);
+    }
+
+    public static PreparedGraph of(String name, GraphLoader.GraphData data, long cacheBytes) {
+        return new PreparedGraph(name, data, cacheBytes);
+    }
+
+    /**
+     * Loads a JSON graph, or a binary edge file if the name ends in {@code .bin}.
+     */
+    public static PreparedGraph load(String name, Path file, long cacheBytes) throws IOException {
+        String path = file.toString();
+        GraphLoader.GraphData data = path.endsWith(".bin")
+                ? GraphLoader.loadFromBinary(path) : GraphLoader.loadFromJSON(path);
+        return new PreparedGraph(name, data, cacheBytes);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public FrozenGraph getGraph() {
+        return graph;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    public boolean isAcyclic() {
+        return acyclic;
+    }
+
+    public TarjanSCC.SCCResult getSCCs() {
+        return sccs;
+    }
+
+    /**
+     * Component of {@code v}; an index into {@link TarjanSCC.SCCResult#getSCCs()}.
+     */
+    public int getComponent(int v) {
+        checkVertex(v);
+        return vertexToSCC[v];
+    }
+
+    /**
+     * The DAG path queries run on: the graph itself, or its condensation.
+     */
+    public FrozenGraph getDAG() {
+        return dag;
+    }
+
+    public List<Integer> getTopologicalOrder() {
+        return topologicalOrder;
+    }
+
+    /**
+     * Id of {@code v} in {@link #getDAG()}.
+     */
+    public int toDAGVertex(int v) {
+        checkVertex(v);
+        return acyclic ? v : vertexToSCC[v];
+    }
+
+    /**
+     * Shortest paths in {@link #getDAG()} from the DAG vertex containing {@code source}.
+     */
+    public DAGShortestPath.ShortestPathResult shortestPaths(int source) {
+        return cache.getShortestPaths(toDAGVertex(source));
+    }
+
+    /**
+     * Longest paths in {@link #getDAG()} from the DAG vertex containing {@code source}.
+     */
+    public DAGLongestPath.LongestPathResult longestPaths(int source) {
+        return cache.getLongestPaths(toDAGVertex(source));
+    }
+
+    /**
+     * Critical path of {@link #getDAG()}, computed once at preparation.
+     */
+    public DAGLongestPath.CriticalPathResult getCriticalPath() {
+        return criticalPath;
+    }
+
+    public PathResultCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Timing and counters of the preparation.
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    private void checkVertex(int v) {
+        if (v < 0 || v >= graph.getVertexCount()) {
+            throw new IllegalArgumentException("Vertex out of bounds: " + v);
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package org.harryfloppa.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.harryfloppa.graph.dagsp.DAGLongestPath;
+import org.harryfloppa.graph.dagsp.DAGShortestPath;
+import org.harryfloppa.util.ResultWriter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Long-running HTTP server that answers path and SCC queries over
+ * {@link PreparedGraph}s held in memory. It listens on the loopback address
+ * only. Endpoints, all GET, all answering one JSON object:
+ *
+ * <pre>
+ *   /graphs                                  loaded graphs
+ *   /shortest?graph=G&amp;source=S&amp;target=T   shortest path in the graph's DAG
+ *   /longest?graph=G&amp;source=S&amp;target=T    longest path in the graph's DAG
+ *   /critical?graph=G                        critical path of the graph's DAG
+ *   /scc?graph=G&amp;vertex=V                   component of a vertex
+ *   /stats                                   per-endpoint latency, path cache counters
+ * </pre>
+ *
+ * Identical concurrent queries are computed once (see {@link RequestCoalescer}).
+ * Requests run on virtual threads when the runtime has them (Java 21+) and
+ * on a fixed pool of platform threads otherwise.
+ */
+public class QueryServer implements Closeable {
+
+    private interface Endpoint {
+        String answer(Map<String, String> params) throws Exception;
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, PreparedGraph> graphs = new ConcurrentHashMap<>();
+    private final Map<String, LatencyStats> latency = new LinkedHashMap<>();
+    private final RequestCoalescer<String, String> coalescer = new RequestCoalescer<>();
+
+    /**
+     * Binds to {@code port} on the loopback address; port 0 picks a free port.
+     * {@code threads} sizes the platform thread pool used without virtual threads.
+     */
+    public QueryServer(int port, int threads) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = newExecutor(threads);
+        server.setExecutor(executor);
+
+        route("graphs", params -> graphs());
+        route("shortest", this::shortest);
+        route("longest", this::longest);
+        route("critical", this::critical);
+        route("scc", this::scc);
+        route("stats", null);
+    }
+
+    public void register(PreparedGraph graph) {
+        graphs.put(graph.getName(), graph);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Number of requests answered by another request's computation.
+     */
+    public long getCoalescedCount() {
+        return coalescer.getCoalesced();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    private static ExecutorService newExecutor(int threads) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(threads);
+        }
+    }
+
+    /**
+     * Registers an endpoint; a null {@code endpoint} is the stats endpoint, which is never coalesced.
+     */
+    private void route(String name, Endpoint endpoint) {
+        LatencyStats stats = new LatencyStats();
+        latency.put(name, stats);
+        server.createContext("/" + name, exchange -> {
+            long start = System.nanoTime();
+            int status = 200;
+            String body;
+            try {
+                Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+                body = endpoint == null ? stats()
+                        : coalescer.execute(name + params, () -> endpoint.answer(params));
+            } catch (IllegalArgumentException e) {
+                // Also covers NumberFormatException
+                status = 400;
+                body = error(e);
+            } catch (NoSuchElementException e) {
+                status = 404;
+                body = error(e);
+            } catch (Exception e) {
+                status = 500;
+                body = error(e);
+            }
+            send(exchange, status, body);
+            stats.record(System.nanoTime() - start);
+        });
+    }
+
+    private String graphs() {
+        StringBuilder sb = new StringBuilder("{\"graphs\": [");
+        boolean first = true;
+        for (PreparedGraph graph : new TreeMap<>(graphs).values()) {
+            if (!first) {
+                sb.append(", ");
+            }
+            first = false;
+            sb.append("{\"name\": ").append(quote(graph.getName()))
+                    .append(", \"n\": ").append(graph.getGraph().getVertexCount())
+                    .append(", \"edge_count\": ").append(graph.getGraph().getEdgeCount())
+                    .append(", \"components\": ").append(graph.getSCCs().getComponentCount())
+                    .append(", \"acyclic\": ").append(graph.isAcyclic())
+                    .append(", \"source\": ").append(graph.getSource())
+                    .append(String.format(Locale.ROOT, ", \"prepare_ms\": %.3f}", graph.getMetrics().getElapsedTimeMillis()));
+        }
+        return sb.append("]}").toString();
+    }
+
+    private String shortest(Map<String, String> params) {
+        PreparedGraph graph = graph(params);
+        int target = intParam(params, "target");
+        DAGShortestPath.ShortestPathResult result = graph.shortestPaths(intParam(params, "source"));
+        int dagTarget = graph.toDAGVertex(target);
+        return pathAnswer("shortest", graph, result.getSource(), dagTarget,
+                result.isReachable(dagTarget), result.getDistance(dagTarget), result.getPath(dagTarget));
+    }
+
+    private String longest(Map<String, String> params) {
+        PreparedGraph graph = graph(params);
+        int target = intParam(params, "target");
+        DAGLongestPath.LongestPathResult result = graph.longestPaths(intParam(params, "source"));
+        int dagTarget = graph.toDAGVertex(target);
+        return pathAnswer("longest", graph, result.getSource(), dagTarget,
+                result.isReachable(dagTarget), result.getDistance(dagTarget), result.getPath(dagTarget));
+    }
+
+    private String critical(Map<String, String> params) throws IOException {
+        PreparedGraph graph = graph(params);
+        StringWriter out = new StringWriter();
+        try (ResultWriter writer = ResultWriter.json(out, ResultWriter.Detail.DISTANCES)) {
+            writer.writeCriticalPath(graph.getCriticalPath());
+        }
+        return out.toString().trim();
+    }
+
+    private String scc(Map<String, String> params) {
+        PreparedGraph graph = graph(params);
+        int vertex = intParam(params, "vertex");
+        int component = graph.getComponent(vertex);
+        List<Integer> members = graph.getSCCs().getSCCs().get(component);
+        return "{\"graph\": " + quote(graph.getName()) + ", \"vertex\": " + vertex
+                + ", \"component\": " + component + ", \"size\": " + members.size()
+                + ", \"members\": " + members.toString() + "}";
+    }
+
+    private String stats() {
+        StringBuilder sb = new StringBuilder("{\"coalesced\": ").append(coalescer.getCoalesced())
+                .append(", \"endpoints\": {");
+        boolean first = true;
+        for (Map.Entry<String, LatencyStats> entry : latency.entrySet()) {
+            if (!first) {
+                sb.append(", ");
+            }
+            first = false;
+            sb.append(quote(entry.getKey())).append(": ").append(entry.getValue().toJson());
+        }
+        sb.append("}, \"caches\": {");
+        first = true;
+        for (PreparedGraph graph : new TreeMap<>(graphs).values()) {
+            if (!first) {
+                sb.append(", ");
+            }
+            first = false;
+            sb.append(quote(graph.getName())).append(": {");
+            boolean firstCounter = true;
+            for (Map.Entry<String, Long> counter : graph.getCache().getMetrics().getCounters().entrySet()) {
+                if (!firstCounter) {
+                    sb.append(", ");
+                }
+                firstCounter = false;
+                sb.append(quote(counter.getKey())).append(": ").append(counter.getValue());
+            }
+            sb.append('}');
+        }
+        return sb.append("}}").toString();
+    }
+
+    /**
+     * Source and target are DAG vertices; {@code condensed} says they are component ids.
+     */
+    private static String pathAnswer(String kind, PreparedGraph graph, int source, int target,
+                                     boolean reachable, int distance, List<Integer> path) {
+        StringBuilder sb = new StringBuilder("{\"type\": \"").append(kind)
+                .append("\", \"graph\": ").append(quote(graph.getName()))
+                .append(", \"condensed\": ").append(!graph.isAcyclic())
+                .append(", \"source\": ").append(source)
+                .append(", \"target\": ").append(target)
+                .append(", \"reachable\": ").append(reachable);
+        if (reachable) {
+            sb.append(", \"distance\": ").append(distance).append(", \"path\": ").append(path);
+        }
+        return sb.append('}').toString();
+    }
+
+    private PreparedGraph graph(Map<String, String> params) {
+        String name = param(params, "graph");
+        PreparedGraph graph = graphs.get(name);
+        if (graph == null) {
+            throw new NoSuchElementException("Unknown graph: " + name);
+        }
+        return graph;
+    }
+
+    private static int intParam(Map<String, String> params, String name) {
+        return Integer.parseInt(param(params, name));
+    }
+
+    private static String param(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing parameter: " + name);
+        }
+        return value;
+    }
+
+    /**
+     * Sorted by name, so that the map's string form is a canonical coalescing key.
+     */
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new TreeMap<>();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static String error(Exception e) {
+        return "{\"error\": " + quote(String.valueOf(e.getMessage())) + "}";
+    }
+
+    private static String quote(String s) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = (body + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.harryfloppa.util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * Streams a graph in the binary edge-list format read by
+ * {@link GraphLoader#loadFromBinary}.
+ *
+ * Layout (big-endian):
+ * <pre>
+ *   int  MAGIC
+ *   int  VERSION
+ *   byte directed (0/1)
+ *   int  n
+ *   int  source
+ *   long edge count (patched on close)
+ *   edge count x (int u, int v, int w)
+ * </pre>
+ */
+public class BinaryEdgeWriter implements EdgeSink {
+    public static final int MAGIC = 0x44414734; // "DAG4"
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 4 + 4 + 1 + 4 + 4 + 8;
+    public static final int EDGE_BYTES = 12;
+    static final int EDGE_COUNT_OFFSET = HEADER_BYTES - 8;
+
+    private final String filename;
+    private final DataOutputStream out;
+    private long edgeCount;
+
+    public BinaryEdgeWriter(String filename) throws IOException {
+        this.filename = filename;
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename), 1 << 16));
+    }
+
+    @Override
+    public void begin(int n, boolean directed, int source) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeByte(directed ? 1 : 0);
+        out.writeInt(n);
+        out.writeInt(source);
+        out.writeLong(0L);
+    }
+
+    @Override
+    public void edge(int u, int v, int w) throws IOException {
+        out.writeInt(u);
+        out.writeInt(v);
+        out.writeInt(w);
+        edgeCount++;
+    }
+
+    public long getEdgeCount() {
+        return edgeCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+        try (RandomAccessFile file = new RandomAccessFile(filename, "rw")) {
+            file.seek(EDGE_COUNT_OFFSET);
+            file.writeLong(edgeCount);
+        }
+    }
+}
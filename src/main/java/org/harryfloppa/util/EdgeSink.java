@@ -0,0 +1,13 @@
+package org.harryfloppa.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Receiver of a streamed graph. {@link #begin} is called exactly once before
+ * any edge, {@link #close()} after the last one.
+ */
+public interface EdgeSink extends Closeable {
+    void begin(int n, boolean directed, int source) throws IOException;
+    void edge(int u, int v, int w) throws IOException;
+}
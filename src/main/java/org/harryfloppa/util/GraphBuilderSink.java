@@ -0,0 +1,34 @@
+package org.harryfloppa.util;
+
+import org.harryfloppa.graph.Graph;
+
+/**
+ * Collects a streamed graph into an in-memory {@link Graph}.
+ */
+public class GraphBuilderSink implements EdgeSink {
+    private Graph graph;
+    private int source;
+
+    @Override
+    public void begin(int n, boolean directed, int source) {
+        this.graph = new Graph(n, directed);
+        this.source = source;
+    }
+
+    @Override
+    public void edge(int u, int v, int w) {
+        graph.addEdge(u, v, w);
+    }
+
+    public Graph getGraph() {
+        return graph;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    @Override
+    public void close() {
+    }
+}
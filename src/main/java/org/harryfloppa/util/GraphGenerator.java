@@ -0,0 +1,388 @@
+package org.harryfloppa.util;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic graph generator.
+ *
+ * Every generator streams its edges straight into an {@link EdgeSink}, so the
+ * graph is never held in memory and sizes are only bounded by disk space.
+ * The same seed and parameters always produce the same edge sequence.
+ *
+ * Usage from the command line:
+ * <pre>
+ *   GraphGenerator layered  out.json layers=1000 width=1000 degree=4
+ *   GraphGenerator rmat     out.bin  scale=20 edgeFactor=16 acyclic=true
+ *   GraphGenerator chain    out.bin  n=1000000 skips=1
+ *   GraphGenerator planted  out.json n=100000 degree=4 dist=power min=1 max=500 alpha=2.0
+ * </pre>
+ * Files ending in {@code .bin} are written with {@link BinaryEdgeWriter},
+ * anything else with {@link JsonEdgeWriter}.
+ */
+public class GraphGenerator {
+
+    /**
+     * Size distribution of planted strongly connected components.
+     */
+    public enum SizeDistribution {
+        FIXED, UNIFORM, POWER_LAW
+    }
+
+    private final long seed;
+    private int minWeight = 1;
+    private int maxWeight = 20;
+    private boolean scrambleIds = false;
+
+    public GraphGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Edge weights are drawn uniformly from [min, max]; min == max gives constant weights.
+     */
+    public GraphGenerator weights(int min, int max) {
+        if (min > max) {
+            throw new IllegalArgumentException("min weight exceeds max weight");
+        }
+        this.minWeight = min;
+        this.maxWeight = max;
+        return this;
+    }
+
+    /**
+     * Relabels vertices with a seeded affine bijection so that structure is not
+     * visible in the id order. Costs no memory.
+     */
+    public GraphGenerator scrambleIds(boolean scramble) {
+        this.scrambleIds = scramble;
+        return this;
+    }
+
+    /**
+     * DAG of {@code layers} x {@code width} vertices. Each vertex gets about
+     * {@code avgDegree} edges into the next {@code span} layers.
+     */
+    public long layeredDag(int layers, int width, double avgDegree, int span, EdgeSink sink) throws IOException {
+        try (sink) {
+            if (span < 1) {
+                throw new IllegalArgumentException("Layer span must be at least 1");
+            }
+            int n = checkedVertexCount((long) layers * width);
+            SplittableRandom random = new SplittableRandom(seed);
+            IdMap ids = new IdMap(n, random);
+            long edges = 0;
+
+            sink.begin(n, true, ids.map(0));
+            for (int layer = 0; layer < layers - 1; layer++) {
+                int reach = Math.min(span, layers - 1 - layer);
+                for (int i = 0; i < width; i++) {
+                    int u = layer * width + i;
+                    int degree = sampleDegree(random, avgDegree);
+                    for (int d = 0; d < degree; d++) {
+                        int targetLayer = layer + 1 + random.nextInt(reach);
+                        int v = targetLayer * width + random.nextInt(width);
+                        sink.edge(ids.map(u), ids.map(v), nextWeight(random));
+                        edges++;
+                    }
+                }
+            }
+            return edges;
+        }
+    }
+
+    /**
+     * R-MAT power-law graph with 2^scale vertices and edgeFactor * 2^scale edges.
+     * Quadrant probabilities are a, b, c and 1 - a - b - c. With {@code acyclic}
+     * every edge is oriented from the lower to the higher id and self-loops are dropped.
+     */
+    public long rmat(int scale, int edgeFactor, double a, double b, double c,
+                     boolean acyclic, EdgeSink sink) throws IOException {
+        try (sink) {
+            if (scale < 1 || scale > 30) {
+                throw new IllegalArgumentException("R-MAT scale must be in [1, 30]");
+            }
+            if (a + b + c > 1.0) {
+                throw new IllegalArgumentException("R-MAT quadrant probabilities exceed 1");
+            }
+            int n = 1 << scale;
+            long m = (long) edgeFactor * n;
+            SplittableRandom random = new SplittableRandom(seed);
+            IdMap ids = new IdMap(n, random);
+            long edges = 0;
+
+            sink.begin(n, true, ids.map(0));
+            for (long i = 0; i < m; i++) {
+                int u = 0;
+                int v = 0;
+                for (int bit = scale - 1; bit >= 0; bit--) {
+                    double r = random.nextDouble();
+                    if (r < a) {
+                        // top-left quadrant: no bits set
+                    } else if (r < a + b) {
+                        v |= 1 << bit;
+                    } else if (r < a + b + c) {
+                        u |= 1 << bit;
+                    } else {
+                        u |= 1 << bit;
+                        v |= 1 << bit;
+                    }
+                }
+                if (acyclic) {
+                    if (u == v) {
+                        continue;
+                    }
+                    if (u > v) {
+                        int tmp = u;
+                        u = v;
+                        v = tmp;
+                    }
+                }
+                sink.edge(ids.map(u), ids.map(v), nextWeight(random));
+                edges++;
+            }
+            return edges;
+        }
+    }
+
+    /**
+     * Path 0 -> 1 -> ... -> n-1 plus {@code skips} extra short forward edges per vertex.
+     * Maximizes DFS depth and the length of the topological order.
+     */
+    public long chain(int n, int skips, EdgeSink sink) throws IOException {
+        try (sink) {
+            checkedVertexCount(n);
+            SplittableRandom random = new SplittableRandom(seed);
+            IdMap ids = new IdMap(n, random);
+            long edges = 0;
+
+            sink.begin(n, true, ids.map(0));
+            for (int u = 0; u < n - 1; u++) {
+                sink.edge(ids.map(u), ids.map(u + 1), nextWeight(random));
+                edges++;
+                for (int s = 0; s < skips && u + 2 < n; s++) {
+                    int v = u + 2 + random.nextInt(Math.min(16, n - u - 2));
+                    sink.edge(ids.map(u), ids.map(v), nextWeight(random));
+                    edges++;
+                }
+            }
+            return edges;
+        }
+    }
+
+    /**
+     * Graph whose SCCs are exactly the planted clusters. Cluster sizes follow
+     * {@code distribution} over [minSize, maxSize] (alpha is the power-law exponent).
+     * Each cluster is closed by a ring; all other edges either stay inside the
+     * cluster (with probability {@code intraFraction}) or point to a later cluster,
+     * so no cycle ever spans two clusters.
+     *
+     * @return number of planted components
+     */
+    public long plantedSCCs(int n, SizeDistribution distribution, int minSize, int maxSize, double alpha,
+                            double avgDegree, double intraFraction, EdgeSink sink) throws IOException {
+        try (sink) {
+            checkedVertexCount(n);
+            if (minSize < 1 || maxSize < minSize) {
+                throw new IllegalArgumentException("Invalid component size range");
+            }
+            if (distribution == SizeDistribution.POWER_LAW && alpha == 1.0) {
+                throw new IllegalArgumentException("Power-law exponent must differ from 1");
+            }
+            SplittableRandom random = new SplittableRandom(seed);
+            IdMap ids = new IdMap(n, random);
+            long components = 0;
+
+            sink.begin(n, true, ids.map(0));
+            int start = 0;
+            while (start < n) {
+                int size = Math.min(n - start, sampleSize(random, distribution, minSize, maxSize, alpha));
+                int end = start + size;
+                components++;
+
+                for (int u = start; u < end; u++) {
+                    int extra = sampleDegree(random, avgDegree);
+                    if (size > 1) {
+                        int next = u + 1 < end ? u + 1 : start;
+                        sink.edge(ids.map(u), ids.map(next), nextWeight(random));
+                        extra--;
+                    }
+                    for (int d = 0; d < extra; d++) {
+                        boolean intra = size > 1 && (end == n || random.nextDouble() < intraFraction);
+                        int v;
+                        if (intra) {
+                            v = start + random.nextInt(size);
+                        } else if (end < n) {
+                            v = end + random.nextInt(n - end);
+                        } else {
+                            continue;
+                        }
+                        sink.edge(ids.map(u), ids.map(v), nextWeight(random));
+                    }
+                }
+                start = end;
+            }
+            return components;
+        }
+    }
+
+    private int nextWeight(SplittableRandom random) {
+        long span = (long) maxWeight - minWeight + 1;
+        if (span == 1) {
+            return minWeight;
+        }
+        if (span > Integer.MAX_VALUE) {
+            return (int) (minWeight + random.nextLong(span));
+        }
+        return minWeight + random.nextInt((int) span);
+    }
+
+    private static int sampleDegree(SplittableRandom random, double avgDegree) {
+        int whole = (int) avgDegree;
+        return whole + (random.nextDouble() < avgDegree - whole ? 1 : 0);
+    }
+
+    private static int sampleSize(SplittableRandom random, SizeDistribution distribution,
+                                  int minSize, int maxSize, double alpha) {
+        switch (distribution) {
+            case FIXED:
+                return minSize;
+            case UNIFORM:
+                return minSize + random.nextInt(maxSize - minSize + 1);
+            case POWER_LAW:
+                // Inverse CDF of a bounded Pareto distribution
+                double lo = Math.pow(minSize, 1.0 - alpha);
+                double hi = Math.pow(maxSize + 1, 1.0 - alpha);
+                double x = Math.pow(lo + random.nextDouble() * (hi - lo), 1.0 / (1.0 - alpha));
+                return Math.max(minSize, Math.min(maxSize, (int) x));
+            default:
+                throw new IllegalArgumentException("Unknown distribution: " + distribution);
+        }
+    }
+
+    private static int checkedVertexCount(long n) {
+        if (n <= 0 || n > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Vertex count out of range: " + n);
+        }
+        return (int) n;
+    }
+
+    /**
+     * Affine bijection id -> (a * id + b) mod n with gcd(a, n) = 1, or identity.
+     */
+    private final class IdMap {
+        private final long n;
+        private final long a;
+        private final long b;
+
+        IdMap(int n, SplittableRandom random) {
+            this.n = n;
+            if (scrambleIds && n > 1) {
+                long candidate = 1 + random.nextLong(n - 1);
+                while (gcd(candidate, n) != 1) {
+                    candidate = candidate % (n - 1) + 1;
+                }
+                this.a = candidate;
+                this.b = random.nextLong(n);
+            } else {
+                this.a = 1;
+                this.b = 0;
+            }
+        }
+
+        int map(int id) {
+            return (int) ((a * id + b) % n);
+        }
+
+        private long gcd(long x, long y) {
+            while (y != 0) {
+                long t = x % y;
+                x = y;
+                y = t;
+            }
+            return x;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: GraphGenerator <layered|rmat|chain|planted> <output.json|output.bin> [key=value ...]");
+            System.exit(1);
+        }
+        String kind = args[0];
+        String output = args[1];
+        Map<String, String> params = new HashMap<>();
+        for (int i = 2; i < args.length; i++) {
+            String[] kv = args[i].split("=", 2);
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Expected key=value, got: " + args[i]);
+            }
+            params.put(kv[0], kv[1]);
+        }
+
+        GraphGenerator generator = new GraphGenerator(Long.parseLong(params.getOrDefault("seed", "42")))
+                .weights(Integer.parseInt(params.getOrDefault("minWeight", "1")),
+                        Integer.parseInt(params.getOrDefault("maxWeight", "20")))
+                .scrambleIds(Boolean.parseBoolean(params.getOrDefault("scramble", "false")));
+        EdgeSink sink = output.endsWith(".bin") ? new BinaryEdgeWriter(output) : new JsonEdgeWriter(output);
+
+        long start = System.nanoTime();
+        switch (kind) {
+            case "layered":
+                generator.layeredDag(
+                        Integer.parseInt(params.getOrDefault("layers", "100")),
+                        Integer.parseInt(params.getOrDefault("width", "100")),
+                        Double.parseDouble(params.getOrDefault("degree", "4")),
+                        Integer.parseInt(params.getOrDefault("span", "1")),
+                        sink);
+                break;
+            case "rmat":
+                generator.rmat(
+                        Integer.parseInt(params.getOrDefault("scale", "16")),
+                        Integer.parseInt(params.getOrDefault("edgeFactor", "16")),
+                        Double.parseDouble(params.getOrDefault("a", "0.57")),
+                        Double.parseDouble(params.getOrDefault("b", "0.19")),
+                        Double.parseDouble(params.getOrDefault("c", "0.19")),
+                        Boolean.parseBoolean(params.getOrDefault("acyclic", "false")),
+                        sink);
+                break;
+            case "chain":
+                generator.chain(
+                        Integer.parseInt(params.getOrDefault("n", "100000")),
+                        Integer.parseInt(params.getOrDefault("skips", "0")),
+                        sink);
+                break;
+            case "planted":
+                generator.plantedSCCs(
+                        Integer.parseInt(params.getOrDefault("n", "100000")),
+                        parseDistribution(params.getOrDefault("dist", "fixed")),
+                        Integer.parseInt(params.getOrDefault("min", "4")),
+                        Integer.parseInt(params.getOrDefault("max", "4")),
+                        Double.parseDouble(params.getOrDefault("alpha", "2.0")),
+                        Double.parseDouble(params.getOrDefault("degree", "4")),
+                        Double.parseDouble(params.getOrDefault("intra", "0.2")),
+                        sink);
+                break;
+            default:
+                sink.close();
+                throw new IllegalArgumentException("Unknown generator: " + kind);
+        }
+        System.out.printf("Generated %s graph into %s in %.1f ms%n", kind, output, (System.nanoTime() - start) / 1e6);
+    }
+
+    private static SizeDistribution parseDistribution(String name) {
+        switch (name.toLowerCase()) {
+            case "fixed":
+                return SizeDistribution.FIXED;
+            case "uniform":
+                return SizeDistribution.UNIFORM;
+            case "power":
+            case "power_law":
+                return SizeDistribution.POWER_LAW;
+            default:
+                throw new IllegalArgumentException("Unknown size distribution: " + name);
+        }
+    }
+}
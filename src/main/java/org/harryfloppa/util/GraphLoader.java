@@ -2,7 +2,10 @@ package org.harryfloppa.util;
 
 import org.harryfloppa.graph.Graph;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.regex.Matcher;
@@ -40,7 +43,7 @@ public class GraphLoader {
         Graph graph = new Graph(n, directed);
         
         // Extract edges
-        Pattern edgePattern = Pattern.compile("\\{\\s*\"u\"\\s*:\\s*(\\d+)\\s*,\\s*\"v\"\\s*:\\s*(\\d+)\\s*,\\s*\"w\"\\s*:\\s*(\\d+)\\s*\\}");
+        Pattern edgePattern = Pattern.compile("\\{\\s*\"u\"\\s*:\\s*(\\d+)\\s*,\\s*\"v\"\\s*:\\s*(\\d+)\\s*,\\s*\"w\"\\s*:\\s*(-?\\d+)\\s*\\}");
         Matcher matcher = edgePattern.matcher(content);
         
         while (matcher.find()) {
@@ -50,9 +53,50 @@ public class GraphLoader {
             graph.addEdge(u, v, w);
         }
         
-        return new GraphData(graph, source, weightModel);
+        int[] nodeWeights = null;
+        if ("node".equals(weightModel)) {
+            nodeWeights = extractIntArray(content, "\"node_weights\"\\s*:\\s*\\[([^\\]]*)\\]");
+            if (nodeWeights == null) {
+                throw new IOException("Weight model \"node\" requires a node_weights array in " + filename);
+            }
+            if (nodeWeights.length != n) {
+                throw new IOException("Expected " + n + " node weights in " + filename + ", found "
+                        + nodeWeights.length);
+            }
+        }
+
+        return new GraphData(graph, source, weightModel, nodeWeights);
     }
     
+    /**
+     * Loads a graph written by {@link BinaryEdgeWriter}.
+     */
+    public static GraphData loadFromBinary(String filename) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(filename), 1 << 16))) {
+            if (in.readInt() != BinaryEdgeWriter.MAGIC) {
+                throw new IOException("Not a binary graph file: " + filename);
+            }
+            int version = in.readInt();
+            if (version != BinaryEdgeWriter.VERSION) {
+                throw new IOException("Unsupported binary graph version " + version + " in " + filename);
+            }
+            boolean directed = in.readByte() != 0;
+            int n = in.readInt();
+            int source = in.readInt();
+            long edgeCount = in.readLong();
+
+            Graph graph = new Graph(n, directed);
+            for (long i = 0; i < edgeCount; i++) {
+                int u = in.readInt();
+                int v = in.readInt();
+                int w = in.readInt();
+                graph.addEdge(u, v, w);
+            }
+            return new GraphData(graph, source, "edge");
+        }
+    }
+
     private static int extractInt(String content, String pattern) {
         Pattern p = Pattern.compile(pattern);
         Matcher m = p.matcher(content);
@@ -62,6 +106,23 @@ public class GraphLoader {
         return 0;
     }
     
+    private static int[] extractIntArray(String content, String pattern) {
+        Matcher m = Pattern.compile(pattern).matcher(content);
+        if (!m.find()) {
+            return null;
+        }
+        String body = m.group(1).trim();
+        if (body.isEmpty()) {
+            return new int[0];
+        }
+        String[] parts = body.split(",");
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Integer.parseInt(parts[i].trim());
+        }
+        return values;
+    }
+
     private static String extractString(String content, String pattern) {
         Pattern p = Pattern.compile(pattern);
         Matcher m = p.matcher(content);
@@ -75,11 +136,20 @@ public class GraphLoader {
         private final Graph graph;
         private final int source;
         private final String weightModel;
+        private final int[] nodeWeights;
         
         public GraphData(Graph graph, int source, String weightModel) {
+            this(graph, source, weightModel, null);
+        }
+
+        /**
+         * {@code nodeWeights} holds one duration per vertex for the {@code "node"} weight model, or is null.
+         */
+        public GraphData(Graph graph, int source, String weightModel, int[] nodeWeights) {
             this.graph = graph;
             this.source = source;
             this.weightModel = weightModel;
+            this.nodeWeights = nodeWeights;
         }
         
         public Graph getGraph() {
@@ -93,5 +163,12 @@ public class GraphLoader {
         public String getWeightModel() {
             return weightModel;
         }
+
+        /**
+         * Per-vertex weights of the {@code "node"} weight model, or null for edge weights only.
+         */
+        public int[] getNodeWeights() {
+            return nodeWeights;
+        }
     }
 }
@@ -0,0 +1,64 @@
+package org.harryfloppa.util;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Streams a graph in the JSON format understood by {@link GraphLoader#loadFromJSON}.
+ * Only the current edge is ever held in memory.
+ */
+public class JsonEdgeWriter implements EdgeSink {
+    private final Writer out;
+    private final String weightModel;
+    private int source;
+    private long edgeCount;
+
+    public JsonEdgeWriter(String filename) throws IOException {
+        this(new BufferedWriter(new FileWriter(filename), 1 << 16), "edge");
+    }
+
+    public JsonEdgeWriter(Writer out, String weightModel) {
+        this.out = out;
+        this.weightModel = weightModel;
+    }
+
+    @Override
+    public void begin(int n, boolean directed, int source) throws IOException {
+        this.source = source;
+        out.write("{\n  \"directed\": ");
+        out.write(directed ? "true" : "false");
+        out.write(",\n  \"n\": ");
+        out.write(Integer.toString(n));
+        out.write(",\n  \"edges\": [\n");
+    }
+
+    @Override
+    public void edge(int u, int v, int w) throws IOException {
+        if (edgeCount++ > 0) {
+            out.write(",\n");
+        }
+        out.write("    {\"u\": ");
+        out.write(Integer.toString(u));
+        out.write(", \"v\": ");
+        out.write(Integer.toString(v));
+        out.write(", \"w\": ");
+        out.write(Integer.toString(w));
+        out.write('}');
+    }
+
+    public long getEdgeCount() {
+        return edgeCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.write("\n  ],\n  \"source\": ");
+        out.write(Integer.toString(source));
+        out.write(",\n  \"weight_model\": \"");
+        out.write(weightModel);
+        out.write("\"\n}\n");
+        out.close();
+    }
+}
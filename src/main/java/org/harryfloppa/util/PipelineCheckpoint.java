@@ -0,0 +1,487 @@
+package org.harryfloppa.util;
+
+import org.harryfloppa.common.Metrics;
+import org.harryfloppa.common.MetricsImpl;
+import org.harryfloppa.graph.Graph;
+import org.harryfloppa.graph.dagsp.DAGLongestPath;
+import org.harryfloppa.graph.dagsp.DAGShortestPath;
+import org.harryfloppa.graph.scc.TarjanSCC;
+import org.harryfloppa.graph.topo.KahnTopologicalSort;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Results of the {@code Main} pipeline stages saved to a directory, so a run
+ * that is killed can resume after the last completed stage instead of
+ * reloading the JSON file and recomputing everything.
+ *
+ * Each stage is one file holding its int arrays and metrics counters,
+ * written through a memory mapping to {@code stage.tmp}, forced to disk and
+ * renamed to {@code stage.ckpt}; a file with the final name is therefore
+ * always complete. Checkpoints are tied to the input file's size and
+ * modification time and are discarded when it changes.
+ */
+public class PipelineCheckpoint {
+    public static final String GRAPH = "graph";
+    public static final String SCC = "scc";
+    public static final String TOPOLOGICAL_ORDER = "topological_order";
+    public static final String SHORTEST_PATHS = "shortest_paths";
+    public static final String CRITICAL_PATH = "critical_path";
+    public static final String LONGEST_PATHS = "longest_paths";
+
+    private static final String INPUT = "input";
+    private static final int MAGIC = 0x434B5054; // "CKPT"
+    private static final int VERSION = 1;
+    // Mapping window; a multiple of 4 so no int straddles two windows
+    private static final int WINDOW_BYTES = 1 << 28;
+
+    private static final PipelineCheckpoint DISABLED = new PipelineCheckpoint(null);
+
+    private final Path directory;
+    private final Metrics metrics = new MetricsImpl();
+    private long saveNanos;
+
+    private PipelineCheckpoint(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * A checkpoint that saves and restores nothing.
+     */
+    public static PipelineCheckpoint disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Opens {@code directory} for a run over {@code input}. Unless {@code resume}
+     * is set and the saved stages belong to the same input, they are deleted.
+     */
+    public static PipelineCheckpoint open(Path directory, Path input, boolean resume) throws IOException {
+        Files.createDirectories(directory);
+        PipelineCheckpoint checkpoint = new PipelineCheckpoint(directory);
+        int[] fingerprint = fingerprint(input);
+        boolean valid = resume && checkpoint.has(INPUT)
+                && Arrays.equals(fingerprint, checkpoint.read(INPUT).arrays.get(0));
+        if (!valid) {
+            try (DirectoryStream<Path> stages = Files.newDirectoryStream(directory, "*.{ckpt,tmp}")) {
+                for (Path stage : stages) {
+                    Files.delete(stage);
+                }
+            }
+            checkpoint.write(INPUT, List.of(fingerprint), Map.of());
+        }
+        return checkpoint;
+    }
+
+    private static int[] fingerprint(Path input) throws IOException {
+        long size = Files.size(input);
+        long modified = Files.getLastModifiedTime(input).toMillis();
+        return new int[] {(int) (size >>> 32), (int) size, (int) (modified >>> 32), (int) modified};
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Whether {@code stage} was completed by this or an earlier run.
+     */
+    public boolean has(String stage) {
+        return directory != null && Files.exists(stagePath(stage, ".ckpt"));
+    }
+
+    /**
+     * Counters of saved and restored stages and bytes written.
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Time spent writing stage files, including forcing them to disk.
+     */
+    public long getSaveNanos() {
+        return saveNanos;
+    }
+
+    // Typed stages
+
+    public GraphLoader.GraphData loadGraph() throws IOException {
+        Stage stage = read(GRAPH);
+        int[] header = stage.arrays.get(0);
+        int[] from = stage.arrays.get(1);
+        int[] to = stage.arrays.get(2);
+        int[] weight = stage.arrays.get(3);
+        Graph graph = new Graph(header[0], true);
+        for (int i = 0; i < from.length; i++) {
+            graph.addEdge(from[i], to[i], weight[i]);
+        }
+        int[] nodeWeights = header[2] != 0 ? stage.arrays.get(4) : null;
+        return new GraphLoader.GraphData(graph, header[1], stage.strings.get("weight_model"), nodeWeights);
+    }
+
+    /**
+     * Saves a directed graph in adjacency order, so that reloading it gives the same adjacency lists.
+     */
+    public GraphLoader.GraphData saveGraph(GraphLoader.GraphData data) throws IOException {
+        Graph graph = data.getGraph();
+        if (directory == null || !graph.isDirected()) {
+            return data;
+        }
+        int m = graph.getEdgeCount();
+        int[] from = new int[m];
+        int[] to = new int[m];
+        int[] weight = new int[m];
+        int e = 0;
+        for (int u = 0; u < graph.getVertexCount(); u++) {
+            for (Graph.Edge edge : graph.getAdjacent(u)) {
+                from[e] = u;
+                to[e] = edge.to;
+                weight[e++] = edge.weight;
+            }
+        }
+        int[] nodeWeights = data.getNodeWeights();
+        int[] header = {graph.getVertexCount(), data.getSource(), nodeWeights != null ? 1 : 0};
+        List<int[]> arrays = new ArrayList<>(List.of(header, from, to, weight));
+        if (nodeWeights != null) {
+            arrays.add(nodeWeights);
+        }
+        Map<String, String> strings = new LinkedHashMap<>();
+        strings.put("weight_model", data.getWeightModel());
+        write(GRAPH, arrays, strings);
+        return data;
+    }
+
+    /**
+     * The saved components, or those of {@code compute}, which are then saved.
+     */
+    public TarjanSCC.SCCResult sccs(Supplier<TarjanSCC.SCCResult> compute) throws IOException {
+        if (has(SCC)) {
+            Stage stage = read(SCC);
+            int[] offsets = stage.arrays.get(0);
+            int[] members = stage.arrays.get(1);
+            List<List<Integer>> sccs = new ArrayList<>(offsets.length - 1);
+            for (int c = 0; c + 1 < offsets.length; c++) {
+                List<Integer> scc = new ArrayList<>(offsets[c + 1] - offsets[c]);
+                for (int i = offsets[c]; i < offsets[c + 1]; i++) {
+                    scc.add(members[i]);
+                }
+                sccs.add(scc);
+            }
+            return new TarjanSCC.SCCResult(sccs, stage.metrics);
+        }
+        TarjanSCC.SCCResult result = compute.get();
+        if (directory != null) {
+            List<List<Integer>> sccs = result.getSCCs();
+            int[] offsets = new int[sccs.size() + 1];
+            for (int c = 0; c < sccs.size(); c++) {
+                offsets[c + 1] = offsets[c] + sccs.get(c).size();
+            }
+            int[] members = new int[offsets[sccs.size()]];
+            int i = 0;
+            for (List<Integer> scc : sccs) {
+                for (int v : scc) {
+                    members[i++] = v;
+                }
+            }
+            write(SCC, List.of(offsets, members), result.getMetrics());
+        }
+        return result;
+    }
+
+    public KahnTopologicalSort.TopoSortResult topologicalOrder(Supplier<KahnTopologicalSort.TopoSortResult> compute)
+            throws IOException {
+        if (has(TOPOLOGICAL_ORDER)) {
+            Stage stage = read(TOPOLOGICAL_ORDER);
+            return new KahnTopologicalSort.TopoSortResult(toList(stage.arrays.get(1)), stage.arrays.get(0)[0] != 0,
+                    stage.metrics);
+        }
+        KahnTopologicalSort.TopoSortResult result = compute.get();
+        if (directory != null) {
+            write(TOPOLOGICAL_ORDER, List.of(new int[] {result.hasCycle() ? 1 : 0}, toArray(result.getOrder())),
+                    result.getMetrics());
+        }
+        return result;
+    }
+
+    public DAGShortestPath.ShortestPathResult shortestPaths(Supplier<DAGShortestPath.ShortestPathResult> compute)
+            throws IOException {
+        if (has(SHORTEST_PATHS)) {
+            Stage stage = read(SHORTEST_PATHS);
+            return new DAGShortestPath.ShortestPathResult(stage.arrays.get(0)[0], stage.arrays.get(1),
+                    stage.arrays.get(2), stage.metrics);
+        }
+        DAGShortestPath.ShortestPathResult result = compute.get();
+        if (directory != null) {
+            write(SHORTEST_PATHS, List.of(new int[] {result.getSource()}, result.getDistances(),
+                    parents(result.getDistances().length, result::getParent)), result.getMetrics());
+        }
+        return result;
+    }
+
+    public DAGLongestPath.LongestPathResult longestPaths(Supplier<DAGLongestPath.LongestPathResult> compute)
+            throws IOException {
+        if (has(LONGEST_PATHS)) {
+            Stage stage = read(LONGEST_PATHS);
+            return new DAGLongestPath.LongestPathResult(stage.arrays.get(0)[0], stage.arrays.get(1),
+                    stage.arrays.get(2), stage.metrics);
+        }
+        DAGLongestPath.LongestPathResult result = compute.get();
+        if (directory != null) {
+            write(LONGEST_PATHS, List.of(new int[] {result.getSource()}, result.getDistances(),
+                    parents(result.getDistances().length, result::getParent)), result.getMetrics());
+        }
+        return result;
+    }
+
+    public DAGLongestPath.CriticalPathResult criticalPath(Supplier<DAGLongestPath.CriticalPathResult> compute)
+            throws IOException {
+        if (has(CRITICAL_PATH)) {
+            Stage stage = read(CRITICAL_PATH);
+            return new DAGLongestPath.CriticalPathResult(toList(stage.arrays.get(1)), stage.arrays.get(0)[0],
+                    stage.metrics);
+        }
+        DAGLongestPath.CriticalPathResult result = compute.get();
+        if (directory != null) {
+            write(CRITICAL_PATH, List.of(new int[] {result.getLength()}, toArray(result.getPath())),
+                    result.getMetrics());
+        }
+        return result;
+    }
+
+    private static int[] parents(int n, IntUnaryOperator parent) {
+        int[] parents = new int[n];
+        for (int v = 0; v < n; v++) {
+            parents[v] = parent.applyAsInt(v);
+        }
+        return parents;
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    private static List<Integer> toList(int[] array) {
+        List<Integer> list = new ArrayList<>(array.length);
+        for (int value : array) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    // Stage files
+
+    /**
+     * Contents of one stage file.
+     */
+    private static class Stage {
+        final List<int[]> arrays;
+        final Map<String, String> strings;
+        final Metrics metrics;
+
+        Stage(List<int[]> arrays, Map<String, String> strings, Metrics metrics) {
+            this.arrays = arrays;
+            this.strings = strings;
+            this.metrics = metrics;
+        }
+    }
+
+    private Path stagePath(String stage, String suffix) {
+        return directory.resolve(stage + suffix);
+    }
+
+    private void write(String stage, List<int[]> arrays, Metrics stageMetrics) throws IOException {
+        Map<String, String> strings = new LinkedHashMap<>();
+        stageMetrics.getCounters().forEach((name, value) -> strings.put("counter." + name, value.toString()));
+        write(stage, arrays, strings);
+    }
+
+    /**
+     * Layout: magic, version, string count, (key, value) as length-prefixed
+     * UTF-8 padded to 4 bytes, array count, then each array as length and elements.
+     */
+    private void write(String stage, List<int[]> arrays, Map<String, String> strings) throws IOException {
+        long start = System.nanoTime();
+        List<byte[]> encoded = new ArrayList<>();
+        long bytes = 16;
+        for (Map.Entry<String, String> entry : strings.entrySet()) {
+            for (String s : new String[] {entry.getKey(), entry.getValue()}) {
+                byte[] utf = s.getBytes(StandardCharsets.UTF_8);
+                encoded.add(utf);
+                bytes += 4 + padded(utf.length);
+            }
+        }
+        for (int[] array : arrays) {
+            bytes += 4 + 4L * array.length;
+        }
+
+        Path tmp = stagePath(stage, ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Window out = new Window(channel, FileChannel.MapMode.READ_WRITE, bytes);
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putInt(strings.size());
+            for (byte[] utf : encoded) {
+                out.putInt(utf.length);
+                out.put(Arrays.copyOf(utf, padded(utf.length)));
+            }
+            out.putInt(arrays.size());
+            for (int[] array : arrays) {
+                out.putInt(array.length);
+                out.putInts(array);
+            }
+            out.force();
+        }
+        try {
+            Files.move(tmp, stagePath(stage, ".ckpt"), StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, stagePath(stage, ".ckpt"), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        saveNanos += System.nanoTime() - start;
+        if (!stage.equals(INPUT)) {
+            metrics.addToCounter("stages_saved", 1);
+            metrics.addToCounter("bytes_saved", bytes);
+        }
+    }
+
+    private Stage read(String stage) throws IOException {
+        Path file = stagePath(stage, ".ckpt");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Window in = new Window(channel, FileChannel.MapMode.READ_ONLY, channel.size());
+            if (in.getInt() != MAGIC || in.getInt() != VERSION) {
+                throw new IOException("Not a checkpoint file: " + file);
+            }
+            Map<String, String> strings = new LinkedHashMap<>();
+            Metrics stageMetrics = new MetricsImpl();
+            int stringCount = in.getInt();
+            for (int i = 0; i < stringCount; i++) {
+                String key = in.getString();
+                String value = in.getString();
+                if (key.startsWith("counter.")) {
+                    stageMetrics.addToCounter(key.substring("counter.".length()), Long.parseLong(value));
+                } else {
+                    strings.put(key, value);
+                }
+            }
+            int arrayCount = in.getInt();
+            List<int[]> arrays = new ArrayList<>(arrayCount);
+            for (int i = 0; i < arrayCount; i++) {
+                int[] array = new int[in.getInt()];
+                in.getInts(array);
+                arrays.add(array);
+            }
+            if (!stage.equals(INPUT)) {
+                metrics.addToCounter("stages_restored", 1);
+            }
+            return new Stage(arrays, strings, stageMetrics);
+        }
+    }
+
+    private static int padded(int length) {
+        return (length + 3) & ~3;
+    }
+
+    /**
+     * Sequential cursor over a file, mapped one window at a time.
+     */
+    private static class Window {
+        private final FileChannel channel;
+        private final FileChannel.MapMode mode;
+        private final long size;
+        private long base;
+        private MappedByteBuffer buffer;
+
+        Window(FileChannel channel, FileChannel.MapMode mode, long size) throws IOException {
+            this.channel = channel;
+            this.mode = mode;
+            this.size = size;
+            map(0);
+        }
+
+        private void map(long position) throws IOException {
+            if (buffer != null && mode == FileChannel.MapMode.READ_WRITE) {
+                buffer.force();
+            }
+            base = position;
+            buffer = channel.map(mode, position, Math.min(WINDOW_BYTES, size - position));
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                if (base + buffer.position() + bytes > size) {
+                    throw new IOException("Truncated checkpoint file");
+                }
+                map(base + buffer.position());
+            }
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        int getInt() throws IOException {
+            ensure(4);
+            return buffer.getInt();
+        }
+
+        void put(byte[] bytes) throws IOException {
+            ensure(bytes.length);
+            buffer.put(bytes);
+        }
+
+        String getString() throws IOException {
+            int length = getInt();
+            byte[] bytes = new byte[padded(length)];
+            ensure(bytes.length);
+            buffer.get(bytes);
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+
+        void putInts(int[] values) throws IOException {
+            for (int i = 0; i < values.length; ) {
+                ensure(4);
+                int count = Math.min(values.length - i, buffer.remaining() / 4);
+                buffer.asIntBuffer().put(values, i, count);
+                buffer.position(buffer.position() + 4 * count);
+                i += count;
+            }
+        }
+
+        void getInts(int[] values) throws IOException {
+            for (int i = 0; i < values.length; ) {
+                ensure(4);
+                int count = Math.min(values.length - i, buffer.remaining() / 4);
+                buffer.asIntBuffer().get(values, i, count);
+                buffer.position(buffer.position() + 4 * count);
+                i += count;
+            }
+        }
+
+        void force() {
+            buffer.force();
+        }
+    }
+}
@@ -0,0 +1,598 @@
+package org.harryfloppa.util;
+
+import org.harryfloppa.common.Metrics;
+import org.harryfloppa.graph.Graph;
+import org.harryfloppa.graph.dagsp.DAGLongestPath;
+import org.harryfloppa.graph.dagsp.DAGShortestPath;
+import org.harryfloppa.graph.scc.CondensationGraph;
+import org.harryfloppa.graph.scc.TarjanSCC;
+import org.harryfloppa.graph.topo.KahnTopologicalSort;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Streams algorithm results to a buffered sink instead of building one large
+ * {@code toString()}.
+ *
+ * With {@link Detail#SUMMARY} only aggregates are written, so output size is
+ * independent of the graph size. {@link Detail#DISTANCES} adds one line per
+ * vertex and {@link Detail#FULL} additionally reconstructs each path from the
+ * parent array, one at a time, into a reused buffer. In text format,
+ * {@code FULL} output is identical to the results' {@code toString()}.
+ */
+public abstract class ResultWriter implements Closeable, Flushable {
+
+    /**
+     * How much of a result to write.
+     */
+    public enum Detail {
+        SUMMARY, DISTANCES, FULL
+    }
+
+    protected final Detail detail;
+    private int[] pathBuffer = new int[16];
+
+    protected ResultWriter(Detail detail) {
+        this.detail = detail;
+    }
+
+    public static ResultWriter text(Writer out, Detail detail) {
+        return new TextResultWriter(new BufferedWriter(out, 1 << 16), detail);
+    }
+
+    public static ResultWriter json(Writer out, Detail detail) {
+        return new JsonResultWriter(new BufferedWriter(out, 1 << 16), detail);
+    }
+
+    /**
+     * Binary output. Per-vertex records carry the raw distance and parent arrays,
+     * from which a reader can rebuild any path, so {@link Detail#FULL} and
+     * {@link Detail#DISTANCES} produce the same bytes.
+     */
+    public static ResultWriter binary(OutputStream out, Detail detail) {
+        return new BinaryResultWriter(new DataOutputStream(new BufferedOutputStream(out, 1 << 16)), detail);
+    }
+
+    public abstract void writeGraph(Graph graph) throws IOException;
+
+    public abstract void writeSCCs(TarjanSCC.SCCResult result) throws IOException;
+
+    public abstract void writeCondensation(CondensationGraph condensation) throws IOException;
+
+    public abstract void writeTopologicalOrder(KahnTopologicalSort.TopoSortResult result) throws IOException;
+
+    public abstract void writeCriticalPath(DAGLongestPath.CriticalPathResult result) throws IOException;
+
+    public void writeShortestPaths(DAGShortestPath.ShortestPathResult result) throws IOException {
+        writePaths("Shortest", result.getSource(), result.getDistances(), result::getParent,
+                result::isReachable, result.getMetrics());
+    }
+
+    public void writeLongestPaths(DAGLongestPath.LongestPathResult result) throws IOException {
+        writePaths("Longest", result.getSource(), result.getDistances(), result::getParent,
+                result::isReachable, result.getMetrics());
+    }
+
+    protected abstract void writePaths(String kind, int source, int[] distances, IntUnaryOperator parent,
+                                       IntPredicate reachable, Metrics metrics) throws IOException;
+
+    /**
+     * Walks the parent chain of {@code dest} into the shared buffer.
+     *
+     * @return path length; the path is stored reversed in {@code pathBuffer[0..length)}
+     */
+    protected int tracePath(int dest, IntUnaryOperator parent) {
+        int length = 0;
+        for (int v = dest; v != -1; v = parent.applyAsInt(v)) {
+            if (length == pathBuffer.length) {
+                int[] grown = new int[length * 2];
+                System.arraycopy(pathBuffer, 0, grown, 0, length);
+                pathBuffer = grown;
+            }
+            pathBuffer[length++] = v;
+        }
+        return length;
+    }
+
+    protected int pathVertex(int length, int i) {
+        return pathBuffer[length - 1 - i];
+    }
+
+    /**
+     * Aggregates over reachable distances: count, min, max, sum and argmax.
+     */
+    protected static long[] distanceStats(int[] distances, IntPredicate reachable) {
+        long count = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        long sum = 0;
+        long farthest = -1;
+        for (int v = 0; v < distances.length; v++) {
+            if (reachable.test(v)) {
+                int d = distances[v];
+                count++;
+                sum += d;
+                min = Math.min(min, d);
+                if (d > max) {
+                    max = d;
+                    farthest = v;
+                }
+            }
+        }
+        return new long[]{count, min, max, sum, farthest};
+    }
+
+    protected static int largestComponent(List<List<Integer>> sccs) {
+        int largest = 0;
+        for (List<Integer> scc : sccs) {
+            largest = Math.max(largest, scc.size());
+        }
+        return largest;
+    }
+
+    protected static int singletonCount(List<List<Integer>> sccs) {
+        int singletons = 0;
+        for (List<Integer> scc : sccs) {
+            if (scc.size() == 1) {
+                singletons++;
+            }
+        }
+        return singletons;
+    }
+
+    protected static int maxOutDegree(Graph graph) {
+        int max = 0;
+        for (int u = 0; u < graph.getVertexCount(); u++) {
+            max = Math.max(max, graph.getAdjacent(u).size());
+        }
+        return max;
+    }
+
+    /**
+     * Human-readable output; FULL detail matches the results' toString().
+     */
+    private static class TextResultWriter extends ResultWriter {
+        private static final int SUMMARY_PREVIEW = 10;
+        private final Writer out;
+
+        TextResultWriter(Writer out, Detail detail) {
+            super(detail);
+            this.out = out;
+        }
+
+        @Override
+        public void writeGraph(Graph graph) throws IOException {
+            out.write("Graph (" + (graph.isDirected() ? "directed" : "undirected")
+                    + ", n=" + graph.getVertexCount() + ", edges=" + graph.getEdgeCount() + ")\n");
+            if (detail == Detail.SUMMARY) {
+                out.write("  max out-degree: " + maxOutDegree(graph) + "\n");
+                return;
+            }
+            for (int u = 0; u < graph.getVertexCount(); u++) {
+                out.write(Integer.toString(u));
+                out.write(": ");
+                for (Graph.Edge e : graph.getAdjacent(u)) {
+                    out.write("(" + e.to + ", w=" + e.weight + ") ");
+                }
+                out.write('\n');
+            }
+        }
+
+        @Override
+        public void writeSCCs(TarjanSCC.SCCResult result) throws IOException {
+            List<List<Integer>> sccs = result.getSCCs();
+            out.write("Strongly Connected Components: " + sccs.size() + "\n");
+            if (detail == Detail.SUMMARY) {
+                out.write("  largest component: " + largestComponent(sccs) + " vertices\n");
+                out.write("  singleton components: " + singletonCount(sccs) + "\n");
+            } else {
+                for (int i = 0; i < sccs.size(); i++) {
+                    out.write("SCC " + i + " (size " + sccs.get(i).size() + "): ");
+                    writeList(sccs.get(i), sccs.get(i).size());
+                    out.write('\n');
+                }
+            }
+            writeMetrics(result.getMetrics());
+        }
+
+        @Override
+        public void writeCondensation(CondensationGraph condensation) throws IOException {
+            Graph dag = condensation.getCondensation();
+            out.write("Condensation Graph:\n");
+            out.write("Number of components: " + condensation.getSCCs().size() + "\n");
+            out.write("Edges in condensation: " + dag.getEdgeCount() + "\n\n");
+            writeGraph(dag);
+        }
+
+        @Override
+        public void writeTopologicalOrder(KahnTopologicalSort.TopoSortResult result) throws IOException {
+            List<Integer> order = result.getOrder();
+            int limit = detail == Detail.SUMMARY ? Math.min(SUMMARY_PREVIEW, order.size()) : order.size();
+            if (result.hasCycle()) {
+                out.write("Graph contains a cycle - no valid topological order\n");
+                out.write("Partial order: ");
+            } else {
+                out.write("Topological Order: ");
+            }
+            writeList(order, limit);
+            out.write('\n');
+            writeMetrics(result.getMetrics());
+        }
+
+        @Override
+        protected void writePaths(String kind, int source, int[] distances, IntUnaryOperator parent,
+                                  IntPredicate reachable, Metrics metrics) throws IOException {
+            out.write(kind + " Paths from source " + source + ":\n");
+            if (detail == Detail.SUMMARY) {
+                long[] stats = distanceStats(distances, reachable);
+                out.write("  reachable: " + stats[0] + " / " + distances.length + "\n");
+                if (stats[0] > 0) {
+                    out.write("  distance range: " + stats[1] + " .. " + stats[2] + "\n");
+                    out.write(String.format(Locale.ROOT, "  mean distance: %.3f\n", (double) stats[3] / stats[0]));
+                    out.write("  farthest vertex: " + stats[4] + "\n");
+                }
+            } else {
+                for (int v = 0; v < distances.length; v++) {
+                    out.write("  To " + v + ": ");
+                    if (reachable.test(v)) {
+                        out.write("distance = " + distances[v]);
+                        if (detail == Detail.FULL) {
+                            out.write(", path = ");
+                            writePath(v, parent);
+                        }
+                    } else {
+                        out.write("unreachable");
+                    }
+                    out.write('\n');
+                }
+            }
+            writeMetrics(metrics);
+        }
+
+        @Override
+        public void writeCriticalPath(DAGLongestPath.CriticalPathResult result) throws IOException {
+            List<Integer> path = result.getPath();
+            out.write("Critical Path:\n");
+            out.write("  Path: ");
+            writeList(path, detail == Detail.SUMMARY ? Math.min(SUMMARY_PREVIEW, path.size()) : path.size());
+            out.write("\n");
+            out.write("  Length: " + result.getLength() + "\n");
+            writeMetrics(result.getMetrics());
+        }
+
+        private void writePath(int dest, IntUnaryOperator parent) throws IOException {
+            int length = tracePath(dest, parent);
+            out.write('[');
+            for (int i = 0; i < length; i++) {
+                if (i > 0) {
+                    out.write(", ");
+                }
+                out.write(Integer.toString(pathVertex(length, i)));
+            }
+            out.write(']');
+        }
+
+        /**
+         * Writes the first {@code limit} elements in List.toString() form,
+         * followed by an ellipsis when truncated.
+         */
+        private void writeList(List<Integer> list, int limit) throws IOException {
+            out.write('[');
+            for (int i = 0; i < limit; i++) {
+                if (i > 0) {
+                    out.write(", ");
+                }
+                out.write(Integer.toString(list.get(i)));
+            }
+            if (limit < list.size()) {
+                out.write(", ... (" + list.size() + " total)");
+            }
+            out.write(']');
+        }
+
+        private void writeMetrics(Metrics metrics) throws IOException {
+            out.write('\n');
+            out.write(metrics.getReport());
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * One JSON object per line (JSON Lines), one line per written result.
+     */
+    private static class JsonResultWriter extends ResultWriter {
+        private final Writer out;
+
+        JsonResultWriter(Writer out, Detail detail) {
+            super(detail);
+            this.out = out;
+        }
+
+        @Override
+        public void writeGraph(Graph graph) throws IOException {
+            out.write("{\"type\": \"graph\", \"directed\": " + graph.isDirected()
+                    + ", \"n\": " + graph.getVertexCount() + ", \"edge_count\": " + graph.getEdgeCount());
+            if (detail == Detail.SUMMARY) {
+                out.write(", \"max_out_degree\": " + maxOutDegree(graph));
+            } else {
+                out.write(", \"edges\": [");
+                boolean first = true;
+                for (int u = 0; u < graph.getVertexCount(); u++) {
+                    for (Graph.Edge e : graph.getAdjacent(u)) {
+                        if (!first) {
+                            out.write(", ");
+                        }
+                        first = false;
+                        out.write("{\"u\": " + u + ", \"v\": " + e.to + ", \"w\": " + e.weight + "}");
+                    }
+                }
+                out.write(']');
+            }
+            out.write("}\n");
+        }
+
+        @Override
+        public void writeSCCs(TarjanSCC.SCCResult result) throws IOException {
+            List<List<Integer>> sccs = result.getSCCs();
+            out.write("{\"type\": \"scc\", \"count\": " + sccs.size()
+                    + ", \"largest\": " + largestComponent(sccs)
+                    + ", \"singletons\": " + singletonCount(sccs));
+            if (detail != Detail.SUMMARY) {
+                out.write(", \"components\": [");
+                for (int i = 0; i < sccs.size(); i++) {
+                    if (i > 0) {
+                        out.write(", ");
+                    }
+                    writeArray(sccs.get(i));
+                }
+                out.write(']');
+            }
+            writeMetrics(result.getMetrics());
+            out.write("}\n");
+        }
+
+        @Override
+        public void writeCondensation(CondensationGraph condensation) throws IOException {
+            out.write("{\"type\": \"condensation\", \"components\": " + condensation.getSCCs().size()
+                    + ", \"edge_count\": " + condensation.getCondensation().getEdgeCount() + "}\n");
+            writeGraph(condensation.getCondensation());
+        }
+
+        @Override
+        public void writeTopologicalOrder(KahnTopologicalSort.TopoSortResult result) throws IOException {
+            out.write("{\"type\": \"topological_order\", \"has_cycle\": " + result.hasCycle()
+                    + ", \"length\": " + result.getOrder().size());
+            if (detail != Detail.SUMMARY) {
+                out.write(", \"order\": ");
+                writeArray(result.getOrder());
+            }
+            writeMetrics(result.getMetrics());
+            out.write("}\n");
+        }
+
+        @Override
+        protected void writePaths(String kind, int source, int[] distances, IntUnaryOperator parent,
+                                  IntPredicate reachable, Metrics metrics) throws IOException {
+            long[] stats = distanceStats(distances, reachable);
+            out.write("{\"type\": \"" + kind.toLowerCase() + "_paths\", \"source\": " + source
+                    + ", \"n\": " + distances.length + ", \"reachable\": " + stats[0]);
+            if (stats[0] > 0) {
+                out.write(", \"min_distance\": " + stats[1] + ", \"max_distance\": " + stats[2]
+                        + ", \"farthest\": " + stats[4]);
+            }
+            if (detail != Detail.SUMMARY) {
+                out.write(", \"targets\": [");
+                boolean first = true;
+                for (int v = 0; v < distances.length; v++) {
+                    if (!reachable.test(v)) {
+                        continue;
+                    }
+                    if (!first) {
+                        out.write(", ");
+                    }
+                    first = false;
+                    out.write("{\"v\": " + v + ", \"distance\": " + distances[v]);
+                    if (detail == Detail.FULL) {
+                        out.write(", \"path\": [");
+                        int length = tracePath(v, parent);
+                        for (int i = 0; i < length; i++) {
+                            if (i > 0) {
+                                out.write(", ");
+                            }
+                            out.write(Integer.toString(pathVertex(length, i)));
+                        }
+                        out.write(']');
+                    }
+                    out.write('}');
+                }
+                out.write(']');
+            }
+            writeMetrics(metrics);
+            out.write("}\n");
+        }
+
+        @Override
+        public void writeCriticalPath(DAGLongestPath.CriticalPathResult result) throws IOException {
+            out.write("{\"type\": \"critical_path\", \"length\": " + result.getLength()
+                    + ", \"vertices\": " + result.getPath().size());
+            if (detail != Detail.SUMMARY) {
+                out.write(", \"path\": ");
+                writeArray(result.getPath());
+            }
+            writeMetrics(result.getMetrics());
+            out.write("}\n");
+        }
+
+        private void writeArray(List<Integer> list) throws IOException {
+            out.write('[');
+            for (int i = 0; i < list.size(); i++) {
+                if (i > 0) {
+                    out.write(", ");
+                }
+                out.write(Integer.toString(list.get(i)));
+            }
+            out.write(']');
+        }
+
+        private void writeMetrics(Metrics metrics) throws IOException {
+            out.write(String.format(Locale.ROOT, ", \"time_ms\": %.3f, \"counters\": {", metrics.getElapsedTimeMillis()));
+            boolean first = true;
+            for (Map.Entry<String, Long> counter : metrics.getCounters().entrySet()) {
+                if (!first) {
+                    out.write(", ");
+                }
+                first = false;
+                out.write("\"" + counter.getKey() + "\": " + counter.getValue());
+            }
+            out.write('}');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * Tagged binary records (big-endian). Each record starts with a tag byte;
+     * summaries write only the aggregate header of each record.
+     */
+    private static class BinaryResultWriter extends ResultWriter {
+        static final int TAG_GRAPH = 1;
+        static final int TAG_SCC = 2;
+        static final int TAG_TOPO = 3;
+        static final int TAG_SHORTEST = 4;
+        static final int TAG_LONGEST = 5;
+        static final int TAG_CRITICAL = 6;
+
+        private final DataOutputStream out;
+
+        BinaryResultWriter(DataOutputStream out, Detail detail) {
+            super(detail);
+            this.out = out;
+        }
+
+        @Override
+        public void writeGraph(Graph graph) throws IOException {
+            out.writeByte(TAG_GRAPH);
+            out.writeInt(graph.getVertexCount());
+            out.writeInt(graph.getEdgeCount());
+            out.writeBoolean(detail != Detail.SUMMARY);
+            if (detail != Detail.SUMMARY) {
+                for (int u = 0; u < graph.getVertexCount(); u++) {
+                    List<Graph.Edge> edges = graph.getAdjacent(u);
+                    out.writeInt(edges.size());
+                    for (Graph.Edge e : edges) {
+                        out.writeInt(e.to);
+                        out.writeInt(e.weight);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void writeSCCs(TarjanSCC.SCCResult result) throws IOException {
+            List<List<Integer>> sccs = result.getSCCs();
+            out.writeByte(TAG_SCC);
+            out.writeInt(sccs.size());
+            out.writeInt(largestComponent(sccs));
+            out.writeBoolean(detail != Detail.SUMMARY);
+            if (detail != Detail.SUMMARY) {
+                for (List<Integer> scc : sccs) {
+                    writeInts(scc);
+                }
+            }
+        }
+
+        @Override
+        public void writeCondensation(CondensationGraph condensation) throws IOException {
+            writeGraph(condensation.getCondensation());
+        }
+
+        @Override
+        public void writeTopologicalOrder(KahnTopologicalSort.TopoSortResult result) throws IOException {
+            out.writeByte(TAG_TOPO);
+            out.writeBoolean(result.hasCycle());
+            out.writeBoolean(detail != Detail.SUMMARY);
+            if (detail == Detail.SUMMARY) {
+                out.writeInt(result.getOrder().size());
+            } else {
+                writeInts(result.getOrder());
+            }
+        }
+
+        @Override
+        protected void writePaths(String kind, int source, int[] distances, IntUnaryOperator parent,
+                                  IntPredicate reachable, Metrics metrics) throws IOException {
+            long[] stats = distanceStats(distances, reachable);
+            out.writeByte(kind.equals("Shortest") ? TAG_SHORTEST : TAG_LONGEST);
+            out.writeInt(source);
+            out.writeInt(distances.length);
+            out.writeLong(stats[0]);
+            out.writeLong(stats[0] > 0 ? stats[1] : 0);
+            out.writeLong(stats[0] > 0 ? stats[2] : 0);
+            out.writeBoolean(detail != Detail.SUMMARY);
+            if (detail != Detail.SUMMARY) {
+                for (int v = 0; v < distances.length; v++) {
+                    out.writeInt(distances[v]);
+                    out.writeInt(parent.applyAsInt(v));
+                }
+            }
+        }
+
+        @Override
+        public void writeCriticalPath(DAGLongestPath.CriticalPathResult result) throws IOException {
+            out.writeByte(TAG_CRITICAL);
+            out.writeInt(result.getLength());
+            out.writeBoolean(detail != Detail.SUMMARY);
+            if (detail == Detail.SUMMARY) {
+                out.writeInt(result.getPath().size());
+            } else {
+                writeInts(result.getPath());
+            }
+        }
+
+        private void writeInts(List<Integer> list) throws IOException {
+            out.writeInt(list.size());
+            for (int v : list) {
+                out.writeInt(v);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.harryfloppa;
+
+import org.harryfloppa.util.GraphGenerator;
+import org.harryfloppa.util.JsonEdgeWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the concurrent batch mode.
+ */
+class BatchProcessorTest {
+
+    private static final Pattern TIMING = Pattern.compile("Execution Time: [0-9.]+ ms");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReportsMatchSequentialOrder() throws Exception {
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            File file = tempDir.resolve("graph" + i + ".json").toFile();
+            new GraphGenerator(i).plantedSCCs(60, GraphGenerator.SizeDistribution.UNIFORM, 1, 5, 0, 2, 0.3,
+                    new JsonEdgeWriter(file.getPath()));
+            files.add(file);
+        }
+
+        ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(sequential, true, StandardCharsets.UTF_8)) {
+            for (File file : files) {
+                Main.processFile(file.getPath(), out, out);
+            }
+        }
+
+        ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(parallel, true, StandardCharsets.UTF_8)) {
+            // Budget fits about two files at a time to exercise backpressure
+            long budget = 2 * files.get(0).length() * BatchProcessor.BYTES_PER_INPUT_BYTE;
+            assertEquals(6, new BatchProcessor(2, 3, budget).process(files, out));
+        }
+
+        assertEquals(normalize(sequential), normalize(parallel));
+
+        // A window of one file serializes dispatch and writing without changing the output
+        ByteArrayOutputStream windowed = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(windowed, true, StandardCharsets.UTF_8)) {
+            assertEquals(6, new BatchProcessor(2, 3, 1 << 20, 1).process(files, out));
+        }
+        assertEquals(normalize(sequential), normalize(windowed));
+    }
+
+    @Test
+    void testDispatcherFailureIsPropagated() {
+        File file = tempDir.resolve("missing.json").toFile();
+        List<File> files = Arrays.asList(file, null);
+        PrintStream out = new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8);
+
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> new BatchProcessor(1, 1, 1 << 20).process(files, out));
+        assertInstanceOf(NullPointerException.class, e.getCause());
+    }
+
+    @Test
+    void testOversizedRequestIsClampedToCapacity() throws InterruptedException {
+        BatchProcessor.MemoryBudget budget = new BatchProcessor.MemoryBudget(100);
+        long reserved = budget.acquire(1_000);
+
+        assertEquals(100, reserved);
+        assertEquals(0, budget.available());
+        budget.release(reserved);
+        assertEquals(100, budget.available());
+    }
+
+    @Test
+    void testMissingFileProducesErrorReport() throws Exception {
+        File missing = tempDir.resolve("missing.json").toFile();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(buffer, true, StandardCharsets.UTF_8)) {
+            new BatchProcessor(1, 1, 1 << 20).process(List.of(missing), out);
+        }
+        String report = buffer.toString(StandardCharsets.UTF_8);
+        assertTrue(report.contains("Error processing file"));
+        assertTrue(report.contains("at org.harryfloppa.util.GraphLoader"));
+    }
+
+    private static String normalize(ByteArrayOutputStream buffer) throws IOException {
+        return TIMING.matcher(buffer.toString(StandardCharsets.UTF_8)).replaceAll("Execution Time: X ms");
+    }
+}
@@ -0,0 +1,123 @@
+package org.harryfloppa.graph;
+
+import org.harryfloppa.graph.dagsp.DAGLongestPath;
+import org.harryfloppa.graph.dagsp.DAGShortestPath;
+import org.harryfloppa.graph.scc.CondensationGraph;
+import org.harryfloppa.graph.scc.TarjanSCC;
+import org.harryfloppa.util.GraphBuilderSink;
+import org.harryfloppa.util.GraphGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.harryfloppa.graph.scc.SCCPartitions.partition;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the delta-compressed graph layout.
+ */
+class CompressedGraphTest {
+
+    private static List<Long> sortedEdges(AdjacencyGraph graph, int u) {
+        List<Long> edges = new ArrayList<>();
+        for (AdjacencyGraph.NeighborIterator it = graph.neighbors(u); it.hasNext(); ) {
+            int v = it.next();
+            edges.add(((long) v << 32) | (it.weight() & 0xFFFFFFFFL));
+        }
+        edges.sort(null);
+        return edges;
+    }
+
+    private static void assertSameAdjacency(Graph expected, CompressedGraph actual) {
+        assertEquals(expected.getVertexCount(), actual.getVertexCount());
+        assertEquals(expected.getEdgeCount(), actual.getEdgeCount());
+        for (int u = 0; u < expected.getVertexCount(); u++) {
+            assertEquals(expected.getOutDegree(u), actual.getOutDegree(u));
+            assertEquals(sortedEdges(expected, u), sortedEdges(actual, u));
+        }
+    }
+
+    @Test
+    void testWeightWidths() {
+        int[][] weightSets = {{7}, {1, 200}, {-5, 60000}, {Integer.MIN_VALUE, Integer.MAX_VALUE}};
+        int[] expectedBytes = {0, 1, 2, 4};
+        for (int s = 0; s < weightSets.length; s++) {
+            Graph graph = new Graph(5, true);
+            graph.addEdge(4, 0, weightSets[s][0]);
+            graph.addEdge(4, 3, weightSets[s][weightSets[s].length - 1]);
+            graph.addEdge(0, 4, weightSets[s][0]);
+            graph.addEdge(0, 4, weightSets[s][weightSets[s].length - 1]);
+            graph.addEdge(2, 2, weightSets[s][0]);
+
+            CompressedGraph compressed = CompressedGraph.of(graph);
+            assertEquals(expectedBytes[s], compressed.getWeightBytes());
+            assertSameAdjacency(graph, compressed);
+        }
+    }
+
+    @Test
+    void testUndirectedGraph() {
+        Graph graph = new Graph(4, false);
+        graph.addEdge(0, 1, 3);
+        graph.addEdge(1, 2, 4);
+        graph.addEdge(3, 0, 5);
+        assertFalse(CompressedGraph.of(graph).isDirected());
+        assertSameAdjacency(graph, CompressedGraph.of(graph));
+    }
+
+    @Test
+    void testBuilderMatchesGraph() throws IOException {
+        GraphBuilderSink sink = new GraphBuilderSink();
+        new GraphGenerator(3).scrambleIds(true).rmat(12, 6, 0.57, 0.19, 0.19, false, sink);
+        Graph graph = sink.getGraph();
+
+        CompressedGraph.Builder builder = new CompressedGraph.Builder(graph.getVertexCount(), true);
+        for (int u = 0; u < graph.getVertexCount(); u++) {
+            for (Graph.Edge edge : graph.getAdjacent(u)) {
+                builder.addEdge(u, edge.to, edge.weight);
+            }
+        }
+        CompressedGraph compressed = builder.build();
+        assertSameAdjacency(graph, compressed);
+        assertThrows(IllegalStateException.class, builder::build);
+
+        CompressedGraph.Cursor cursor = compressed.cursor();
+        for (int u = graph.getVertexCount() - 1; u >= 0; u--) {
+            int degree = 0;
+            for (cursor.moveTo(u); cursor.hasNext(); cursor.next()) {
+                degree++;
+            }
+            assertEquals(graph.getOutDegree(u), degree);
+        }
+    }
+
+    @Test
+    void testAlgorithmsOnCompressedGraph() throws IOException {
+        GraphBuilderSink sink = new GraphBuilderSink();
+        new GraphGenerator(11).scrambleIds(true).plantedSCCs(2000, GraphGenerator.SizeDistribution.POWER_LAW,
+                1, 40, 2.0, 4, 0.3, sink);
+        Graph graph = sink.getGraph();
+        CompressedGraph compressed = CompressedGraph.of(graph);
+        assertTrue(compressed.sizeInBytes() * 3 < 30L * graph.getEdgeCount());
+
+        TarjanSCC.SCCResult expectedSCCs = new TarjanSCC(graph).findSCCs();
+        TarjanSCC.SCCResult actualSCCs = new TarjanSCC(compressed).findSCCs();
+        assertEquals(partition(expectedSCCs.getSCCs()), partition(actualSCCs.getSCCs()));
+
+        Graph expectedDag = new CondensationGraph(graph, expectedSCCs).getCondensation();
+        Graph actualDag = new CondensationGraph(compressed, expectedSCCs).getCondensation();
+        assertEquals(expectedDag.getEdgeCount(), actualDag.getEdgeCount());
+
+        CompressedGraph compressedDag = CompressedGraph.of(expectedDag);
+        for (int source = 0; source < expectedDag.getVertexCount(); source += 97) {
+            assertArrayEquals(new DAGShortestPath(expectedDag).computeShortestPaths(source).getDistances(),
+                    new DAGShortestPath(compressedDag).computeShortestPaths(source).getDistances());
+            assertArrayEquals(new DAGLongestPath(expectedDag).computeLongestPaths(source).getDistances(),
+                    new DAGLongestPath(compressedDag).computeLongestPaths(source).getDistances());
+        }
+        assertEquals(new DAGLongestPath(expectedDag).computeCriticalPath().getLength(),
+                new DAGLongestPath(compressedDag).computeCriticalPath().getLength());
+    }
+}
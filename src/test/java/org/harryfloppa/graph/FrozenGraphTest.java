@@ -0,0 +1,132 @@
+package org.harryfloppa.graph;
+
+import org.harryfloppa.graph.dagsp.DAGLongestPath;
+import org.harryfloppa.graph.dagsp.DAGShortestPath;
+import org.harryfloppa.graph.scc.TarjanSCC;
+import org.harryfloppa.graph.topo.KahnTopologicalSort;
+import org.harryfloppa.util.GraphBuilderSink;
+import org.harryfloppa.util.GraphGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for frozen graphs and concurrent use of shared algorithm instances.
+ */
+class FrozenGraphTest {
+
+    @Test
+    void testKeepsAdjacencyOrder() {
+        Graph graph = new Graph(4, true);
+        graph.addEdge(0, 3, 5);
+        graph.addEdge(0, 1, -2);
+        graph.addEdge(2, 0, 7);
+        FrozenGraph frozen = graph.freeze();
+
+        assertEquals(4, frozen.getVertexCount());
+        assertEquals(3, frozen.getEdgeCount());
+        assertTrue(frozen.isDirected());
+        assertEquals(2, frozen.getOutDegree(0));
+        assertEquals(0, frozen.getOutDegree(1));
+
+        AdjacencyGraph.NeighborIterator it = frozen.neighbors(0);
+        assertEquals(3, it.next());
+        assertEquals(5, it.weight());
+        assertEquals(1, it.next());
+        assertEquals(-2, it.weight());
+        assertFalse(it.hasNext());
+
+        // Later changes to the source are not seen
+        graph.addEdge(1, 2, 1);
+        assertEquals(0, frozen.getOutDegree(1));
+        assertSame(frozen, FrozenGraph.of(frozen));
+    }
+
+    @Test
+    void testUndirectedEdgeCount() {
+        Graph graph = new Graph(3, false);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        FrozenGraph frozen = graph.freeze();
+        assertFalse(frozen.isDirected());
+        assertEquals(2, frozen.getEdgeCount());
+        assertEquals(2, frozen.getOutDegree(1));
+    }
+
+    @Test
+    void testSharedInstancesAreReentrant() throws IOException, InterruptedException, ExecutionException {
+        GraphBuilderSink dagSink = new GraphBuilderSink();
+        new GraphGenerator(9).scrambleIds(true).weights(1, 20).layeredDag(50, 200, 3, 4, dagSink);
+        Graph dagGraph = dagSink.getGraph();
+        FrozenGraph dag = dagGraph.freeze();
+        GraphBuilderSink cyclicSink = new GraphBuilderSink();
+        new GraphGenerator(9).scrambleIds(true).plantedSCCs(10000,
+                GraphGenerator.SizeDistribution.UNIFORM, 1, 50, 0, 3, 0.5, cyclicSink);
+        FrozenGraph cyclic = cyclicSink.getGraph().freeze();
+
+        // Expected results from the mutable graphs, one fresh instance each
+        List<List<Integer>> expectedSCCs = new TarjanSCC(cyclicSink.getGraph()).findSCCs().getSCCs();
+        List<Integer> expectedOrder = new KahnTopologicalSort(dagGraph).sort().getOrder();
+        DAGLongestPath.CriticalPathResult expectedCritical = new DAGLongestPath(dagGraph).computeCriticalPath();
+
+        TarjanSCC tarjan = new TarjanSCC(cyclic);
+        KahnTopologicalSort kahn = new KahnTopologicalSort(dag);
+        DAGShortestPath shortest = new DAGShortestPath(dag);
+        DAGLongestPath longest = new DAGLongestPath(dag);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int task = 0; task < 64; task++) {
+                int source = task * 97 % dag.getVertexCount();
+                futures.add(pool.submit(() -> {
+                    TarjanSCC.SCCResult sccs = tarjan.findSCCs();
+                    assertEquals(expectedSCCs, sccs.getSCCs());
+                    assertEquals(cyclic.getVertexCount(), sccs.getMetrics().getCounter("dfs_visits"));
+
+                    assertEquals(expectedOrder, kahn.sort().getOrder());
+
+                    DAGShortestPath.ShortestPathResult paths = shortest.computeShortestPaths(source);
+                    DAGShortestPath.ShortestPathResult expected =
+                            new DAGShortestPath(dagGraph).computeShortestPaths(source);
+                    for (int v = 0; v < dag.getVertexCount(); v++) {
+                        assertEquals(expected.getDistance(v), paths.getDistance(v));
+                        assertEquals(expected.getParent(v), paths.getParent(v));
+                    }
+
+                    DAGLongestPath.CriticalPathResult critical = longest.computeCriticalPath();
+                    assertEquals(expectedCritical.getLength(), critical.getLength());
+                    assertEquals(expectedCritical.getPath(), critical.getPath());
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testResultsKeepTheirOwnMetrics() {
+        Graph graph = new Graph(3, true);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        DAGShortestPath shortest = new DAGShortestPath(graph.freeze());
+
+        DAGShortestPath.ShortestPathResult first = shortest.computeShortestPaths(0);
+        DAGShortestPath.ShortestPathResult second = shortest.computeShortestPaths(2);
+        assertNotSame(first.getMetrics(), second.getMetrics());
+        assertEquals(2, first.getMetrics().getCounter("relaxations"));
+        assertEquals(0, second.getMetrics().getCounter("relaxations"));
+    }
+}
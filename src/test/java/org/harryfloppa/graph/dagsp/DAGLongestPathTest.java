@@ -4,6 +4,7 @@ import org.harryfloppa.graph.Graph;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -106,4 +107,57 @@ class DAGLongestPathTest {
         DAGLongestPath lp = new DAGLongestPath(graph);
         assertThrows(IllegalArgumentException.class, () -> lp.computeCriticalPath());
     }
+
+    @Test
+    void testNodeWeightedCriticalPath() {
+        // Durations 3, 1, 4, 2; edges carry no cost: 0 -> 1 -> 3, 0 -> 2 -> 3
+        Graph graph = new Graph(4, true);
+        graph.addEdge(0, 1, 0);
+        graph.addEdge(0, 2, 0);
+        graph.addEdge(1, 3, 0);
+        graph.addEdge(2, 3, 0);
+        int[] durations = {3, 1, 4, 2};
+
+        DAGLongestPath lp = new DAGLongestPath(graph, durations);
+        DAGLongestPath.CriticalPathResult critical = lp.computeCriticalPath();
+        assertEquals(9, critical.getLength());
+        assertEquals(List.of(0, 2, 3), critical.getPath());
+
+        DAGLongestPath.LongestPathResult fromOne = lp.computeLongestPaths(1);
+        assertEquals(1, fromOne.getDistance(1));
+        assertEquals(3, fromOne.getDistance(3));
+        assertFalse(fromOne.isReachable(0));
+    }
+
+    @Test
+    void testNodeWeightsMatchSplitVertexGraph() {
+        // Vertex v becomes v -> v + n carrying its weight
+        Random random = new Random(13);
+        int n = 60;
+        Graph graph = new Graph(n, true);
+        Graph split = new Graph(2 * n, true);
+        int[] weights = new int[n];
+        for (int v = 0; v < n; v++) {
+            weights[v] = random.nextInt(10);
+            split.addEdge(v, v + n, weights[v]);
+        }
+        for (int u = 0; u < n; u++) {
+            for (int v = u + 1; v < n; v++) {
+                if (random.nextDouble() < 0.1) {
+                    int w = random.nextInt(5);
+                    graph.addEdge(u, v, w);
+                    split.addEdge(u + n, v, w);
+                }
+            }
+        }
+
+        DAGLongestPath.LongestPathResult direct = new DAGLongestPath(graph, weights).computeLongestPaths(0);
+        DAGLongestPath.LongestPathResult expanded = new DAGLongestPath(split).computeLongestPaths(0);
+        for (int v = 0; v < n; v++) {
+            assertEquals(expanded.getDistance(v + n), direct.getDistance(v));
+        }
+        assertEquals(new DAGLongestPath(split).computeCriticalPath().getLength(),
+                new DAGLongestPath(graph, weights).computeCriticalPath().getLength());
+        assertThrows(IllegalArgumentException.class, () -> new DAGLongestPath(graph, new int[n - 1]));
+    }
 }
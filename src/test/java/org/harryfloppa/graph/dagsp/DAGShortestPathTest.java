@@ -101,4 +101,25 @@ class DAGShortestPathTest {
         assertEquals(6, result.getDistance(4));
         assertEquals(10, result.getDistance(5));
     }
+
+    @Test
+    void testNodeWeightedShortestPaths() {
+        // Durations 2, 5, 1, 3: 0 -> 1 -> 3 costs 2 + 1 + 5 + 3, 0 -> 2 -> 3 costs 2 + 4 + 1 + 3
+        Graph graph = new Graph(4, true);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(0, 2, 4);
+        graph.addEdge(1, 3, 0);
+        graph.addEdge(2, 3, 0);
+        int[] durations = {2, 5, 1, 3};
+
+        DAGShortestPath sp = new DAGShortestPath(graph, List.of(0, 1, 2, 3), durations);
+        DAGShortestPath.ShortestPathResult result = sp.computeShortestPaths(0);
+        assertEquals(2, result.getDistance(0));
+        assertEquals(8, result.getDistance(1));
+        assertEquals(10, result.getDistance(3));
+        assertEquals(List.of(0, 2, 3), result.getPath(3));
+
+        durations[2] = 100;   // the engine keeps its own copy
+        assertEquals(10, sp.computeShortestPaths(0).getDistance(3));
+    }
 }
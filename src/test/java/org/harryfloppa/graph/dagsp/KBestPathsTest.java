@@ -0,0 +1,190 @@
+package org.harryfloppa.graph.dagsp;
+
+import org.harryfloppa.graph.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for K shortest/longest paths and critical chains.
+ */
+class KBestPathsTest {
+
+    @Test
+    void testDiamondPaths() {
+        // 0 -> 1 (5), 0 -> 2 (3), 1 -> 3 (2), 2 -> 3 (6), 0 -> 3 (10)
+        Graph graph = new Graph(4, true);
+        graph.addEdge(0, 1, 5);
+        graph.addEdge(0, 2, 3);
+        graph.addEdge(1, 3, 2);
+        graph.addEdge(2, 3, 6);
+        graph.addEdge(0, 3, 10);
+
+        KBestPaths.PathsResult shortest = new KBestPaths(graph, 2).computeShortestPaths(0);
+        assertEquals(2, shortest.getCount(3));
+        assertEquals(7, shortest.getDistance(3, 0));
+        assertEquals(List.of(0, 1, 3), shortest.getPath(3, 0));
+        assertEquals(9, shortest.getDistance(3, 1));
+        assertEquals(List.of(0, 2, 3), shortest.getPath(3, 1));
+        assertEquals(1, shortest.getCount(0));
+        assertEquals(List.of(0), shortest.getPath(0, 0));
+
+        KBestPaths.PathsResult longest = new KBestPaths(graph, 5).computeLongestPaths(0);
+        assertEquals(3, longest.getCount(3));
+        assertEquals(10, longest.getDistance(3, 0));
+        assertEquals(9, longest.getDistance(3, 1));
+        assertEquals(7, longest.getDistance(3, 2));
+        assertTrue(longest.isLongest());
+
+        assertThrows(IndexOutOfBoundsException.class, () -> longest.getPath(3, 3));
+    }
+
+    @Test
+    void testUnreachableVertices() {
+        Graph graph = new Graph(3, true);
+        graph.addEdge(1, 2, 4);
+        KBestPaths.PathsResult result = new KBestPaths(graph, 3).computeShortestPaths(0);
+        assertEquals(1, result.getCount(0));
+        assertEquals(0, result.getCount(1));
+        assertEquals(0, result.getCount(2));
+    }
+
+    @Test
+    void testMatchesBruteForceEnumeration() {
+        Random random = new Random(11);
+        for (int round = 0; round < 20; round++) {
+            int n = 8 + random.nextInt(5);
+            Graph graph = randomDAG(n, 0.35, random);
+            int k = 1 + random.nextInt(6);
+            KBestPaths engine = new KBestPaths(graph, k);
+            KBestPaths.PathsResult shortest = engine.computeShortestPaths(0);
+            KBestPaths.PathsResult longest = engine.computeLongestPaths(0);
+
+            for (int v = 0; v < n; v++) {
+                List<Long> all = new ArrayList<>();
+                enumerate(graph, 0, v, 0, all);
+                Collections.sort(all);
+                int expected = Math.min(k, all.size());
+                assertEquals(expected, shortest.getCount(v));
+                assertEquals(expected, longest.getCount(v));
+                for (int rank = 0; rank < expected; rank++) {
+                    assertEquals(all.get(rank), shortest.getDistance(v, rank));
+                    assertEquals(all.get(all.size() - 1 - rank), longest.getDistance(v, rank));
+                    assertEquals(shortest.getDistance(v, rank), pathLength(graph, shortest.getPath(v, rank)));
+                    assertEquals(longest.getDistance(v, rank), pathLength(graph, longest.getPath(v, rank)));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFirstPathMatchesSinglePathAlgorithms() {
+        Graph graph = randomDAG(200, 0.05, new Random(5));
+        KBestPaths engine = new KBestPaths(graph, 4);
+        KBestPaths.PathsResult shortest = engine.computeShortestPaths(0);
+        DAGShortestPath.ShortestPathResult expected = new DAGShortestPath(graph).computeShortestPaths(0);
+        for (int v = 0; v < graph.getVertexCount(); v++) {
+            assertEquals(expected.isReachable(v), shortest.getCount(v) > 0);
+            if (expected.isReachable(v)) {
+                assertEquals(expected.getDistance(v), shortest.getDistance(v, 0));
+            }
+        }
+
+        KBestPaths.CriticalChainsResult chains = engine.computeCriticalChains();
+        assertEquals(4, chains.size());
+        assertEquals(new DAGLongestPath(graph).computeCriticalPath().getLength(), chains.getLength(0));
+        for (int i = 0; i + 1 < chains.size(); i++) {
+            assertTrue(chains.getLength(i) >= chains.getLength(i + 1));
+        }
+    }
+
+    @Test
+    void testCriticalChainsRunSourceToSink() {
+        // 0 -> 2 (4), 1 -> 2 (1), 2 -> 3 (2), 2 -> 4 (7), isolated 5
+        Graph graph = new Graph(6, true);
+        graph.addEdge(0, 2, 4);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 3, 2);
+        graph.addEdge(2, 4, 7);
+
+        KBestPaths.CriticalChainsResult chains = new KBestPaths(graph, 10).computeCriticalChains();
+        assertEquals(5, chains.size());
+        assertEquals(11, chains.getLength(0));
+        assertEquals(List.of(0, 2, 4), chains.getPath(0));
+        assertEquals(8, chains.getLength(1));
+        assertEquals(List.of(1, 2, 4), chains.getPath(1));
+        assertEquals(6, chains.getLength(2));
+        assertEquals(3, chains.getLength(3));
+        assertEquals(0, chains.getLength(4));
+        assertEquals(List.of(5), chains.getPath(4));
+    }
+
+    @Test
+    void testNegativeWeightsKeepChainsSourceToSink() {
+        // 0 -> 1 (-3), 1 -> 2 (5), 2 -> 3 (-4): the best inner chain is 1 -> 2
+        Graph graph = new Graph(4, true);
+        graph.addEdge(0, 1, -3);
+        graph.addEdge(1, 2, 5);
+        graph.addEdge(2, 3, -4);
+
+        KBestPaths.CriticalChainsResult chains = new KBestPaths(graph, 3).computeCriticalChains();
+        assertEquals(1, chains.size());
+        assertEquals(-2, chains.getLength(0));
+        assertEquals(List.of(0, 1, 2, 3), chains.getPath(0));
+
+        DAGLongestPath.CriticalPathResult critical = new DAGLongestPath(graph).computeCriticalPath();
+        assertEquals(5, critical.getLength());
+        assertEquals(List.of(1, 2), critical.getPath());
+    }
+
+    @Test
+    void testRejectsInvalidInput() {
+        Graph cyclic = new Graph(2, true);
+        cyclic.addEdge(0, 1, 1);
+        cyclic.addEdge(1, 0, 1);
+        assertThrows(IllegalArgumentException.class, () -> new KBestPaths(cyclic, 2).computeShortestPaths(0));
+        assertThrows(IllegalArgumentException.class, () -> new KBestPaths(new Graph(2, true), 0));
+        assertThrows(IllegalArgumentException.class, () -> new KBestPaths(new Graph(2, false), 1));
+        assertThrows(IllegalArgumentException.class, () -> new KBestPaths(new Graph(2, true), 1).computeLongestPaths(2));
+    }
+
+    private static Graph randomDAG(int n, double density, Random random) {
+        Graph graph = new Graph(n, true);
+        for (int u = 0; u < n; u++) {
+            for (int v = u + 1; v < n; v++) {
+                if (random.nextDouble() < density) {
+                    graph.addEdge(u, v, random.nextInt(10));
+                }
+            }
+        }
+        return graph;
+    }
+
+    private static void enumerate(Graph graph, int u, int target, long length, List<Long> out) {
+        if (u == target) {
+            out.add(length);
+        }
+        for (Graph.Edge e : graph.getAdjacent(u)) {
+            enumerate(graph, e.to, target, length + e.weight, out);
+        }
+    }
+
+    private static long pathLength(Graph graph, List<Integer> path) {
+        long length = 0;
+        for (int i = 0; i + 1 < path.size(); i++) {
+            int best = Integer.MIN_VALUE;
+            for (Graph.Edge e : graph.getAdjacent(path.get(i))) {
+                if (e.to == path.get(i + 1)) {
+                    best = Math.max(best, e.weight);
+                }
+            }
+            length += best;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,137 @@
+package org.harryfloppa.graph.dagsp;
+
+import org.harryfloppa.graph.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for path counting and path weight distributions.
+ */
+class PathCounterTest {
+
+    @Test
+    void testDiamondCounts() {
+        // 0 -> 1, 0 -> 2, 1 -> 3, 2 -> 3, 0 -> 3; 4 unreachable
+        Graph graph = new Graph(5, true);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(0, 2, 2);
+        graph.addEdge(1, 3, 3);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(0, 3, 9);
+        graph.addEdge(4, 3, 1);
+
+        PathCounter.PathCountResult result = new PathCounter(graph).countPaths(0);
+        assertEquals(1, result.getCount(0));
+        assertEquals(1, result.getCount(1));
+        assertEquals(3, result.getCount(3));
+        assertEquals(0, result.getCount(4));
+        assertFalse(result.isReachable(4));
+        assertTrue(result.isExact(3));
+        assertEquals(BigInteger.valueOf(3), result.getExactCount(3));
+    }
+
+    @Test
+    void testOverflowIsDetectedAndCountedExactly() {
+        // 70 stacked diamonds: 2^k paths to the k-th joint
+        int stages = 70;
+        Graph graph = new Graph(3 * stages + 1, true);
+        for (int s = 0; s < stages; s++) {
+            int joint = 3 * s;
+            graph.addEdge(joint, joint + 1, 1);
+            graph.addEdge(joint, joint + 2, 1);
+            graph.addEdge(joint + 1, joint + 3, 1);
+            graph.addEdge(joint + 2, joint + 3, 1);
+        }
+
+        PathCounter.PathCountResult result = new PathCounter(graph).countPaths(0);
+        assertTrue(result.isExact(3 * 63));
+        assertEquals(Long.MIN_VALUE, result.getCount(3 * 63));   // 2^63 as an unsigned long
+        assertEquals(BigInteger.ONE.shiftLeft(63), result.getExactCount(3 * 63));
+        assertFalse(result.isExact(3 * 64));
+        assertEquals(0, result.getCount(3 * 64));
+        assertEquals(BigInteger.ONE.shiftLeft(stages), result.getExactCount(3 * stages));
+        assertEquals(BigInteger.ONE.shiftLeft(stages - 1), result.getExactCount(3 * stages - 1));
+        assertTrue(result.getMetrics().getCounter("overflowed_vertices") > 0);
+    }
+
+    @Test
+    void testWideLevelsMatchSequentialCount() {
+        // Levels of 600 vertices, so every level is split into tasks
+        Random random = new Random(3);
+        int width = 600;
+        int depth = 6;
+        Graph graph = new Graph(1 + width * depth, true);
+        for (int v = 1; v <= width; v++) {
+            graph.addEdge(0, v, 1);
+        }
+        for (int level = 1; level < depth; level++) {
+            for (int i = 0; i < width; i++) {
+                int v = 1 + level * width + i;
+                for (int j = 0; j < 3; j++) {
+                    graph.addEdge(1 + (level - 1) * width + random.nextInt(width), v, 1);
+                }
+            }
+        }
+
+        PathCounter.PathCountResult result = new PathCounter(graph).countPaths(0);
+        BigInteger[] expected = new BigInteger[graph.getVertexCount()];
+        expected[0] = BigInteger.ONE;
+        for (int u = 0; u < graph.getVertexCount(); u++) {
+            if (expected[u] == null) {
+                expected[u] = BigInteger.ZERO;
+            }
+            for (Graph.Edge e : graph.getAdjacent(u)) {
+                expected[e.to] = (expected[e.to] == null ? BigInteger.ZERO : expected[e.to]).add(expected[u]);
+            }
+        }
+        for (int v = 0; v < graph.getVertexCount(); v++) {
+            assertEquals(expected[v], result.getExactCount(v));
+        }
+        assertEquals(depth + 1, result.getMetrics().getCounter("levels"));
+    }
+
+    @Test
+    void testWeightDistribution() {
+        // Paths to 3: 0-1-3 (4), 0-2-3 (3), 0-3 (9)
+        Graph graph = new Graph(4, true);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(0, 2, 2);
+        graph.addEdge(1, 3, 3);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(0, 3, 9);
+
+        PathCounter.WeightDistribution distribution = new PathCounter(graph).computeWeightDistribution(0, 5);
+        assertEquals(1, distribution.getPathCount(3, 3));
+        assertEquals(1, distribution.getPathCount(3, 4));
+        assertEquals(0, distribution.getPathCount(3, 5));
+        assertEquals(1, distribution.getPathCountAbove(3));
+        assertEquals(1, distribution.getPathCount(0, 0));
+
+        // Buckets [0,2), [2,4), [4,6), then above 5
+        assertArrayEquals(new long[] {0, 1, 1, 1}, distribution.getHistogram(3, 2));
+        assertArrayEquals(new long[] {2, 1}, distribution.getHistogram(3, 10));
+    }
+
+    @Test
+    void testRejectsInvalidInput() {
+        Graph negative = new Graph(2, true);
+        negative.addEdge(0, 1, -1);
+        assertThrows(IllegalArgumentException.class,
+                () -> new PathCounter(negative).computeWeightDistribution(0, 3));
+        assertThrows(IllegalArgumentException.class, () -> new PathCounter(negative).countPaths(2));
+
+        Graph single = new Graph(2, true);
+        single.addEdge(0, 1, 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> new PathCounter(single).computeWeightDistribution(0, Integer.MAX_VALUE));
+
+        Graph cyclic = new Graph(2, true);
+        cyclic.addEdge(0, 1, 1);
+        cyclic.addEdge(1, 0, 1);
+        assertThrows(IllegalArgumentException.class, () -> new PathCounter(cyclic).countPaths(0));
+    }
+}
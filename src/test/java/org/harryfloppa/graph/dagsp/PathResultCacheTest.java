@@ -0,0 +1,138 @@
+package org.harryfloppa.graph.dagsp;
+
+import org.harryfloppa.common.Metrics;
+import org.harryfloppa.graph.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the path result cache.
+ */
+class PathResultCacheTest {
+
+    private static Graph chain(int n) {
+        Graph graph = new Graph(n, true);
+        for (int v = 0; v + 1 < n; v++) {
+            graph.addEdge(v, v + 1, v + 1);
+        }
+        return graph;
+    }
+
+    private static long entryBytes(int n) {
+        return 8L * n + PathResultCache.ENTRY_OVERHEAD;
+    }
+
+    @Test
+    void testHitsReturnSameResult() {
+        Graph graph = chain(5);
+        PathResultCache cache = new PathResultCache(graph, 1 << 20);
+
+        DAGShortestPath.ShortestPathResult first = cache.getShortestPaths(0);
+        assertEquals(10, first.getDistance(4));
+        assertSame(first, cache.getShortestPaths(0));
+        assertEquals(10, cache.getLongestPaths(0).getDistance(4));
+
+        Metrics metrics = cache.getMetrics();
+        assertEquals(1, metrics.getCounter("cache_hits"));
+        assertEquals(2, metrics.getCounter("cache_misses"));
+        assertEquals(2, cache.size());
+        assertEquals(2 * entryBytes(5), cache.getBytes());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        Graph graph = chain(10);
+        PathResultCache cache = new PathResultCache(graph, 2 * entryBytes(10));
+
+        DAGShortestPath.ShortestPathResult zero = cache.getShortestPaths(0);
+        cache.getShortestPaths(1);
+        assertSame(zero, cache.getShortestPaths(0));
+        cache.getShortestPaths(2);   // evicts 1, the least recently used
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getMetrics().getCounter("evictions"));
+        assertSame(zero, cache.getShortestPaths(0));
+        cache.getShortestPaths(1);
+        assertEquals(4, cache.getMetrics().getCounter("cache_misses"));
+        assertTrue(cache.getBytes() <= cache.getMaxBytes());
+    }
+
+    @Test
+    void testBudgetSmallerThanOneEntry() {
+        PathResultCache cache = new PathResultCache(chain(10), entryBytes(10) - 1);
+        assertNotSame(cache.getShortestPaths(0), cache.getShortestPaths(0));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testInvalidatesWhenGraphChanges() {
+        Graph graph = chain(4);
+        PathResultCache cache = new PathResultCache(graph, 1 << 20);
+        assertEquals(6, cache.getShortestPaths(0).getDistance(3));
+
+        graph.addEdge(0, 3, 1);
+        assertEquals(1, cache.getShortestPaths(0).getDistance(3));
+        assertEquals(1, cache.getMetrics().getCounter("invalidations"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testRejectsInvalidSource() {
+        PathResultCache cache = new PathResultCache(chain(3), 1 << 20);
+        assertThrows(IllegalArgumentException.class, () -> cache.getShortestPaths(3));
+        assertThrows(IllegalArgumentException.class, () -> new PathResultCache(chain(3), -1));
+    }
+
+    @Test
+    void testConcurrentMissesLoadOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PathResultCache cache = new PathResultCache(chain(6), 1 << 20) {
+            @Override
+            Object load(Kind kind, int source) {
+                loads.incrementAndGet();
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return super.load(kind, source);
+            }
+        };
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<DAGShortestPath.ShortestPathResult>> results = new ArrayList<>();
+            results.add(pool.submit(() -> cache.getShortestPaths(2)));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                results.add(pool.submit(() -> cache.getShortestPaths(2)));
+            }
+            while (cache.getMetrics().getCounter("coalesced_loads") < 3) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            DAGShortestPath.ShortestPathResult first = results.get(0).get();
+            for (Future<DAGShortestPath.ShortestPathResult> result : results) {
+                assertSame(first, result.get());
+            }
+            assertEquals(1, loads.get());
+            assertEquals(4, cache.getMetrics().getCounter("cache_misses"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package org.harryfloppa.graph.dagsp;
+
+import org.harryfloppa.graph.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the Monte Carlo PERT simulation.
+ */
+class PertSimulationTest {
+
+    private static Graph diamond() {
+        // 0 -> 1 (5), 0 -> 2 (3), 1 -> 3 (2), 2 -> 3 (6); critical path 0-2-3 of length 9
+        Graph graph = new Graph(4, true);
+        graph.addEdge(0, 1, 5);
+        graph.addEdge(0, 2, 3);
+        graph.addEdge(1, 3, 2);
+        graph.addEdge(2, 3, 6);
+        return graph;
+    }
+
+    @Test
+    void testPointEstimatesReproduceCriticalPath() {
+        Graph graph = diamond();
+        PertSimulation.PertResult result = PertSimulation.withSpread(graph, 1, 1).simulate(100, 1);
+
+        assertEquals(100, result.getScenarioCount());
+        assertEquals(9, result.getMin());
+        assertEquals(9, result.getMax());
+        assertEquals(9, result.getQuantile(0.9));
+        assertEquals(1.0, result.getCriticalityIndex(0));
+        assertEquals(0.0, result.getCriticalityIndex(1));
+        assertEquals(1.0, result.getCriticalityIndex(2));
+        assertEquals(1.0, result.getCriticalityIndex(3));
+    }
+
+    @Test
+    void testTriangularSamples() {
+        Graph graph = new Graph(2, true);
+        graph.addEdge(0, 1, 5);
+        PertSimulation.PertResult result = new PertSimulation(graph, new int[] {0}, new int[] {10})
+                .simulate(20_000, 7);
+
+        assertEquals(5.0, result.getMean(), 0.1);
+        assertEquals(5.0, result.getQuantile(0.5), 0.15);
+        // P(X <= x) = x^2 / 50 below the mode, so P10 = sqrt(5)
+        assertEquals(Math.sqrt(5), result.getQuantile(0.1), 0.1);
+        assertTrue(result.getMin() >= 0);
+        assertTrue(result.getMax() <= 10);
+    }
+
+    @Test
+    void testCriticalityIndicesSplitBetweenBranches() {
+        Graph graph = diamond();
+        // Both branches total 9 on average; wide spreads make each critical about half the time
+        PertSimulation.PertResult result = new PertSimulation(graph,
+                new int[] {1, 1, 0, 2}, new int[] {9, 5, 4, 10}).simulate(5_000, 3);
+
+        double upper = result.getCriticalityIndex(1);
+        double lower = result.getCriticalityIndex(2);
+        assertEquals(1.0, upper + lower, 1e-9);
+        assertTrue(upper > 0.2 && lower > 0.2, upper + " / " + lower);
+        assertEquals(1.0, result.getCriticalityIndex(3));
+        assertTrue(result.getQuantile(0.9) > result.getQuantile(0.5));
+    }
+
+    @Test
+    void testSameSeedSameResultOnAnyPool() {
+        Random random = new Random(9);
+        Graph graph = new Graph(300, true);
+        for (int u = 0; u < 300; u++) {
+            for (int j = 0; j < 3; j++) {
+                int v = u + 1 + random.nextInt(20);
+                if (v < 300) {
+                    graph.addEdge(u, v, 1 + random.nextInt(9));
+                }
+            }
+        }
+        int m = graph.getEdgeCount();
+        int[] low = new int[m];
+        int[] high = new int[m];
+        int e = 0;
+        for (int u = 0; u < 300; u++) {
+            for (Graph.Edge edge : graph.getAdjacent(u)) {
+                low[e] = edge.weight / 2;
+                high[e++] = edge.weight * 2;
+            }
+        }
+
+        PertSimulation.PertResult common = new PertSimulation(graph, low, high).simulate(1000, 42);
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            PertSimulation.PertResult sequential = new PertSimulation(graph, null, low, high, single)
+                    .simulate(1000, 42);
+            for (double q : new double[] {0, 0.5, 0.9, 1}) {
+                assertEquals(common.getQuantile(q), sequential.getQuantile(q));
+            }
+            for (int v = 0; v < 300; v++) {
+                assertEquals(common.getCriticalityIndex(v), sequential.getCriticalityIndex(v));
+            }
+        } finally {
+            single.shutdown();
+        }
+
+        double pointLength = new DAGLongestPath(graph).computeCriticalPath().getLength();
+        assertTrue(common.getQuantile(0.9) > pointLength);
+    }
+
+    @Test
+    void testBatchesDoNotReplayEachOther() {
+        SplittableRandom[] streams = PertSimulation.batchStreams(42, 4);
+        Set<Double> first = new HashSet<>();
+        for (int i = 0; i < 10 * PertSimulation.MAX_LANES * 100; i++) {
+            first.add(streams[0].nextDouble());
+        }
+        for (int b = 1; b < streams.length; b++) {
+            for (int i = 0; i < PertSimulation.MAX_LANES; i++) {
+                assertFalse(first.contains(streams[b].nextDouble()), "batch " + b + " replays batch 0");
+            }
+        }
+
+        // Splitting is deterministic for a given seed
+        assertEquals(PertSimulation.batchStreams(42, 4)[3].nextLong(),
+                PertSimulation.batchStreams(42, 4)[3].nextLong());
+    }
+
+    @Test
+    void testRejectsInvalidInput() {
+        Graph graph = diamond();
+        assertThrows(IllegalArgumentException.class,
+                () -> new PertSimulation(graph, new int[] {5, 3, 2}, new int[] {5, 3, 2}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PertSimulation(graph, new int[] {6, 3, 2, 6}, new int[] {7, 3, 2, 6}));
+        assertThrows(IllegalArgumentException.class, () -> PertSimulation.withSpread(graph, 1, 1).simulate(0, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PertSimulation(graph, List.of(0, 1, 2), new int[4], new int[4], ForkJoinPool.commonPool()));
+    }
+}
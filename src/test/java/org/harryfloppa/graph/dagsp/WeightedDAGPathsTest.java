@@ -0,0 +1,149 @@
+package org.harryfloppa.graph.dagsp;
+
+import org.harryfloppa.graph.DoubleWeightedGraph;
+import org.harryfloppa.graph.Graph;
+import org.harryfloppa.graph.LongWeightedGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the long and double weight engines and int saturation.
+ */
+class WeightedDAGPathsTest {
+
+    private static Graph randomDag(long seed, int n, int m) {
+        Random random = new Random(seed);
+        Graph graph = new Graph(n, true);
+        for (int e = 0; e < m; e++) {
+            int u = random.nextInt(n - 1);
+            graph.addEdge(u, u + 1 + random.nextInt(n - u - 1), random.nextInt(41) - 10);
+        }
+        return graph;
+    }
+
+    @Test
+    void testLongEngineMatchesIntEngine() {
+        for (long seed = 1; seed <= 10; seed++) {
+            Graph graph = randomDag(seed, 60, 150);
+            int[] nodeWeights = new Random(seed).ints(60, 0, 5).toArray();
+            long[] wideWeights = new long[60];
+            for (int v = 0; v < 60; v++) {
+                wideWeights[v] = nodeWeights[v];
+            }
+
+            LongDAGPaths paths = new LongDAGPaths(LongWeightedGraph.of(graph), wideWeights);
+            DAGShortestPath.ShortestPathResult sp = new DAGShortestPath(graph, nodeWeights).computeShortestPaths(0);
+            DAGLongestPath.LongestPathResult lp = new DAGLongestPath(graph, nodeWeights).computeLongestPaths(0);
+            LongDAGPaths.PathResult shortest = paths.computeShortestPaths(0);
+            LongDAGPaths.PathResult longest = paths.computeLongestPaths(0);
+            for (int v = 0; v < 60; v++) {
+                assertEquals(sp.isReachable(v), shortest.isReachable(v));
+                assertEquals(lp.isReachable(v), longest.isReachable(v));
+                if (sp.isReachable(v)) {
+                    assertEquals(sp.getDistance(v), shortest.getDistance(v));
+                    assertEquals(lp.getDistance(v), longest.getDistance(v));
+                    assertEquals(sp.getPath(v), shortest.getPath(v));
+                }
+            }
+            DAGLongestPath.CriticalPathResult critical = new DAGLongestPath(graph, nodeWeights).computeCriticalPath();
+            assertEquals(critical.getLength(), paths.computeCriticalPath().getLength());
+            assertEquals(critical.getPath(), paths.computeCriticalPath().getPath());
+        }
+    }
+
+    @Test
+    void testLongChainSaturatesIntButNotLong() {
+        int n = 11;
+        Graph graph = new Graph(n, true);
+        for (int v = 0; v + 1 < n; v++) {
+            graph.addEdge(v, v + 1, 1_000_000_000);
+        }
+
+        DAGLongestPath.LongestPathResult ints = new DAGLongestPath(graph).computeLongestPaths(0);
+        assertEquals(2_000_000_000, ints.getDistance(2));
+        assertEquals(Integer.MAX_VALUE - 1, ints.getDistance(n - 1));
+        assertTrue(ints.isReachable(n - 1));
+        assertTrue(ints.getMetrics().getCounter("saturated_sums") > 0);
+        assertEquals(Integer.MAX_VALUE - 1, new DAGLongestPath(graph).computeCriticalPath().getLength());
+
+        LongDAGPaths.PathResult longs = new LongDAGPaths(LongWeightedGraph.of(graph)).computeLongestPaths(0);
+        assertEquals(10_000_000_000L, longs.getDistance(n - 1));
+        assertEquals(0, longs.getMetrics().getCounter("saturated_sums"));
+        assertEquals(10_000_000_000L, new LongDAGPaths(LongWeightedGraph.of(graph)).computeCriticalPath().getLength());
+
+        // Negative sums saturate at the other end, still distinct from unreachable
+        Graph negative = new Graph(4, true);
+        negative.addEdge(0, 1, Integer.MIN_VALUE + 5);
+        negative.addEdge(1, 2, -10);
+        DAGShortestPath.ShortestPathResult sp = new DAGShortestPath(negative).computeShortestPaths(0);
+        assertEquals(Integer.MIN_VALUE + 1, sp.getDistance(2));
+        assertFalse(sp.isReachable(3));
+
+        LongWeightedGraph.Builder builder = new LongWeightedGraph.Builder(3, true);
+        builder.addEdge(0, 1, Long.MAX_VALUE / 2 + 1);
+        builder.addEdge(1, 2, Long.MAX_VALUE / 2 + 1);
+        LongDAGPaths.PathResult huge = new LongDAGPaths(builder.build()).computeShortestPaths(0);
+        assertEquals(Long.MAX_VALUE - 1, huge.getDistance(2));
+        assertTrue(huge.isReachable(2));
+        assertEquals(1, huge.getMetrics().getCounter("saturated_sums"));
+    }
+
+    @Test
+    void testDoubleFractionalCosts() {
+        DoubleWeightedGraph.Builder builder = new DoubleWeightedGraph.Builder(4, true);
+        builder.addEdge(0, 1, 1.5);
+        builder.addEdge(1, 2, 0.25);
+        builder.addEdge(0, 2, 2.0);
+        DoubleDAGPaths paths = new DoubleDAGPaths(builder.build(), new double[] {0.5, 0, 0.125, 9});
+
+        DoubleDAGPaths.PathResult shortest = paths.computeShortestPaths(0);
+        assertEquals(2.375, shortest.getDistance(2));
+        assertEquals(List.of(0, 1, 2), shortest.getPath(2));
+        assertEquals(Double.POSITIVE_INFINITY, shortest.getDistance(3));
+        assertFalse(shortest.isReachable(3));
+
+        DoubleDAGPaths.PathResult longest = paths.computeLongestPaths(0);
+        assertEquals(2.625, longest.getDistance(2));
+        assertEquals(List.of(0, 2), longest.getPath(2));
+        assertEquals(Double.NEGATIVE_INFINITY, longest.getDistance(3));
+
+        DoubleDAGPaths.CriticalPathResult critical = paths.computeCriticalPath();
+        assertEquals(9.0, critical.getLength());
+        assertEquals(List.of(3), critical.getPath());
+    }
+
+    @Test
+    void testBuilderKeepsInsertionOrder() {
+        LongWeightedGraph.Builder builder = new LongWeightedGraph.Builder(3, true);
+        builder.addEdge(1, 2, 7);
+        builder.addEdge(0, 2, 5);
+        builder.addEdge(0, 1, 3);
+        LongWeightedGraph graph = builder.build();
+        assertEquals(3, graph.getEdgeCount());
+        assertEquals(2, graph.getOutDegree(0));
+        assertEquals(2, graph.getTarget(graph.getOffset(0)));
+        assertEquals(3, graph.getWeight(graph.getOffset(0) + 1));
+        assertEquals(7, graph.getWeight(graph.getOffset(1)));
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+
+    @Test
+    void testRejectsInvalidInput() {
+        DoubleWeightedGraph.Builder builder = new DoubleWeightedGraph.Builder(2, true);
+        assertThrows(IllegalArgumentException.class, () -> builder.addEdge(0, 1, Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> builder.addEdge(0, 2, 1.0));
+        builder.addEdge(0, 1, 1.0);
+        builder.addEdge(1, 0, 1.0);
+        assertThrows(IllegalArgumentException.class, () -> new DoubleDAGPaths(builder.build()));
+
+        LongWeightedGraph undirected = new LongWeightedGraph.Builder(2, false).build();
+        assertThrows(IllegalArgumentException.class, () -> new LongDAGPaths(undirected));
+        LongWeightedGraph empty = new LongWeightedGraph.Builder(2, true).build();
+        assertThrows(IllegalArgumentException.class, () -> new LongDAGPaths(empty, new long[1]));
+        assertThrows(IllegalArgumentException.class, () -> new LongDAGPaths(empty).computeShortestPaths(2));
+    }
+}
@@ -0,0 +1,129 @@
+package org.harryfloppa.graph.dom;
+
+import org.harryfloppa.graph.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for dominator and post-dominator trees.
+ */
+class SemiNCADominatorsTest {
+
+    @Test
+    void testBottleneckTask() {
+        // 0 -> {1, 2} -> 3 -> {4, 5} -> 6; 3 is the single point of failure
+        Graph graph = new Graph(7, true);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(0, 2, 1);
+        graph.addEdge(1, 3, 1);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(3, 4, 1);
+        graph.addEdge(3, 5, 1);
+        graph.addEdge(4, 6, 1);
+        graph.addEdge(5, 6, 1);
+
+        SemiNCADominators.DominatorTree tree = new SemiNCADominators(graph).compute(0);
+        assertEquals(-1, tree.getImmediateDominator(0));
+        assertEquals(0, tree.getImmediateDominator(3));
+        assertEquals(3, tree.getImmediateDominator(6));
+        assertEquals(List.of(0, 3), tree.getBottlenecks(6));
+        assertEquals(List.of(0), tree.getBottlenecks(1));
+        assertEquals(2, tree.getDepth(6));
+        assertTrue(tree.dominates(3, 5));
+        assertFalse(tree.dominates(1, 3));
+        assertTrue(tree.dominates(6, 6));
+
+        SemiNCADominators.DominatorTree post = SemiNCADominators.postDominators(graph, 6);
+        assertEquals(3, post.getImmediateDominator(0));
+        assertEquals(List.of(6, 3), post.getBottlenecks(1));
+    }
+
+    @Test
+    void testVirtualStartOverSources() {
+        // Sources 0 and 1 both feed 2; 2 -> 3
+        Graph graph = new Graph(5, true);
+        graph.addEdge(0, 2, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(4, 3, 1);
+
+        SemiNCADominators.DominatorTree tree = new SemiNCADominators(graph).computeFromSources();
+        assertEquals(-1, tree.getRoot());
+        assertEquals(-1, tree.getImmediateDominator(2));
+        assertEquals(-1, tree.getImmediateDominator(3));
+        assertTrue(tree.isReachable(4));
+
+        SemiNCADominators.DominatorTree post = SemiNCADominators.postDominatorsToSinks(graph);
+        assertEquals(2, post.getImmediateDominator(0));
+        assertEquals(3, post.getImmediateDominator(2));
+        assertEquals(List.of(3, 2), post.getBottlenecks(1));
+    }
+
+    @Test
+    void testMatchesBruteForce() {
+        Random random = new Random(17);
+        for (int round = 0; round < 30; round++) {
+            int n = 5 + random.nextInt(25);
+            Graph graph = new Graph(n, true);
+            for (int e = 0; e < n * 2; e++) {
+                graph.addEdge(random.nextInt(n), random.nextInt(n), 1);   // cycles allowed
+            }
+            SemiNCADominators.DominatorTree tree = new SemiNCADominators(graph).compute(0);
+            boolean[] reachable = reach(graph, 0, -1);
+            for (int v = 0; v < n; v++) {
+                assertEquals(reachable[v], tree.isReachable(v));
+                for (int d = 0; d < n; d++) {
+                    boolean expected = reachable[v] && (d == v || d == 0 || (reachable[d] && !reach(graph, 0, d)[v]));
+                    assertEquals(expected, tree.dominates(d, v), "dominates(" + d + ", " + v + ")");
+                }
+            }
+        }
+    }
+
+    @Test
+    void testLongChainNeedsNoDeepStack() {
+        int n = 300_000;
+        Graph graph = new Graph(n, true);
+        for (int v = 0; v + 1 < n; v++) {
+            graph.addEdge(v, v + 1, 1);
+            if (v + 2 < n && v % 2 == 0) {
+                graph.addEdge(v, v + 2, 1);   // bypasses every odd vertex
+            }
+        }
+        SemiNCADominators.DominatorTree tree = new SemiNCADominators(graph).compute(0);
+        assertEquals(n - 2, tree.getImmediateDominator(n - 1));
+        assertEquals(n / 2 - 1, tree.getDepth(n - 2));
+        assertEquals(0, tree.getImmediateDominator(2));
+        assertEquals(n, tree.getMetrics().getCounter("dfs_visits"));
+    }
+
+    @Test
+    void testRejectsInvalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> new SemiNCADominators(new Graph(2, false)));
+        assertThrows(IllegalArgumentException.class, () -> new SemiNCADominators(new Graph(2, true)).compute(2));
+    }
+
+    /**
+     * Vertices reachable from {@code root} without passing through {@code removed}.
+     */
+    private static boolean[] reach(Graph graph, int root, int removed) {
+        boolean[] seen = new boolean[graph.getVertexCount()];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        seen[root] = true;
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            for (Graph.Edge e : graph.getAdjacent(queue.poll())) {
+                if (e.to != removed && !seen[e.to]) {
+                    seen[e.to] = true;
+                    queue.add(e.to);
+                }
+            }
+        }
+        return seen;
+    }
+}
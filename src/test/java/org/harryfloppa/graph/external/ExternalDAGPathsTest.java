@@ -0,0 +1,149 @@
+package org.harryfloppa.graph.external;
+
+import org.harryfloppa.graph.Graph;
+import org.harryfloppa.graph.dagsp.DAGLongestPath;
+import org.harryfloppa.graph.dagsp.DAGShortestPath;
+import org.harryfloppa.graph.topo.KahnTopologicalSort;
+import org.harryfloppa.util.BinaryEdgeWriter;
+import org.harryfloppa.util.GraphGenerator;
+import org.harryfloppa.util.GraphLoader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the out-of-core topological sort and DAG paths.
+ */
+class ExternalDAGPathsTest {
+    // Forces many sort runs, a merge pass, small DP blocks and queue spills
+    private static final long TINY_BUDGET = 4096;
+
+    @TempDir
+    Path tempDir;
+
+    private Path writeDag(long seed) throws IOException {
+        Path file = tempDir.resolve("dag-" + seed + ".bin");
+        // R-MAT edges span the whole order, so many relaxations cross DP blocks
+        new GraphGenerator(seed).scrambleIds(true).weights(-5, 20)
+                .rmat(14, 6, 0.57, 0.19, 0.19, true, new BinaryEdgeWriter(file.toString()));
+        return file;
+    }
+
+    @Test
+    void testMatchesInMemoryAlgorithms() throws IOException {
+        Path file = writeDag(13);
+        Graph graph = GraphLoader.loadFromBinary(file.toString()).getGraph();
+        Path work = Files.createDirectory(tempDir.resolve("work"));
+
+        try (ExternalGraph external = new ExternalGraph(file, work, TINY_BUDGET);
+             ExternalDAGPaths paths = new ExternalDAGPaths(external)) {
+            assertEquals(graph.getVertexCount(), external.getVertexCount());
+            assertEquals(graph.getEdgeCount(), external.getEdgeCount());
+
+            try (ExternalTopologicalSort.TopoSortResult topo = new ExternalTopologicalSort(external).sort()) {
+                assertFalse(topo.hasCycle());
+                assertEquals(new KahnTopologicalSort(graph).sort().getOrder(), topo.getOrder());
+            }
+            assertTrue(external.getMetrics().getCounter("merge_passes") > 0);
+
+            for (int source : new int[]{external.getSource(), 5, 7777}) {
+                DAGShortestPath.ShortestPathResult expected = new DAGShortestPath(graph).computeShortestPaths(source);
+                try (ExternalDAGPaths.PathResult actual = paths.computeShortestPaths(source)) {
+                    for (int v = 0; v < graph.getVertexCount(); v++) {
+                        assertEquals(expected.getDistance(v), actual.getDistance(v));
+                        assertEquals(expected.getParent(v), actual.getParent(v));
+                    }
+                    if (source == external.getSource()) {
+                        assertTrue(actual.getMetrics().getCounter("spilled_runs") > 0);
+                    }
+                }
+
+                DAGLongestPath.LongestPathResult longest = new DAGLongestPath(graph).computeLongestPaths(source);
+                try (ExternalDAGPaths.PathResult actual = paths.computeLongestPaths(source)) {
+                    for (int v = 0; v < graph.getVertexCount(); v++) {
+                        assertEquals(longest.getDistance(v), actual.getDistance(v));
+                        assertEquals(longest.getParent(v), actual.getParent(v));
+                    }
+                    assertEquals(longest.getPath(12345), actual.getPath(12345));
+                }
+            }
+
+            DAGLongestPath.CriticalPathResult critical = new DAGLongestPath(graph).computeCriticalPath();
+            DAGLongestPath.CriticalPathResult actual = paths.computeCriticalPath();
+            assertEquals(critical.getLength(), actual.getLength());
+            assertEquals(critical.getPath(), actual.getPath());
+        }
+
+        try (Stream<Path> left = Files.list(work)) {
+            assertEquals(0, left.count(), "temporary files must be removed on close");
+        }
+    }
+
+    @Test
+    void testSumsSaturateLikeInMemory() throws IOException {
+        // Two chains from 0 whose sums leave the int range in both directions
+        Path file = tempDir.resolve("overflow.bin");
+        try (BinaryEdgeWriter out = new BinaryEdgeWriter(file.toString())) {
+            out.begin(9, true, 0);
+            for (int i = 0; i < 4; i++) {
+                out.edge(i == 0 ? 0 : i, i + 1, 1_000_000_000);
+                out.edge(i == 0 ? 0 : i + 4, i + 5, -1_000_000_000);
+            }
+        }
+        Graph graph = GraphLoader.loadFromBinary(file.toString()).getGraph();
+
+        try (ExternalGraph external = new ExternalGraph(file, tempDir, TINY_BUDGET);
+             ExternalDAGPaths paths = new ExternalDAGPaths(external)) {
+            DAGShortestPath.ShortestPathResult shortest = new DAGShortestPath(graph).computeShortestPaths(0);
+            DAGLongestPath.LongestPathResult longest = new DAGLongestPath(graph).computeLongestPaths(0);
+            try (ExternalDAGPaths.PathResult actualShortest = paths.computeShortestPaths(0);
+                 ExternalDAGPaths.PathResult actualLongest = paths.computeLongestPaths(0)) {
+                for (int v = 0; v < graph.getVertexCount(); v++) {
+                    assertEquals(shortest.getDistance(v), actualShortest.getDistance(v));
+                    assertEquals(longest.getDistance(v), actualLongest.getDistance(v));
+                }
+                assertEquals(Integer.MAX_VALUE - 1, actualLongest.getDistance(4));
+                assertEquals(Integer.MIN_VALUE + 1, actualShortest.getDistance(8));
+                assertTrue(actualLongest.getMetrics().getCounter("saturated_sums") > 0);
+            }
+        }
+    }
+
+    @Test
+    void testCycleIsReported() throws IOException {
+        Path file = tempDir.resolve("cycle.bin");
+        try (BinaryEdgeWriter out = new BinaryEdgeWriter(file.toString())) {
+            out.begin(4, true, 0);
+            out.edge(0, 1, 1);
+            out.edge(1, 2, 1);
+            out.edge(2, 1, 1);
+            out.edge(2, 3, 1);
+        }
+        try (ExternalGraph external = new ExternalGraph(file, tempDir, TINY_BUDGET);
+             ExternalDAGPaths paths = new ExternalDAGPaths(external)) {
+            try (ExternalTopologicalSort.TopoSortResult topo = new ExternalTopologicalSort(external).sort()) {
+                assertTrue(topo.hasCycle());
+                assertEquals(1, topo.size());
+            }
+            assertThrows(IllegalArgumentException.class, () -> paths.computeShortestPaths(0));
+        }
+    }
+
+    @Test
+    void testRejectsOutOfRangeVertex() throws IOException {
+        Path file = tempDir.resolve("bad.bin");
+        try (BinaryEdgeWriter out = new BinaryEdgeWriter(file.toString())) {
+            out.begin(2, true, 0);
+            out.edge(0, 5, 1);
+        }
+        try (ExternalGraph external = new ExternalGraph(file, tempDir, TINY_BUDGET)) {
+            assertThrows(IllegalArgumentException.class, () -> new ExternalTopologicalSort(external).sort());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.harryfloppa.graph.external;
+
+import org.harryfloppa.graph.Graph;
+import org.harryfloppa.graph.scc.TarjanSCC;
+import org.harryfloppa.util.BinaryEdgeWriter;
+import org.harryfloppa.util.GraphGenerator;
+import org.harryfloppa.util.GraphLoader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.harryfloppa.graph.scc.SCCPartitions.partition;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the semi-external SCC algorithm.
+ */
+class SemiExternalSCCTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TarjanSCC.SCCResult run(Path file) throws IOException {
+        try (ExternalGraph external = new ExternalGraph(file, tempDir, ExternalGraph.DEFAULT_MEMORY_BUDGET)) {
+            return new SemiExternalSCC(external).findSCCs();
+        }
+    }
+
+    private TarjanSCC.SCCResult run(Path file, int batchSize) throws IOException {
+        try (ExternalGraph external = new ExternalGraph(file, tempDir, ExternalGraph.DEFAULT_MEMORY_BUDGET)) {
+            return new SemiExternalSCC(external, batchSize).findSCCs();
+        }
+    }
+
+    private static void assertMatchesTarjan(Graph graph, TarjanSCC.SCCResult actual) {
+        TarjanSCC.SCCResult expected = new TarjanSCC(graph).findSCCs();
+        assertEquals(expected.getComponentCount(), actual.getComponentCount());
+        assertEquals(partition(expected), partition(actual));
+        assertReverseTopological(graph, actual);
+    }
+
+    // Like Tarjan's, components come in reverse topological order
+    private static void assertReverseTopological(Graph graph, TarjanSCC.SCCResult actual) {
+        int[] component = actual.getVertexToSCCMap();
+        for (int u = 0; u < graph.getVertexCount(); u++) {
+            for (Graph.Edge edge : graph.getAdjacent(u)) {
+                assertTrue(component[u] >= component[edge.to], "edge " + u + " -> " + edge.to);
+            }
+        }
+    }
+
+    @Test
+    void testMatchesTarjanOnRandomGraphs() throws IOException {
+        Random random = new Random(7);
+        for (int trial = 0; trial < 300; trial++) {
+            int n = 1 + random.nextInt(12);
+            int m = random.nextInt(3 * n);
+            Path file = tempDir.resolve("random.bin");
+            Graph graph = new Graph(n, true);
+            try (BinaryEdgeWriter out = new BinaryEdgeWriter(file.toString())) {
+                out.begin(n, true, 0);
+                for (int e = 0; e < m; e++) {
+                    int u = random.nextInt(n);
+                    int v = random.nextInt(n);
+                    out.edge(u, v, 1);
+                    graph.addEdge(u, v, 1);
+                }
+            }
+            assertMatchesTarjan(graph, run(file));
+            // Batches of a few edges force many refinement passes
+            assertMatchesTarjan(graph, run(file, 1 + random.nextInt(4)));
+        }
+    }
+
+    @Test
+    void testPlantedComponents() throws IOException {
+        Path file = tempDir.resolve("planted.bin");
+        long planted = new GraphGenerator(5).scrambleIds(true).plantedSCCs(20000,
+                GraphGenerator.SizeDistribution.POWER_LAW, 1, 500, 2.0, 4.0, 0.7,
+                new BinaryEdgeWriter(file.toString()));
+        Graph graph = GraphLoader.loadFromBinary(file.toString()).getGraph();
+
+        TarjanSCC.SCCResult result = run(file);
+        assertEquals(planted, result.getComponentCount());
+        assertEquals(1, result.getMetrics().getCounter("passes"));
+        assertMatchesTarjan(graph, result);
+
+        TarjanSCC.SCCResult batched = run(file, 5000);
+        assertTrue(batched.getMetrics().getCounter("passes") > 1);
+        assertMatchesTarjan(graph, batched);
+    }
+
+    @Test
+    void testMatchesTarjanOnRmat() throws IOException {
+        Path file = tempDir.resolve("rmat.bin");
+        new GraphGenerator(11).scrambleIds(true)
+                .rmat(14, 4, 0.57, 0.19, 0.19, false, new BinaryEdgeWriter(file.toString()));
+        Graph graph = GraphLoader.loadFromBinary(file.toString()).getGraph();
+        assertMatchesTarjan(graph, run(file));
+        assertMatchesTarjan(graph, run(file, 3000));
+    }
+
+    @Test
+    void testAcyclicChainNeedsNoContraction() throws IOException {
+        Path file = tempDir.resolve("chain.bin");
+        new GraphGenerator(3).scrambleIds(true).chain(5000, 2, new BinaryEdgeWriter(file.toString()));
+        TarjanSCC.SCCResult result = run(file, 1000);
+        assertEquals(5000, result.getComponentCount());
+        assertEquals(0, result.getMetrics().getCounter("contracted_vertices"));
+        // The 5000-deep path crosses five batches; components must still come out in reverse topological order
+        assertReverseTopological(GraphLoader.loadFromBinary(file.toString()).getGraph(), result);
+    }
+
+    @Test
+    void testRejectsOutOfRangeVertex() throws IOException {
+        Path file = tempDir.resolve("bad.bin");
+        try (BinaryEdgeWriter out = new BinaryEdgeWriter(file.toString())) {
+            out.begin(2, true, 0);
+            out.edge(0, 5, 1);
+        }
+        assertThrows(IllegalArgumentException.class, () -> run(file));
+    }
+}
@@ -0,0 +1,80 @@
+package org.harryfloppa.graph.reach;
+
+import org.harryfloppa.graph.Graph;
+import org.harryfloppa.graph.scc.CondensationGraph;
+import org.harryfloppa.graph.scc.TarjanSCC;
+import org.harryfloppa.util.GraphBuilderSink;
+import org.harryfloppa.util.GraphGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the GRAIL-style reachability index.
+ */
+class ReachabilityIndexTest {
+
+    private static ReachabilityIndex indexFor(Graph graph) {
+        TarjanSCC.SCCResult scc = new TarjanSCC(graph).findSCCs();
+        return new ReachabilityIndex(new CondensationGraph(graph, scc));
+    }
+
+    @Test
+    void testChainAndCycle() {
+        // 0 -> 1 <-> 2 -> 3, 4 isolated
+        Graph graph = new Graph(5, true);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 1, 1);
+        graph.addEdge(2, 3, 1);
+
+        ReachabilityIndex index = indexFor(graph);
+
+        assertTrue(index.reaches(0, 3));
+        assertTrue(index.reaches(2, 1));
+        assertTrue(index.reaches(1, 2));
+        assertTrue(index.reaches(4, 4));
+        assertFalse(index.reaches(3, 0));
+        assertFalse(index.reaches(0, 4));
+        assertFalse(index.reaches(4, 3));
+    }
+
+    @Test
+    void testMatchesBruteForceOnRandomGraph() throws IOException {
+        GraphBuilderSink sink = new GraphBuilderSink();
+        new GraphGenerator(17).scrambleIds(true).plantedSCCs(
+                300, GraphGenerator.SizeDistribution.UNIFORM, 1, 6, 0, 1.5, 0.3, sink);
+        Graph graph = sink.getGraph();
+
+        ReachabilityIndex index = indexFor(graph);
+
+        int n = graph.getVertexCount();
+        for (int u = 0; u < n; u++) {
+            boolean[] expected = bfs(graph, u);
+            for (int v = 0; v < n; v++) {
+                assertEquals(expected[v], index.reaches(u, v), "reaches(" + u + ", " + v + ")");
+            }
+        }
+    }
+
+    private static boolean[] bfs(Graph graph, int source) {
+        boolean[] seen = new boolean[graph.getVertexCount()];
+        Deque<Integer> queue = new ArrayDeque<>();
+        seen[source] = true;
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            for (Graph.Edge e : graph.getAdjacent(u)) {
+                if (!seen[e.to]) {
+                    seen[e.to] = true;
+                    queue.add(e.to);
+                }
+            }
+        }
+        return seen;
+    }
+}
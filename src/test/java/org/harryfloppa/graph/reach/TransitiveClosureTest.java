@@ -0,0 +1,114 @@
+package org.harryfloppa.graph.reach;
+
+import org.harryfloppa.graph.Graph;
+import org.harryfloppa.graph.scc.CondensationGraph;
+import org.harryfloppa.graph.scc.TarjanSCC;
+import org.harryfloppa.util.GraphBuilderSink;
+import org.harryfloppa.util.GraphGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the level-parallel transitive closure.
+ */
+class TransitiveClosureTest {
+
+    private static CondensationGraph condense(Graph graph) {
+        return new CondensationGraph(graph, new TarjanSCC(graph).findSCCs());
+    }
+
+    @Test
+    void testDescendantsAndAncestors() {
+        // 0 -> 1 <-> 2 -> 3, 0 -> 4
+        Graph graph = new Graph(5, true);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 1, 1);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(0, 4, 1);
+
+        TransitiveClosure closure = new TransitiveClosure(condense(graph));
+
+        List<Integer> descendants = closure.descendantVertices(0);
+        assertEquals(4, descendants.size());
+        assertTrue(descendants.containsAll(List.of(1, 2, 3, 4)));
+        List<Integer> ancestors = closure.ancestorVertices(3);
+        assertEquals(3, ancestors.size());
+        assertTrue(ancestors.containsAll(List.of(0, 1, 2)));
+        assertTrue(closure.reaches(2, 1));
+        assertFalse(closure.reaches(4, 3));
+    }
+
+    @Test
+    void testRepresentationsAgreeWithIndex() throws IOException {
+        GraphBuilderSink sink = new GraphBuilderSink();
+        new GraphGenerator(23).scrambleIds(true).plantedSCCs(
+                400, GraphGenerator.SizeDistribution.UNIFORM, 1, 4, 0, 1.5, 0.3, sink);
+        CondensationGraph condensation = condense(sink.getGraph());
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        TransitiveClosure dense = new TransitiveClosure(condensation, TransitiveClosure.Representation.DENSE, pool);
+        TransitiveClosure compressed = new TransitiveClosure(
+                condensation, TransitiveClosure.Representation.COMPRESSED, pool);
+        ReachabilityIndex index = new ReachabilityIndex(condensation);
+        pool.shutdown();
+
+        int components = condensation.getSCCs().size();
+        for (int u = 0; u < components; u++) {
+            assertArrayEquals(dense.descendantComponents(u), compressed.descendantComponents(u));
+            for (int v = 0; v < components; v++) {
+                assertEquals(index.componentReaches(u, v), dense.componentReaches(u, v));
+            }
+        }
+
+        // The ancestor closure is built lazily, after the pool was shut down
+        for (int u = 0; u < components; u++) {
+            assertArrayEquals(dense.ancestorComponents(u), compressed.ancestorComponents(u));
+        }
+    }
+
+    @Test
+    void testAutoFollowsEdgeDensity() {
+        Graph sparse = new Graph(100, true);
+        Graph dense = new Graph(100, true);
+        for (int u = 0; u + 1 < 100; u++) {
+            sparse.addEdge(u, u + 1, 1);
+            for (int v = u + 1; v < Math.min(100, u + 4); v++) {
+                dense.addEdge(u, v, 1);
+            }
+        }
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        assertEquals(TransitiveClosure.Representation.COMPRESSED,
+                new TransitiveClosure(sparse, TransitiveClosure.Representation.AUTO, pool).getRepresentation());
+        assertEquals(TransitiveClosure.Representation.DENSE,
+                new TransitiveClosure(dense, TransitiveClosure.Representation.AUTO, pool).getRepresentation());
+    }
+
+    @Test
+    void testCompressedBitSetSwitchesContainers() {
+        CompressedBitSet a = new CompressedBitSet();
+        CompressedBitSet b = new CompressedBitSet();
+        for (int i = 0; i < 5000; i++) {
+            a.add(i * 2);
+        }
+        b.add(1);
+        b.add(1 << 20);
+
+        a.or(b);
+
+        assertEquals(5002, a.cardinality());
+        assertTrue(a.contains(9998));
+        assertTrue(a.contains(1 << 20));
+        assertFalse(a.contains(3));
+        int[] values = a.toArray();
+        for (int i = 1; i < values.length; i++) {
+            assertTrue(values[i - 1] < values[i]);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.harryfloppa.graph.reach;
+
+import org.harryfloppa.graph.Graph;
+import org.harryfloppa.graph.dagsp.DAGLongestPath;
+import org.harryfloppa.util.GraphBuilderSink;
+import org.harryfloppa.util.GraphGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for transitive reduction of DAGs.
+ */
+class TransitiveReductionTest {
+
+    @Test
+    void testRemovesShortcutEdge() {
+        // 0 -> 1 -> 2 plus shortcut 0 -> 2
+        Graph graph = new Graph(3, true);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(0, 2, 5);
+
+        TransitiveReduction reduction = new TransitiveReduction(graph, ForkJoinPool.commonPool());
+        TransitiveReduction.ReductionResult plain = reduction.reduce();
+        TransitiveReduction.ReductionResult weighted = reduction.reduceForLongestPaths();
+
+        assertEquals(1, plain.getRemovedEdgeCount());
+        assertEquals(2, plain.getGraph().getEdgeCount());
+        // The shortcut is heavier than the path 0 -> 1 -> 2, so longest paths need it
+        assertEquals(0, weighted.getRemovedEdgeCount());
+    }
+
+    @Test
+    void testReductionPreservesReachabilityAndLongestPaths() throws IOException {
+        GraphBuilderSink sink = new GraphBuilderSink();
+        new GraphGenerator(31).layeredDag(12, 15, 4, 4, sink);
+        Graph graph = sink.getGraph();
+
+        TransitiveReduction reduction = new TransitiveReduction(graph, ForkJoinPool.commonPool());
+        Graph reduced = reduction.reduce().getGraph();
+        TransitiveReduction.ReductionResult weighted = reduction.reduceForLongestPaths();
+
+        assertTrue(reduced.getEdgeCount() < graph.getEdgeCount());
+        assertTrue(weighted.getRemovedEdgeCount() > 0);
+
+        // Same result on an immutable snapshot of the graph
+        TransitiveReduction frozen = new TransitiveReduction(graph.freeze(), ForkJoinPool.commonPool());
+        assertEquals(reduced.toString(), frozen.reduce().getGraph().toString());
+        assertEquals(weighted.getGraph().toString(), frozen.reduceForLongestPaths().getGraph().toString());
+
+        TransitiveClosure before = new TransitiveClosure(graph, TransitiveClosure.Representation.DENSE,
+                ForkJoinPool.commonPool());
+        TransitiveClosure after = new TransitiveClosure(reduced, TransitiveClosure.Representation.DENSE,
+                ForkJoinPool.commonPool());
+        for (int u = 0; u < graph.getVertexCount(); u++) {
+            assertArrayEquals(before.descendantComponents(u), after.descendantComponents(u));
+        }
+
+        for (int source = 0; source < graph.getVertexCount(); source += 17) {
+            assertArrayEquals(new DAGLongestPath(graph).computeLongestPaths(source).getDistances(),
+                    new DAGLongestPath(weighted.getGraph()).computeLongestPaths(source).getDistances());
+        }
+        assertEquals(new DAGLongestPath(graph).computeCriticalPath().getLength(),
+                new DAGLongestPath(weighted.getGraph()).computeCriticalPath().getLength());
+    }
+}
@@ -0,0 +1,144 @@
+package org.harryfloppa.graph.relabel;
+
+import org.harryfloppa.graph.Graph;
+import org.harryfloppa.graph.dagsp.DAGLongestPath;
+import org.harryfloppa.graph.dagsp.DAGShortestPath;
+import org.harryfloppa.graph.scc.TarjanSCC;
+import org.harryfloppa.graph.topo.KahnTopologicalSort;
+import org.harryfloppa.util.GraphBuilderSink;
+import org.harryfloppa.util.GraphGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import static org.harryfloppa.graph.scc.SCCPartitions.partition;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for vertex relabeling and result translation.
+ */
+class VertexRelabelingTest {
+
+    private static Graph scrambledDag() throws IOException {
+        GraphBuilderSink sink = new GraphBuilderSink();
+        new GraphGenerator(5).scrambleIds(true).layeredDag(20, 25, 3, 3, sink);
+        return sink.getGraph();
+    }
+
+    private static Graph scrambledCyclicGraph() throws IOException {
+        GraphBuilderSink sink = new GraphBuilderSink();
+        new GraphGenerator(9).scrambleIds(true).plantedSCCs(400, GraphGenerator.SizeDistribution.UNIFORM,
+                1, 12, 0, 3, 0.5, sink);
+        return sink.getGraph();
+    }
+
+    @Test
+    void testPermutationIsBijective() throws IOException {
+        Graph graph = scrambledCyclicGraph();
+        for (VertexRelabeling.Order order : new VertexRelabeling.Order[]{
+                VertexRelabeling.Order.IDENTITY, VertexRelabeling.Order.BFS,
+                VertexRelabeling.Order.RCM, VertexRelabeling.Order.DEGREE}) {
+            VertexRelabeling relabeling = new VertexRelabeling(graph, order);
+            Graph relabeled = relabeling.getRelabeledGraph();
+            assertEquals(graph.getEdgeCount(), relabeled.getEdgeCount());
+            for (int v = 0; v < graph.getVertexCount(); v++) {
+                assertEquals(v, relabeling.toOriginal(relabeling.toNew(v)));
+                assertEquals(graph.getAdjacent(v).size(), relabeled.getAdjacent(relabeling.toNew(v)).size());
+            }
+            assertEquals(relabeled.toString(),
+                    new VertexRelabeling(graph.freeze(), order).getRelabeledGraph().toString());
+        }
+    }
+
+    @Test
+    void testTopologicalOrderMakesEdgesPointForward() throws IOException {
+        VertexRelabeling relabeling = new VertexRelabeling(scrambledDag(), VertexRelabeling.Order.TOPOLOGICAL);
+        Graph relabeled = relabeling.getRelabeledGraph();
+        for (int u = 0; u < relabeled.getVertexCount(); u++) {
+            int previous = -1;
+            for (Graph.Edge edge : relabeled.getAdjacent(u)) {
+                assertTrue(edge.to > u);
+                assertTrue(edge.to >= previous);
+                previous = edge.to;
+            }
+        }
+    }
+
+    @Test
+    void testTopologicalOrderRejectsCycles() throws IOException {
+        Graph graph = scrambledCyclicGraph();
+        assertThrows(IllegalArgumentException.class,
+                () -> new VertexRelabeling(graph, VertexRelabeling.Order.TOPOLOGICAL));
+    }
+
+    @Test
+    void testSCCsTranslatedBack() throws IOException {
+        Graph graph = scrambledCyclicGraph();
+        Set<Set<Integer>> expected = partition(new TarjanSCC(graph).findSCCs().getSCCs());
+        for (VertexRelabeling.Order order : new VertexRelabeling.Order[]{
+                VertexRelabeling.Order.BFS, VertexRelabeling.Order.RCM, VertexRelabeling.Order.DEGREE}) {
+            assertEquals(expected, partition(new VertexRelabeling(graph, order).findSCCs().getSCCs()));
+        }
+    }
+
+    @Test
+    void testDAGPathsTranslatedBack() throws IOException {
+        Graph graph = scrambledDag();
+        int source = 17;
+        DAGShortestPath.ShortestPathResult shortest = new DAGShortestPath(graph).computeShortestPaths(source);
+        DAGLongestPath.LongestPathResult longest = new DAGLongestPath(graph).computeLongestPaths(source);
+        DAGLongestPath.CriticalPathResult critical = new DAGLongestPath(graph).computeCriticalPath();
+
+        for (VertexRelabeling.Order order : VertexRelabeling.Order.values()) {
+            VertexRelabeling relabeling = new VertexRelabeling(graph, order);
+
+            DAGShortestPath.ShortestPathResult sp = relabeling.computeShortestPaths(source);
+            assertEquals(source, sp.getSource());
+            assertArrayEquals(shortest.getDistances(), sp.getDistances());
+            for (int v = 0; v < graph.getVertexCount(); v++) {
+                if (sp.isReachable(v)) {
+                    assertEquals(sp.getDistance(v), pathWeight(graph, sp.getPath(v), false));
+                }
+            }
+
+            DAGLongestPath.LongestPathResult lp = relabeling.computeLongestPaths(source);
+            assertArrayEquals(longest.getDistances(), lp.getDistances());
+
+            DAGLongestPath.CriticalPathResult cp = relabeling.computeCriticalPath();
+            assertEquals(critical.getLength(), cp.getLength());
+            assertEquals(cp.getLength(), pathWeight(graph, cp.getPath(), true));
+
+            KahnTopologicalSort.TopoSortResult topo = relabeling.sort();
+            int[] position = new int[graph.getVertexCount()];
+            for (int i = 0; i < topo.getOrder().size(); i++) {
+                position[topo.getOrder().get(i)] = i;
+            }
+            for (int u = 0; u < graph.getVertexCount(); u++) {
+                for (Graph.Edge edge : graph.getAdjacent(u)) {
+                    assertTrue(position[u] < position[edge.to]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Weight of a path, choosing the lightest (or heaviest) parallel edge at each step.
+     */
+    private static int pathWeight(Graph graph, List<Integer> path, boolean heaviest) {
+        int total = 0;
+        for (int i = 0; i + 1 < path.size(); i++) {
+            Integer best = null;
+            for (Graph.Edge edge : graph.getAdjacent(path.get(i))) {
+                if (edge.to == path.get(i + 1)) {
+                    best = best == null ? edge.weight
+                            : heaviest ? Math.max(best, edge.weight) : Math.min(best, edge.weight);
+                }
+            }
+            assertNotNull(best, "path uses a missing edge");
+            total += best;
+        }
+        return total;
+    }
+}
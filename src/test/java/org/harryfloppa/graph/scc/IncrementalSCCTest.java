@@ -0,0 +1,162 @@
+package org.harryfloppa.graph.scc;
+
+import org.harryfloppa.graph.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.harryfloppa.graph.scc.SCCPartitions.partition;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for incremental SCC maintenance.
+ */
+class IncrementalSCCTest {
+
+    /**
+     * Same components and condensation as a from-scratch Tarjan run, and the
+     * maintained order is topological.
+     */
+    private static void assertConsistent(Graph graph, IncrementalSCC incremental) {
+        TarjanSCC.SCCResult expected = new TarjanSCC(graph).findSCCs();
+        TarjanSCC.SCCResult actual = incremental.getSCCResult();
+        assertEquals(partition(expected), partition(actual));
+        assertEquals(expected.getComponentCount(), incremental.getComponentCount());
+
+        Graph dag = incremental.getCondensation();
+        CondensationGraph rebuilt = new CondensationGraph(graph, expected);
+        assertEquals(rebuilt.getCondensation().getEdgeCount(), dag.getEdgeCount());
+        assertEquals(dag.getEdgeCount(), incremental.getCondensationEdgeCount());
+
+        // Components are numbered in reverse topological order
+        for (int c = 0; c < dag.getVertexCount(); c++) {
+            for (Graph.Edge edge : dag.getAdjacent(c)) {
+                assertTrue(c > edge.to, "condensation edge " + c + " -> " + edge.to);
+            }
+        }
+        int[] position = new int[graph.getVertexCount()];
+        List<Integer> order = incremental.getTopologicalOrder();
+        assertEquals(incremental.getComponentCount(), order.size());
+        for (int i = 0; i < order.size(); i++) {
+            for (int v : incremental.getComponent(order.get(i))) {
+                position[v] = i;
+            }
+        }
+        for (int u = 0; u < graph.getVertexCount(); u++) {
+            for (Graph.Edge edge : graph.getAdjacent(u)) {
+                assertTrue(position[u] <= position[edge.to]);
+            }
+        }
+    }
+
+    @Test
+    void testCycleMergesExactlyItsComponents() {
+        // 0 -> 1 -> 2 -> 3, 1 -> 4; closing 3 -> 1 merges {1, 2, 3} only
+        IncrementalSCC scc = new IncrementalSCC(5);
+        assertFalse(scc.addEdge(0, 1, 1));
+        assertFalse(scc.addEdge(1, 2, 1));
+        assertFalse(scc.addEdge(2, 3, 1));
+        assertFalse(scc.addEdge(1, 4, 1));
+        assertEquals(5, scc.getComponentCount());
+
+        assertTrue(scc.addEdge(3, 1, 1));
+        assertEquals(3, scc.getComponentCount());
+        assertEquals(List.of(1, 2, 3), scc.getComponent(2));
+        assertTrue(scc.sameComponent(1, 3));
+        assertFalse(scc.sameComponent(0, 1));
+        assertFalse(scc.sameComponent(3, 4));
+        assertEquals(2, scc.getCondensationEdgeCount());
+        assertEquals(2, scc.getMetrics().getCounter("components_merged"));
+    }
+
+    @Test
+    void testBackwardEdgeWithoutCycleReorders() {
+        // Vertex ids start as the order, so 3 -> 0 is against it but acyclic
+        IncrementalSCC scc = new IncrementalSCC(4);
+        assertFalse(scc.addEdge(3, 0, 1));
+        assertFalse(scc.addEdge(2, 3, 1));
+        assertEquals(4, scc.getComponentCount());
+        List<Integer> order = scc.getTopologicalOrder();
+        assertTrue(order.indexOf(2) < order.indexOf(3));
+        assertTrue(order.indexOf(3) < order.indexOf(0));
+        assertEquals(2, scc.getMetrics().getCounter("reorders"));
+    }
+
+    @Test
+    void testRandomInsertionsMatchTarjan() {
+        Random random = new Random(3);
+        for (int trial = 0; trial < 50; trial++) {
+            int n = 2 + random.nextInt(40);
+            Graph graph = new Graph(n, true);
+            IncrementalSCC scc = new IncrementalSCC(n);
+            int edges = random.nextInt(3 * n);
+            for (int e = 0; e < edges; e++) {
+                int u = random.nextInt(n);
+                int v = random.nextInt(n);
+                int w = random.nextInt(10);
+                int before = scc.getComponentCount();
+                boolean merged = scc.addEdge(u, v, w);
+                graph.addEdge(u, v, w);
+                assertEquals(merged, scc.getComponentCount() < before);
+                assertConsistent(graph, scc);
+            }
+        }
+    }
+
+    @Test
+    void testStartsFromExistingGraph() {
+        Graph graph = new Graph(6, true);
+        graph.addEdge(0, 1, 2);
+        graph.addEdge(1, 0, 2);
+        graph.addEdge(1, 2, 3);
+        graph.addEdge(3, 4, 1);
+        graph.addEdge(4, 5, 1);
+        IncrementalSCC scc = new IncrementalSCC(graph);
+        assertConsistent(graph, scc);
+
+        scc.addEdge(5, 3, 1);
+        graph.addEdge(5, 3, 1);
+        assertConsistent(graph, scc);
+        assertEquals(3, scc.getComponentCount());
+    }
+
+    @Test
+    void testBatchesMatchSingleInsertions() {
+        Random random = new Random(17);
+        int n = 300;
+        Graph graph = new Graph(n, true);
+        IncrementalSCC scc = new IncrementalSCC(n);
+        for (int round = 0; round < 10; round++) {
+            // Small batches stay incremental, large ones trigger a rebuild
+            int size = round % 2 == 0 ? 5 : 200;
+            int[] from = new int[size];
+            int[] to = new int[size];
+            int[] weight = new int[size];
+            for (int i = 0; i < size; i++) {
+                from[i] = random.nextInt(n);
+                to[i] = random.nextInt(n);
+                weight[i] = 1;
+                graph.addEdge(from[i], to[i], 1);
+            }
+            int before = scc.getComponentCount();
+            int merged = scc.addEdges(from, to, weight);
+            assertEquals(before - scc.getComponentCount(), merged);
+            assertConsistent(graph, scc);
+        }
+        assertTrue(scc.getMetrics().getCounter("rebuilds") > 0);
+        assertTrue(scc.getMetrics().getCounter("reorders") > 0);
+    }
+
+    @Test
+    void testRejectsOutOfRangeVertex() {
+        IncrementalSCC scc = new IncrementalSCC(2);
+        assertThrows(IllegalArgumentException.class, () -> scc.addEdge(0, 2, 1));
+
+        // The bad last edge rejects the batch before the cycle 0 -> 1 -> 0 is applied
+        assertThrows(IllegalArgumentException.class,
+                () -> scc.addEdges(new int[] {0, 1, 1}, new int[] {1, 0, 2}, new int[] {1, 1, 1}));
+        assertEquals(2, scc.getComponentCount());
+        assertConsistent(new Graph(2, true), scc);
+    }
+}
@@ -0,0 +1,29 @@
+package org.harryfloppa.graph.scc;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Order-independent view of SCC results, for comparing them in tests.
+ */
+public final class SCCPartitions {
+
+    private SCCPartitions() {
+    }
+
+    /**
+     * Components as vertex sets, ignoring component and member order.
+     */
+    public static Set<Set<Integer>> partition(List<List<Integer>> sccs) {
+        Set<Set<Integer>> sets = new HashSet<>();
+        for (List<Integer> scc : sccs) {
+            sets.add(new HashSet<>(scc));
+        }
+        return sets;
+    }
+
+    public static Set<Set<Integer>> partition(TarjanSCC.SCCResult result) {
+        return partition(result.getSCCs());
+    }
+}
@@ -131,4 +131,37 @@ class TarjanSCCTest {
         // Vertices 2 and 3 should be in different SCCs
         assertNotEquals(map[2], map[3]);
     }
+
+    @Test
+    void testComponentCosts() {
+        // {0, 1, 2} cycle, 2 -> 3, {3} alone; self-loop 3 -> 3
+        Graph graph = new Graph(4, true);
+        graph.addEdge(0, 1, 2);
+        graph.addEdge(1, 2, 3);
+        graph.addEdge(2, 0, 4);
+        graph.addEdge(2, 3, 7);
+        graph.addEdge(3, 3, 5);
+
+        TarjanSCC.SCCResult result = new TarjanSCC(graph).findSCCs();
+        CondensationGraph condensation = new CondensationGraph(graph, result);
+        int cycle = result.getVertexToSCCMap()[0];
+        int single = result.getVertexToSCCMap()[3];
+        int[] durations = {4, 1, 6, 2};
+
+        int[] sum = condensation.getComponentCosts(durations, CondensationGraph.CostAggregation.SUM);
+        assertEquals(11, sum[cycle]);
+        assertEquals(2, sum[single]);
+        int[] max = condensation.getComponentCosts(durations, CondensationGraph.CostAggregation.MAX);
+        assertEquals(6, max[cycle]);
+
+        int[] internal = condensation.getInternalEdgeCosts(CondensationGraph.CostAggregation.SUM);
+        assertEquals(9, internal[cycle]);
+        assertEquals(5, internal[single]);
+        assertEquals(4, condensation.getInternalEdgeCosts(CondensationGraph.CostAggregation.MAX)[cycle]);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> condensation.getComponentCosts(new int[3], CondensationGraph.CostAggregation.SUM));
+        assertThrows(IllegalArgumentException.class, () -> condensation.getComponentCosts(
+                new int[] {Integer.MAX_VALUE, 1, 0, 0}, CondensationGraph.CostAggregation.SUM));
+    }
 }
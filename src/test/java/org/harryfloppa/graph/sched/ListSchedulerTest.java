@@ -0,0 +1,143 @@
+package org.harryfloppa.graph.sched;
+
+import org.harryfloppa.graph.Graph;
+import org.harryfloppa.graph.dagsp.DAGLongestPath;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the resource-constrained list scheduler.
+ */
+class ListSchedulerTest {
+
+    @Test
+    void testCriticalPathPriorityStartsLongChainFirst() {
+        // 0 -> 3, tasks 1 and 2 independent; durations 2, 2, 2, 4
+        Graph graph = new Graph(4, true);
+        graph.addEdge(0, 3, 0);
+        int[] durations = {2, 2, 2, 4};
+
+        ListScheduler.ScheduleResult result = new ListScheduler(graph, durations,
+                ListScheduler.Priority.CRITICAL_PATH).schedule(2);
+        assertEquals(0, result.getStart(0));
+        assertEquals(0, result.getStart(1));
+        assertEquals(2, result.getStart(3));
+        assertEquals(2, result.getStart(2));
+        assertEquals(6, result.getMakespan());
+        assertEquals(6, result.getLowerBound());
+        assertEquals(10.0 / 12, result.getUtilization(), 1e-9);
+        assertNotEquals(result.getWorker(3), result.getWorker(2));
+    }
+
+    @Test
+    void testLagsDelaySuccessors() {
+        // 0 -> 1 with a lag of 5; a worker stays idle while 1 waits
+        Graph graph = new Graph(2, true);
+        graph.addEdge(0, 1, 5);
+        ListScheduler.ScheduleResult result = new ListScheduler(graph, new int[] {1, 1},
+                ListScheduler.Priority.SLACK).schedule(1);
+        assertEquals(6, result.getStart(1));
+        assertEquals(7, result.getMakespan());
+    }
+
+    @Test
+    void testWorkerCountExtremes() {
+        Graph graph = randomDAG(300, new Random(4));
+        int[] durations = new int[300];
+        Random random = new Random(8);
+        long work = 0;
+        for (int v = 0; v < 300; v++) {
+            durations[v] = random.nextInt(10);
+            work += durations[v];
+        }
+
+        ListScheduler scheduler = new ListScheduler(graph, durations, ListScheduler.Priority.CRITICAL_PATH);
+        assertEquals(scheduler.getCriticalPathLength(), scheduler.schedule(1000).getMakespan());
+        assertTrue(scheduler.schedule(1).getMakespan() >= work);
+
+        // Zero durations leave only lags: the makespan is the edge-weighted critical path
+        ListScheduler lagsOnly = new ListScheduler(graph, new int[300], ListScheduler.Priority.SLACK);
+        assertEquals(new DAGLongestPath(graph).computeCriticalPath().getLength(), lagsOnly.schedule(3).getMakespan());
+    }
+
+    @Test
+    void testSchedulesRespectPrecedenceAndCapacity() {
+        Random random = new Random(21);
+        for (int round = 0; round < 10; round++) {
+            int n = 50 + random.nextInt(200);
+            Graph graph = randomDAG(n, random);
+            int[] durations = new int[n];
+            for (int v = 0; v < n; v++) {
+                durations[v] = 1 + random.nextInt(20);
+            }
+            for (ListScheduler.Priority priority : ListScheduler.Priority.values()) {
+                ListScheduler scheduler = new ListScheduler(graph, durations, priority);
+                for (int workers : new int[] {1, 2, 3, 8}) {
+                    assertValid(graph, scheduler.schedule(workers), workers, n);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testRejectsInvalidInput() {
+        Graph cyclic = new Graph(2, true);
+        cyclic.addEdge(0, 1, 1);
+        cyclic.addEdge(1, 0, 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> new ListScheduler(cyclic, new int[2], ListScheduler.Priority.SLACK));
+
+        Graph graph = new Graph(2, true);
+        graph.addEdge(0, 1, -1);
+        assertThrows(IllegalArgumentException.class,
+                () -> new ListScheduler(graph, new int[2], ListScheduler.Priority.SLACK));
+        Graph dag = new Graph(2, true);
+        assertThrows(IllegalArgumentException.class,
+                () -> new ListScheduler(dag, new int[] {1, -1}, ListScheduler.Priority.SLACK));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ListScheduler(dag, new int[3], ListScheduler.Priority.SLACK));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ListScheduler(dag, new int[2], ListScheduler.Priority.SLACK).schedule(0));
+    }
+
+    private static void assertValid(Graph graph, ListScheduler.ScheduleResult result, int workers, int n) {
+        long last = 0;
+        List<List<Integer>> byWorker = new ArrayList<>();
+        for (int w = 0; w < workers; w++) {
+            byWorker.add(new ArrayList<>());
+        }
+        for (int u = 0; u < n; u++) {
+            last = Math.max(last, result.getFinish(u));
+            byWorker.get(result.getWorker(u)).add(u);
+            for (Graph.Edge e : graph.getAdjacent(u)) {
+                assertTrue(result.getStart(e.to) >= result.getFinish(u) + e.weight);
+            }
+        }
+        assertEquals(last, result.getMakespan());
+        assertTrue(result.getMakespan() >= result.getLowerBound());
+        for (List<Integer> tasks : byWorker) {
+            tasks.sort((a, b) -> Long.compare(result.getStart(a), result.getStart(b)));
+            for (int i = 0; i + 1 < tasks.size(); i++) {
+                assertTrue(result.getFinish(tasks.get(i)) <= result.getStart(tasks.get(i + 1)));
+            }
+        }
+    }
+
+    private static Graph randomDAG(int n, Random random) {
+        Graph graph = new Graph(n, true);
+        for (int u = 0; u < n; u++) {
+            for (int j = 0; j < 2; j++) {
+                int v = u + 1 + random.nextInt(15);
+                if (v < n) {
+                    graph.addEdge(u, v, random.nextInt(4));
+                }
+            }
+        }
+        return graph;
+    }
+}
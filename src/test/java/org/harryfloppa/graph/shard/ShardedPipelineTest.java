@@ -0,0 +1,153 @@
+package org.harryfloppa.graph.shard;
+
+import org.harryfloppa.graph.Graph;
+import org.harryfloppa.graph.dagsp.DAGLongestPath;
+import org.harryfloppa.graph.dagsp.DAGShortestPath;
+import org.harryfloppa.graph.scc.CondensationGraph;
+import org.harryfloppa.graph.scc.TarjanSCC;
+import org.harryfloppa.util.BinaryEdgeWriter;
+import org.harryfloppa.util.GraphGenerator;
+import org.harryfloppa.util.GraphLoader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.harryfloppa.graph.scc.SCCPartitions.partition;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the sharded SCC and DAG path pipeline.
+ */
+class ShardedPipelineTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path writeRandom(long seed, int n, int m) throws IOException {
+        Path file = tempDir.resolve("random-" + seed + ".bin");
+        Random random = new Random(seed);
+        try (BinaryEdgeWriter out = new BinaryEdgeWriter(file.toString())) {
+            out.begin(n, true, random.nextInt(n));
+            for (int e = 0; e < m; e++) {
+                out.edge(random.nextInt(n), random.nextInt(n), random.nextInt(21) - 5);
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Checks components, condensation and both distance arrays against the in-memory algorithms.
+     */
+    private static void assertMatchesInMemory(Path file, ShardedPipeline.ShardedResult actual) throws IOException {
+        GraphLoader.GraphData data = GraphLoader.loadFromBinary(file.toString());
+        Graph graph = data.getGraph();
+        TarjanSCC.SCCResult expected = new TarjanSCC(graph).findSCCs();
+
+        assertEquals(expected.getComponentCount(), actual.getComponentCount());
+        assertEquals(partition(expected.getSCCs()), partition(actual.getSCCResult().getSCCs()));
+
+        CondensationGraph condensation = new CondensationGraph(graph, actual.getSCCResult());
+        assertEquals(condensation.getCondensation().toString(), actual.getCondensation().toString());
+
+        int sourceComp = actual.getVertexToComponentMap()[data.getSource()];
+        DAGShortestPath.ShortestPathResult sp = new DAGShortestPath(condensation.getCondensation())
+                .computeShortestPaths(sourceComp);
+        DAGLongestPath.LongestPathResult lp = new DAGLongestPath(condensation.getCondensation())
+                .computeLongestPaths(sourceComp);
+        for (int c = 0; c < actual.getComponentCount(); c++) {
+            assertEquals(sp.getDistance(c), actual.getShortestPaths().getDistance(c), "shortest " + c);
+            assertEquals(lp.getDistance(c), actual.getLongestPaths().getDistance(c), "longest " + c);
+        }
+    }
+
+    @Test
+    void testCycleAcrossShards() throws IOException {
+        // 0 -> 1 -> 2 -> 3 -> 0 spans all shards; 4 and 5 hang off it.
+        // Vertex 1's edge to 4 comes first in vertex order, so it is the condensation edge
+        Path file = tempDir.resolve("ring.bin");
+        try (BinaryEdgeWriter out = new BinaryEdgeWriter(file.toString())) {
+            out.begin(6, true, 0);
+            out.edge(0, 1, 1);
+            out.edge(1, 2, 1);
+            out.edge(2, 3, 1);
+            out.edge(3, 0, 1);
+            out.edge(3, 4, 7);
+            out.edge(1, 4, 2);
+            out.edge(4, 5, 3);
+        }
+        ShardedPipeline.ShardedResult result = new ShardedPipeline(3, ShardedPipeline.Launch.THREAD).run(file);
+        assertEquals(3, result.getComponentCount());
+        int[] comp = result.getVertexToComponentMap();
+        assertEquals(comp[0], comp[3]);
+        assertEquals(1, comp[4]);
+        assertEquals(2, result.getShortestPaths().getDistance(comp[4]));
+        assertEquals(2, result.getLongestPaths().getDistance(comp[4]));
+        assertEquals(5, result.getLongestPaths().getDistance(comp[5]));
+        assertEquals(3, result.getMetrics().getCounter("shards"));
+        assertMatchesInMemory(file, result);
+    }
+
+    @Test
+    void testSumsSaturateAcrossShards() throws IOException {
+        // Two chains from 0 whose sums leave the int range in both directions
+        Path file = tempDir.resolve("overflow.bin");
+        try (BinaryEdgeWriter out = new BinaryEdgeWriter(file.toString())) {
+            out.begin(9, true, 0);
+            for (int i = 0; i < 4; i++) {
+                out.edge(i == 0 ? 0 : i, i + 1, 1_000_000_000);
+                out.edge(i == 0 ? 0 : i + 4, i + 5, -1_000_000_000);
+            }
+        }
+        ShardedPipeline.ShardedResult result = new ShardedPipeline(3, ShardedPipeline.Launch.THREAD).run(file);
+        int[] comp = result.getVertexToComponentMap();
+        assertEquals(Integer.MAX_VALUE - 1, result.getLongestPaths().getDistance(comp[4]));
+        assertEquals(Integer.MIN_VALUE + 1, result.getShortestPaths().getDistance(comp[8]));
+        assertMatchesInMemory(file, result);
+    }
+
+    @Test
+    void testRandomGraphsMatchInMemory() throws IOException {
+        for (long seed = 1; seed <= 8; seed++) {
+            Path file = writeRandom(seed, 200, 260);
+            for (int shards : new int[]{1, 4}) {
+                assertMatchesInMemory(file, new ShardedPipeline(shards, ShardedPipeline.Launch.THREAD).run(file));
+            }
+        }
+    }
+
+    @Test
+    void testPlantedComponentsInWorkerProcesses() throws IOException {
+        Path file = tempDir.resolve("planted.bin");
+        new GraphGenerator(5).scrambleIds(true).weights(1, 9)
+                .plantedSCCs(3000, GraphGenerator.SizeDistribution.UNIFORM, 1, 20, 2.0, 3.0, 0.5,
+                        new BinaryEdgeWriter(file.toString()));
+        ShardedPipeline.ShardedResult result = new ShardedPipeline(3, ShardedPipeline.Launch.PROCESS).run(file);
+        assertMatchesInMemory(file, result);
+        assertTrue(result.getMetrics().getCounter("frontier_rounds") > 1);
+    }
+
+    @Test
+    void testMoreShardsThanVertices() throws IOException {
+        Path file = writeRandom(42, 3, 6);
+        ShardedPipeline.ShardedResult result = new ShardedPipeline(8, ShardedPipeline.Launch.THREAD).run(file);
+        assertEquals(3, result.getMetrics().getCounter("shards"));
+        assertMatchesInMemory(file, result);
+    }
+
+    @Test
+    void testRejectsInvalidInput() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> new ShardedPipeline(0, ShardedPipeline.Launch.THREAD));
+
+        Path file = tempDir.resolve("bad.bin");
+        try (BinaryEdgeWriter out = new BinaryEdgeWriter(file.toString())) {
+            out.begin(2, true, 0);
+            out.edge(0, 5, 1);
+        }
+        IOException e = assertThrows(IOException.class,
+                () -> new ShardedPipeline(2, ShardedPipeline.Launch.THREAD).run(file));
+        assertTrue(e.getMessage().startsWith("Shard 0 failed"));
+    }
+}
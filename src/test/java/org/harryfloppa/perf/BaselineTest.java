@@ -0,0 +1,80 @@
+package org.harryfloppa.perf;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for baseline storage and regression detection.
+ */
+class BaselineTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testStoreAndLoad() throws IOException {
+        Baseline baseline = new Baseline();
+        baseline.put("dag.scc.time_ms", 12.5);
+        baseline.put("dag.scc.counter.dfs_visits", 5000);
+
+        String file = tempDir.resolve("baseline.properties").toString();
+        baseline.store(file, "test");
+        Baseline loaded = Baseline.load(file);
+
+        assertEquals(Baseline.FORMAT_VERSION, loaded.getVersion());
+        assertEquals(baseline.getValues(), loaded.getValues());
+    }
+
+    @Test
+    void testRoundTripUnderCommaDecimalLocale() throws IOException {
+        Baseline baseline = new Baseline();
+        baseline.put("dag.scc.time_ms", 12.345);
+        baseline.put("dag.scc.counter.dfs_visits", 5000);
+
+        String file = tempDir.resolve("baseline-de.properties").toString();
+        Locale saved = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.GERMANY);
+            baseline.store(file, "test");
+            assertEquals(baseline.getValues(), Baseline.load(file).getValues());
+        } finally {
+            Locale.setDefault(saved);
+        }
+    }
+
+    @Test
+    void testDetectsRegressionBeyondThreshold() {
+        Baseline baseline = new Baseline();
+        baseline.put("dag.topo.time_ms", 10.0);
+        baseline.put("dag.topo.counter.queue_pops", 100);
+
+        Baseline current = new Baseline();
+        current.put("dag.topo.time_ms", 11.0);
+        current.put("dag.topo.counter.queue_pops", 150);
+
+        List<String> regressions = baseline.findRegressions(current, 0.20, 0.5);
+        assertEquals(1, regressions.size());
+        assertTrue(regressions.get(0).contains("queue_pops"));
+    }
+
+    @Test
+    void testIgnoresTimeNoiseAndReportsMissing() {
+        Baseline baseline = new Baseline();
+        baseline.put("dag.load.time_ms", 0.1);
+        baseline.put("dag.scc.time_ms", 1.0);
+
+        Baseline current = new Baseline();
+        current.put("dag.load.time_ms", 0.5);
+
+        List<String> regressions = baseline.findRegressions(current, 0.20, 1.0);
+        assertEquals(1, regressions.size());
+        assertTrue(regressions.get(0).contains("dag.scc.time_ms"));
+    }
+}
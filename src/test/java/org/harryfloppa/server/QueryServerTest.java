@@ -0,0 +1,162 @@
+package org.harryfloppa.server;
+
+import org.harryfloppa.graph.Graph;
+import org.harryfloppa.util.GraphLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the query server and request coalescing.
+ */
+class QueryServerTest {
+    private QueryServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // dag: 0 -> 1 -> 3 and 0 -> 2 -> 3; cyclic: 0 -> 1 -> 3 -> 4 <-> 5
+        Graph dag = new Graph(4, true);
+        dag.addEdge(0, 1, 1);
+        dag.addEdge(0, 2, 5);
+        dag.addEdge(1, 3, 1);
+        dag.addEdge(2, 3, 1);
+        Graph cyclic = new Graph(6, true);
+        cyclic.addEdge(0, 1, 1);
+        cyclic.addEdge(1, 3, 1);
+        cyclic.addEdge(3, 4, 2);
+        cyclic.addEdge(4, 5, 1);
+        cyclic.addEdge(5, 4, 1);
+
+        server = new QueryServer(0, 2);
+        server.register(PreparedGraph.of("dag", new GraphLoader.GraphData(dag, 0, "edge")));
+        server.register(PreparedGraph.of("cyclic", new GraphLoader.GraphData(cyclic, 0, "edge")));
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void testPathQueries() throws Exception {
+        assertEquals("{\"type\": \"shortest\", \"graph\": \"dag\", \"condensed\": false, \"source\": 0, "
+                + "\"target\": 3, \"reachable\": true, \"distance\": 2, \"path\": [0, 1, 3]}",
+                get("/shortest?graph=dag&source=0&target=3", 200));
+        assertEquals("{\"type\": \"longest\", \"graph\": \"dag\", \"condensed\": false, \"source\": 0, "
+                + "\"target\": 3, \"reachable\": true, \"distance\": 6, \"path\": [0, 2, 3]}",
+                get("/longest?graph=dag&target=3&source=0", 200));
+        assertTrue(get("/shortest?graph=dag&source=3&target=0", 200).endsWith("\"reachable\": false}"));
+        assertTrue(get("/critical?graph=dag", 200)
+                .startsWith("{\"type\": \"critical_path\", \"length\": 6, \"vertices\": 3, \"path\": [0, 2, 3]"));
+    }
+
+    @Test
+    void testCyclicGraphAnswersOnCondensation() throws Exception {
+        String scc = get("/scc?graph=cyclic&vertex=5", 200);
+        assertTrue(scc.contains("\"size\": 2"), scc);
+        assertTrue(get("/scc?graph=cyclic&vertex=0", 200).contains("\"size\": 1"));
+
+        String longest = get("/longest?graph=cyclic&source=0&target=5", 200);
+        assertTrue(longest.contains("\"condensed\": true"), longest);
+        assertTrue(longest.contains("\"distance\": 4"), longest);
+    }
+
+    @Test
+    void testErrors() throws Exception {
+        assertTrue(get("/shortest?graph=missing&source=0&target=1", 404).contains("Unknown graph"));
+        assertTrue(get("/shortest?graph=dag&source=0", 400).contains("Missing parameter: target"));
+        assertTrue(get("/scc?graph=dag&vertex=x", 400).contains("error"));
+        assertTrue(get("/scc?graph=dag&vertex=9", 400).contains("Vertex out of bounds"));
+    }
+
+    @Test
+    void testGraphsAndStats() throws Exception {
+        String graphs = get("/graphs", 200);
+        assertTrue(graphs.indexOf("\"cyclic\"") < graphs.indexOf("\"dag\""), graphs);
+        assertTrue(graphs.contains("\"acyclic\": false"));
+
+        get("/scc?graph=dag&vertex=1", 200);
+        get("/scc?graph=dag&vertex=2", 200);
+        String stats = get("/stats", 200);
+        assertTrue(stats.contains("\"scc\": {\"count\": 2,"), stats);
+        assertTrue(stats.contains("\"graphs\": {\"count\": 1,"), stats);
+        assertTrue(stats.contains("\"p99_ms\""));
+    }
+
+    @Test
+    void testIdenticalConcurrentRequestsComputeOnce() throws Exception {
+        RequestCoalescer<String, Integer> coalescer = new RequestCoalescer<>();
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<Integer> first = pool.submit(() -> coalescer.execute("k", () -> {
+                computations.incrementAndGet();
+                started.countDown();
+                release.await();
+                return 42;
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            List<Future<Integer>> waiters = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                waiters.add(pool.submit(() -> coalescer.execute("k", () -> {
+                    computations.incrementAndGet();
+                    return -1;
+                })));
+            }
+            // A different key is not held up
+            assertEquals(7, coalescer.execute("other", () -> 7));
+            while (coalescer.getCoalesced() < 3) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            assertEquals(42, first.get());
+            for (Future<Integer> waiter : waiters) {
+                assertEquals(42, waiter.get());
+            }
+            assertEquals(1, computations.get());
+
+            // Finished keys are computed again
+            assertEquals(5, coalescer.execute("k", () -> 5));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFailureIsNotKept() throws Exception {
+        RequestCoalescer<String, Integer> coalescer = new RequestCoalescer<>();
+        assertThrows(IllegalArgumentException.class, () -> coalescer.execute("k", () -> {
+            throw new IllegalArgumentException("bad");
+        }));
+        assertEquals(1, coalescer.execute("k", () -> 1));
+    }
+
+    private String get(String path, int expectedStatus) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + path)).build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(expectedStatus, response.statusCode(), response.body());
+        return response.body().trim();
+    }
+}
@@ -0,0 +1,134 @@
+package org.harryfloppa.util;
+
+import org.harryfloppa.graph.Graph;
+import org.harryfloppa.graph.scc.TarjanSCC;
+import org.harryfloppa.graph.topo.KahnTopologicalSort;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the synthetic graph generator and its writers.
+ */
+class GraphGeneratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSameSeedSameGraph() throws IOException {
+        GraphBuilderSink first = new GraphBuilderSink();
+        GraphBuilderSink second = new GraphBuilderSink();
+        new GraphGenerator(7).rmat(8, 4, 0.57, 0.19, 0.19, false, first);
+        new GraphGenerator(7).rmat(8, 4, 0.57, 0.19, 0.19, false, second);
+
+        assertEquals(first.getGraph().toString(), second.getGraph().toString());
+    }
+
+    @Test
+    void testLayeredDagIsAcyclic() throws IOException {
+        GraphBuilderSink sink = new GraphBuilderSink();
+        long edges = new GraphGenerator(1).scrambleIds(true).layeredDag(20, 10, 3, 2, sink);
+
+        Graph graph = sink.getGraph();
+        assertEquals(200, graph.getVertexCount());
+        assertEquals(edges, graph.getEdgeCount());
+        assertTrue(new KahnTopologicalSort(graph).sort().isValid());
+    }
+
+    @Test
+    void testPlantedSCCsAreRecovered() throws IOException {
+        GraphBuilderSink sink = new GraphBuilderSink();
+        long planted = new GraphGenerator(3).scrambleIds(true).plantedSCCs(
+                500, GraphGenerator.SizeDistribution.POWER_LAW, 1, 40, 2.0, 3, 0.3, sink);
+
+        TarjanSCC.SCCResult result = new TarjanSCC(sink.getGraph()).findSCCs();
+        assertEquals(planted, result.getComponentCount());
+    }
+
+    @Test
+    void testJsonRoundTrip() throws IOException {
+        File file = tempDir.resolve("chain.json").toFile();
+        long edges = new GraphGenerator(5).chain(50, 1, new JsonEdgeWriter(file.getPath()));
+
+        GraphLoader.GraphData data = GraphLoader.loadFromJSON(file.getPath());
+        assertEquals(50, data.getGraph().getVertexCount());
+        assertEquals(edges, data.getGraph().getEdgeCount());
+        assertEquals("edge", data.getWeightModel());
+    }
+
+    @Test
+    void testNegativeWeightsRoundTrip() throws IOException {
+        File file = tempDir.resolve("negative.json").toFile();
+        GraphGenerator generator = new GraphGenerator(6).weights(-20, -1);
+        generator.chain(40, 1, new JsonEdgeWriter(file.getPath()));
+        GraphBuilderSink expected = new GraphBuilderSink();
+        generator.chain(40, 1, expected);
+
+        assertEquals(expected.getGraph().toString(), GraphLoader.loadFromJSON(file.getPath()).getGraph().toString());
+    }
+
+    @Test
+    void testFullWeightRange() throws IOException {
+        GraphBuilderSink full = new GraphBuilderSink();
+        new GraphGenerator(4).weights(Integer.MIN_VALUE, Integer.MAX_VALUE).chain(100, 0, full);
+        assertEquals(99, full.getGraph().getEdgeCount());
+
+        GraphBuilderSink constant = new GraphBuilderSink();
+        new GraphGenerator(4).weights(Integer.MAX_VALUE, Integer.MAX_VALUE).chain(3, 0, constant);
+        assertTrue(constant.getGraph().toString().contains(Integer.toString(Integer.MAX_VALUE)));
+    }
+
+    @Test
+    void testSinkClosedOnFailure() {
+        boolean[] closed = new boolean[1];
+        EdgeSink sink = new EdgeSink() {
+            @Override
+            public void begin(int n, boolean directed, int source) {
+            }
+
+            @Override
+            public void edge(int u, int v, int w) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        assertThrows(IOException.class, () -> new GraphGenerator(1).chain(10, 0, sink));
+        assertTrue(closed[0]);
+
+        closed[0] = false;
+        assertThrows(IllegalArgumentException.class, () -> new GraphGenerator(1).layeredDag(4, 4, 2, 0, sink));
+        assertTrue(closed[0]);
+    }
+
+    @Test
+    void testRejectsEmptyOrNegativeVertexCount() {
+        GraphBuilderSink sink = new GraphBuilderSink();
+        assertThrows(IllegalArgumentException.class, () -> new GraphGenerator(1).chain(0, 0, sink));
+        assertThrows(IllegalArgumentException.class, () -> new GraphGenerator(1).chain(-5, 0, sink));
+        assertThrows(IllegalArgumentException.class, () -> new GraphGenerator(1).plantedSCCs(0,
+                GraphGenerator.SizeDistribution.UNIFORM, 1, 4, 2.0, 2.0, 0.5, sink));
+        assertNull(sink.getGraph(), "nothing may reach the sink before validation");
+    }
+
+    @Test
+    void testBinaryMatchesJson() throws IOException {
+        File json = tempDir.resolve("g.json").toFile();
+        File bin = tempDir.resolve("g.bin").toFile();
+        new GraphGenerator(9).layeredDag(10, 10, 2.5, 3, new JsonEdgeWriter(json.getPath()));
+        new GraphGenerator(9).layeredDag(10, 10, 2.5, 3, new BinaryEdgeWriter(bin.getPath()));
+
+        Graph fromJson = GraphLoader.loadFromJSON(json.getPath()).getGraph();
+        Graph fromBinary = GraphLoader.loadFromBinary(bin.getPath()).getGraph();
+        assertEquals(fromJson.toString(), fromBinary.toString());
+    }
+}
@@ -0,0 +1,36 @@
+package org.harryfloppa.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for loading graphs from JSON files.
+ */
+class GraphLoaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testNodeWeightModel() throws IOException {
+        File file = tempDir.resolve("node.json").toFile();
+        Files.writeString(file.toPath(), "{\"directed\": true, \"n\": 3, \"edges\": ["
+                + "{\"u\": 0, \"v\": 1, \"w\": 0}, {\"u\": 1, \"v\": 2, \"w\": 0}],"
+                + " \"source\": 0, \"weight_model\": \"node\", \"node_weights\": [4, 2, 7]}");
+
+        GraphLoader.GraphData data = GraphLoader.loadFromJSON(file.getPath());
+        assertEquals("node", data.getWeightModel());
+        assertArrayEquals(new int[] {4, 2, 7}, data.getNodeWeights());
+
+        Files.writeString(file.toPath(), "{\"directed\": true, \"n\": 3, \"edges\": [],"
+                + " \"weight_model\": \"node\", \"node_weights\": [4, 2]}");
+        assertThrows(IOException.class, () -> GraphLoader.loadFromJSON(file.getPath()));
+    }
+}
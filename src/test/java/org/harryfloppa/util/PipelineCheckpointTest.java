@@ -0,0 +1,114 @@
+package org.harryfloppa.util;
+
+import org.harryfloppa.Main;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for saving and resuming pipeline stages.
+ */
+class PipelineCheckpointTest {
+
+    private static final Pattern TIMING = Pattern.compile("Execution Time: [0-9.]+ ms");
+
+    @TempDir
+    Path tempDir;
+
+    private static String run(Path file, PipelineCheckpoint checkpoint) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(buffer, true, StandardCharsets.UTF_8)) {
+            Main.processFile(file.toString(), out, out, checkpoint);
+        }
+        return TIMING.matcher(buffer.toString(StandardCharsets.UTF_8)).replaceAll("Execution Time: X ms");
+    }
+
+    private Path writeCyclic() throws IOException {
+        Path file = tempDir.resolve("cyclic.json");
+        new GraphGenerator(3).plantedSCCs(300, GraphGenerator.SizeDistribution.UNIFORM, 1, 6, 0, 2, 0.3,
+                new JsonEdgeWriter(file.toString()));
+        return file;
+    }
+
+    @Test
+    void testResumedReportMatchesFullRun() throws IOException {
+        Path file = writeCyclic();
+        Path dir = tempDir.resolve("ckpt");
+        String expected = run(file, PipelineCheckpoint.disabled());
+
+        PipelineCheckpoint first = PipelineCheckpoint.open(dir, file, false);
+        assertEquals(expected, run(file, first));
+        assertEquals(6, first.getMetrics().getCounter("stages_saved"));
+        assertEquals(0, first.getMetrics().getCounter("stages_restored"));
+
+        PipelineCheckpoint resumed = PipelineCheckpoint.open(dir, file, true);
+        assertEquals(expected, run(file, resumed));
+        assertEquals(6, resumed.getMetrics().getCounter("stages_restored"));
+        assertEquals(0, resumed.getMetrics().getCounter("stages_saved"));
+    }
+
+    @Test
+    void testResumeAfterInterruptedStage() throws IOException {
+        Path file = writeCyclic();
+        Path dir = tempDir.resolve("ckpt");
+        String expected = run(file, PipelineCheckpoint.open(dir, file, false));
+
+        // As if killed while writing the topological order: later stages never started
+        Files.delete(dir.resolve(PipelineCheckpoint.TOPOLOGICAL_ORDER + ".ckpt"));
+        Files.delete(dir.resolve(PipelineCheckpoint.SHORTEST_PATHS + ".ckpt"));
+        Files.delete(dir.resolve(PipelineCheckpoint.CRITICAL_PATH + ".ckpt"));
+        Files.delete(dir.resolve(PipelineCheckpoint.LONGEST_PATHS + ".ckpt"));
+        Files.write(dir.resolve(PipelineCheckpoint.TOPOLOGICAL_ORDER + ".tmp"), new byte[] {1, 2, 3});
+
+        PipelineCheckpoint resumed = PipelineCheckpoint.open(dir, file, true);
+        assertTrue(resumed.has(PipelineCheckpoint.SCC));
+        assertFalse(resumed.has(PipelineCheckpoint.TOPOLOGICAL_ORDER));
+        assertEquals(expected, run(file, resumed));
+        assertEquals(2, resumed.getMetrics().getCounter("stages_restored"));
+        assertEquals(4, resumed.getMetrics().getCounter("stages_saved"));
+    }
+
+    @Test
+    void testNodeWeightsSurviveResume() throws IOException {
+        Path file = tempDir.resolve("node.json");
+        Files.writeString(file, "{\"directed\": true, \"n\": 4, \"edges\": ["
+                + "{\"u\": 0, \"v\": 1, \"w\": 0}, {\"u\": 1, \"v\": 0, \"w\": 0}, {\"u\": 1, \"v\": 2, \"w\": 0},"
+                + " {\"u\": 0, \"v\": 3, \"w\": 0}], \"source\": 0, \"weight_model\": \"node\","
+                + " \"node_weights\": [4, 2, 7, 1]}");
+        Path dir = tempDir.resolve("ckpt");
+        String expected = run(file, PipelineCheckpoint.open(dir, file, false));
+
+        PipelineCheckpoint resumed = PipelineCheckpoint.open(dir, file, true);
+        GraphLoader.GraphData data = resumed.loadGraph();
+        assertEquals("node", data.getWeightModel());
+        assertArrayEquals(new int[] {4, 2, 7, 1}, data.getNodeWeights());
+        assertEquals(GraphLoader.loadFromJSON(file.toString()).getGraph().toString(), data.getGraph().toString());
+        assertEquals(expected, run(file, resumed));
+    }
+
+    @Test
+    void testChangedInputDiscardsCheckpoint() throws IOException {
+        Path file = writeCyclic();
+        Path dir = tempDir.resolve("ckpt");
+        run(file, PipelineCheckpoint.open(dir, file, false));
+
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 60_000));
+        PipelineCheckpoint resumed = PipelineCheckpoint.open(dir, file, true);
+        assertFalse(resumed.has(PipelineCheckpoint.GRAPH));
+        run(file, resumed);
+        assertEquals(0, resumed.getMetrics().getCounter("stages_restored"));
+
+        // Without --resume, existing stages are always discarded
+        assertFalse(PipelineCheckpoint.open(dir, file, false).has(PipelineCheckpoint.SCC));
+    }
+}
@@ -0,0 +1,138 @@
+package org.harryfloppa.util;
+
+import org.harryfloppa.graph.Graph;
+import org.harryfloppa.graph.dagsp.DAGLongestPath;
+import org.harryfloppa.graph.dagsp.DAGShortestPath;
+import org.harryfloppa.graph.scc.CondensationGraph;
+import org.harryfloppa.graph.scc.TarjanSCC;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for streaming result output.
+ */
+class ResultWriterTest {
+
+    private static Graph diamond() {
+        Graph graph = new Graph(5, true);
+        graph.addEdge(0, 1, 5);
+        graph.addEdge(0, 2, 3);
+        graph.addEdge(1, 3, 2);
+        graph.addEdge(2, 3, 6);
+        return graph;
+    }
+
+    @Test
+    void testFullTextMatchesToString() throws IOException {
+        Graph graph = diamond();
+        DAGShortestPath.ShortestPathResult sp = new DAGShortestPath(graph).computeShortestPaths(0);
+        DAGLongestPath.LongestPathResult lp = new DAGLongestPath(graph).computeLongestPaths(0);
+        TarjanSCC.SCCResult scc = new TarjanSCC(graph).findSCCs();
+        CondensationGraph condensation = new CondensationGraph(graph, scc);
+
+        StringWriter out = new StringWriter();
+        try (ResultWriter writer = ResultWriter.text(out, ResultWriter.Detail.FULL)) {
+            writer.writeShortestPaths(sp);
+            writer.writeLongestPaths(lp);
+            writer.writeSCCs(scc);
+            writer.writeCondensation(condensation);
+        }
+
+        assertEquals(sp.toString() + lp + scc + condensation, out.toString());
+    }
+
+    @Test
+    void testSummaryDoesNotGrowWithGraph() throws IOException {
+        GraphBuilderSink sink = new GraphBuilderSink();
+        new GraphGenerator(11).chain(5_000, 1, sink);
+        DAGShortestPath.ShortestPathResult result = new DAGShortestPath(sink.getGraph()).computeShortestPaths(0);
+
+        StringWriter out = new StringWriter();
+        try (ResultWriter writer = ResultWriter.text(out, ResultWriter.Detail.SUMMARY)) {
+            writer.writeShortestPaths(result);
+        }
+
+        String text = out.toString();
+        assertTrue(text.contains("reachable: 5000 / 5000"));
+        assertTrue(text.length() < 1_000);
+    }
+
+    @Test
+    void testJsonContainsLazilyBuiltPath() throws IOException {
+        DAGShortestPath.ShortestPathResult result = new DAGShortestPath(diamond()).computeShortestPaths(0);
+
+        StringWriter out = new StringWriter();
+        try (ResultWriter writer = ResultWriter.json(out, ResultWriter.Detail.FULL)) {
+            writer.writeShortestPaths(result);
+        }
+
+        String json = out.toString();
+        assertTrue(json.startsWith("{\"type\": \"shortest_paths\""));
+        assertTrue(json.contains("{\"v\": 3, \"distance\": 7, \"path\": [0, 1, 3]}"));
+        assertFalse(json.contains("\"v\": 4"));
+    }
+
+    @Test
+    void testNumbersIgnoreDefaultLocale() throws IOException {
+        DAGShortestPath.ShortestPathResult result = new DAGShortestPath(diamond()).computeShortestPaths(0);
+        Locale saved = Locale.getDefault();
+        StringWriter json = new StringWriter();
+        StringWriter text = new StringWriter();
+        try {
+            Locale.setDefault(Locale.GERMANY);
+            try (ResultWriter writer = ResultWriter.json(json, ResultWriter.Detail.SUMMARY)) {
+                writer.writeShortestPaths(result);
+            }
+            try (ResultWriter writer = ResultWriter.text(text, ResultWriter.Detail.SUMMARY)) {
+                writer.writeShortestPaths(result);
+            }
+        } finally {
+            Locale.setDefault(saved);
+        }
+
+        Matcher time = Pattern.compile("\"time_ms\": ([^,]*), \"counters\"").matcher(json.toString());
+        assertTrue(time.find(), json.toString());
+        assertTrue(Double.parseDouble(time.group(1)) >= 0);
+        assertTrue(text.toString().contains("mean distance: 3.750\n"), text.toString());
+    }
+
+    @Test
+    void testBinaryRecordSize() throws IOException {
+        DAGShortestPath.ShortestPathResult result = new DAGShortestPath(diamond()).computeShortestPaths(0);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ResultWriter writer = ResultWriter.binary(out, ResultWriter.Detail.DISTANCES)) {
+            writer.writeShortestPaths(result);
+        }
+
+        // tag + source + n + 3 longs + flag + n * (distance, parent)
+        assertEquals(1 + 4 + 4 + 24 + 1 + 5 * 8, out.size());
+    }
+
+    @Test
+    void testBinaryCriticalPathSummary() throws IOException {
+        DAGLongestPath.CriticalPathResult result = new DAGLongestPath(diamond()).computeCriticalPath();
+        int vertices = result.getPath().size();
+
+        ByteArrayOutputStream summary = new ByteArrayOutputStream();
+        try (ResultWriter writer = ResultWriter.binary(summary, ResultWriter.Detail.SUMMARY)) {
+            writer.writeCriticalPath(result);
+        }
+        ByteArrayOutputStream full = new ByteArrayOutputStream();
+        try (ResultWriter writer = ResultWriter.binary(full, ResultWriter.Detail.FULL)) {
+            writer.writeCriticalPath(result);
+        }
+
+        // tag + length + flag + vertex count, then the path vertices in full detail
+        assertEquals(1 + 4 + 1 + 4, summary.size());
+        assertEquals(1 + 4 + 1 + 4 + 4 * vertices, full.size());
+    }
+}